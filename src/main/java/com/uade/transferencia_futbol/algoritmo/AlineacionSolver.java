@@ -0,0 +1,208 @@
+package com.uade.transferencia_futbol.algoritmo;
+
+import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Solver exacto de alineaciones por categoría, elegido según la forma del problema.
+ *
+ * Sin presupuesto las categorías son independientes: alcanza con los k mejores
+ * de cada una, que se obtienen con una selección parcial (heap de tamaño k,
+ * ver {@link RankingJugadores}).
+ *
+ * Con presupuesto es una mochila de elección múltiple: cada categoría aporta
+ * exactamente k jugadores y todas comparten el presupuesto. Se resuelve con
+ * programación dinámica sobre el costo en unidades enteras, con una capa por
+ * cantidad de jugadores tomados dentro de la categoría. La unidad se elige
+ * como la más grande que divide todos los costos, y en ese caso la solución es
+ * exacta; si la tabla no entra en el límite de memoria se redondean los costos
+ * hacia arriba (la solución sigue siendo factible) y se informa como no exacta.
+ *
+ * La programación dinámica revisa el plazo y la interrupción del hilo antes de
+ * cada jugador, así una evaluación vencida o cancelada deja de ocupar CPU.
+ *
+ * {@link EscuadraSolver} queda como búsqueda exhaustiva para verificar resultados.
+ */
+public final class AlineacionSolver {
+
+    /** Plazo que nunca vence. */
+    public static final long SIN_PLAZO = Long.MAX_VALUE;
+
+    private static final double[] UNIDADES = {1e6, 5e5, 1e5, 5e4, 1e4, 1e3, 100, 10, 1, 0.1, 0.01};
+
+    private AlineacionSolver() {
+    }
+
+    /**
+     * Índices de los k mejores ratings, de mayor a menor; a igual rating primero
+     * el de menor índice (el mismo orden que un ordenamiento estable).
+     */
+    public static int[] mejoresK(double[] ratings, int k) {
+        return RankingJugadores.mejoresK(ratings, k);
+    }
+
+    /**
+     * Mejor alineación con exactamente requeridos[c] jugadores por categoría y
+     * costo total dentro del presupuesto.
+     */
+    public static Resultado conPresupuesto(double[][] ratings, double[][] costos, int[] requeridos,
+                                           double presupuesto, long memoriaMaximaBytes) {
+        return conPresupuesto(ratings, costos, requeridos, presupuesto, memoriaMaximaBytes, SIN_PLAZO);
+    }
+
+    /**
+     * Igual que {@link #conPresupuesto(double[][], double[][], int[], double, long)}, pero
+     * abandona con CancellationException si pasa plazoNanos (según System.nanoTime) o si
+     * interrumpen al hilo.
+     */
+    public static Resultado conPresupuesto(double[][] ratings, double[][] costos, int[] requeridos,
+                                           double presupuesto, long memoriaMaximaBytes, long plazoNanos) {
+        int categorias = ratings.length;
+        for (int c = 0; c < categorias; c++) {
+            if (ratings[c].length < requeridos[c]) {
+                return Resultado.vacio(categorias);
+            }
+        }
+
+        // Unidad más grande que divide todos los costos y entra en memoria
+        double unidad = -1;
+        boolean exacto = false;
+        for (double candidata : UNIDADES) {
+            if (!divideTodos(costos, candidata)) {
+                continue;
+            }
+            if (memoria(ratings, requeridos, pasos(presupuesto, candidata)) <= memoriaMaximaBytes) {
+                unidad = candidata;
+                exacto = true;
+            }
+            break;
+        }
+        if (unidad < 0) {
+            // Redondear hacia arriba con la unidad más fina que entre en memoria
+            unidad = UNIDADES[UNIDADES.length - 1];
+            while (memoria(ratings, requeridos, pasos(presupuesto, unidad)) > memoriaMaximaBytes) {
+                unidad *= 2;
+            }
+        }
+
+        int capacidad = pasos(presupuesto, unidad);
+        int[][] pesos = new int[categorias][];
+        for (int c = 0; c < categorias; c++) {
+            pesos[c] = new int[costos[c].length];
+            for (int i = 0; i < costos[c].length; i++) {
+                long peso = (long) Math.ceil(costos[c][i] / unidad - 1e-9);
+                pesos[c][i] = (int) Math.min(Math.max(peso, 0), capacidad + 1L);
+            }
+        }
+
+        // f[w] = mejor rating de las categorías ya procesadas con costo <= w
+        double[] f = new double[capacidad + 1];
+        int palabrasPorFila = (capacidad >>> 6) + 1;
+        long[][] decisiones = new long[categorias][];
+
+        for (int c = 0; c < categorias; c++) {
+            int k = requeridos[c];
+            int n = ratings[c].length;
+            double[][] capas = new double[k + 1][];
+            capas[0] = f;
+            for (int j = 1; j <= k; j++) {
+                capas[j] = new double[capacidad + 1];
+                Arrays.fill(capas[j], Double.NEGATIVE_INFINITY);
+            }
+            // Un bit por (jugador, cantidad tomada, costo)
+            long[] bits = new long[n * k * palabrasPorFila];
+
+            for (int i = 0; i < n; i++) {
+                verificarPlazo(plazoNanos);
+                int peso = pesos[c][i];
+                double rating = ratings[c][i];
+                for (int j = Math.min(k, i + 1); j >= 1; j--) {
+                    double[] anterior = capas[j - 1];
+                    double[] actual = capas[j];
+                    int base = (i * k + (j - 1)) * palabrasPorFila;
+                    for (int w = capacidad; w >= peso; w--) {
+                        double conJugador = anterior[w - peso] + rating;
+                        if (conJugador > actual[w]) {
+                            actual[w] = conJugador;
+                            bits[base + (w >>> 6)] |= 1L << (w & 63);
+                        }
+                    }
+                }
+            }
+            decisiones[c] = bits;
+            f = capas[k];
+        }
+
+        if (f[capacidad] == Double.NEGATIVE_INFINITY || f[capacidad] <= 0) {
+            return new Resultado(new int[categorias][0], 0.0, 0.0, unidad, exacto);
+        }
+
+        // Reconstruir de la última categoría a la primera
+        int[][] seleccion = new int[categorias][];
+        int w = capacidad;
+        double costoTotal = 0.0;
+        for (int c = categorias - 1; c >= 0; c--) {
+            int k = requeridos[c];
+            int[] elegidos = new int[k];
+            int j = k;
+            for (int i = ratings[c].length - 1; i >= 0 && j > 0; i--) {
+                int base = (i * k + (j - 1)) * palabrasPorFila;
+                if ((decisiones[c][base + (w >>> 6)] & (1L << (w & 63))) != 0) {
+                    elegidos[--j] = i;
+                    w -= pesos[c][i];
+                    costoTotal += costos[c][i];
+                }
+            }
+            seleccion[c] = elegidos;
+        }
+        return new Resultado(seleccion, f[capacidad], costoTotal, unidad, exacto);
+    }
+
+    private static void verificarPlazo(long plazoNanos) {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new CancellationException("Alineación interrumpida");
+        }
+        if (plazoNanos != SIN_PLAZO && System.nanoTime() - plazoNanos > 0) {
+            throw new CancellationException("Plazo vencido");
+        }
+    }
+
+    private static boolean divideTodos(double[][] costos, double unidad) {
+        for (double[] categoria : costos) {
+            for (double costo : categoria) {
+                double cociente = costo / unidad;
+                if (Math.abs(cociente - Math.rint(cociente)) > 1e-6) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private static int pasos(double presupuesto, double unidad) {
+        return (int) Math.min(Integer.MAX_VALUE - 1L, (long) Math.floor(presupuesto / unidad + 1e-9));
+    }
+
+    private static long memoria(double[][] ratings, int[] requeridos, int capacidad) {
+        long palabrasPorFila = (capacidad >>> 6) + 1L;
+        long bits = 0;
+        int maxCapas = 0;
+        for (int c = 0; c < ratings.length; c++) {
+            bits += (long) ratings[c].length * requeridos[c] * palabrasPorFila;
+            maxCapas = Math.max(maxCapas, requeridos[c]);
+        }
+        return bits * Long.BYTES + (maxCapas + 1L) * (capacidad + 1L) * Double.BYTES;
+    }
+
+    /**
+     * @param seleccion índices elegidos por categoría, en orden creciente
+     * @param unidad    unidad de costo de la tabla
+     * @param exacto    false si hubo que redondear costos para respetar el límite de memoria
+     */
+    public record Resultado(int[][] seleccion, double ratingTotal, double costoTotal, double unidad, boolean exacto) {
+
+        static Resultado vacio(int categorias) {
+            return new Resultado(new int[categorias][0], 0.0, 0.0, 0.0, true);
+        }
+    }
+}
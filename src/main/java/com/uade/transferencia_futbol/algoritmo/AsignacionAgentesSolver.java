@@ -0,0 +1,252 @@
+package com.uade.transferencia_futbol.algoritmo;
+
+import java.util.Arrays;
+
+/**
+ * Asignación de jugadores libres a agentes con flujo de costo mínimo sobre
+ * una red agregada.
+ *
+ * Con decenas de miles de jugadores y miles de agentes la red bipartita
+ * completa tendría cientos de millones de aristas. En su lugar los jugadores
+ * se agrupan en tramos de valor (cuantiles) y los agentes en clases de
+ * comisión, y el flujo decide cuántos jugadores de cada tramo van a cada
+ * clase:
+ *
+ *   fuente -> tramo b       capacidad: jugadores del tramo
+ *   tramo b -> clase c      costo: valor medio del tramo * comisión de la clase
+ *                           entre piso y cuota del tramo por agente de la clase
+ *   clase c -> sumidero     capacidad: lugares libres de los agentes de la clase
+ *
+ * Cada agente recibe de cada tramo entre su parte justa (jugadores del tramo
+ * / agentes) menos la holgura y su parte justa más la holgura, así que el
+ * valor representado queda balanceado aunque unos agentes cobren menos que
+ * otros. La holgura es la perilla entre balancear (0) y minimizar la
+ * comisión (1). Piso y cuota son cotas blandas: la parte de cada arista por
+ * encima del piso lleva una penalidad mayor que cualquier diferencia de
+ * comisión, y la parte por encima de la cuota una penalidad mayor todavía,
+ * así el flujo solo las usa si no hay otra forma de asignar a todos (por
+ * ejemplo, cuando un solo agente tiene lugares libres).
+ *
+ * Después cada tramo se reparte de mayor a menor valor con un heap de mínimos
+ * por valor representado (LPT), sin pasarse de lo que el flujo le dio a cada
+ * clase y respetando la capacidad y la cuota de cada agente; la cuota se
+ * relaja solo si hace falta para no dejar un jugador sin asignar.
+ */
+public final class AsignacionAgentesSolver {
+
+    public static final int MAXIMO_TRAMOS = 64;
+    public static final int MAXIMO_CLASES = 32;
+
+    // Jugadores por agente que se buscan en cada tramo, para que piso y cuota no se redondeen a 0 y 1
+    private static final int JUGADORES_POR_AGENTE_EN_TRAMO = 2;
+
+    private AsignacionAgentesSolver() {
+    }
+
+    /**
+     * @param valores       valor de mercado de cada jugador libre (no negativo)
+     * @param comisiones    comisión (porcentaje) de cada agente
+     * @param valorActual   valor que ya representa cada agente
+     * @param lugaresLibres cuántos jugadores más puede tomar cada agente
+     * @param holgura       desvío permitido sobre la parte justa de cada tramo, entre 0 y 1 (0.2 = 20 %)
+     */
+    public static Resultado resolver(double[] valores, double[] comisiones, double[] valorActual,
+                                     int[] lugaresLibres, double holgura) {
+        int n = valores.length;
+        int m = comisiones.length;
+        int[] agentePorJugador = new int[n];
+        Arrays.fill(agentePorJugador, -1);
+        double[] valorRepresentado = valorActual.clone();
+        if (n == 0 || m == 0) {
+            return new Resultado(agentePorJugador, 0, 0.0, valorRepresentado, 0, 0, 0);
+        }
+
+        // ==================== TRAMOS DE VALOR ====================
+
+        // Radix sort sobre la clave de 64 bits del double: sin límite de jugadores ni redondeo a euros
+        int[] orden = RankingJugadores.ordenDescendente(valores);
+        int tramos = (int) Math.max(1, Math.min(MAXIMO_TRAMOS, (long) n / ((long) m * JUGADORES_POR_AGENTE_EN_TRAMO)));
+        // El tramo b ocupa orden[inicioTramo[b] .. inicioTramo[b + 1]); el 0 es el más caro
+        int[] inicioTramo = new int[tramos + 1];
+        double[] valorMedio = new double[tramos];
+        for (int b = 0; b < tramos; b++) {
+            inicioTramo[b + 1] = (int) ((long) (b + 1) * n / tramos);
+            double suma = 0.0;
+            for (int k = inicioTramo[b]; k < inicioTramo[b + 1]; k++) {
+                suma += valores[orden[k]];
+            }
+            valorMedio[b] = suma / Math.max(1, inicioTramo[b + 1] - inicioTramo[b]);
+        }
+
+        // ==================== CLASES DE COMISIÓN ====================
+
+        double[] comisionesOrdenadas = comisiones.clone();
+        Arrays.sort(comisionesOrdenadas);
+        int clases = Math.min(MAXIMO_CLASES, m);
+        double[] techoClase = new double[clases];
+        for (int c = 0; c < clases; c++) {
+            techoClase[c] = comisionesOrdenadas[(int) ((long) (c + 1) * m / clases) - 1];
+        }
+        int[] claseDe = new int[m];
+        int[] agentesClase = new int[clases];
+        double[] sumaComisionClase = new double[clases];
+        long[] lugaresClase = new long[clases];
+        for (int a = 0; a < m; a++) {
+            int c = primeroMayorOIgual(techoClase, comisiones[a]);
+            claseDe[a] = c;
+            agentesClase[c]++;
+            sumaComisionClase[c] += comisiones[a];
+            lugaresClase[c] += Math.max(0, lugaresLibres[a]);
+        }
+
+        // ==================== RED AGREGADA ====================
+
+        double desvio = Math.max(0.0, Math.min(1.0, holgura));
+        int[] cuota = new int[tramos];
+        int[] piso = new int[tramos];
+        long[][] costo = new long[tramos][clases];
+        long costoMaximo = 0;
+        for (int b = 0; b < tramos; b++) {
+            double parteJusta = (double) (inicioTramo[b + 1] - inicioTramo[b]) / m;
+            cuota[b] = (int) Math.ceil(parteJusta * (1 + desvio));
+            piso[b] = (int) Math.floor(parteJusta * (1 - desvio));
+            for (int c = 0; c < clases; c++) {
+                double comisionMedia = agentesClase[c] > 0 ? sumaComisionClase[c] / agentesClase[c] : 0.0;
+                costo[b][c] = Math.round(valorMedio[b] * Math.max(0.0, comisionMedia) / 100.0);
+                costoMaximo = Math.max(costoMaximo, costo[b][c]);
+            }
+        }
+        long penalidad = costoMaximo + 1;
+        long penalidadCuota = 2 * penalidad;
+
+        int fuente = tramos + clases;
+        int sumidero = fuente + 1;
+        FlujoCostoMinimo red = new FlujoCostoMinimo(sumidero + 1, tramos + 3 * tramos * clases + clases);
+        for (int b = 0; b < tramos; b++) {
+            red.agregarArista(fuente, b, inicioTramo[b + 1] - inicioTramo[b], 0);
+        }
+        int[][] aristaPiso = new int[tramos][clases];
+        int[][] aristaExtra = new int[tramos][clases];
+        int[][] aristaSobreCuota = new int[tramos][clases];
+        for (int b = 0; b < tramos; b++) {
+            for (int c = 0; c < clases; c++) {
+                aristaPiso[b][c] = red.agregarArista(b, tramos + c, (long) piso[b] * agentesClase[c], costo[b][c]);
+                aristaExtra[b][c] = red.agregarArista(b, tramos + c,
+                    (long) (cuota[b] - piso[b]) * agentesClase[c], costo[b][c] + penalidad);
+                aristaSobreCuota[b][c] = red.agregarArista(b, tramos + c,
+                    lugaresClase[c], costo[b][c] + penalidadCuota);
+            }
+        }
+        for (int c = 0; c < clases; c++) {
+            red.agregarArista(tramos + c, sumidero, lugaresClase[c], 0);
+        }
+        FlujoCostoMinimo.Resultado flujo = red.resolver(fuente, sumidero);
+
+        // ==================== REPARTO POR AGENTE ====================
+
+        int[] lugares = lugaresLibres.clone();
+        long[] restanteClase = new long[clases];
+        int[] usadosTramo = new int[m];
+        int[] apartados = new int[m];
+        HeapIndexado heap = new HeapIndexado(m);
+        int asignados = 0;
+        double comisionTotal = 0.0;
+
+        for (int b = 0; b < tramos; b++) {
+            heap.limpiar();
+            for (int c = 0; c < clases; c++) {
+                restanteClase[c] = red.flujo(aristaPiso[b][c]) + red.flujo(aristaExtra[b][c])
+                    + red.flujo(aristaSobreCuota[b][c]);
+            }
+            for (int a = 0; a < m; a++) {
+                usadosTramo[a] = 0;
+                if (lugares[a] > 0 && restanteClase[claseDe[a]] > 0) {
+                    heap.insertarOReducir(a, valorRepresentado[a]);
+                }
+            }
+            int cantidadApartados = 0;
+            boolean relajada = false;
+            // De mayor a menor valor, cada jugador va al agente que menos valor representa (LPT)
+            for (int k = inicioTramo[b]; k < inicioTramo[b + 1]; k++) {
+                int agente = -1;
+                while (agente < 0) {
+                    if (heap.estaVacio()) {
+                        if (relajada || cantidadApartados == 0) {
+                            break;
+                        }
+                        // Los que tienen lugar ya cubrieron su cuota: se relaja la cuota
+                        relajada = true;
+                        for (int i = 0; i < cantidadApartados; i++) {
+                            int a = apartados[i];
+                            if (restanteClase[claseDe[a]] > 0) {
+                                heap.insertarOReducir(a, valorRepresentado[a]);
+                            }
+                        }
+                        cantidadApartados = 0;
+                        continue;
+                    }
+                    int a = heap.extraerMinimo();
+                    if (restanteClase[claseDe[a]] == 0) {
+                        // Su clase ya recibió lo que le asignó el flujo en este tramo
+                        continue;
+                    }
+                    if (relajada || usadosTramo[a] < cuota[b]) {
+                        agente = a;
+                    } else {
+                        apartados[cantidadApartados++] = a;
+                    }
+                }
+                if (agente < 0) {
+                    break;
+                }
+                int jugador = orden[k];
+                agentePorJugador[jugador] = agente;
+                valorRepresentado[agente] += valores[jugador];
+                comisionTotal += valores[jugador] * comisiones[agente] / 100.0;
+                lugares[agente]--;
+                usadosTramo[agente]++;
+                restanteClase[claseDe[agente]]--;
+                asignados++;
+                if (lugares[agente] > 0) {
+                    heap.insertarOReducir(agente, valorRepresentado[agente]);
+                }
+            }
+        }
+
+        return new Resultado(agentePorJugador, asignados, comisionTotal, valorRepresentado,
+            tramos, clases, flujo.aumentos());
+    }
+
+    /**
+     * Primer índice con techo[i] >= valor (los techos están ordenados).
+     */
+    private static int primeroMayorOIgual(double[] techo, double valor) {
+        int desde = 0;
+        int hasta = techo.length - 1;
+        while (desde < hasta) {
+            int medio = (desde + hasta) >>> 1;
+            if (techo[medio] >= valor) {
+                hasta = medio;
+            } else {
+                desde = medio + 1;
+            }
+        }
+        return desde;
+    }
+
+    /**
+     * @param agentePorJugador  agente elegido para cada jugador, -1 si no hubo lugar
+     * @param comisionTotal     comisión esperada total (valor * comisión / 100) de las asignaciones
+     * @param valorRepresentado valor representado por cada agente después de asignar
+     * @param aumentos          caminos aumentantes del flujo sobre la red agregada
+     */
+    public record Resultado(
+            int[] agentePorJugador,
+            int asignados,
+            double comisionTotal,
+            double[] valorRepresentado,
+            int tramosValor,
+            int clasesComision,
+            int aumentos) {
+    }
+}
@@ -0,0 +1,159 @@
+package com.uade.transferencia_futbol.algoritmo;
+
+import java.util.Arrays;
+
+/**
+ * Búsqueda de la mejor escuadra por categorías con índices enteros.
+ *
+ * Cada categoría tiene sus candidatos ordenados por rating de mayor a menor y
+ * se eligen como combinaciones (índices crecientes), no como permutaciones:
+ * la misma escuadra en otro orden ya no se vuelve a visitar. Los elegidos se
+ * marcan en una máscara de bits sobre índices globales. Se poda con una cota
+ * optimista: lo acumulado más los mejores ratings que quedan en cada categoría.
+ *
+ * El recorrido visita las combinaciones en el mismo orden lexicográfico que el
+ * backtracking anterior y solo reemplaza la mejor con un rating estrictamente
+ * mayor, por lo que devuelve la misma escuadra.
+ */
+public final class EscuadraSolver {
+
+    private final double[][] ratings;     // por categoría, ordenados de mayor a menor
+    private final double[][] costos;      // costo de cada candidato (0 si ya es del club)
+    private final int[] requeridos;
+    private final double presupuesto;
+
+    private final double[][] prefijosRating;   // suma de los mejores k ratings desde cada índice
+    private final double[] mejorRestante;      // cota de las categorías siguientes a cada una
+    private final double[] costoMinimoRestante; // costo mínimo de completar las categorías siguientes
+    private final int[] desplazamientos;        // índice global del primer candidato de cada categoría
+
+    private long[] mascara;
+    private long[] mejorMascara;
+    private double mejorRating;
+    private double mejorCosto;
+    private long nodos;
+
+    /**
+     * @param presupuesto costo máximo permitido; Double.POSITIVE_INFINITY si no hay restricción
+     */
+    public EscuadraSolver(double[][] ratings, double[][] costos, int[] requeridos, double presupuesto) {
+        int categorias = ratings.length;
+        this.ratings = ratings;
+        this.costos = costos;
+        this.requeridos = requeridos;
+        this.presupuesto = presupuesto;
+
+        this.prefijosRating = new double[categorias][];
+        this.desplazamientos = new int[categorias + 1];
+        double[] costoMinimo = new double[categorias];
+        double[] mejorCategoria = new double[categorias];
+        for (int c = 0; c < categorias; c++) {
+            double[] r = ratings[c];
+            prefijosRating[c] = new double[r.length + 1];
+            for (int i = 0; i < r.length; i++) {
+                prefijosRating[c][i + 1] = prefijosRating[c][i] + r[i];
+            }
+            mejorCategoria[c] = prefijosRating[c][Math.min(requeridos[c], r.length)];
+
+            double[] ordenados = costos[c].clone();
+            Arrays.sort(ordenados);
+            for (int i = 0; i < Math.min(requeridos[c], ordenados.length); i++) {
+                costoMinimo[c] += ordenados[i];
+            }
+            desplazamientos[c + 1] = desplazamientos[c] + r.length;
+        }
+
+        this.mejorRestante = new double[categorias + 1];
+        this.costoMinimoRestante = new double[categorias + 1];
+        for (int c = categorias - 1; c >= 0; c--) {
+            mejorRestante[c] = mejorRestante[c + 1] + mejorCategoria[c];
+            costoMinimoRestante[c] = costoMinimoRestante[c + 1] + costoMinimo[c];
+        }
+    }
+
+    /**
+     * Devuelve la mejor escuadra, o una escuadra vacía si ninguna supera rating 0
+     * o entra en el presupuesto.
+     */
+    public Resultado resolver() {
+        int palabras = (desplazamientos[ratings.length] >>> 6) + 1;
+        mascara = new long[palabras];
+        mejorMascara = null;
+        mejorRating = 0.0;
+        mejorCosto = 0.0;
+        nodos = 0;
+
+        for (int c = 0; c < ratings.length; c++) {
+            if (ratings[c].length < requeridos[c]) {
+                return new Resultado(new int[ratings.length][0], 0.0, 0.0, 0);
+            }
+        }
+        buscar(0, 0, 0, 0.0, 0.0);
+
+        int[][] seleccion = new int[ratings.length][];
+        for (int c = 0; c < ratings.length; c++) {
+            int[] indices = new int[mejorMascara == null ? 0 : requeridos[c]];
+            int k = 0;
+            for (int i = 0; mejorMascara != null && i < ratings[c].length; i++) {
+                int global = desplazamientos[c] + i;
+                if ((mejorMascara[global >>> 6] & (1L << global)) != 0) {
+                    indices[k++] = i;
+                }
+            }
+            seleccion[c] = indices;
+        }
+        return new Resultado(seleccion, mejorRating, mejorCosto, nodos);
+    }
+
+    /**
+     * @param categoria categoría que se está completando
+     * @param inicio    primer índice disponible en la categoría (combinaciones crecientes)
+     * @param tomados   cuántos se eligieron ya en la categoría
+     */
+    private void buscar(int categoria, int inicio, int tomados, double rating, double costo) {
+        nodos++;
+        if (categoria == ratings.length) {
+            if (rating > mejorRating) {
+                mejorRating = rating;
+                mejorCosto = costo;
+                mejorMascara = mascara.clone();
+            }
+            return;
+        }
+        if (tomados == requeridos[categoria]) {
+            buscar(categoria + 1, 0, 0, rating, costo);
+            return;
+        }
+
+        double[] r = ratings[categoria];
+        double[] cs = costos[categoria];
+        int faltan = requeridos[categoria] - tomados;
+        // Dejar lugar para completar la categoría con los que quedan
+        int ultimo = r.length - faltan;
+
+        for (int i = inicio; i <= ultimo; i++) {
+            // Cota: los mejores 'faltan' desde i (están ordenados) más las categorías siguientes
+            double cota = rating + prefijosRating[categoria][i + faltan] - prefijosRating[categoria][i]
+                + mejorRestante[categoria + 1];
+            if (cota <= mejorRating) {
+                // Los índices siguientes tienen ratings menores o iguales: tampoco pueden mejorar
+                break;
+            }
+            double nuevoCosto = costo + cs[i];
+            if (nuevoCosto + costoMinimoRestante[categoria + 1] > presupuesto) {
+                continue;
+            }
+
+            int global = desplazamientos[categoria] + i;
+            mascara[global >>> 6] |= 1L << global;
+            buscar(categoria, i + 1, tomados + 1, rating + r[i], nuevoCosto);
+            mascara[global >>> 6] &= ~(1L << global);
+        }
+    }
+
+    /**
+     * @param seleccion índices elegidos por categoría, en orden creciente
+     */
+    public record Resultado(int[][] seleccion, double ratingTotal, double costoTotal, long nodosVisitados) {
+    }
+}
@@ -0,0 +1,135 @@
+package com.uade.transferencia_futbol.algoritmo;
+
+import java.util.Arrays;
+
+/**
+ * Flujo máximo de costo mínimo con caminos más cortos sucesivos.
+ *
+ * La red residual se guarda en arreglos primitivos: cada arista ocupa un
+ * índice par y su reversa el impar siguiente, y las aristas de cada nodo se
+ * encadenan como listas con cabeza/siguiente. Los costos deben ser no
+ * negativos; con potenciales de Johnson los costos reducidos siguen siéndolo
+ * y cada camino se busca con Dijkstra sobre {@link HeapIndexado}. Cada
+ * aumento empuja la capacidad del cuello de botella, no una unidad.
+ */
+public final class FlujoCostoMinimo {
+
+    private static final long INFINITO = Long.MAX_VALUE / 4;
+
+    private final int nodos;
+    private final int[] cabeza;
+    private int[] siguiente;
+    private int[] destino;
+    private long[] capacidad;
+    private long[] costo;
+    private int aristas;
+
+    public FlujoCostoMinimo(int nodos, int aristasEstimadas) {
+        this.nodos = nodos;
+        this.cabeza = new int[nodos];
+        Arrays.fill(cabeza, -1);
+        int capacidadInicial = Math.max(2, 2 * aristasEstimadas);
+        this.siguiente = new int[capacidadInicial];
+        this.destino = new int[capacidadInicial];
+        this.capacidad = new long[capacidadInicial];
+        this.costo = new long[capacidadInicial];
+    }
+
+    /**
+     * Agrega la arista desde -> hasta y devuelve su id, para consultar después el flujo que pasa por ella.
+     */
+    public int agregarArista(int desde, int hasta, long capacidadArista, long costoArista) {
+        if (costoArista < 0) {
+            throw new IllegalArgumentException("Los costos deben ser no negativos");
+        }
+        if (aristas + 2 > destino.length) {
+            int nueva = destino.length * 2;
+            siguiente = Arrays.copyOf(siguiente, nueva);
+            destino = Arrays.copyOf(destino, nueva);
+            capacidad = Arrays.copyOf(capacidad, nueva);
+            costo = Arrays.copyOf(costo, nueva);
+        }
+        int id = aristas;
+        enlazar(desde, hasta, capacidadArista, costoArista);
+        enlazar(hasta, desde, 0, -costoArista);
+        return id;
+    }
+
+    private void enlazar(int desde, int hasta, long capacidadArista, long costoArista) {
+        destino[aristas] = hasta;
+        capacidad[aristas] = capacidadArista;
+        costo[aristas] = costoArista;
+        siguiente[aristas] = cabeza[desde];
+        cabeza[desde] = aristas;
+        aristas++;
+    }
+
+    /**
+     * Flujo que pasa por la arista (la capacidad residual de su reversa).
+     */
+    public long flujo(int arista) {
+        return capacidad[arista ^ 1];
+    }
+
+    public Resultado resolver(int fuente, int sumidero) {
+        long[] potencial = new long[nodos];
+        long[] distancia = new long[nodos];
+        int[] aristaPrevia = new int[nodos];
+        HeapIndexado heap = new HeapIndexado(nodos);
+
+        long flujoTotal = 0;
+        long costoTotal = 0;
+        int aumentos = 0;
+        while (true) {
+            // Dijkstra con costos reducidos costo + potencial[u] - potencial[v] >= 0
+            Arrays.fill(distancia, INFINITO);
+            Arrays.fill(aristaPrevia, -1);
+            distancia[fuente] = 0;
+            heap.limpiar();
+            heap.insertarOReducir(fuente, 0);
+            while (!heap.estaVacio()) {
+                int u = heap.extraerMinimo();
+                for (int e = cabeza[u]; e >= 0; e = siguiente[e]) {
+                    if (capacidad[e] <= 0) {
+                        continue;
+                    }
+                    int v = destino[e];
+                    long candidata = distancia[u] + costo[e] + potencial[u] - potencial[v];
+                    if (candidata < distancia[v]) {
+                        distancia[v] = candidata;
+                        aristaPrevia[v] = e;
+                        heap.insertarOReducir(v, candidata);
+                    }
+                }
+            }
+            if (distancia[sumidero] >= INFINITO) {
+                break;
+            }
+            for (int v = 0; v < nodos; v++) {
+                if (distancia[v] < INFINITO) {
+                    potencial[v] += distancia[v];
+                }
+            }
+
+            long empuje = INFINITO;
+            for (int v = sumidero; v != fuente; v = destino[aristaPrevia[v] ^ 1]) {
+                empuje = Math.min(empuje, capacidad[aristaPrevia[v]]);
+            }
+            for (int v = sumidero; v != fuente; v = destino[aristaPrevia[v] ^ 1]) {
+                int e = aristaPrevia[v];
+                capacidad[e] -= empuje;
+                capacidad[e ^ 1] += empuje;
+                costoTotal += empuje * costo[e];
+            }
+            flujoTotal += empuje;
+            aumentos++;
+        }
+        return new Resultado(flujoTotal, costoTotal, aumentos);
+    }
+
+    /**
+     * @param aumentos cantidad de caminos aumentantes usados
+     */
+    public record Resultado(long flujo, long costo, int aumentos) {
+    }
+}
@@ -0,0 +1,279 @@
+package com.uade.transferencia_futbol.algoritmo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Grafo dirigido y ponderado en formato CSR (Compressed Sparse Row).
+ * Los clubes se internan a ids enteros y las aristas de cada nodo ocupan un
+ * rango contiguo de los arreglos primitivos, ordenadas por destino.
+ *
+ * Es inmutable: agregar una arista o reducir un peso devuelve un grafo nuevo,
+ * así los lectores pueden recorrer una instancia mientras se publica otra.
+ */
+public final class GrafoCsr {
+
+    private final String[] nombres;
+    private final Map<String, Integer> ids;
+    private final int[] offsets;
+    private final int[] destinos;
+    private final double[] pesos;
+
+    private GrafoCsr(String[] nombres, Map<String, Integer> ids, int[] offsets, int[] destinos, double[] pesos) {
+        this.nombres = nombres;
+        this.ids = ids;
+        this.offsets = offsets;
+        this.destinos = destinos;
+        this.pesos = pesos;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public static GrafoCsr vacio() {
+        return builder().build();
+    }
+
+    // ==================== CONSULTAS ====================
+
+    public int cantidadNodos() {
+        return nombres.length;
+    }
+
+    public int cantidadAristas() {
+        return destinos.length;
+    }
+
+    /**
+     * Id interno del club, o -1 si no existe en el grafo.
+     */
+    public int id(String nombre) {
+        Integer id = ids.get(nombre);
+        return id != null ? id : -1;
+    }
+
+    public String nombre(int id) {
+        return nombres[id];
+    }
+
+    /** Primer índice de arista saliente del nodo (inclusive). */
+    public int inicio(int nodo) {
+        return offsets[nodo];
+    }
+
+    /** Último índice de arista saliente del nodo (exclusive). */
+    public int fin(int nodo) {
+        return offsets[nodo + 1];
+    }
+
+    public int destino(int arista) {
+        return destinos[arista];
+    }
+
+    public double peso(int arista) {
+        return pesos[arista];
+    }
+
+    /**
+     * Índice de la arista origen -> destino, o -1 si no existe.
+     */
+    public int buscarArista(int origen, int destino) {
+        int pos = Arrays.binarySearch(destinos, offsets[origen], offsets[origen + 1], destino);
+        return pos >= 0 ? pos : -1;
+    }
+
+    // ==================== ACTUALIZACIONES ====================
+
+    /**
+     * Devuelve un grafo con el peso de la arista reducido a peso, o el mismo
+     * grafo si el peso actual ya es menor o igual. Copia solo los pesos; la
+     * estructura se comparte con este grafo.
+     */
+    public GrafoCsr conPesoReducido(int arista, double peso) {
+        if (peso >= pesos[arista]) {
+            return this;
+        }
+        double[] nuevosPesos = pesos.clone();
+        nuevosPesos[arista] = peso;
+        return new GrafoCsr(nombres, ids, offsets, destinos, nuevosPesos);
+    }
+
+    /**
+     * Devuelve un grafo nuevo con la arista agregada (o con el menor de los pesos
+     * si ya existía). Los clubes desconocidos se agregan como nodos nuevos.
+     * Solo copia arreglos en memoria, sin volver a la base de datos.
+     */
+    public GrafoCsr conArista(String origen, String destino, double peso) {
+        GrafoCsr base = conNodo(origen).conNodo(destino);
+        int u = base.id(origen);
+        int v = base.id(destino);
+
+        int existente = base.buscarArista(u, v);
+        if (existente >= 0) {
+            return base.conPesoReducido(existente, peso);
+        }
+
+        int posicion = -(Arrays.binarySearch(base.destinos, base.offsets[u], base.offsets[u + 1], v) + 1);
+        int m = base.destinos.length;
+
+        int[] nuevosDestinos = new int[m + 1];
+        double[] nuevosPesos = new double[m + 1];
+        System.arraycopy(base.destinos, 0, nuevosDestinos, 0, posicion);
+        System.arraycopy(base.pesos, 0, nuevosPesos, 0, posicion);
+        nuevosDestinos[posicion] = v;
+        nuevosPesos[posicion] = peso;
+        System.arraycopy(base.destinos, posicion, nuevosDestinos, posicion + 1, m - posicion);
+        System.arraycopy(base.pesos, posicion, nuevosPesos, posicion + 1, m - posicion);
+
+        int[] nuevosOffsets = base.offsets.clone();
+        for (int i = u + 1; i < nuevosOffsets.length; i++) {
+            nuevosOffsets[i]++;
+        }
+
+        return new GrafoCsr(base.nombres, base.ids, nuevosOffsets, nuevosDestinos, nuevosPesos);
+    }
+
+    /**
+     * Devuelve un grafo con el club agregado como nodo aislado, o el mismo grafo si ya existía.
+     */
+    public GrafoCsr conNodo(String nombre) {
+        if (ids.containsKey(nombre)) {
+            return this;
+        }
+        int n = nombres.length;
+        String[] nuevosNombres = Arrays.copyOf(nombres, n + 1);
+        nuevosNombres[n] = nombre;
+
+        Map<String, Integer> nuevosIds = new HashMap<>(ids);
+        nuevosIds.put(nombre, n);
+
+        int[] nuevosOffsets = Arrays.copyOf(offsets, n + 2);
+        nuevosOffsets[n + 1] = offsets[n];
+
+        return new GrafoCsr(nuevosNombres, nuevosIds, nuevosOffsets, destinos, pesos);
+    }
+
+    /**
+     * Builder cargado con los nodos y aristas de este grafo, para agregar
+     * varias aristas y construir un solo grafo nuevo en lugar de copiar los
+     * arreglos una vez por arista.
+     */
+    public Builder aBuilder() {
+        Builder builder = new Builder();
+        for (String nombre : nombres) {
+            builder.agregarNodo(nombre);
+        }
+        for (int u = 0; u < nombres.length; u++) {
+            for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+                builder.agregarArista(nombres[u], nombres[destinos[a]], pesos[a]);
+            }
+        }
+        return builder;
+    }
+
+    // ==================== CONSTRUCCIÓN ====================
+
+    public static final class Builder {
+
+        private final List<String> nombres = new ArrayList<>();
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final Map<Long, Integer> indiceAristas = new HashMap<>();
+        private int[] origenes = new int[16];
+        private int[] destinos = new int[16];
+        private double[] pesos = new double[16];
+        private int cantidadAristas = 0;
+
+        private Builder() {}
+
+        public int agregarNodo(String nombre) {
+            Integer id = ids.get(nombre);
+            if (id != null) {
+                return id;
+            }
+            int nuevo = nombres.size();
+            nombres.add(nombre);
+            ids.put(nombre, nuevo);
+            return nuevo;
+        }
+
+        /**
+         * Agrega la arista origen -> destino. Si ya existe una arista paralela
+         * se conserva la de menor peso (la ruta más barata).
+         */
+        public Builder agregarArista(String origen, String destino, double peso) {
+            int u = agregarNodo(origen);
+            int v = agregarNodo(destino);
+            long clave = ((long) u << 32) | (v & 0xffffffffL);
+
+            Integer existente = indiceAristas.get(clave);
+            if (existente != null) {
+                pesos[existente] = Math.min(pesos[existente], peso);
+                return this;
+            }
+
+            if (cantidadAristas == origenes.length) {
+                int capacidad = origenes.length * 2;
+                origenes = Arrays.copyOf(origenes, capacidad);
+                destinos = Arrays.copyOf(destinos, capacidad);
+                pesos = Arrays.copyOf(pesos, capacidad);
+            }
+            origenes[cantidadAristas] = u;
+            destinos[cantidadAristas] = v;
+            pesos[cantidadAristas] = peso;
+            indiceAristas.put(clave, cantidadAristas);
+            cantidadAristas++;
+            return this;
+        }
+
+        public GrafoCsr build() {
+            int n = nombres.size();
+            int m = cantidadAristas;
+
+            // Contar grado de salida y acumular offsets
+            int[] offsets = new int[n + 1];
+            for (int i = 0; i < m; i++) {
+                offsets[origenes[i] + 1]++;
+            }
+            for (int i = 0; i < n; i++) {
+                offsets[i + 1] += offsets[i];
+            }
+
+            // Ubicar cada arista en el rango de su nodo origen
+            int[] csrDestinos = new int[m];
+            double[] csrPesos = new double[m];
+            int[] cursor = Arrays.copyOf(offsets, n);
+            for (int i = 0; i < m; i++) {
+                int pos = cursor[origenes[i]]++;
+                csrDestinos[pos] = destinos[i];
+                csrPesos[pos] = pesos[i];
+            }
+
+            // Ordenar cada fila por destino para permitir búsqueda binaria
+            for (int u = 0; u < n; u++) {
+                ordenarFila(csrDestinos, csrPesos, offsets[u], offsets[u + 1]);
+            }
+
+            return new GrafoCsr(nombres.toArray(new String[0]), new HashMap<>(ids), offsets, csrDestinos, csrPesos);
+        }
+
+        private static void ordenarFila(int[] destinos, double[] pesos, int desde, int hasta) {
+            // Inserción: las filas de un grafo de transferencias son cortas
+            for (int i = desde + 1; i < hasta; i++) {
+                int destino = destinos[i];
+                double peso = pesos[i];
+                int j = i - 1;
+                while (j >= desde && destinos[j] > destino) {
+                    destinos[j + 1] = destinos[j];
+                    pesos[j + 1] = pesos[j];
+                    j--;
+                }
+                destinos[j + 1] = destino;
+                pesos[j + 1] = peso;
+            }
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.uade.transferencia_futbol.algoritmo;
+
+import java.util.Arrays;
+
+/**
+ * Heap d-ario de mínimos indexado por id de nodo, con prioridades double.
+ * Cada nodo aparece a lo sumo una vez, por lo que bajar su prioridad
+ * (decrease-key) reubica la entrada existente en lugar de duplicarla.
+ */
+final class HeapIndexado {
+
+    private static final int ARIDAD = 4;
+
+    private int[] heap;        // posición -> nodo
+    private int[] posiciones;  // nodo -> posición en el heap, -1 si no está
+    private double[] prioridades;
+    private int tamano;
+
+    HeapIndexado(int capacidad) {
+        heap = new int[Math.max(capacidad, 1)];
+        posiciones = new int[Math.max(capacidad, 1)];
+        prioridades = new double[Math.max(capacidad, 1)];
+        Arrays.fill(posiciones, -1);
+    }
+
+    void asegurarCapacidad(int capacidad) {
+        if (capacidad > posiciones.length) {
+            int anterior = posiciones.length;
+            heap = Arrays.copyOf(heap, capacidad);
+            posiciones = Arrays.copyOf(posiciones, capacidad);
+            prioridades = Arrays.copyOf(prioridades, capacidad);
+            Arrays.fill(posiciones, anterior, capacidad, -1);
+        }
+    }
+
+    boolean estaVacio() {
+        return tamano == 0;
+    }
+
+    boolean contiene(int nodo) {
+        return posiciones[nodo] >= 0;
+    }
+
+    /**
+     * Inserta el nodo o baja su prioridad si ya estaba en el heap.
+     */
+    void insertarOReducir(int nodo, double prioridad) {
+        int pos = posiciones[nodo];
+        if (pos < 0) {
+            pos = tamano++;
+            heap[pos] = nodo;
+            posiciones[nodo] = pos;
+            prioridades[nodo] = prioridad;
+            subir(pos);
+        } else if (prioridad < prioridades[nodo]) {
+            prioridades[nodo] = prioridad;
+            subir(pos);
+        }
+    }
+
+    int extraerMinimo() {
+        int minimo = heap[0];
+        posiciones[minimo] = -1;
+        tamano--;
+        if (tamano > 0) {
+            int ultimo = heap[tamano];
+            heap[0] = ultimo;
+            posiciones[ultimo] = 0;
+            bajar(0);
+        }
+        return minimo;
+    }
+
+    /**
+     * Vacía el heap en O(tamaño actual) dejando las posiciones listas para reutilizarlo.
+     */
+    void limpiar() {
+        for (int i = 0; i < tamano; i++) {
+            posiciones[heap[i]] = -1;
+        }
+        tamano = 0;
+    }
+
+    private void subir(int pos) {
+        int nodo = heap[pos];
+        double prioridad = prioridades[nodo];
+        while (pos > 0) {
+            int padre = (pos - 1) / ARIDAD;
+            int nodoPadre = heap[padre];
+            if (prioridades[nodoPadre] <= prioridad) {
+                break;
+            }
+            heap[pos] = nodoPadre;
+            posiciones[nodoPadre] = pos;
+            pos = padre;
+        }
+        heap[pos] = nodo;
+        posiciones[nodo] = pos;
+    }
+
+    private void bajar(int pos) {
+        int nodo = heap[pos];
+        double prioridad = prioridades[nodo];
+        while (true) {
+            int primerHijo = pos * ARIDAD + 1;
+            if (primerHijo >= tamano) {
+                break;
+            }
+            int ultimoHijo = Math.min(primerHijo + ARIDAD, tamano);
+            int mejor = primerHijo;
+            double mejorPrioridad = prioridades[heap[primerHijo]];
+            for (int hijo = primerHijo + 1; hijo < ultimoHijo; hijo++) {
+                double p = prioridades[heap[hijo]];
+                if (p < mejorPrioridad) {
+                    mejor = hijo;
+                    mejorPrioridad = p;
+                }
+            }
+            if (mejorPrioridad >= prioridad) {
+                break;
+            }
+            int nodoHijo = heap[mejor];
+            heap[pos] = nodoHijo;
+            posiciones[nodoHijo] = pos;
+            pos = mejor;
+        }
+        heap[pos] = nodo;
+        posiciones[nodo] = pos;
+    }
+}
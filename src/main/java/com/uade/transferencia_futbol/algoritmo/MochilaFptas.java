@@ -0,0 +1,232 @@
+package com.uade.transferencia_futbol.algoritmo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Esquema de aproximación totalmente polinomial (FPTAS) para la mochila 0/1.
+ *
+ * La tabla se indexa por beneficio escalado en lugar de por costo: minCosto[q]
+ * es el menor costo real con el que se alcanza el beneficio escalado q. Así el
+ * tamaño de la tabla depende de la cantidad de items y de epsilon, no de la
+ * magnitud del presupuesto. El resultado vale al menos (1 - epsilon) del óptimo.
+ *
+ * Antes de resolver se descartan los items dominados: un item se puede quitar
+ * si al menos K otros son más baratos y rinden más, donde K es la mayor
+ * cantidad de items que entran en el presupuesto. En cualquier solución que lo
+ * use queda un dominante libre para reemplazarlo, así que no se pierde el óptimo.
+ */
+public final class MochilaFptas {
+
+    /** Mayor epsilon al que se relaja un pedido que no entra en memoria. */
+    public static final double EPSILON_MAXIMO = 0.5;
+
+    private final long memoriaMaximaBytes;
+
+    public MochilaFptas(long memoriaMaximaBytes) {
+        this.memoriaMaximaBytes = memoriaMaximaBytes;
+    }
+
+    /**
+     * @throws IllegalArgumentException si epsilon no está en (0, 1) o si la tabla no entra en el
+     *                                  límite de memoria ni relajando epsilon hasta {@link #EPSILON_MAXIMO}
+     */
+    public Resultado resolver(double[] costos, double[] beneficios, double capacidad, double epsilon) {
+        if (epsilon <= 0 || epsilon >= 1) {
+            throw new IllegalArgumentException("Epsilon debe estar entre 0 y 1");
+        }
+
+        int[] candidatos = filtrarDominados(costos, beneficios, capacidad);
+        int m = candidatos.length;
+        if (m == 0) {
+            return new Resultado(new int[0], 0.0, 0.0, epsilon, epsilon, 0.0, 0, costos.length, 0.0, 0.0);
+        }
+
+        // Cota inferior (al menos la mitad del óptimo) y superior de la relajación fraccional
+        double[] c = new double[m];
+        double[] p = new double[m];
+        for (int i = 0; i < m; i++) {
+            c[i] = costos[candidatos[i]];
+            p[i] = beneficios[candidatos[i]];
+        }
+        double cotaSuperior = MochilaSolver.cotaFraccional(c, p, capacidad);
+        double cotaInferior = Math.max(cotaGolosa(c, p, capacidad), Arrays.stream(p).max().orElse(0.0));
+
+        // Con escala K = epsilon * LB / m el redondeo pierde a lo sumo epsilon * LB <= epsilon * OPT.
+        // Si la tabla no entra se duplica epsilon hasta EPSILON_MAXIMO; más allá se rechaza el pedido
+        double epsilonEfectivo = epsilon;
+        double escala;
+        int beneficioMaximo;
+        while (true) {
+            escala = epsilonEfectivo * cotaInferior / m;
+            beneficioMaximo = (int) Math.min(Integer.MAX_VALUE - 1L, (long) Math.floor(cotaSuperior / escala));
+            if (memoria(m, beneficioMaximo) <= memoriaMaximaBytes) {
+                break;
+            }
+            if (epsilonEfectivo >= EPSILON_MAXIMO) {
+                throw new IllegalArgumentException("La tabla del FPTAS para " + m + " items necesita "
+                    + memoria(m, beneficioMaximo) + " bytes aun con epsilon " + EPSILON_MAXIMO
+                    + " y el límite es " + memoriaMaximaBytes + "; usar la programación dinámica por costo");
+            }
+            epsilonEfectivo = Math.min(EPSILON_MAXIMO, epsilonEfectivo * 2);
+        }
+
+        int[] escalados = new int[m];
+        for (int i = 0; i < m; i++) {
+            escalados[i] = (int) Math.min(beneficioMaximo + 1L, (long) Math.floor(p[i] / escala));
+        }
+
+        double[] minCosto = new double[beneficioMaximo + 1];
+        Arrays.fill(minCosto, Double.POSITIVE_INFINITY);
+        minCosto[0] = 0.0;
+        int palabrasPorFila = (beneficioMaximo >>> 6) + 1;
+        long[] decisiones = new long[m * palabrasPorFila];
+
+        for (int i = 0; i < m; i++) {
+            int q0 = escalados[i];
+            double costo = c[i];
+            int base = i * palabrasPorFila;
+            for (int q = beneficioMaximo; q >= q0; q--) {
+                double conItem = minCosto[q - q0] + costo;
+                if (conItem < minCosto[q] && conItem <= capacidad) {
+                    minCosto[q] = conItem;
+                    decisiones[base + (q >>> 6)] |= 1L << (q & 63);
+                }
+            }
+        }
+
+        int q = beneficioMaximo;
+        while (q > 0 && minCosto[q] > capacidad) {
+            q--;
+        }
+
+        List<Integer> seleccionados = new ArrayList<>();
+        for (int i = m - 1; i >= 0 && q > 0; i--) {
+            if ((decisiones[i * palabrasPorFila + (q >>> 6)] & (1L << (q & 63))) != 0) {
+                seleccionados.add(candidatos[i]);
+                q -= escalados[i];
+            }
+        }
+
+        int[] indices = seleccionados.stream().mapToInt(Integer::intValue).sorted().toArray();
+        double beneficioTotal = 0.0;
+        double costoTotal = 0.0;
+        for (int indice : indices) {
+            beneficioTotal += beneficios[indice];
+            costoTotal += costos[indice];
+        }
+
+        return new Resultado(indices, beneficioTotal, costoTotal, epsilon, epsilonEfectivo, escala,
+            m, costos.length - m, cotaSuperior,
+            cotaSuperior > 0 ? Math.max(0.0, (cotaSuperior - beneficioTotal) / cotaSuperior) : 0.0);
+    }
+
+    /**
+     * Índices de los items que sobreviven al filtro de dominancia, ordenados por costo.
+     */
+    static int[] filtrarDominados(double[] costos, double[] beneficios, double capacidad) {
+        int n = costos.length;
+        Integer[] orden = new Integer[n];
+        int validos = 0;
+        for (int i = 0; i < n; i++) {
+            if (costos[i] <= capacidad && beneficios[i] > 0) {
+                orden[validos++] = i;
+            }
+        }
+        Integer[] porCosto = Arrays.copyOf(orden, validos);
+        // Más baratos primero; a igual costo, el de más beneficio primero
+        Arrays.sort(porCosto, (a, b) -> costos[a] != costos[b]
+            ? Double.compare(costos[a], costos[b])
+            : Double.compare(beneficios[b], beneficios[a]));
+
+        // Mayor cantidad de items que entran: tomar los más baratos
+        int maximoItems = 0;
+        double acumulado = 0.0;
+        for (int i : porCosto) {
+            if (acumulado + costos[i] > capacidad) {
+                break;
+            }
+            acumulado += costos[i];
+            maximoItems++;
+        }
+
+        // Contar, para cada item, cuántos de los anteriores (no más caros) rinden al menos lo mismo,
+        // con un árbol de Fenwick sobre el ranking de beneficio
+        double[] beneficiosOrdenados = new double[validos];
+        for (int i = 0; i < validos; i++) {
+            beneficiosOrdenados[i] = beneficios[porCosto[i]];
+        }
+        Arrays.sort(beneficiosOrdenados);
+        int[] fenwick = new int[validos + 1];
+
+        int[] candidatos = new int[validos];
+        int cantidad = 0;
+        for (int i = 0; i < validos; i++) {
+            int item = porCosto[i];
+            int rango = Arrays.binarySearch(beneficiosOrdenados, beneficios[item]);
+            while (rango > 0 && beneficiosOrdenados[rango - 1] == beneficios[item]) {
+                rango--;
+            }
+            // Anteriores con beneficio >= al del item = total anteriores - anteriores con beneficio menor
+            int dominantes = i - sumar(fenwick, rango);
+            if (dominantes < maximoItems) {
+                candidatos[cantidad++] = item;
+            }
+            for (int k = rango + 1; k <= validos; k += k & -k) {
+                fenwick[k]++;
+            }
+        }
+        return Arrays.copyOf(candidatos, cantidad);
+    }
+
+    private static int sumar(int[] fenwick, int hasta) {
+        int suma = 0;
+        for (int k = hasta; k > 0; k -= k & -k) {
+            suma += fenwick[k];
+        }
+        return suma;
+    }
+
+    private static double cotaGolosa(double[] costos, double[] beneficios, double capacidad) {
+        Integer[] orden = new Integer[costos.length];
+        for (int i = 0; i < orden.length; i++) {
+            orden[i] = i;
+        }
+        Arrays.sort(orden, (a, b) -> Double.compare(beneficios[b] / costos[b], beneficios[a] / costos[a]));
+        double restante = capacidad;
+        double total = 0.0;
+        for (int i : orden) {
+            if (costos[i] <= restante) {
+                restante -= costos[i];
+                total += beneficios[i];
+            }
+        }
+        return total;
+    }
+
+    private static long memoria(int items, int beneficioMaximo) {
+        long palabrasPorFila = (beneficioMaximo >>> 6) + 1L;
+        return items * palabrasPorFila * Long.BYTES + (beneficioMaximo + 1L) * Double.BYTES;
+    }
+
+    /**
+     * @param epsilonEfectivo  epsilon realmente usado (puede ser mayor si no entraba en memoria)
+     * @param escala           beneficio que representa una unidad de la tabla
+     * @param itemsConsiderados items que quedaron después del filtro de dominancia
+     * @param itemsDominados   items descartados (dominados, sin beneficio o fuera del presupuesto)
+     * @param brechaMaxima     (cotaSuperior - beneficioTotal) / cotaSuperior
+     */
+    public record Resultado(
+            int[] seleccionados,
+            double beneficioTotal,
+            double costoTotal,
+            double epsilon,
+            double epsilonEfectivo,
+            double escala,
+            int itemsConsiderados,
+            int itemsDominados,
+            double cotaSuperior,
+            double brechaMaxima) {
+    }
+}
@@ -0,0 +1,234 @@
+package com.uade.transferencia_futbol.algoritmo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Mochila 0/1 con costos escalados a una unidad (por ejemplo 100.000 €) y una
+ * tabla de programación dinámica de una sola fila.
+ *
+ * Los costos se redondean hacia arriba y la capacidad hacia abajo, así que la
+ * selección devuelta nunca excede el presupuesto real. Para reconstruir qué
+ * items se eligieron se guarda una matriz de bits de decisiones; si esa matriz
+ * no entra en el límite de memoria se usa divide y vencerás (Hirschberg), que
+ * solo necesita filas de la tabla. Si ni así entra, se agranda la unidad.
+ */
+public final class MochilaSolver {
+
+    public static final String MODO_BITSET = "bitset";
+    public static final String MODO_HIRSCHBERG = "hirschberg";
+
+    private final long memoriaMaximaBytes;
+
+    public MochilaSolver(long memoriaMaximaBytes) {
+        this.memoriaMaximaBytes = memoriaMaximaBytes;
+    }
+
+    /**
+     * @param costos     costo real de cada item (mayor que cero)
+     * @param beneficios beneficio de cada item
+     * @param capacidad  presupuesto real
+     * @param unidad     tamaño del escalón de cuantización, en las mismas unidades que los costos
+     */
+    public Resultado resolver(double[] costos, double[] beneficios, double capacidad, double unidad) {
+        int n = costos.length;
+        if (unidad <= 0) {
+            throw new IllegalArgumentException("La unidad de escalado debe ser positiva");
+        }
+
+        // Agrandar la unidad hasta que la tabla entre en el límite de memoria
+        double unidadEfectiva = unidad;
+        String modo;
+        while (true) {
+            long pasos = (long) Math.floor(capacidad / unidadEfectiva);
+            if (pasos < Integer.MAX_VALUE - 1) {
+                if (memoriaBitset(n, (int) pasos) <= memoriaMaximaBytes) {
+                    modo = MODO_BITSET;
+                    break;
+                }
+                if (memoriaHirschberg((int) pasos) <= memoriaMaximaBytes || pasos == 0) {
+                    modo = MODO_HIRSCHBERG;
+                    break;
+                }
+            }
+            unidadEfectiva *= 2;
+        }
+
+        int capacidadEscalada = (int) Math.floor(capacidad / unidadEfectiva);
+        int[] pesos = new int[n];
+        for (int i = 0; i < n; i++) {
+            long peso = (long) Math.ceil(costos[i] / unidadEfectiva - 1e-9);
+            pesos[i] = (int) Math.min(Math.max(peso, 0), (long) capacidadEscalada + 1);
+        }
+
+        List<Integer> seleccionados = MODO_BITSET.equals(modo)
+            ? resolverConBitset(pesos, beneficios, capacidadEscalada)
+            : resolverHirschberg(pesos, beneficios, capacidadEscalada);
+
+        double beneficioTotal = 0.0;
+        double costoTotal = 0.0;
+        int[] indices = new int[seleccionados.size()];
+        for (int i = 0; i < indices.length; i++) {
+            indices[i] = seleccionados.get(i);
+            beneficioTotal += beneficios[indices[i]];
+            costoTotal += costos[indices[i]];
+        }
+        Arrays.sort(indices);
+
+        double cotaSuperior = cotaFraccional(costos, beneficios, capacidad);
+        double brecha = cotaSuperior > 0 ? Math.max(0.0, (cotaSuperior - beneficioTotal) / cotaSuperior) : 0.0;
+        long memoria = MODO_BITSET.equals(modo)
+            ? memoriaBitset(n, capacidadEscalada)
+            : memoriaHirschberg(capacidadEscalada);
+
+        return new Resultado(indices, beneficioTotal, costoTotal, unidadEfectiva, capacidadEscalada,
+            modo, memoria, cotaSuperior, brecha);
+    }
+
+    // ==================== RECONSTRUCCIÓN CON BITSET ====================
+
+    private List<Integer> resolverConBitset(int[] pesos, double[] beneficios, int capacidad) {
+        int n = pesos.length;
+        int palabrasPorFila = (capacidad >>> 6) + 1;
+        long[] decisiones = new long[n * palabrasPorFila];
+        double[] dp = new double[capacidad + 1];
+
+        for (int i = 0; i < n; i++) {
+            int peso = pesos[i];
+            double beneficio = beneficios[i];
+            int base = i * palabrasPorFila;
+            // Recorrer w hacia abajo para que cada item se use a lo sumo una vez
+            for (int w = capacidad; w >= peso; w--) {
+                double conItem = dp[w - peso] + beneficio;
+                if (conItem > dp[w]) {
+                    dp[w] = conItem;
+                    decisiones[base + (w >>> 6)] |= 1L << (w & 63);
+                }
+            }
+        }
+
+        List<Integer> seleccionados = new ArrayList<>();
+        int w = capacidad;
+        for (int i = n - 1; i >= 0 && w > 0; i--) {
+            if ((decisiones[i * palabrasPorFila + (w >>> 6)] & (1L << (w & 63))) != 0) {
+                seleccionados.add(i);
+                w -= pesos[i];
+            }
+        }
+        return seleccionados;
+    }
+
+    // ==================== RECONSTRUCCIÓN HIRSCHBERG ====================
+
+    private List<Integer> resolverHirschberg(int[] pesos, double[] beneficios, int capacidad) {
+        List<Integer> seleccionados = new ArrayList<>();
+        double[] adelante = new double[capacidad + 1];
+        double[] atras = new double[capacidad + 1];
+        dividir(pesos, beneficios, 0, pesos.length, capacidad, adelante, atras, seleccionados);
+        return seleccionados;
+    }
+
+    /**
+     * Resuelve los items [desde, hasta) con capacidad dada: calcula la mejor
+     * fila para cada mitad, elige cómo repartir la capacidad y recursa.
+     */
+    private void dividir(int[] pesos, double[] beneficios, int desde, int hasta, int capacidad,
+                         double[] adelante, double[] atras, List<Integer> seleccionados) {
+        if (hasta - desde == 0 || capacidad <= 0) {
+            return;
+        }
+        if (hasta - desde == 1) {
+            if (pesos[desde] <= capacidad && beneficios[desde] > 0) {
+                seleccionados.add(desde);
+            }
+            return;
+        }
+
+        int medio = (desde + hasta) >>> 1;
+        llenarFila(pesos, beneficios, desde, medio, capacidad, adelante);
+        llenarFila(pesos, beneficios, medio, hasta, capacidad, atras);
+
+        int mejorCorte = 0;
+        double mejorValor = -1;
+        for (int w = 0; w <= capacidad; w++) {
+            double valor = adelante[w] + atras[capacidad - w];
+            if (valor > mejorValor) {
+                mejorValor = valor;
+                mejorCorte = w;
+            }
+        }
+
+        dividir(pesos, beneficios, desde, medio, mejorCorte, adelante, atras, seleccionados);
+        dividir(pesos, beneficios, medio, hasta, capacidad - mejorCorte, adelante, atras, seleccionados);
+    }
+
+    private static void llenarFila(int[] pesos, double[] beneficios, int desde, int hasta, int capacidad, double[] fila) {
+        Arrays.fill(fila, 0, capacidad + 1, 0.0);
+        for (int i = desde; i < hasta; i++) {
+            int peso = pesos[i];
+            double beneficio = beneficios[i];
+            for (int w = capacidad; w >= peso; w--) {
+                double conItem = fila[w - peso] + beneficio;
+                if (conItem > fila[w]) {
+                    fila[w] = conItem;
+                }
+            }
+        }
+    }
+
+    // ==================== COTAS Y MEMORIA ====================
+
+    /**
+     * Cota superior de la relajación lineal con los costos reales (mochila fraccional).
+     * Sirve para informar cuánto puede estar perdiendo la cuantización.
+     */
+    static double cotaFraccional(double[] costos, double[] beneficios, double capacidad) {
+        Integer[] orden = new Integer[costos.length];
+        for (int i = 0; i < orden.length; i++) {
+            orden[i] = i;
+        }
+        Arrays.sort(orden, Comparator.comparingDouble(i -> -beneficios[i] / costos[i]));
+
+        double restante = capacidad;
+        double cota = 0.0;
+        for (int i : orden) {
+            if (costos[i] <= restante) {
+                restante -= costos[i];
+                cota += beneficios[i];
+            } else {
+                cota += beneficios[i] * (restante / costos[i]);
+                break;
+            }
+        }
+        return cota;
+    }
+
+    private static long memoriaBitset(int items, int capacidad) {
+        long palabrasPorFila = (capacidad >>> 6) + 1L;
+        return items * palabrasPorFila * Long.BYTES + (capacidad + 1L) * Double.BYTES;
+    }
+
+    private static long memoriaHirschberg(int capacidad) {
+        return 2L * (capacidad + 1L) * Double.BYTES;
+    }
+
+    /**
+     * @param seleccionados  índices elegidos, en orden ascendente
+     * @param unidad         unidad de escalado realmente usada (puede ser mayor a la pedida)
+     * @param cotaSuperior   cota de la relajación fraccional sobre los costos reales
+     * @param brechaMaxima   (cotaSuperior - beneficioTotal) / cotaSuperior: pérdida máxima posible
+     */
+    public record Resultado(
+            int[] seleccionados,
+            double beneficioTotal,
+            double costoTotal,
+            double unidad,
+            int capacidadEscalada,
+            String modoReconstruccion,
+            long memoriaBytes,
+            double cotaSuperior,
+            double brechaMaxima) {
+    }
+}
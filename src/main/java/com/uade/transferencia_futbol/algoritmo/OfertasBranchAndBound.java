@@ -0,0 +1,381 @@
+package com.uade.transferencia_futbol.algoritmo;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Branch and bound de mejor primero para elegir jugadores dentro de un presupuesto.
+ *
+ * El objetivo es lexicográfico: primero la mayor cantidad de jugadores y, a
+ * igual cantidad, el mayor beneficio. Los items se ordenan por costo, así la
+ * cota de cantidad es exacta con sumas prefijas (tomar los más baratos que
+ * quedan) y la cota de beneficio es la relajación fraccional sobre los items
+ * restantes. La búsqueda se corta al agotar el límite de nodos o el tiempo,
+ * devolviendo la mejor solución encontrada hasta ese momento.
+ *
+ * {@link #resolverParalelo} recorre el mismo árbol en profundidad sobre un
+ * ForkJoinPool: cada tarea cede subárboles a otros hilos cuando hay workers
+ * libres y todas podan contra un incumbente global compartido.
+ */
+public final class OfertasBranchAndBound {
+
+    private final double[] costos;      // ordenados de menor a mayor
+    private final double[] beneficios;
+    private final int[] indicesOriginales;
+    private final double[] sumasPrefijas;
+    private final int[] porRendimiento;  // posiciones ordenadas por beneficio / costo
+    private final double capacidad;
+
+    public OfertasBranchAndBound(double[] costos, double[] beneficios, double capacidad) {
+        int n = costos.length;
+        Integer[] orden = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            orden[i] = i;
+        }
+        Arrays.sort(orden, (a, b) -> Double.compare(costos[a], costos[b]));
+
+        this.costos = new double[n];
+        this.beneficios = new double[n];
+        this.indicesOriginales = new int[n];
+        this.sumasPrefijas = new double[n + 1];
+        for (int i = 0; i < n; i++) {
+            this.costos[i] = costos[orden[i]];
+            this.beneficios[i] = beneficios[orden[i]];
+            this.indicesOriginales[i] = orden[i];
+            this.sumasPrefijas[i + 1] = sumasPrefijas[i] + this.costos[i];
+        }
+
+        Integer[] rendimiento = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            rendimiento[i] = i;
+        }
+        Arrays.sort(rendimiento, (a, b) -> Double.compare(
+            this.beneficios[b] / this.costos[b], this.beneficios[a] / this.costos[a]));
+        this.porRendimiento = Arrays.stream(rendimiento).mapToInt(Integer::intValue).toArray();
+        this.capacidad = capacidad;
+    }
+
+    public Resultado resolver(long limiteNodos, long timeoutMs) {
+        long inicio = System.nanoTime();
+        long limiteTiempo = inicio + timeoutMs * 1_000_000L;
+        int n = costos.length;
+
+        Nodo incumbente = solucionInicial();
+        int mejorCantidad = incumbente == null ? 0 : incumbente.cantidad;
+        double mejorBeneficio = incumbente == null ? 0.0 : incumbente.beneficio;
+
+        PriorityQueue<Nodo> frontera = new PriorityQueue<>(OfertasBranchAndBound::compararCotas);
+        frontera.add(acotar(new Nodo(null, -1, 0, 0, 0.0, 0.0, 0, 0)));
+
+        long expandidos = 0;
+        long podados = 0;
+        boolean completo = true;
+
+        while (!frontera.isEmpty()) {
+            if (expandidos >= limiteNodos || System.nanoTime() > limiteTiempo) {
+                completo = false;
+                break;
+            }
+            Nodo nodo = frontera.poll();
+            if (!superaIncumbente(nodo.cotaCantidad, nodo.cotaBeneficio, mejorCantidad, mejorBeneficio)) {
+                // Como la frontera está ordenada por cota, ningún nodo restante puede mejorar
+                podados += frontera.size() + 1;
+                frontera.clear();
+                break;
+            }
+            expandidos++;
+
+            if (nodo.siguiente >= n) {
+                continue;
+            }
+            int item = nodo.siguiente;
+
+            // Incluir el item
+            if (nodo.costo + costos[item] <= capacidad) {
+                Nodo incluir = acotar(new Nodo(nodo, item, item + 1, nodo.cantidad + 1,
+                    nodo.costo + costos[item], nodo.beneficio + beneficios[item], 0, 0));
+                if (superaIncumbente(incluir.cantidad, incluir.beneficio, mejorCantidad, mejorBeneficio)) {
+                    incumbente = incluir;
+                    mejorCantidad = incluir.cantidad;
+                    mejorBeneficio = incluir.beneficio;
+                }
+                if (superaIncumbente(incluir.cotaCantidad, incluir.cotaBeneficio, mejorCantidad, mejorBeneficio)) {
+                    frontera.add(incluir);
+                } else {
+                    podados++;
+                }
+            }
+
+            // Excluir el item
+            Nodo excluir = acotar(new Nodo(nodo.padre, nodo.item, item + 1, nodo.cantidad,
+                nodo.costo, nodo.beneficio, 0, 0));
+            if (superaIncumbente(excluir.cotaCantidad, excluir.cotaBeneficio, mejorCantidad, mejorBeneficio)) {
+                frontera.add(excluir);
+            } else {
+                podados++;
+            }
+        }
+
+        return new Resultado(reconstruir(incumbente), mejorCantidad, mejorBeneficio,
+            expandidos, podados, (System.nanoTime() - inicio) / 1_000_000L, completo);
+    }
+
+    /**
+     * Versión paralela: búsqueda en profundidad repartida en tareas de un
+     * ForkJoinPool, con el incumbente compartido en una referencia atómica.
+     * El plazo es absoluto para todos los workers.
+     */
+    public Resultado resolverParalelo(ForkJoinPool pool, long limiteNodos, long timeoutMs) {
+        long inicio = System.nanoTime();
+        Busqueda busqueda = new Busqueda(limiteNodos, inicio + timeoutMs * 1_000_000L);
+        Nodo inicial = solucionInicial();
+        if (inicial != null) {
+            busqueda.incumbente.set(inicial);
+        }
+
+        pool.invoke(new Subarbol(busqueda, acotar(new Nodo(null, -1, 0, 0, 0.0, 0.0, 0, 0))));
+
+        Nodo mejor = busqueda.incumbente.get();
+        return new Resultado(reconstruir(mejor), mejor == null ? 0 : mejor.cantidad,
+            mejor == null ? 0.0 : mejor.beneficio, busqueda.expandidos.sum(), busqueda.podados.sum(),
+            (System.nanoTime() - inicio) / 1_000_000L, !busqueda.cortada);
+    }
+
+    /**
+     * Estado compartido por todas las tareas de una búsqueda paralela.
+     */
+    private static final class Busqueda {
+        final AtomicReference<Nodo> incumbente = new AtomicReference<>();
+        final LongAdder expandidos = new LongAdder();
+        final LongAdder podados = new LongAdder();
+        final long limiteNodos;
+        final long limiteTiempo;
+        volatile boolean cortada;
+
+        Busqueda(long limiteNodos, long limiteTiempo) {
+            this.limiteNodos = limiteNodos;
+            this.limiteTiempo = limiteTiempo;
+        }
+
+        boolean podar(int cantidad, double beneficio) {
+            Nodo mejor = incumbente.get();
+            return mejor != null && !superaIncumbente(cantidad, beneficio, mejor.cantidad, mejor.beneficio);
+        }
+
+        void proponer(Nodo candidato) {
+            Nodo mejor = incumbente.get();
+            while (mejor == null || superaIncumbente(candidato.cantidad, candidato.beneficio, mejor.cantidad, mejor.beneficio)) {
+                if (incumbente.compareAndSet(mejor, candidato)) {
+                    return;
+                }
+                mejor = incumbente.get();
+            }
+        }
+
+        boolean agotada() {
+            if (cortada) {
+                return true;
+            }
+            if (expandidos.sum() >= limiteNodos || System.nanoTime() > limiteTiempo) {
+                cortada = true;
+            }
+            return cortada;
+        }
+    }
+
+    /**
+     * Recorre un subárbol en profundidad con una pila propia. Si el pool tiene
+     * poco trabajo encolado, el hijo de inclusión se publica como tarea nueva.
+     */
+    private final class Subarbol extends RecursiveAction {
+
+        // RecursiveAction es Serializable, pero las tareas nunca se serializan
+        private static final long serialVersionUID = 1L;
+
+        private static final int CHEQUEO_LIMITES = 1024;
+
+        private final transient Busqueda busqueda;
+        private final transient Nodo raiz;
+
+        Subarbol(Busqueda busqueda, Nodo raiz) {
+            this.busqueda = busqueda;
+            this.raiz = raiz;
+        }
+
+        @Override
+        protected void compute() {
+            ArrayDeque<Nodo> pila = new ArrayDeque<>();
+            ArrayDeque<Subarbol> cedidos = new ArrayDeque<>();
+            pila.push(raiz);
+            int n = costos.length;
+            long locales = 0;
+
+            while (!pila.isEmpty()) {
+                if ((locales & (CHEQUEO_LIMITES - 1)) == 0 && busqueda.agotada()) {
+                    break;
+                }
+                Nodo nodo = pila.pop();
+                if (busqueda.podar(nodo.cotaCantidad, nodo.cotaBeneficio)) {
+                    busqueda.podados.increment();
+                    continue;
+                }
+                busqueda.expandidos.increment();
+                locales++;
+                if (nodo.siguiente >= n) {
+                    continue;
+                }
+                int item = nodo.siguiente;
+
+                // Excluir se apila primero para explorar antes la inclusión
+                Nodo excluir = acotar(new Nodo(nodo.padre, nodo.item, item + 1, nodo.cantidad,
+                    nodo.costo, nodo.beneficio, 0, 0));
+                if (busqueda.podar(excluir.cotaCantidad, excluir.cotaBeneficio)) {
+                    busqueda.podados.increment();
+                } else {
+                    pila.push(excluir);
+                }
+
+                if (nodo.costo + costos[item] <= capacidad) {
+                    Nodo incluir = acotar(new Nodo(nodo, item, item + 1, nodo.cantidad + 1,
+                        nodo.costo + costos[item], nodo.beneficio + beneficios[item], 0, 0));
+                    busqueda.proponer(incluir);
+                    if (busqueda.podar(incluir.cotaCantidad, incluir.cotaBeneficio)) {
+                        busqueda.podados.increment();
+                    } else if (getSurplusQueuedTaskCount() < 2 && n - item > 8) {
+                        Subarbol tarea = new Subarbol(busqueda, incluir);
+                        tarea.fork();
+                        cedidos.push(tarea);
+                    } else {
+                        pila.push(incluir);
+                    }
+                }
+            }
+            // Esperar los subárboles cedidos, del último al primero
+            while (!cedidos.isEmpty()) {
+                cedidos.pop().join();
+            }
+        }
+    }
+
+    private Nodo solucionInicial() {
+        // Los más baratos que entren: ya maximiza la cantidad
+        Nodo incumbente = null;
+        int cantidadInicial = cantidadMaxima(0, capacidad);
+        for (int i = 0; i < cantidadInicial; i++) {
+            incumbente = new Nodo(incumbente, i, i + 1, i + 1, sumasPrefijas[i + 1],
+                (incumbente == null ? 0.0 : incumbente.beneficio) + beneficios[i], 0, 0);
+        }
+        return incumbente;
+    }
+
+    /**
+     * Completa las cotas del nodo: cantidad máxima alcanzable y beneficio fraccional.
+     */
+    private Nodo acotar(Nodo nodo) {
+        double restante = capacidad - nodo.costo;
+        nodo.cotaCantidad = nodo.cantidad + cantidadMaxima(nodo.siguiente, restante);
+
+        double cota = nodo.beneficio;
+        for (int i : porRendimiento) {
+            if (i < nodo.siguiente) {
+                continue;
+            }
+            if (costos[i] <= restante) {
+                restante -= costos[i];
+                cota += beneficios[i];
+            } else {
+                cota += beneficios[i] * (restante / costos[i]);
+                break;
+            }
+        }
+        nodo.cotaBeneficio = cota;
+        return nodo;
+    }
+
+    /**
+     * Cuántos de los items desde 'desde' entran en el presupuesto restante:
+     * al estar ordenados por costo, alcanza con buscar en las sumas prefijas.
+     */
+    private int cantidadMaxima(int desde, double restante) {
+        double limite = sumasPrefijas[desde] + restante;
+        int bajo = desde;
+        int alto = costos.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto + 1) >>> 1;
+            if (sumasPrefijas[medio] <= limite) {
+                bajo = medio;
+            } else {
+                alto = medio - 1;
+            }
+        }
+        return bajo - desde;
+    }
+
+    private int[] reconstruir(Nodo nodo) {
+        int[] seleccion = new int[nodo == null ? 0 : nodo.cantidad];
+        int i = seleccion.length - 1;
+        for (Nodo actual = nodo; actual != null && actual.item >= 0; actual = actual.padre) {
+            seleccion[i--] = indicesOriginales[actual.item];
+        }
+        Arrays.sort(seleccion);
+        return seleccion;
+    }
+
+    private static boolean superaIncumbente(int cantidad, double beneficio, int mejorCantidad, double mejorBeneficio) {
+        return cantidad > mejorCantidad || (cantidad == mejorCantidad && beneficio > mejorBeneficio);
+    }
+
+    private static int compararCotas(Nodo a, Nodo b) {
+        if (a.cotaCantidad != b.cotaCantidad) {
+            return Integer.compare(b.cotaCantidad, a.cotaCantidad);
+        }
+        return Double.compare(b.cotaBeneficio, a.cotaBeneficio);
+    }
+
+    /**
+     * Nodo del árbol de búsqueda. La selección se guarda como lista enlazada
+     * hacia el padre: 'padre' e 'item' apuntan a la última inclusión, así
+     * excluir no copia nada.
+     */
+    private static final class Nodo {
+        final Nodo padre;
+        final int item;
+        final int siguiente;
+        final int cantidad;
+        final double costo;
+        final double beneficio;
+        int cotaCantidad;
+        double cotaBeneficio;
+
+        Nodo(Nodo padre, int item, int siguiente, int cantidad, double costo, double beneficio,
+             int cotaCantidad, double cotaBeneficio) {
+            this.padre = padre;
+            this.item = item;
+            this.siguiente = siguiente;
+            this.cantidad = cantidad;
+            this.costo = costo;
+            this.beneficio = beneficio;
+            this.cotaCantidad = cotaCantidad;
+            this.cotaBeneficio = cotaBeneficio;
+        }
+    }
+
+    /**
+     * @param seleccionados índices (en el orden de entrada) de los items elegidos
+     * @param completo      true si la búsqueda terminó y la solución es óptima
+     */
+    public record Resultado(
+            int[] seleccionados,
+            int cantidad,
+            double beneficioTotal,
+            long nodosExpandidos,
+            long nodosPodados,
+            long tiempoMs,
+            boolean completo) {
+    }
+}
@@ -0,0 +1,252 @@
+package com.uade.transferencia_futbol.algoritmo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Rankings por valor sobre arreglos primitivos.
+ *
+ * Los valores se copian una sola vez a un double[] y se ordena un int[] de
+ * índices, sin comparadores ni objetos por comparación. Cada double se
+ * convierte en una clave long que, comparada sin signo, respeta el orden
+ * descendente; el ordenamiento es un radix LSD de 8 bits por dígito (O(n),
+ * estable: a igual valor primero el de menor índice) que saltea los dígitos
+ * en los que todas las claves coinciden. Para el top-k se usa un heap de
+ * mínimos de tamaño k sobre int[]: O(n log k).
+ *
+ * NaN queda último; -0.0 y 0.0 son el mismo valor.
+ */
+public final class RankingJugadores {
+
+    // Debajo de este tamaño la inserción le gana a armar los histogramas
+    private static final int UMBRAL_INSERCION = 64;
+
+    private static final int BITS_DIGITO = 8;
+    private static final int DIGITOS = Long.SIZE / BITS_DIGITO;
+    private static final int CUBETAS = 1 << BITS_DIGITO;
+
+    private RankingJugadores() {
+    }
+
+    /**
+     * Elementos ordenados de mayor a menor valor (estable). No modifica la lista recibida.
+     */
+    public static <T> List<T> ordenar(List<T> elementos, ToDoubleFunction<? super T> valor) {
+        return seleccionar(elementos, ordenDescendente(valores(elementos, valor)));
+    }
+
+    /**
+     * Los k elementos de mayor valor, de mayor a menor; a igual valor, en el orden de la lista.
+     */
+    public static <T> List<T> mejores(List<T> elementos, ToDoubleFunction<? super T> valor, int k) {
+        return seleccionar(elementos, mejoresK(valores(elementos, valor), k));
+    }
+
+    /**
+     * Índices de los valores de mayor a menor; a igual valor, primero el de menor índice.
+     */
+    public static int[] ordenDescendente(double[] valores) {
+        int n = valores.length;
+        long[] claves = new long[n];
+        int[] orden = new int[n];
+        for (int i = 0; i < n; i++) {
+            claves[i] = claveDescendente(valores[i]);
+            orden[i] = i;
+        }
+        if (n < UMBRAL_INSERCION) {
+            insercion(claves, orden);
+        } else {
+            radix(claves, orden);
+        }
+        return orden;
+    }
+
+    /**
+     * Índices de los k valores más altos, de mayor a menor; a igual valor,
+     * primero el de menor índice (el mismo orden que {@link #ordenDescendente}).
+     */
+    public static int[] mejoresK(double[] valores, int k) {
+        int n = valores.length;
+        int limite = Math.min(k, n);
+        if (limite <= 0) {
+            return new int[0];
+        }
+        if (limite > n / 4) {
+            // Con k cerca de n ordenar todo es más barato que el heap
+            int[] orden = ordenDescendente(valores);
+            return limite == n ? orden : Arrays.copyOf(orden, limite);
+        }
+
+        // Heap de mínimos con el "peor" de los k elegidos arriba (mayor clave, o mayor índice a igual clave)
+        long[] claves = new long[limite];
+        int[] indices = new int[limite];
+        int tamano = 0;
+        for (int i = 0; i < n; i++) {
+            long clave = claveDescendente(valores[i]);
+            if (tamano < limite) {
+                claves[tamano] = clave;
+                indices[tamano] = i;
+                subir(claves, indices, tamano++);
+            } else if (Long.compareUnsigned(clave, claves[0]) < 0) {
+                // Los índices llegan en orden creciente: a igual clave el nuevo nunca es mejor
+                claves[0] = clave;
+                indices[0] = i;
+                bajar(claves, indices, tamano);
+            }
+        }
+        int[] resultado = new int[limite];
+        for (int i = limite - 1; i >= 0; i--) {
+            resultado[i] = indices[0];
+            tamano--;
+            claves[0] = claves[tamano];
+            indices[0] = indices[tamano];
+            bajar(claves, indices, tamano);
+        }
+        return resultado;
+    }
+
+    /**
+     * Clave cuyo orden sin signo es el orden descendente del valor.
+     */
+    static long claveDescendente(double valor) {
+        if (Double.isNaN(valor)) {
+            return -1L;
+        }
+        long bits = Double.doubleToLongBits(valor == 0.0 ? 0.0 : valor);
+        // Positivos: se prende el bit de signo; negativos: se invierten todos los bits
+        long ascendente = bits ^ ((bits >> 63) | Long.MIN_VALUE);
+        return ~ascendente;
+    }
+
+    // ==================== ORDENAMIENTO ====================
+
+    private static void insercion(long[] claves, int[] orden) {
+        for (int i = 1; i < claves.length; i++) {
+            long clave = claves[i];
+            int indice = orden[i];
+            int j = i - 1;
+            while (j >= 0 && Long.compareUnsigned(claves[j], clave) > 0) {
+                claves[j + 1] = claves[j];
+                orden[j + 1] = orden[j];
+                j--;
+            }
+            claves[j + 1] = clave;
+            orden[j + 1] = indice;
+        }
+    }
+
+    private static void radix(long[] claves, int[] orden) {
+        int n = claves.length;
+        // Histogramas de todos los dígitos en una sola pasada
+        int[][] conteos = new int[DIGITOS][CUBETAS];
+        for (long clave : claves) {
+            for (int d = 0; d < DIGITOS; d++) {
+                conteos[d][(int) (clave >>> (d * BITS_DIGITO)) & (CUBETAS - 1)]++;
+            }
+        }
+
+        long[] clavesAux = new long[n];
+        int[] ordenAux = new int[n];
+        long[] origenClaves = claves;
+        int[] origenOrden = orden;
+        long[] destinoClaves = clavesAux;
+        int[] destinoOrden = ordenAux;
+        for (int d = 0; d < DIGITOS; d++) {
+            int[] conteo = conteos[d];
+            int desplazamiento = d * BITS_DIGITO;
+            // Todas las claves tienen el mismo dígito: la pasada no cambia nada
+            if (conteo[(int) (origenClaves[0] >>> desplazamiento) & (CUBETAS - 1)] == n) {
+                continue;
+            }
+            int suma = 0;
+            for (int c = 0; c < CUBETAS; c++) {
+                int cantidad = conteo[c];
+                conteo[c] = suma;
+                suma += cantidad;
+            }
+            for (int i = 0; i < n; i++) {
+                long clave = origenClaves[i];
+                int posicion = conteo[(int) (clave >>> desplazamiento) & (CUBETAS - 1)]++;
+                destinoClaves[posicion] = clave;
+                destinoOrden[posicion] = origenOrden[i];
+            }
+            long[] clavesTmp = origenClaves;
+            origenClaves = destinoClaves;
+            destinoClaves = clavesTmp;
+            int[] ordenTmp = origenOrden;
+            origenOrden = destinoOrden;
+            destinoOrden = ordenTmp;
+        }
+        if (origenOrden != orden) {
+            System.arraycopy(origenOrden, 0, orden, 0, n);
+            System.arraycopy(origenClaves, 0, claves, 0, n);
+        }
+    }
+
+    // ==================== HEAP DEL TOP-K ====================
+
+    // a es peor que b: mayor clave, o a igual clave mayor índice
+    private static boolean peor(long[] claves, int[] indices, int a, int b) {
+        int comparacion = Long.compareUnsigned(claves[a], claves[b]);
+        return comparacion != 0 ? comparacion > 0 : indices[a] > indices[b];
+    }
+
+    private static void subir(long[] claves, int[] indices, int i) {
+        while (i > 0) {
+            int padre = (i - 1) >>> 1;
+            if (!peor(claves, indices, i, padre)) {
+                return;
+            }
+            intercambiar(claves, indices, i, padre);
+            i = padre;
+        }
+    }
+
+    private static void bajar(long[] claves, int[] indices, int tamano) {
+        int i = 0;
+        while (true) {
+            int hijo = 2 * i + 1;
+            if (hijo >= tamano) {
+                return;
+            }
+            if (hijo + 1 < tamano && peor(claves, indices, hijo + 1, hijo)) {
+                hijo++;
+            }
+            if (!peor(claves, indices, hijo, i)) {
+                return;
+            }
+            intercambiar(claves, indices, i, hijo);
+            i = hijo;
+        }
+    }
+
+    private static void intercambiar(long[] claves, int[] indices, int a, int b) {
+        long clave = claves[a];
+        claves[a] = claves[b];
+        claves[b] = clave;
+        int indice = indices[a];
+        indices[a] = indices[b];
+        indices[b] = indice;
+    }
+
+    // ==================== AUXILIARES ====================
+
+    private static <T> double[] valores(List<T> elementos, ToDoubleFunction<? super T> valor) {
+        double[] valores = new double[elementos.size()];
+        int i = 0;
+        for (T elemento : elementos) {
+            valores[i++] = valor.applyAsDouble(elemento);
+        }
+        return valores;
+    }
+
+    private static <T> List<T> seleccionar(List<T> elementos, int[] indices) {
+        List<T> resultado = new ArrayList<>(indices.length);
+        for (int indice : indices) {
+            resultado.add(elementos.get(indice));
+        }
+        return resultado;
+    }
+}
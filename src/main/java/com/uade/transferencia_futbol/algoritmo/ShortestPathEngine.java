@@ -0,0 +1,155 @@
+package com.uade.transferencia_futbol.algoritmo;
+
+import java.util.Arrays;
+
+/**
+ * Dijkstra sobre un {@link GrafoCsr} con ids enteros, distancias en double[]
+ * y un heap d-ario indexado con decrease-key.
+ *
+ * Los arreglos de trabajo se reutilizan entre llamadas (uno por hilo), y se
+ * invalidan con un contador de generación en lugar de limpiarlos completos,
+ * así una consulta solo paga por los nodos que realmente visita.
+ * Los pesos deben ser no negativos.
+ */
+public final class ShortestPathEngine {
+
+    private final ThreadLocal<Buffers> buffers = ThreadLocal.withInitial(Buffers::new);
+
+    /**
+     * Camino más barato entre dos nodos, o null si el destino no es alcanzable.
+     */
+    public Camino caminoMasBarato(GrafoCsr grafo, int origen, int destino) {
+        Buffers b = prepararBuffers(grafo);
+        b.objetivos[destino] = b.generacion;
+        ejecutar(grafo, origen, 1, b);
+
+        if (!b.alcanzado(destino)) {
+            return null;
+        }
+        return new Camino(reconstruir(b, destino), b.distancias[destino]);
+    }
+
+    /**
+     * Caminos más baratos desde un origen hacia varios destinos con una sola
+     * búsqueda, que se detiene apenas todos los destinos quedan definitivos.
+     * La posición i del resultado es null si destinos[i] no es alcanzable.
+     */
+    public Camino[] caminosDesde(GrafoCsr grafo, int origen, int[] destinos) {
+        if (destinos.length == 0) {
+            return new Camino[0];
+        }
+        Buffers b = prepararBuffers(grafo);
+        int pendientes = 0;
+        for (int destino : destinos) {
+            if (b.objetivos[destino] != b.generacion) {
+                b.objetivos[destino] = b.generacion;
+                pendientes++;
+            }
+        }
+        ejecutar(grafo, origen, pendientes, b);
+
+        Camino[] caminos = new Camino[destinos.length];
+        for (int i = 0; i < destinos.length; i++) {
+            int destino = destinos[i];
+            if (b.alcanzado(destino)) {
+                caminos[i] = new Camino(reconstruir(b, destino), b.distancias[destino]);
+            }
+        }
+        return caminos;
+    }
+
+    private Buffers prepararBuffers(GrafoCsr grafo) {
+        Buffers b = buffers.get();
+        b.preparar(grafo.cantidadNodos());
+        return b;
+    }
+
+    /**
+     * Ejecuta Dijkstra desde el origen hasta cerrar los nodos marcados como objetivo.
+     */
+    private void ejecutar(GrafoCsr grafo, int origen, int pendientes, Buffers b) {
+        HeapIndexado heap = b.heap;
+        b.marcar(origen, 0.0, -1);
+        heap.insertarOReducir(origen, 0.0);
+
+        while (!heap.estaVacio()) {
+            int actual = heap.extraerMinimo();
+            b.cerrados[actual] = b.generacion;
+            if (b.objetivos[actual] == b.generacion && --pendientes == 0) {
+                break;
+            }
+
+            double distanciaActual = b.distancias[actual];
+            for (int arista = grafo.inicio(actual), fin = grafo.fin(actual); arista < fin; arista++) {
+                int vecino = grafo.destino(arista);
+                if (b.cerrados[vecino] == b.generacion) {
+                    continue;
+                }
+                double nuevaDistancia = distanciaActual + grafo.peso(arista);
+                if (!b.alcanzado(vecino) || nuevaDistancia < b.distancias[vecino]) {
+                    b.marcar(vecino, nuevaDistancia, actual);
+                    heap.insertarOReducir(vecino, nuevaDistancia);
+                }
+            }
+        }
+        heap.limpiar();
+    }
+
+    private static int[] reconstruir(Buffers b, int destino) {
+        int largo = 0;
+        for (int nodo = destino; nodo >= 0; nodo = b.predecesores[nodo]) {
+            largo++;
+        }
+        int[] camino = new int[largo];
+        for (int nodo = destino, i = largo - 1; nodo >= 0; nodo = b.predecesores[nodo], i--) {
+            camino[i] = nodo;
+        }
+        return camino;
+    }
+
+    public record Camino(int[] nodos, double costo) {
+    }
+
+    /**
+     * Memoria de trabajo reutilizable de un hilo.
+     */
+    private static final class Buffers {
+
+        double[] distancias = new double[0];
+        int[] predecesores = new int[0];
+        int[] visitados = new int[0];  // generación en que se asignó la distancia
+        int[] cerrados = new int[0];   // generación en que el nodo quedó definitivo
+        int[] objetivos = new int[0];  // generación en que el nodo se pidió como destino
+        int generacion = 0;
+        final HeapIndexado heap = new HeapIndexado(16);
+
+        void preparar(int cantidadNodos) {
+            if (distancias.length < cantidadNodos) {
+                int capacidad = Math.max(cantidadNodos, distancias.length * 2);
+                distancias = new double[capacidad];
+                predecesores = new int[capacidad];
+                visitados = new int[capacidad];
+                cerrados = new int[capacidad];
+                objetivos = new int[capacidad];
+                heap.asegurarCapacidad(capacidad);
+                generacion = 0;
+            }
+            if (++generacion == Integer.MAX_VALUE) {
+                Arrays.fill(visitados, 0);
+                Arrays.fill(cerrados, 0);
+                Arrays.fill(objetivos, 0);
+                generacion = 1;
+            }
+        }
+
+        boolean alcanzado(int nodo) {
+            return visitados[nodo] == generacion;
+        }
+
+        void marcar(int nodo, double distancia, int predecesor) {
+            visitados[nodo] = generacion;
+            distancias[nodo] = distancia;
+            predecesores[nodo] = predecesor;
+        }
+    }
+}
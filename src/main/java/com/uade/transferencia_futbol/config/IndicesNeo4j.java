@@ -0,0 +1,51 @@
+package com.uade.transferencia_futbol.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Crea al arrancar los índices que necesitan las consultas paginadas.
+ * Son idempotentes (IF NOT EXISTS), así que se pueden ejecutar en cada inicio.
+ */
+@Component
+public class IndicesNeo4j {
+
+    private static final Logger log = LoggerFactory.getLogger(IndicesNeo4j.class);
+
+    static final List<String> INDICES = List.of(
+        // Orden y búsqueda por (valorMercado, nombre) de /api/jugadores/ordenados-por-valor
+        "CREATE RANGE INDEX jugador_valor_mercado_nombre IF NOT EXISTS " +
+        "FOR (j:Jugador) ON (j.valorMercado, j.nombre)",
+        // Páginas por nombre de los listados de /api/jugadores, /api/clubes, /api/ligas y /api/agentes
+        "CREATE RANGE INDEX jugador_nombre IF NOT EXISTS FOR (j:Jugador) ON (j.nombre)",
+        "CREATE RANGE INDEX club_nombre IF NOT EXISTS FOR (c:Club) ON (c.nombre)",
+        "CREATE RANGE INDEX liga_nombre IF NOT EXISTS FOR (l:Liga) ON (l.nombre)",
+        "CREATE RANGE INDEX agente_nombre IF NOT EXISTS FOR (a:Agente) ON (a.nombre)",
+        // Páginas de /api/transferencias, de la más reciente a la más antigua
+        "CREATE RANGE INDEX transferido_fecha IF NOT EXISTS FOR ()-[t:TRANSFERIDO]-() ON (t.fecha)",
+        // Estadísticas de /api/transferencias/estadisticas/{temporada}
+        "CREATE RANGE INDEX transferido_temporada IF NOT EXISTS FOR ()-[t:TRANSFERIDO]-() ON (t.temporada)"
+    );
+
+    @Autowired
+    private Neo4jClient neo4jClient;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void crearAlIniciar() {
+        for (String indice : INDICES) {
+            try {
+                neo4jClient.query(indice).run();
+            } catch (RuntimeException e) {
+                // Sin base disponible o sin permisos: las consultas funcionan igual, solo más lentas
+                log.warn("No se pudo crear el índice ({}): {}", indice, e.getMessage());
+            }
+        }
+    }
+}
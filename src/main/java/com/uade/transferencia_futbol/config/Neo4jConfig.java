@@ -3,14 +3,27 @@ package com.uade.transferencia_futbol.config;
 import org.neo4j.driver.Driver;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.neo4j.core.DatabaseSelectionProvider;
+import org.springframework.data.neo4j.core.transaction.Neo4jBookmarkManager;
 import org.springframework.data.neo4j.core.transaction.Neo4jTransactionManager;
 import org.springframework.transaction.PlatformTransactionManager;
 
 @Configuration
 public class Neo4jConfig {
 
+    // Un único bean: lo toman el transaction manager, el Neo4jClient y LecturaStreaming
     @Bean
-    public PlatformTransactionManager transactionManager(Driver driver) {
-        return new Neo4jTransactionManager(driver);
+    public Neo4jBookmarkManager bookmarkManager() {
+        return Neo4jBookmarkManager.create();
+    }
+
+    @Bean
+    public PlatformTransactionManager transactionManager(Driver driver,
+                                                         DatabaseSelectionProvider databaseSelectionProvider,
+                                                         Neo4jBookmarkManager bookmarkManager) {
+        return Neo4jTransactionManager.with(driver)
+            .withDatabaseSelectionProvider(databaseSelectionProvider)
+            .withBookmarkManager(bookmarkManager)
+            .build();
     }
 }
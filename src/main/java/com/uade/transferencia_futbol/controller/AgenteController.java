@@ -1,15 +1,26 @@
 package com.uade.transferencia_futbol.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uade.transferencia_futbol.dto.AsignacionAgente;
+import com.uade.transferencia_futbol.dto.AgenteSummary;
 import com.uade.transferencia_futbol.entity.AgenteEntity;
 import com.uade.transferencia_futbol.entity.JugadorEntity;
 import com.uade.transferencia_futbol.service.AgenteService;
+import com.uade.transferencia_futbol.util.NdjsonWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Consumer;
 
 @RestController
 @RequestMapping("/api/agentes")
@@ -19,6 +30,9 @@ public class AgenteController {
     @Autowired
     private AgenteService agenteService;
     
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     // ===== CRUD BÁSICO =====
     
     @PostMapping
@@ -32,16 +46,35 @@ public class AgenteController {
         }
     }
     
+    /**
+     * Una página ordenada por nombre, de paginacion.limite-por-defecto elementos
+     * si no se indica limite y nunca más de paginacion.limite-maximo:
+     * GET /api/agentes?limite=50 y, para seguir, GET /api/agentes?cursor={siguienteCursor}.
+     */
     @GetMapping
-    public ResponseEntity<List<AgenteEntity>> obtenerTodosAgentes() {
-        return ResponseEntity.ok(agenteService.obtenerTodosAgentes());
+    public ResponseEntity<?> obtenerTodosAgentes(
+            @RequestParam(defaultValue = "false") boolean expand,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) String cursor) {
+        try {
+            return ResponseEntity.ok(agenteService.obtenerPaginaAgentes(limite, cursor, expand));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+        }
     }
     
     @GetMapping("/{nombre}")
-    public ResponseEntity<?> obtenerAgentePorNombre(@PathVariable String nombre) {
-        return agenteService.obtenerAgentePorNombre(nombre)
-            .map(ResponseEntity::ok)
-            .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<?> obtenerAgentePorNombre(
+            @PathVariable String nombre,
+            @RequestParam(defaultValue = "false") boolean expand) {
+        // El resumen sale de la cache; la entidad completa, de la base
+        Optional<?> agente = expand
+            ? agenteService.obtenerAgentePorNombre(nombre)
+            : agenteService.obtenerResumenAgente(nombre);
+        return agente.isPresent()
+            ? ResponseEntity.ok(agente.get())
+            : ResponseEntity.notFound().build();
     }
     
     @PutMapping("/{nombre}")
@@ -71,30 +104,31 @@ public class AgenteController {
     // ===== BÚSQUEDAS Y FILTROS =====
     
     @GetMapping("/agencia/{agencia}")
-    public ResponseEntity<List<AgenteEntity>> buscarPorAgencia(@PathVariable String agencia) {
-        return ResponseEntity.ok(agenteService.buscarPorAgencia(agencia));
+    public ResponseEntity<List<?>> buscarPorAgencia(@PathVariable String agencia, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(agenteService.buscarPorAgencia(agencia, tipo(expand)));
     }
     
     @GetMapping("/nacionalidad/{nacionalidad}")
-    public ResponseEntity<List<AgenteEntity>> buscarPorNacionalidad(@PathVariable String nacionalidad) {
-        return ResponseEntity.ok(agenteService.buscarPorNacionalidad(nacionalidad));
+    public ResponseEntity<List<?>> buscarPorNacionalidad(@PathVariable String nacionalidad, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(agenteService.buscarPorNacionalidad(nacionalidad, tipo(expand)));
     }
     
     @GetMapping("/comision-minima/{comision}")
-    public ResponseEntity<List<AgenteEntity>> buscarPorComisionMinima(@PathVariable Double comision) {
-        return ResponseEntity.ok(agenteService.buscarPorComisionMinima(comision));
+    public ResponseEntity<List<?>> buscarPorComisionMinima(@PathVariable Double comision, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(agenteService.buscarPorComisionMinima(comision, tipo(expand)));
     }
     
     @GetMapping("/comision-rango")
-    public ResponseEntity<List<AgenteEntity>> buscarPorRangoComision(
+    public ResponseEntity<List<?>> buscarPorRangoComision(
             @RequestParam Double comisionMin,
-            @RequestParam Double comisionMax) {
-        return ResponseEntity.ok(agenteService.buscarPorRangoComision(comisionMin, comisionMax));
+            @RequestParam Double comisionMax,
+            @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(agenteService.buscarPorRangoComision(comisionMin, comisionMax, tipo(expand)));
     }
     
     @GetMapping("/minimo-jugadores/{cantidad}")
-    public ResponseEntity<List<AgenteEntity>> agentesConMinimoJugadores(@PathVariable Integer cantidad) {
-        return ResponseEntity.ok(agenteService.agentesConMinimoJugadores(cantidad));
+    public ResponseEntity<List<?>> agentesConMinimoJugadores(@PathVariable Integer cantidad, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(agenteService.agentesConMinimoJugadores(cantidad, tipo(expand)));
     }
     
     @GetMapping("/{nombre}/valor-cartera")
@@ -106,14 +140,24 @@ public class AgenteController {
         ));
     }
     
+    @GetMapping("/{nombre}/agregados")
+    public ResponseEntity<?> obtenerAgregadosAgente(@PathVariable String nombre) {
+        try {
+            return ResponseEntity.ok(agenteService.obtenerAgregadosAgente(nombre));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     @GetMapping("/top-jugadores/{limit}")
-    public ResponseEntity<List<AgenteEntity>> obtenerTopAgentesPorJugadores(@PathVariable Integer limit) {
-        return ResponseEntity.ok(agenteService.obtenerTopAgentesPorJugadores(limit));
+    public ResponseEntity<List<?>> obtenerTopAgentesPorJugadores(@PathVariable Integer limit, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(agenteService.obtenerTopAgentesPorJugadores(limit, tipo(expand)));
     }
     
     @GetMapping("/club/{nombreClub}")
-    public ResponseEntity<List<AgenteEntity>> agentesConJugadoresEnClub(@PathVariable String nombreClub) {
-        return ResponseEntity.ok(agenteService.agentesConJugadoresEnClub(nombreClub));
+    public ResponseEntity<List<?>> agentesConJugadoresEnClub(@PathVariable String nombreClub, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(agenteService.agentesConJugadoresEnClub(nombreClub, tipo(expand)));
     }
     
     // ===== ACTUALIZACIONES ESPECÍFICAS =====
@@ -156,7 +200,7 @@ public class AgenteController {
      */
     @GetMapping("/asignacion-greedy")
     public ResponseEntity<?> asignarJugadoresAgentesGreedy() {
-        Map<AgenteEntity, List<JugadorEntity>> asignacion = agenteService.asignarJugadoresAgentesGreedy();
+        Map<String, List<JugadorEntity>> asignacion = agenteService.asignarJugadoresAgentesGreedy();
         
         // Formatear respuesta
         Map<String, Object> respuesta = Map.of(
@@ -165,7 +209,7 @@ public class AgenteController {
             "totalAgentes", asignacion.size(),
             "asignaciones", asignacion.entrySet().stream()
                 .map(entry -> Map.of(
-                    "agente", entry.getKey().getNombre(),
+                    "agente", entry.getKey(),
                     "jugadoresAsignados", entry.getValue().size(),
                     "jugadores", entry.getValue().stream()
                         .map(JugadorEntity::getNombre)
@@ -176,4 +220,88 @@ public class AgenteController {
         
         return ResponseEntity.ok(respuesta);
     }
-}
\ No newline at end of file
+    
+    /**
+     * GREEDY - Asignación en streaming
+     * Endpoint: GET /api/agentes/asignacion-greedy/stream
+     * Responde NDJSON: una línea por jugador asignado y al final una línea con el resumen.
+     */
+    @GetMapping("/asignacion-greedy/stream")
+    public ResponseEntity<StreamingResponseBody> asignarJugadoresAgentesGreedyStream() {
+        return asignacionEnStreaming(false);
+    }
+    
+    /**
+     * GREEDY - Asignación persistida
+     * Endpoint: POST /api/agentes/asignacion-greedy
+     * Igual que el streaming, pero guarda cada asignación como REPRESENTADO_POR en lotes.
+     */
+    @PostMapping("/asignacion-greedy")
+    public ResponseEntity<StreamingResponseBody> persistirAsignacionJugadoresAgentesGreedy() {
+        return asignacionEnStreaming(true);
+    }
+    
+    private ResponseEntity<StreamingResponseBody> asignacionEnStreaming(boolean persistir) {
+        return enStreaming(alAsignar -> agenteService.asignarJugadoresAgentesGreedy(persistir, alAsignar));
+    }
+    
+    /**
+     * FLUJO DE COSTO MÍNIMO - Asignación balanceada por valor y comisión
+     * Endpoint: GET /api/agentes/asignacion-flujo/stream?capacidadMaxima=40&holgura=0.2
+     * Balancea el valor de mercado representado por cada agente, respeta su capacidad
+     * y minimiza la comisión esperada. Responde NDJSON como el greedy.
+     */
+    @GetMapping("/asignacion-flujo/stream")
+    public ResponseEntity<?> asignarJugadoresAgentesFlujoStream(
+            @RequestParam(required = false) Integer capacidadMaxima,
+            @RequestParam(required = false) Double holgura) {
+        return asignacionFlujo(capacidadMaxima, holgura, false);
+    }
+    
+    /**
+     * FLUJO DE COSTO MÍNIMO - Asignación persistida
+     * Endpoint: POST /api/agentes/asignacion-flujo?capacidadMaxima=40&holgura=0.2
+     */
+    @PostMapping("/asignacion-flujo")
+    public ResponseEntity<?> persistirAsignacionJugadoresAgentesFlujo(
+            @RequestParam(required = false) Integer capacidadMaxima,
+            @RequestParam(required = false) Double holgura) {
+        return asignacionFlujo(capacidadMaxima, holgura, true);
+    }
+    
+    private ResponseEntity<?> asignacionFlujo(Integer capacidadMaxima, Double holgura, boolean persistir) {
+        if (holgura != null && (holgura < 0 || holgura > 1)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", "La holgura debe estar entre 0 y 1"));
+        }
+        if (capacidadMaxima != null && capacidadMaxima < 0) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", "La capacidad máxima no puede ser negativa"));
+        }
+        return enStreaming(alAsignar ->
+            agenteService.asignarJugadoresAgentesFlujo(capacidadMaxima, holgura, persistir, alAsignar));
+    }
+    
+    private ResponseEntity<StreamingResponseBody> enStreaming(
+            Function<Consumer<AsignacionAgente>, Map<String, Object>> asignar) {
+        StreamingResponseBody cuerpo = salida -> {
+            NdjsonWriter writer = new NdjsonWriter(salida, objectMapper);
+            Map<String, Object> resumen = asignar.apply(asignacion -> {
+                try {
+                    writer.escribir(asignacion);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.escribir(Map.of("resumen", resumen));
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(cuerpo);
+    }
+    
+    // Con expand=true se devuelve la entidad completa (los jugadores representados); si no, el resumen plano
+    private static Class<?> tipo(boolean expand) {
+        return expand ? AgenteEntity.class : AgenteSummary.class;
+    }
+}
@@ -0,0 +1,32 @@
+package com.uade.transferencia_futbol.controller;
+
+import com.uade.transferencia_futbol.service.ResumenesCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/cache")
+@CrossOrigin(origins = "*")
+public class CacheController {
+    
+    @Autowired
+    private ResumenesCache resumenesCache;
+    
+    /**
+     * Aciertos, fallos y desalojos de la cache de resúmenes de clubes, ligas y agentes
+     * Endpoint: GET /api/cache/resumenes
+     */
+    @GetMapping("/resumenes")
+    public ResponseEntity<Map<String, Object>> obtenerEstadisticasResumenes() {
+        return ResponseEntity.ok(resumenesCache.estadisticas());
+    }
+    
+    @DeleteMapping("/resumenes")
+    public ResponseEntity<?> vaciarResumenes() {
+        resumenesCache.vaciar();
+        return ResponseEntity.ok(Map.of("mensaje", "Cache de resúmenes vaciada"));
+    }
+}
@@ -1,15 +1,18 @@
 package com.uade.transferencia_futbol.controller;
 
+import com.uade.transferencia_futbol.dto.ClubSummary;
 import com.uade.transferencia_futbol.entity.ClubEntity;
 import com.uade.transferencia_futbol.entity.JugadorEntity;
 import com.uade.transferencia_futbol.service.ClubService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/clubes")
@@ -19,6 +22,9 @@ public class ClubController {
     @Autowired
     private ClubService clubService;
     
+    @Value("${clubes.formaciones.timeout-ms:2000}")
+    private long timeoutFormacionesMs;
+    
     // ===== CRUD BÁSICO =====
     
     @PostMapping
@@ -32,16 +38,35 @@ public class ClubController {
         }
     }
     
+    /**
+     * Una página ordenada por nombre, de paginacion.limite-por-defecto elementos
+     * si no se indica limite y nunca más de paginacion.limite-maximo:
+     * GET /api/clubes?limite=50 y, para seguir, GET /api/clubes?cursor={siguienteCursor}.
+     */
     @GetMapping
-    public ResponseEntity<List<ClubEntity>> obtenerTodosClubes() {
-        return ResponseEntity.ok(clubService.obtenerTodosClubes());
+    public ResponseEntity<?> obtenerTodosClubes(
+            @RequestParam(defaultValue = "false") boolean expand,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) String cursor) {
+        try {
+            return ResponseEntity.ok(clubService.obtenerPaginaClubes(limite, cursor, expand));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+        }
     }
     
     @GetMapping("/{nombre}")
-    public ResponseEntity<?> obtenerClubPorNombre(@PathVariable String nombre) {
-        return clubService.obtenerClubPorNombre(nombre)
-            .map(ResponseEntity::ok)
-            .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<?> obtenerClubPorNombre(
+            @PathVariable String nombre,
+            @RequestParam(defaultValue = "false") boolean expand) {
+        // El resumen sale de la cache; la entidad completa, de la base
+        Optional<?> club = expand
+            ? clubService.obtenerClubPorNombre(nombre)
+            : clubService.obtenerResumenClub(nombre);
+        return club.isPresent()
+            ? ResponseEntity.ok(club.get())
+            : ResponseEntity.notFound().build();
     }
     
     @PutMapping("/{nombre}")
@@ -86,48 +111,48 @@ public class ClubController {
     // ===== BÚSQUEDAS Y FILTROS =====
     
     @GetMapping("/pais/{pais}")
-    public ResponseEntity<List<ClubEntity>> buscarPorPais(@PathVariable String pais) {
-        return ResponseEntity.ok(clubService.buscarPorPais(pais));
+    public ResponseEntity<List<?>> buscarPorPais(@PathVariable String pais, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(clubService.buscarPorPais(pais, tipo(expand)));
     }
     
     @GetMapping("/liga/{liga}")
-    public ResponseEntity<List<ClubEntity>> buscarPorLiga(@PathVariable String liga) {
-        return ResponseEntity.ok(clubService.buscarPorLiga(liga));
+    public ResponseEntity<List<?>> buscarPorLiga(@PathVariable String liga, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(clubService.buscarPorLiga(liga, tipo(expand)));
     }
     
     @GetMapping("/presupuesto-minimo/{presupuesto}")
-    public ResponseEntity<List<ClubEntity>> buscarPorPresupuestoMinimo(@PathVariable Double presupuesto) {
-        return ResponseEntity.ok(clubService.buscarPorPresupuestoMinimo(presupuesto));
+    public ResponseEntity<List<?>> buscarPorPresupuestoMinimo(@PathVariable Double presupuesto, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(clubService.buscarPorPresupuestoMinimo(presupuesto, tipo(expand)));
     }
     
     @GetMapping("/fundados-despues/{anio}")
-    public ResponseEntity<List<ClubEntity>> buscarFundadosDespuesDe(@PathVariable Integer anio) {
-        return ResponseEntity.ok(clubService.buscarFundadosDespuesDe(anio));
+    public ResponseEntity<List<?>> buscarFundadosDespuesDe(@PathVariable Integer anio, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(clubService.buscarFundadosDespuesDe(anio, tipo(expand)));
     }
     
     @GetMapping("/liga-detalle/{nombreLiga}")
-    public ResponseEntity<List<ClubEntity>> obtenerClubesDeUnaLiga(@PathVariable String nombreLiga) {
-        return ResponseEntity.ok(clubService.obtenerClubesDeUnaLiga(nombreLiga));
+    public ResponseEntity<List<?>> obtenerClubesDeUnaLiga(@PathVariable String nombreLiga, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(clubService.obtenerClubesDeUnaLiga(nombreLiga, tipo(expand)));
     }
     
     @GetMapping("/pueden-pagar/{valor}")
-    public ResponseEntity<List<ClubEntity>> clubesQuePuedenPagar(@PathVariable Double valor) {
-        return ResponseEntity.ok(clubService.clubesQuePuedenPagar(valor));
+    public ResponseEntity<List<?>> clubesQuePuedenPagar(@PathVariable Double valor, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(clubService.clubesQuePuedenPagar(valor, tipo(expand)));
     }
     
     @GetMapping("/nacionalidad-jugadores/{nacionalidad}")
-    public ResponseEntity<List<ClubEntity>> clubesConJugadoresDeNacionalidad(@PathVariable String nacionalidad) {
-        return ResponseEntity.ok(clubService.clubesConJugadoresDeNacionalidad(nacionalidad));
+    public ResponseEntity<List<?>> clubesConJugadoresDeNacionalidad(@PathVariable String nacionalidad, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(clubService.clubesConJugadoresDeNacionalidad(nacionalidad, tipo(expand)));
     }
     
     @GetMapping("/top-presupuesto/{limit}")
-    public ResponseEntity<List<ClubEntity>> obtenerTopClubesPorPresupuesto(@PathVariable Integer limit) {
-        return ResponseEntity.ok(clubService.obtenerTopClubesPorPresupuesto(limit));
+    public ResponseEntity<List<?>> obtenerTopClubesPorPresupuesto(@PathVariable Integer limit, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(clubService.obtenerTopClubesPorPresupuesto(limit, tipo(expand)));
     }
     
     @GetMapping("/top-jugadores/{limit}")
-    public ResponseEntity<List<ClubEntity>> obtenerTopClubesPorNumeroJugadores(@PathVariable Integer limit) {
-        return ResponseEntity.ok(clubService.obtenerTopClubesPorNumeroJugadores(limit));
+    public ResponseEntity<List<?>> obtenerTopClubesPorNumeroJugadores(@PathVariable Integer limit, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(clubService.obtenerTopClubesPorNumeroJugadores(limit, tipo(expand)));
     }
     
     @GetMapping("/valor-plantilla/{nombreClub}")
@@ -144,6 +169,16 @@ public class ClubController {
         }
     }
     
+    @GetMapping("/{nombreClub}/agregados")
+    public ResponseEntity<?> obtenerAgregadosClub(@PathVariable String nombreClub) {
+        try {
+            return ResponseEntity.ok(clubService.obtenerAgregadosClub(nombreClub));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     // ===== ACTUALIZACIONES DE PRESUPUESTO =====
     
     @PatchMapping("/{nombre}/presupuesto")
@@ -232,45 +267,18 @@ public class ClubController {
     }
     
     /**
-     * BACKTRACKING - Múltiples formaciones comparativas
-     * Endpoint: GET /api/clubes/{nombre}/comparar-formaciones
+     * Múltiples formaciones comparativas, evaluadas en paralelo
+     * Endpoint: GET /api/clubes/{nombre}/comparar-formaciones?formaciones=4-3-3,4-4-2
      */
     @GetMapping("/{nombreClub}/comparar-formaciones")
     public ResponseEntity<?> compararFormaciones(
             @PathVariable String nombreClub,
-            @RequestParam(defaultValue = "100000000") Double presupuesto) {
+            @RequestParam(defaultValue = "100000000") Double presupuesto,
+            @RequestParam(defaultValue = "4-3-3,4-4-2,3-5-2,4-2-3-1,3-4-3") List<String> formaciones,
+            @RequestParam(required = false) Long timeoutMs) {
         try {
-            String[] formaciones = {"4-3-3", "4-4-2", "3-5-2", "4-2-3-1", "3-4-3"};
-            Map<String, Object> comparativa = new java.util.HashMap<>();
-            comparativa.put("club", nombreClub);
-            comparativa.put("presupuesto", presupuesto);
-            comparativa.put("algoritmo", "Backtracking Comparativo");
-            
-            List<Map<String, Object>> resultados = new java.util.ArrayList<>();
-            
-            for (String formacion : formaciones) {
-                try {
-                    Map<String, Object> resultado = clubService.obtenerEscuadraOptimaConPresupuesto(
-                        nombreClub, formacion, presupuesto);
-                    
-                    resultados.add(Map.of(
-                        "formacion", formacion,
-                        "valorTotal", resultado.get("valorTotal"),
-                        "costoTotal", resultado.get("costoTotal"),
-                        "ratingTotal", resultado.get("ratingTotal"),
-                        "jugadoresNuevos", resultado.get("jugadoresNuevos"),
-                        "totalJugadores", resultado.get("escuadra") != null ? 
-                            ((List<?>) resultado.get("escuadra")).size() : 0
-                    ));
-                } catch (Exception e) {
-                    resultados.add(Map.of(
-                        "formacion", formacion,
-                        "error", e.getMessage()
-                    ));
-                }
-            }
-            
-            comparativa.put("resultados", resultados);
+            Map<String, Object> comparativa = clubService.compararFormaciones(
+                nombreClub, formaciones, presupuesto, timeoutMs != null ? timeoutMs : timeoutFormacionesMs);
             return ResponseEntity.ok(comparativa);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -281,19 +289,25 @@ public class ClubController {
     // ===== CONSULTAS ADICIONALES =====
     
     @GetMapping("/rango-presupuesto")
-    public ResponseEntity<List<ClubEntity>> buscarPorRangoPresupuesto(
+    public ResponseEntity<List<?>> buscarPorRangoPresupuesto(
             @RequestParam Double min,
-            @RequestParam Double max) {
-        return ResponseEntity.ok(clubService.buscarPorRangoPresupuesto(min, max));
+            @RequestParam Double max,
+            @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(clubService.buscarPorRangoPresupuesto(min, max, tipo(expand)));
     }
     
     @GetMapping("/ligas-top/{nivelMinimo}")
-    public ResponseEntity<List<ClubEntity>> buscarClubesEnLigasTopNivel(@PathVariable Integer nivelMinimo) {
-        return ResponseEntity.ok(clubService.buscarClubesEnLigasTopNivel(nivelMinimo));
+    public ResponseEntity<List<?>> buscarClubesEnLigasTopNivel(@PathVariable Integer nivelMinimo, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(clubService.buscarClubesEnLigasTopNivel(nivelMinimo, tipo(expand)));
     }
     
     @GetMapping("/ordenados-fundacion")
-    public ResponseEntity<List<ClubEntity>> obtenerClubesOrdenadosPorFundacion() {
-        return ResponseEntity.ok(clubService.obtenerClubesOrdenadosPorFundacion());
+    public ResponseEntity<List<?>> obtenerClubesOrdenadosPorFundacion(@RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(clubService.obtenerClubesOrdenadosPorFundacion(tipo(expand)));
+    }
+    
+    // Con expand=true se devuelve la entidad completa (el plantel y la liga); si no, el resumen plano
+    private static Class<?> tipo(boolean expand) {
+        return expand ? ClubEntity.class : ClubSummary.class;
     }
-}
\ No newline at end of file
+}
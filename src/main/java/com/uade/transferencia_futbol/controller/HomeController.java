@@ -29,12 +29,19 @@ public class HomeController {
         endpoints.put("agentes", "/api/agentes");
         endpoints.put("ligas", "/api/ligas");
         endpoints.put("transferencias", "/api/transferencias");
+        endpoints.put("cache", "/api/cache/resumenes");
         endpoints.put("health", "/api/health");
         
         Map<String, String> algoritmosEndpoints = new HashMap<>();
         algoritmosEndpoints.put("Dijkstra - Ruta más barata", "GET /api/transferencias/ruta-mas-barata?clubOrigen={club1}&clubDestino={club2}");
+        algoritmosEndpoints.put("Dijkstra - Rutas en lote (NDJSON)", "POST /api/transferencias/rutas-mas-baratas {origenes: [...], destinos: [...]}");
         algoritmosEndpoints.put("BFS - Carrera jugador", "GET /api/jugadores/{nombre}/carrera-bfs");
         algoritmosEndpoints.put("DFS - Carrera jugador", "GET /api/jugadores/{nombre}/carrera-dfs");
+        algoritmosEndpoints.put("Carreras en lote", "POST /api/jugadores/carreras [\"jugador1\", \"jugador2\", ...]");
+        algoritmosEndpoints.put("Carreras por liga/club/nacionalidad (NDJSON)", "GET /api/jugadores/carreras?liga={liga}");
+        algoritmosEndpoints.put("Export de jugadores (NDJSON, gzip)", "GET /api/jugadores/exportar");
+        algoritmosEndpoints.put("Export de transferencias (NDJSON, gzip)", "GET /api/transferencias/exportar");
+        algoritmosEndpoints.put("Transferencias en lote", "POST /api/transferencias/lote [{nombreJugador, nombreClubDestino, monto, temporada, tipoTransferencia}, ...]");
         algoritmosEndpoints.put("Backtracking - Formación óptima", "GET /api/clubes/{club}/formacion-optima?formacion=4-3-3");
         algoritmosEndpoints.put("Prog. Dinámica - Optimizar presupuesto", "GET /api/transferencias/optimizar-presupuesto?nombreClub={club}&presupuestoMaximo={monto}");
         algoritmosEndpoints.put("Prim - Red mínima", "GET /api/transferencias/red-minima-prim");
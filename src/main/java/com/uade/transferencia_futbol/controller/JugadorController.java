@@ -1,12 +1,24 @@
 package com.uade.transferencia_futbol.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uade.transferencia_futbol.dto.JugadorSummary;
 import com.uade.transferencia_futbol.entity.JugadorEntity;
+import com.uade.transferencia_futbol.service.CarreraJugadorService;
+import com.uade.transferencia_futbol.service.ExportacionService;
 import com.uade.transferencia_futbol.service.JugadorService;
+import com.uade.transferencia_futbol.util.ExportacionNdjson;
+import com.uade.transferencia_futbol.util.NdjsonWriter;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Map;
 
@@ -18,6 +30,18 @@ public class JugadorController {
     @Autowired
     private JugadorService jugadorService;
     
+    @Autowired
+    private CarreraJugadorService carreraJugadorService;
+    
+    @Autowired
+    private ExportacionService exportacionService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Value("${jugadores.ordenados-por-valor.quicksort:false}")
+    private boolean ordenarConQuickSort;
+    
     // ===== CRUD BÁSICO =====
     
     @PostMapping
@@ -31,9 +55,22 @@ public class JugadorController {
         }
     }
     
+    /**
+     * Una página ordenada por nombre, de paginacion.limite-por-defecto elementos
+     * si no se indica limite y nunca más de paginacion.limite-maximo:
+     * GET /api/jugadores?limite=50 y, para seguir, GET /api/jugadores?cursor={siguienteCursor}.
+     */
     @GetMapping
-    public ResponseEntity<List<JugadorEntity>> obtenerTodosJugadores() {
-        return ResponseEntity.ok(jugadorService.obtenerTodosJugadores());
+    public ResponseEntity<?> obtenerTodosJugadores(
+            @RequestParam(defaultValue = "false") boolean expand,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) String cursor) {
+        try {
+            return ResponseEntity.ok(jugadorService.obtenerPaginaJugadores(limite, cursor, expand));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+        }
     }
     
     @GetMapping("/{nombre}")
@@ -98,45 +135,49 @@ public class JugadorController {
     // ===== BÚSQUEDAS Y FILTROS =====
     
     @GetMapping("/posicion/{posicion}")
-    public ResponseEntity<List<JugadorEntity>> buscarPorPosicion(@PathVariable String posicion) {
-        return ResponseEntity.ok(jugadorService.buscarPorPosicion(posicion));
+    public ResponseEntity<List<?>> buscarPorPosicion(@PathVariable String posicion, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(jugadorService.buscarPorPosicion(posicion, tipo(expand)));
     }
     
     @GetMapping("/nacionalidad/{nacionalidad}")
-    public ResponseEntity<List<JugadorEntity>> buscarPorNacionalidad(@PathVariable String nacionalidad) {
-        return ResponseEntity.ok(jugadorService.buscarPorNacionalidad(nacionalidad));
+    public ResponseEntity<List<?>> buscarPorNacionalidad(@PathVariable String nacionalidad, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(jugadorService.buscarPorNacionalidad(nacionalidad, tipo(expand)));
     }
     
     @GetMapping("/edad")
-    public ResponseEntity<List<JugadorEntity>> buscarPorRangoEdad(
+    public ResponseEntity<List<?>> buscarPorRangoEdad(
             @RequestParam Integer edadMin,
-            @RequestParam Integer edadMax) {
-        return ResponseEntity.ok(jugadorService.buscarPorRangoEdad(edadMin, edadMax));
+            @RequestParam Integer edadMax,
+            @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(jugadorService.buscarPorRangoEdad(edadMin, edadMax, tipo(expand)));
     }
     
     @GetMapping("/valor-minimo/{valor}")
-    public ResponseEntity<List<JugadorEntity>> buscarPorValorMinimo(@PathVariable Double valor) {
-        return ResponseEntity.ok(jugadorService.buscarPorValorMinimo(valor));
+    public ResponseEntity<List<?>> buscarPorValorMinimo(@PathVariable Double valor, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(jugadorService.buscarPorValorMinimo(valor, tipo(expand)));
     }
     
     @GetMapping("/club/{nombreClub}")
-    public ResponseEntity<List<JugadorEntity>> obtenerJugadoresDeClub(@PathVariable String nombreClub) {
-        return ResponseEntity.ok(jugadorService.obtenerJugadoresDeClub(nombreClub));
+    public ResponseEntity<List<?>> obtenerJugadoresDeClub(@PathVariable String nombreClub, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(jugadorService.obtenerJugadoresDeClub(nombreClub, tipo(expand)));
     }
     
     @GetMapping("/agente/{nombreAgente}")
-    public ResponseEntity<List<JugadorEntity>> obtenerJugadoresDeAgente(@PathVariable String nombreAgente) {
-        return ResponseEntity.ok(jugadorService.obtenerJugadoresDeAgente(nombreAgente));
+    public ResponseEntity<List<?>> obtenerJugadoresDeAgente(@PathVariable String nombreAgente, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(jugadorService.obtenerJugadoresDeAgente(nombreAgente, tipo(expand)));
     }
     
     @GetMapping("/libres")
-    public ResponseEntity<List<JugadorEntity>> obtenerJugadoresLibres() {
-        return ResponseEntity.ok(jugadorService.obtenerJugadoresLibres());
+    public ResponseEntity<List<?>> obtenerJugadoresLibres(@RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(jugadorService.obtenerJugadoresLibres(tipo(expand)));
     }
     
     @GetMapping("/top/{limit}")
-    public ResponseEntity<List<JugadorEntity>> obtenerTopJugadores(@PathVariable Integer limit) {
-        return ResponseEntity.ok(jugadorService.obtenerTopJugadores(limit));
+    public ResponseEntity<List<?>> obtenerTopJugadores(
+            @PathVariable Integer limit,
+            @RequestParam(defaultValue = "false") boolean expand) {
+        List<JugadorEntity> top = jugadorService.obtenerTopJugadores(limit);
+        return ResponseEntity.ok(expand ? top : top.stream().map(JugadorSummary::de).toList());
     }
     
     // ===== ACTUALIZACIONES ESPECÍFICAS =====
@@ -187,16 +228,114 @@ public class JugadorController {
     }
     
     /**
-     * QUICKSORT - Ordenar jugadores por valor de mercado
-     * Endpoint: GET /api/jugadores/ordenados-por-valor
+     * Carrera completa del jugador: etapas con temporadas, recorridos BFS y DFS
+     * Endpoint: GET /api/jugadores/{nombre}/carrera
+     */
+    @GetMapping("/{nombre}/carrera")
+    public ResponseEntity<?> obtenerCarrera(@PathVariable String nombre) {
+        try {
+            return ResponseEntity.ok(carreraJugadorService.obtenerCarrera(nombre));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Carreras de varios jugadores en una sola consulta
+     * Endpoint: POST /api/jugadores/carreras
+     * Body: ["Jugador 1", "Jugador 2", ...]
+     */
+    @PostMapping("/carreras")
+    public ResponseEntity<?> obtenerCarreras(@RequestBody List<String> nombres) {
+        try {
+            return ResponseEntity.ok(carreraJugadorService.obtenerCarreras(nombres));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * Export de todos los jugadores en streaming, para sincronizaciones
+     * Endpoint: GET /api/jugadores/exportar
+     * Responde NDJSON (con gzip si el pedido trae Accept-Encoding: gzip): una línea
+     * por jugador a medida que se lee y al final una línea con el resumen.
+     */
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarJugadores(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return ExportacionNdjson.responder(acceptEncoding, objectMapper, writer ->
+            exportacionService.exportarJugadores(jugador -> {
+                try {
+                    writer.escribir(jugador);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+    }
+    
+    /**
+     * Carreras de todos los jugadores de una liga, club o nacionalidad, en streaming
+     * Endpoint: GET /api/jugadores/carreras?liga=...&club=...&nacionalidad=...
+     * Responde NDJSON: una línea por jugador a medida que se lee y al final una línea con el resumen.
+     */
+    @GetMapping("/carreras")
+    public ResponseEntity<?> exportarCarreras(
+            @RequestParam(required = false) String liga,
+            @RequestParam(required = false) String club,
+            @RequestParam(required = false) String nacionalidad) {
+        try {
+            carreraJugadorService.validarFiltros(liga, club, nacionalidad);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+        }
+        
+        StreamingResponseBody cuerpo = salida -> {
+            NdjsonWriter writer = new NdjsonWriter(salida, objectMapper);
+            Map<String, Object> resumen = carreraJugadorService.recorrerCarreras(liga, club, nacionalidad, carrera -> {
+                try {
+                    writer.escribir(carrera);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.escribir(Map.of("resumen", resumen));
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(cuerpo);
+    }
+    
+    /**
+     * Ordenar jugadores por valor de mercado, paginado por cursor
+     * Endpoint: GET /api/jugadores/ordenados-por-valor?limite=50&cursor=...
+     * Para la página siguiente se repite el pedido con el siguienteCursor de la respuesta.
+     * Con jugadores.ordenados-por-valor.quicksort=true responde como antes (todo, con QuickSort).
      */
     @GetMapping("/ordenados-por-valor")
-    public ResponseEntity<?> obtenerJugadoresOrdenados() {
-        List<JugadorEntity> jugadores = jugadorService.obtenerJugadoresOrdenadosPorValor();
-        return ResponseEntity.ok(Map.of(
-            "totalJugadores", jugadores.size(),
-            "algoritmo", "QuickSort",
-            "jugadores", jugadores
-        ));
-    }
-}
\ No newline at end of file
+    public ResponseEntity<?> obtenerJugadoresOrdenados(
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) String cursor) {
+        if (ordenarConQuickSort) {
+            List<JugadorEntity> jugadores = jugadorService.obtenerJugadoresOrdenadosPorValor();
+            return ResponseEntity.ok(Map.of(
+                "totalJugadores", jugadores.size(),
+                "algoritmo", "QuickSort",
+                "jugadores", jugadores
+            ));
+        }
+        try {
+            return ResponseEntity.ok(jugadorService.obtenerPaginaJugadoresPorValor(limite, cursor));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    // Con expand=true se devuelve la entidad completa (el club y el agente); si no, el resumen plano
+    private static Class<?> tipo(boolean expand) {
+        return expand ? JugadorEntity.class : JugadorSummary.class;
+    }
+}
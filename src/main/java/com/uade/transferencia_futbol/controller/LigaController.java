@@ -1,5 +1,6 @@
 package com.uade.transferencia_futbol.controller;
 
+import com.uade.transferencia_futbol.dto.LigaSummary;
 import com.uade.transferencia_futbol.entity.LigaEntity;
 import com.uade.transferencia_futbol.service.LigaService;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +10,7 @@ import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/ligas")
@@ -31,16 +33,35 @@ public class LigaController {
         }
     }
     
+    /**
+     * Una página ordenada por nombre, de paginacion.limite-por-defecto elementos
+     * si no se indica limite y nunca más de paginacion.limite-maximo:
+     * GET /api/ligas?limite=50 y, para seguir, GET /api/ligas?cursor={siguienteCursor}.
+     */
     @GetMapping
-    public ResponseEntity<List<LigaEntity>> obtenerTodasLigas() {
-        return ResponseEntity.ok(ligaService.obtenerTodasLigas());
+    public ResponseEntity<?> obtenerTodasLigas(
+            @RequestParam(defaultValue = "false") boolean expand,
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) String cursor) {
+        try {
+            return ResponseEntity.ok(ligaService.obtenerPaginaLigas(limite, cursor, expand));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+        }
     }
     
     @GetMapping("/{nombre}")
-    public ResponseEntity<?> obtenerLigaPorNombre(@PathVariable String nombre) {
-        return ligaService.obtenerLigaPorNombre(nombre)
-            .map(ResponseEntity::ok)
-            .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<?> obtenerLigaPorNombre(
+            @PathVariable String nombre,
+            @RequestParam(defaultValue = "false") boolean expand) {
+        // El resumen sale de la cache; la entidad completa, de la base
+        Optional<?> liga = expand
+            ? ligaService.obtenerLigaPorNombre(nombre)
+            : ligaService.obtenerResumenLiga(nombre);
+        return liga.isPresent()
+            ? ResponseEntity.ok(liga.get())
+            : ResponseEntity.notFound().build();
     }
     
     @PutMapping("/{nombre}")
@@ -70,28 +91,28 @@ public class LigaController {
     // ===== BÚSQUEDAS Y FILTROS =====
     
     @GetMapping("/pais/{pais}")
-    public ResponseEntity<List<LigaEntity>> buscarPorPais(@PathVariable String pais) {
-        return ResponseEntity.ok(ligaService.buscarPorPais(pais));
+    public ResponseEntity<List<?>> buscarPorPais(@PathVariable String pais, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(ligaService.buscarPorPais(pais, tipo(expand)));
     }
     
     @GetMapping("/nivel/{nivel}")
-    public ResponseEntity<List<LigaEntity>> buscarPorNivel(@PathVariable Integer nivel) {
-        return ResponseEntity.ok(ligaService.buscarPorNivel(nivel));
+    public ResponseEntity<List<?>> buscarPorNivel(@PathVariable Integer nivel, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(ligaService.buscarPorNivel(nivel, tipo(expand)));
     }
     
     @GetMapping("/minimo-equipos/{cantidad}")
-    public ResponseEntity<List<LigaEntity>> buscarConMinimoEquipos(@PathVariable Integer cantidad) {
-        return ResponseEntity.ok(ligaService.buscarConMinimoEquipos(cantidad));
+    public ResponseEntity<List<?>> buscarConMinimoEquipos(@PathVariable Integer cantidad, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(ligaService.buscarConMinimoEquipos(cantidad, tipo(expand)));
     }
     
     @GetMapping("/top-nivel/{limit}")
-    public ResponseEntity<List<LigaEntity>> obtenerTopLigasPorNivel(@PathVariable Integer limit) {
-        return ResponseEntity.ok(ligaService.obtenerTopLigasPorNivel(limit));
+    public ResponseEntity<List<?>> obtenerTopLigasPorNivel(@PathVariable Integer limit, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(ligaService.obtenerTopLigasPorNivel(limit, tipo(expand)));
     }
     
     @GetMapping("/presupuesto-minimo/{presupuesto}")
-    public ResponseEntity<List<LigaEntity>> ligasConPresupuestoMinimo(@PathVariable Double presupuesto) {
-        return ResponseEntity.ok(ligaService.ligasConPresupuestoMinimo(presupuesto));
+    public ResponseEntity<List<?>> ligasConPresupuestoMinimo(@PathVariable Double presupuesto, @RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(ligaService.ligasConPresupuestoMinimo(presupuesto, tipo(expand)));
     }
     
     @GetMapping("/{nombre}/contar-jugadores")
@@ -112,9 +133,19 @@ public class LigaController {
         ));
     }
     
+    @GetMapping("/{nombre}/agregados")
+    public ResponseEntity<?> obtenerAgregadosLiga(@PathVariable String nombre) {
+        try {
+            return ResponseEntity.ok(ligaService.obtenerAgregadosLiga(nombre));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     @GetMapping("/ordenadas-por-equipos")
-    public ResponseEntity<List<LigaEntity>> ligasOrdenadasPorEquipos() {
-        return ResponseEntity.ok(ligaService.ligasOrdenadasPorEquipos());
+    public ResponseEntity<List<?>> ligasOrdenadasPorEquipos(@RequestParam(defaultValue = "false") boolean expand) {
+        return ResponseEntity.ok(ligaService.ligasOrdenadasPorEquipos(tipo(expand)));
     }
     
     // ===== ACTUALIZACIONES ESPECÍFICAS =====
@@ -155,4 +186,9 @@ public class LigaController {
                 .body(Map.of("error", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+    
+    // Con expand=true se devuelve la entidad completa (los clubes); si no, el resumen plano
+    private static Class<?> tipo(boolean expand) {
+        return expand ? LigaEntity.class : LigaSummary.class;
+    }
+}
@@ -1,13 +1,26 @@
 package com.uade.transferencia_futbol.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uade.transferencia_futbol.dto.SolicitudRutas;
+import com.uade.transferencia_futbol.dto.SolicitudTransferencia;
+import com.uade.transferencia_futbol.dto.TransferenciaSummary;
 import com.uade.transferencia_futbol.entity.TransferenciaEntity;
+import com.uade.transferencia_futbol.service.EstadisticasTemporadaService;
+import com.uade.transferencia_futbol.service.ExportacionService;
 import com.uade.transferencia_futbol.service.TransferenciaService;
+import com.uade.transferencia_futbol.util.ExportacionNdjson;
+import com.uade.transferencia_futbol.util.NdjsonWriter;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +34,15 @@ public class TransferenciaController {
     @Autowired
     private TransferenciaService transferenciaService;
     
+    @Autowired
+    private ExportacionService exportacionService;
+    
+    @Autowired
+    private EstadisticasTemporadaService estadisticasTemporadaService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     // ===== CRUD BÁSICO =====
     
     @PostMapping
@@ -34,6 +56,10 @@ public class TransferenciaController {
         }
     }
     
+    /**
+     * Responde un TransferenciaSummary (id, jugador, clubOrigen, clubDestino,
+     * monto, fecha, temporada, tipoTransferencia), con los clubes por nombre.
+     */
     @PostMapping("/realizar")
     public ResponseEntity<?> realizarTransferencia(
             @RequestParam String nombreJugador,
@@ -42,7 +68,7 @@ public class TransferenciaController {
             @RequestParam String temporada,
             @RequestParam String tipoTransferencia) {
         try {
-            TransferenciaEntity transferencia = transferenciaService.realizarTransferencia(
+            TransferenciaSummary transferencia = transferenciaService.realizarTransferencia(
                 nombreJugador, nombreClubDestino, monto, temporada, tipoTransferencia
             );
             return ResponseEntity.status(HttpStatus.CREATED).body(transferencia);
@@ -52,20 +78,52 @@ public class TransferenciaController {
         }
     }
     
+    /**
+     * Muchas transferencias en un pedido: [{nombreJugador, nombreClubDestino,
+     * monto, temporada, tipoTransferencia}, ...]. Devuelve el resultado de
+     * cada una (las que fallan no deshacen a las demás) y el rendimiento.
+     * Un lote vacío o demasiado grande es un 400; cualquier otro error, un 500.
+     */
+    @PostMapping("/lote")
+    public ResponseEntity<?> realizarTransferenciasEnLote(@RequestBody List<SolicitudTransferencia> solicitudes) {
+        try {
+            return ResponseEntity.ok(transferenciaService.realizarTransferenciasEnLote(solicitudes));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+        } catch (RuntimeException e) {
+            // Lo que no es un pedido inválido es un error del servidor
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+    
+    /**
+     * Una página de la más reciente a la más antigua, de paginacion.limite-por-defecto
+     * elementos si no se indica limite y nunca más de paginacion.limite-maximo:
+     * GET /api/transferencias?limite=50 y, para seguir, ?cursor={siguienteCursor}.
+     */
     @GetMapping
-    public ResponseEntity<List<TransferenciaEntity>> obtenerTodasTransferencias() {
-        return ResponseEntity.ok(transferenciaService.obtenerTodasTransferencias());
+    public ResponseEntity<?> obtenerTodasTransferencias(
+            @RequestParam(required = false) Integer limite,
+            @RequestParam(required = false) String cursor) {
+        try {
+            return ResponseEntity.ok(transferenciaService.obtenerPaginaTransferencias(limite, cursor));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+        }
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<?> obtenerTransferenciaPorId(@PathVariable Long id) {
+    public ResponseEntity<?> obtenerTransferenciaPorId(@PathVariable String id) {
         return transferenciaService.obtenerTransferenciaPorId(id)
             .map(ResponseEntity::ok)
             .orElse(ResponseEntity.notFound().build());
     }
     
     @DeleteMapping("/{id}")
-    public ResponseEntity<?> eliminarTransferencia(@PathVariable Long id) {
+    public ResponseEntity<?> eliminarTransferencia(@PathVariable String id) {
         try {
             transferenciaService.eliminarTransferencia(id);
             return ResponseEntity.ok(Map.of("mensaje", "Transferencia eliminada exitosamente"));
@@ -154,10 +212,24 @@ public class TransferenciaController {
         ));
     }
     
+    /**
+     * Totales, percentiles, más caras, mayores compradores/vendedores y balance por liga.
+     * Con compararCon se devuelven las dos temporadas y la variación de cada métrica.
+     */
     @GetMapping("/estadisticas/{temporada}")
-    public ResponseEntity<?> obtenerEstadisticasTemporada(@PathVariable String temporada) {
-        String estadisticas = transferenciaService.obtenerEstadisticasTemporada(temporada);
-        return ResponseEntity.ok(Map.of("estadisticas", estadisticas));
+    public ResponseEntity<?> obtenerEstadisticasTemporada(
+            @PathVariable String temporada,
+            @RequestParam(required = false) Integer top,
+            @RequestParam(required = false) String compararCon) {
+        try {
+            if (compararCon != null && !compararCon.isBlank()) {
+                return ResponseEntity.ok(estadisticasTemporadaService.compararTemporadas(temporada, compararCon, top));
+            }
+            return ResponseEntity.ok(estadisticasTemporadaService.obtenerEstadisticas(temporada, top));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+        }
     }
     
     // ===== ALGORITMOS COMPLEJOS =====
@@ -184,16 +256,79 @@ public class TransferenciaController {
         }
     }
     
+    /**
+     * Export de todas las transferencias en streaming, para sincronizaciones
+     * Endpoint: GET /api/transferencias/exportar
+     * Responde NDJSON (con gzip si el pedido trae Accept-Encoding: gzip): una línea
+     * por transferencia a medida que se lee y al final una línea con el resumen.
+     */
+    @GetMapping("/exportar")
+    public ResponseEntity<StreamingResponseBody> exportarTransferencias(
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return ExportacionNdjson.responder(acceptEncoding, objectMapper, writer ->
+            exportacionService.exportarTransferencias(transferencia -> {
+                try {
+                    writer.escribir(transferencia);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+    }
+    
+    /**
+     * DIJKSTRA EN LOTE - Rutas más baratas para una matriz de orígenes y destinos
+     * Responde NDJSON: una línea por club origen, a medida que se termina de calcular.
+     */
+    @PostMapping("/rutas-mas-baratas")
+    public ResponseEntity<?> obtenerRutasMasBaratasEnLote(@RequestBody SolicitudRutas solicitud) {
+        return rutasEnLote(solicitud);
+    }
+    
+    /**
+     * DIJKSTRA EN LOTE - Un origen hacia muchos destinos
+     */
+    @GetMapping("/rutas-mas-baratas")
+    public ResponseEntity<?> obtenerRutasMasBaratasDesdeOrigen(
+            @RequestParam String clubOrigen,
+            @RequestParam List<String> clubDestino) {
+        return rutasEnLote(new SolicitudRutas(List.of(clubOrigen), clubDestino));
+    }
+    
+    private ResponseEntity<?> rutasEnLote(SolicitudRutas solicitud) {
+        try {
+            transferenciaService.validarSolicitudRutas(solicitud);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(Map.of("error", e.getMessage()));
+        }
+        
+        StreamingResponseBody cuerpo = salida -> {
+            NdjsonWriter writer = new NdjsonWriter(salida, objectMapper);
+            transferenciaService.calcularRutasEnLote(solicitud, resultado -> {
+                try {
+                    writer.escribir(resultado);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        };
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(cuerpo);
+    }
+    
     /**
      * PROGRAMACIÓN DINÁMICA - Optimización de presupuesto
      */
     @GetMapping("/optimizar-presupuesto")
     public ResponseEntity<?> optimizarPresupuesto(
             @RequestParam String nombreClub,
-            @RequestParam Double presupuestoMaximo) {
+            @RequestParam Double presupuestoMaximo,
+            @RequestParam(required = false) Double unidad,
+            @RequestParam(required = false) Double epsilon) {
         try {
             Map<String, Object> resultado = transferenciaService.optimizarPresupuestoTransferencias(
-                nombreClub, presupuestoMaximo);
+                nombreClub, presupuestoMaximo, unidad, epsilon);
             return ResponseEntity.ok(resultado);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
@@ -251,19 +386,26 @@ public class TransferenciaController {
     @GetMapping("/mejores-ofertas")
     public ResponseEntity<?> buscarMejoresOfertas(
             @RequestParam String clubOrigen,
-            @RequestParam Double presupuestoMaximo) {
+            @RequestParam Double presupuestoMaximo,
+            @RequestParam(required = false) Long limiteNodos,
+            @RequestParam(required = false) Long timeoutMs,
+            @RequestParam(defaultValue = "false") boolean paralelo) {
         try {
-            List<TransferenciaEntity> ofertas = transferenciaService.buscarMejoresOfertas(clubOrigen, presupuestoMaximo);
-            return ResponseEntity.ok(Map.of(
-                "algoritmo", "Branch & Bound",
-                "clubOrigen", clubOrigen,
-                "presupuestoMaximo", presupuestoMaximo,
-                "ofertas", ofertas,
-                "totalOfertas", ofertas.size()
-            ));
+            Map<String, Object> resultado = transferenciaService.buscarMejoresOfertas(
+                clubOrigen, presupuestoMaximo, limiteNodos, timeoutMs, paralelo);
+            List<?> ofertas = (List<?>) resultado.get("ofertas");
+            
+            Map<String, Object> respuesta = new HashMap<>(resultado);
+            respuesta.put("algoritmo", paralelo
+                ? "Branch & Bound paralelo (ForkJoin)"
+                : "Branch & Bound (mejor primero)");
+            respuesta.put("clubOrigen", clubOrigen);
+            respuesta.put("presupuestoMaximo", presupuestoMaximo);
+            respuesta.put("totalOfertas", ofertas.size());
+            return ResponseEntity.ok(respuesta);
         } catch (RuntimeException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
                 .body(Map.of("error", e.getMessage()));
         }
     }
-}
\ No newline at end of file
+}
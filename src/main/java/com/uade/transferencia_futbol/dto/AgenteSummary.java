@@ -0,0 +1,11 @@
+package com.uade.transferencia_futbol.dto;
+
+/**
+ * Datos planos de un agente, sin hidratar los jugadores que representa.
+ */
+public record AgenteSummary(
+        String nombre,
+        String agencia,
+        Double comision,
+        String nacionalidad) {
+}
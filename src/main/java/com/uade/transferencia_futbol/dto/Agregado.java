@@ -0,0 +1,10 @@
+package com.uade.transferencia_futbol.dto;
+
+/**
+ * Totales mantenidos de un grupo de jugadores (liga, club o agente).
+ * edadPromedio es null si ningún jugador del grupo tiene edad cargada.
+ */
+public record Agregado(long jugadores, double valorMercadoTotal, Double edadPromedio) {
+
+    public static final Agregado VACIO = new Agregado(0, 0.0, null);
+}
@@ -0,0 +1,8 @@
+package com.uade.transferencia_futbol.dto;
+
+/**
+ * Un jugador libre asignado a un agente por el greedy de balanceo de carga.
+ * cargaAgente es la cantidad de jugadores del agente después de la asignación.
+ */
+public record AsignacionAgente(String jugador, Double valorMercado, String agente, int cargaAgente) {
+}
@@ -0,0 +1,25 @@
+package com.uade.transferencia_futbol.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Carrera de un jugador armada desde sus transferencias: las etapas en orden,
+ * los recorridos BFS y DFS del grafo club -> club siguiente y las temporadas
+ * en las que pasó por cada club.
+ */
+public record CarreraJugador(
+        String jugador,
+        String clubActual,
+        List<EtapaCarrera> etapas,
+        List<String> recorridoBFS,
+        List<String> recorridoDFS,
+        Map<String, List<String>> temporadasPorClub) {
+
+    /**
+     * Clubes en orden cronológico, con repeticiones si volvió a alguno.
+     */
+    public List<String> historialCompleto() {
+        return etapas.stream().map(EtapaCarrera::club).toList();
+    }
+}
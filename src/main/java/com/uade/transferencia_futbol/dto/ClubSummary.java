@@ -0,0 +1,12 @@
+package com.uade.transferencia_futbol.dto;
+
+/**
+ * Datos planos de un club, sin hidratar el plantel ni la liga.
+ */
+public record ClubSummary(
+        String nombre,
+        String pais,
+        Double presupuesto,
+        String liga,
+        Integer fundacion) {
+}
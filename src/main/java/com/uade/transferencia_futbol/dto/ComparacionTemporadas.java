@@ -0,0 +1,29 @@
+package com.uade.transferencia_futbol.dto;
+
+import java.util.Map;
+
+/**
+ * Estadísticas de dos temporadas y cómo cambió cada métrica de la anterior a
+ * la actual: las generales, la cantidad por tipo y el gasto por liga.
+ */
+public record ComparacionTemporadas(
+        EstadisticasTemporada actual,
+        EstadisticasTemporada anterior,
+        Map<String, Variacion> generales,
+        Map<String, Variacion> cantidadPorTipo,
+        Map<String, Variacion> gastoPorLiga) {
+
+    /**
+     * porcentaje es null cuando el valor anterior es 0 o falta alguno de los dos.
+     */
+    public record Variacion(Double anterior, Double actual, Double diferencia, Double porcentaje) {
+
+        public static Variacion entre(Double anterior, Double actual) {
+            if (anterior == null || actual == null) {
+                return new Variacion(anterior, actual, null, null);
+            }
+            Double porcentaje = anterior != 0 ? (actual - anterior) * 100.0 / anterior : null;
+            return new Variacion(anterior, actual, actual - anterior, porcentaje);
+        }
+    }
+}
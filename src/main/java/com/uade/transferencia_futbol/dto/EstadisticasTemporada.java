@@ -0,0 +1,40 @@
+package com.uade.transferencia_futbol.dto;
+
+import java.util.List;
+
+/**
+ * Métricas de las transferencias de una temporada: totales, percentiles del
+ * monto, cantidades por tipo, las transferencias más caras, los clubes que
+ * más gastaron y más vendieron, y el balance de cada liga.
+ *
+ * Los montos nulos cuentan como transferencias pero no entran en los montos.
+ */
+public record EstadisticasTemporada(
+        String temporada,
+        long totalTransferencias,
+        double montoTotal,
+        Double montoPromedio,
+        Double montoMaximo,
+        Percentiles percentilesMonto,
+        List<PorTipo> porTipo,
+        List<TransferenciaSummary> masCaras,
+        List<Balance> mayoresCompradores,
+        List<Balance> mayoresVendedores,
+        List<Balance> porLiga) {
+
+    /**
+     * Percentiles del monto (interpolados); null si no hubo montos.
+     */
+    public record Percentiles(Double p25, Double mediana, Double p75, Double p90) {
+    }
+
+    public record PorTipo(String tipo, long cantidad, double montoTotal) {
+    }
+
+    /**
+     * Llegadas y gasto contra salidas e ingresos de un club o una liga.
+     * saldo = gasto - ingresos: positivo si compró más de lo que vendió.
+     */
+    public record Balance(String nombre, long llegadas, double gasto, long salidas, double ingresos, double saldo) {
+    }
+}
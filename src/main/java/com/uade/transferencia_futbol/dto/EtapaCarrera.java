@@ -0,0 +1,18 @@
+package com.uade.transferencia_futbol.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Paso de un jugador por un club, entre la transferencia que lo llevó y la
+ * que lo sacó. Los extremos son null cuando no se conocen: el primer club
+ * (del que solo se sabe que salió) o el club actual (en el que sigue).
+ */
+public record EtapaCarrera(
+        String club,
+        String temporadaDesde,
+        String temporadaHasta,
+        LocalDate desde,
+        LocalDate hasta,
+        String tipoLlegada,
+        Double montoLlegada) {
+}
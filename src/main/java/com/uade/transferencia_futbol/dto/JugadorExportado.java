@@ -0,0 +1,14 @@
+package com.uade.transferencia_futbol.dto;
+
+/**
+ * Un jugador del export del catálogo: sus datos y los nombres de su club y su agente.
+ */
+public record JugadorExportado(
+        String nombre,
+        Integer edad,
+        String posicion,
+        Double valorMercado,
+        String nacionalidad,
+        String club,
+        String agente) {
+}
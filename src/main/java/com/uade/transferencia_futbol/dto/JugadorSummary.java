@@ -0,0 +1,19 @@
+package com.uade.transferencia_futbol.dto;
+
+import com.uade.transferencia_futbol.entity.JugadorEntity;
+
+/**
+ * Datos planos de un jugador, sin hidratar las relaciones con club y agente.
+ */
+public record JugadorSummary(
+        String nombre,
+        Integer edad,
+        String posicion,
+        Double valorMercado,
+        String nacionalidad) {
+
+    public static JugadorSummary de(JugadorEntity jugador) {
+        return new JugadorSummary(jugador.getNombre(), jugador.getEdad(), jugador.getPosicion(),
+            jugador.getValorMercado(), jugador.getNacionalidad());
+    }
+}
@@ -0,0 +1,11 @@
+package com.uade.transferencia_futbol.dto;
+
+/**
+ * Datos planos de una liga, sin hidratar sus clubes.
+ */
+public record LigaSummary(
+        String nombre,
+        String pais,
+        Integer nivel,
+        Integer cantidadEquipos) {
+}
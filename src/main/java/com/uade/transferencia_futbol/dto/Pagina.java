@@ -0,0 +1,14 @@
+package com.uade.transferencia_futbol.dto;
+
+import java.util.List;
+
+/**
+ * Una página de una consulta con paginación por cursor (keyset).
+ * siguienteCursor es null en la última página.
+ */
+public record Pagina<T>(List<T> elementos, int cantidad, String siguienteCursor) {
+
+    public static <T> Pagina<T> de(List<T> elementos, String siguienteCursor) {
+        return new Pagina<>(elementos, elementos.size(), siguienteCursor);
+    }
+}
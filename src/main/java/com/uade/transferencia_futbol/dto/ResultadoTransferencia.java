@@ -0,0 +1,24 @@
+package com.uade.transferencia_futbol.dto;
+
+/**
+ * Resultado de una transferencia de un lote. indice es su posición en el
+ * pedido; si no se realizó, error dice por qué y id y clubOrigen son null.
+ */
+public record ResultadoTransferencia(
+        int indice,
+        String jugador,
+        String clubDestino,
+        boolean realizada,
+        String id,
+        String clubOrigen,
+        String error) {
+
+    public static ResultadoTransferencia realizada(int indice, String jugador, String clubDestino,
+                                                   String id, String clubOrigen) {
+        return new ResultadoTransferencia(indice, jugador, clubDestino, true, id, clubOrigen, null);
+    }
+
+    public static ResultadoTransferencia rechazada(int indice, String jugador, String clubDestino, String error) {
+        return new ResultadoTransferencia(indice, jugador, clubDestino, false, null, null, error);
+    }
+}
@@ -0,0 +1,25 @@
+package com.uade.transferencia_futbol.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Ruta más barata entre dos clubes, o el motivo por el que no pudo calcularse.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RutaTransferencia(
+        String clubDestino,
+        List<String> ruta,
+        Double costoTotal,
+        Integer numeroSaltos,
+        String error) {
+
+    public static RutaTransferencia encontrada(String clubDestino, List<String> ruta, double costoTotal) {
+        return new RutaTransferencia(clubDestino, ruta, costoTotal, ruta.size() - 1, null);
+    }
+
+    public static RutaTransferencia fallida(String clubDestino, String error) {
+        return new RutaTransferencia(clubDestino, null, null, null, error);
+    }
+}
@@ -0,0 +1,12 @@
+package com.uade.transferencia_futbol.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * Resultado de una búsqueda desde un club origen hacia todos los destinos pedidos.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RutasDesdeOrigen(String clubOrigen, List<RutaTransferencia> rutas, String error) {
+}
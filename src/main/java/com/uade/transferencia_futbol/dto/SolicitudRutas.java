@@ -0,0 +1,11 @@
+package com.uade.transferencia_futbol.dto;
+
+import java.util.List;
+
+/**
+ * Pedido de rutas en lote: se calcula la ruta más barata para cada par
+ * (origen, destino). Un solo origen con varios destinos es el caso uno-a-muchos;
+ * varios orígenes y destinos arman la matriz completa.
+ */
+public record SolicitudRutas(List<String> origenes, List<String> destinos) {
+}
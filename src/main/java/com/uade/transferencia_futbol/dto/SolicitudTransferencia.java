@@ -0,0 +1,13 @@
+package com.uade.transferencia_futbol.dto;
+
+/**
+ * Una transferencia de un pedido en lote, con los mismos datos que
+ * POST /api/transferencias/realizar.
+ */
+public record SolicitudTransferencia(
+        String nombreJugador,
+        String nombreClubDestino,
+        Double monto,
+        String temporada,
+        String tipoTransferencia) {
+}
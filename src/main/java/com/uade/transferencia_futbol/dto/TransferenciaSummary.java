@@ -0,0 +1,18 @@
+package com.uade.transferencia_futbol.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Una transferencia con los nombres del jugador y de los clubes, sin hidratar
+ * el club de destino con su plantel.
+ */
+public record TransferenciaSummary(
+        String id,
+        String jugador,
+        String clubOrigen,
+        String clubDestino,
+        Double monto,
+        LocalDate fecha,
+        String temporada,
+        String tipoTransferencia) {
+}
@@ -13,7 +13,7 @@ public class TransferenciaEntity {
     
     @Id
     @GeneratedValue
-    private Long id;
+    private String id;
     
     @Property("monto")
     private Double monto;
@@ -27,6 +27,12 @@ public class TransferenciaEntity {
     @Property("tipoTransferencia")
     private String tipoTransferencia; // "Compra", "Préstamo", "Libre"
     
+    @Property("clubOrigen")
+    private String clubOrigen; // null si el jugador estaba libre (o en transferencias anteriores a este campo)
+    
+    @Property("sinClubOrigen")
+    private Boolean sinClubOrigen; // true si el jugador estaba libre; null en las demás
+    
     @TargetNode
     private ClubEntity clubDestino;
     
@@ -41,11 +47,11 @@ public class TransferenciaEntity {
     }
     
     // Getters y Setters
-    public Long getId() {
+    public String getId() {
         return id;
     }
     
-    public void setId(Long id) {
+    public void setId(String id) {
         this.id = id;
     }
     
@@ -81,6 +87,22 @@ public class TransferenciaEntity {
         this.tipoTransferencia = tipoTransferencia;
     }
     
+    public String getClubOrigen() {
+        return clubOrigen;
+    }
+    
+    public void setClubOrigen(String clubOrigen) {
+        this.clubOrigen = clubOrigen;
+    }
+    
+    public Boolean getSinClubOrigen() {
+        return sinClubOrigen;
+    }
+    
+    public void setSinClubOrigen(Boolean sinClubOrigen) {
+        this.sinClubOrigen = sinClubOrigen;
+    }
+    
     public ClubEntity getClubDestino() {
         return clubDestino;
     }
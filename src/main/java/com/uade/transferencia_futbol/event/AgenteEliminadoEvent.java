@@ -0,0 +1,7 @@
+package com.uade.transferencia_futbol.event;
+
+/**
+ * Se publica cuando se elimina un agente; sus jugadores quedan sin representante.
+ */
+public record AgenteEliminadoEvent(String nombre) {
+}
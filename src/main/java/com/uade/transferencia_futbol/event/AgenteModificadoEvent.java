@@ -0,0 +1,7 @@
+package com.uade.transferencia_futbol.event;
+
+/**
+ * Se publica cuando cambian los datos de un agente.
+ */
+public record AgenteModificadoEvent(String nombre) {
+}
@@ -0,0 +1,10 @@
+package com.uade.transferencia_futbol.event;
+
+import java.util.Map;
+
+/**
+ * Se publica cuando jugadores pasan a ser representados por un agente,
+ * uno por uno o en un lote de la asignación masiva (jugador → agente).
+ */
+public record AgentesAsignadosEvent(Map<String, String> agentePorJugador) {
+}
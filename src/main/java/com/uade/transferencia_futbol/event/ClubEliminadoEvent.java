@@ -0,0 +1,7 @@
+package com.uade.transferencia_futbol.event;
+
+/**
+ * Se publica cuando se elimina un club; sus jugadores quedan libres.
+ */
+public record ClubEliminadoEvent(String nombre) {
+}
@@ -0,0 +1,8 @@
+package com.uade.transferencia_futbol.event;
+
+/**
+ * Se publica cuando cambian los datos de un club (presupuesto, liga, etc.).
+ * liga es la liga en la que compite después del cambio, o null si no tiene.
+ */
+public record ClubModificadoEvent(String nombre, String liga) {
+}
@@ -0,0 +1,7 @@
+package com.uade.transferencia_futbol.event;
+
+/**
+ * Se publica cuando se elimina un jugador.
+ */
+public record JugadorEliminadoEvent(String nombre) {
+}
@@ -0,0 +1,14 @@
+package com.uade.transferencia_futbol.event;
+
+/**
+ * Se publica cuando se crea un jugador o cambian sus datos o su club.
+ * club es null si el jugador quedó libre.
+ */
+public record JugadorModificadoEvent(
+        String nombre,
+        Integer edad,
+        String posicion,
+        Double valorMercado,
+        String nacionalidad,
+        String club) {
+}
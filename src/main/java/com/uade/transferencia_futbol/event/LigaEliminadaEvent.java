@@ -0,0 +1,7 @@
+package com.uade.transferencia_futbol.event;
+
+/**
+ * Se publica cuando se elimina una liga; sus clubes quedan sin liga.
+ */
+public record LigaEliminadaEvent(String nombre) {
+}
@@ -0,0 +1,14 @@
+package com.uade.transferencia_futbol.event;
+
+/**
+ * Se publica cuando una transferencia queda registrada.
+ * clubOrigen es null si el jugador estaba libre.
+ */
+public record TransferenciaRealizadaEvent(
+        String nombreJugador,
+        String clubOrigen,
+        String clubDestino,
+        Double monto,
+        String temporada,
+        String tipoTransferencia) {
+}
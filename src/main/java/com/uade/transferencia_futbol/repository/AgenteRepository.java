@@ -7,18 +7,27 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AgenteRepository extends Neo4jRepository<AgenteEntity, String> {
     
     // Búsquedas básicas
-    List<AgenteEntity> findByAgencia(String agencia);
+    <T> Optional<T> findByNombre(String nombre, Class<T> tipo);
     
-    List<AgenteEntity> findByNacionalidad(String nacionalidad);
+    <T> List<T> findAllBy(Class<T> tipo);
     
-    List<AgenteEntity> findByComisionGreaterThan(Double comisionMinima);
+    // Página por nombre sin SKIP: los que siguen a $despuesDe ("" en la primera)
+    @Query("MATCH (a:Agente) WHERE a.nombre > $despuesDe RETURN a ORDER BY a.nombre ASC LIMIT $limite")
+    <T> List<T> findPaginaPorNombre(@Param("despuesDe") String despuesDe, @Param("limite") Integer limite, Class<T> tipo);
     
-    List<AgenteEntity> findByComisionBetween(Double comisionMin, Double comisionMax);
+    <T> List<T> findByAgencia(String agencia, Class<T> tipo);
+    
+    <T> List<T> findByNacionalidad(String nacionalidad, Class<T> tipo);
+    
+    <T> List<T> findByComisionGreaterThan(Double comisionMinima, Class<T> tipo);
+    
+    <T> List<T> findByComisionBetween(Double comisionMin, Double comisionMax, Class<T> tipo);
     
     // Consultas personalizadas con Cypher
     
@@ -26,7 +35,7 @@ public interface AgenteRepository extends Neo4jRepository<AgenteEntity, String>
            "WITH a, count(j) as numJugadores " +
            "WHERE numJugadores >= $minJugadores " +
            "RETURN a")
-    List<AgenteEntity> findAgentesConMinimoJugadores(@Param("minJugadores") Integer minJugadores);
+    <T> List<T> findAgentesConMinimoJugadores(@Param("minJugadores") Integer minJugadores, Class<T> tipo);
     
     @Query("MATCH (a:Agente {nombre: $nombreAgente})<-[:REPRESENTADO_POR]-(j:Jugador) " +
            "RETURN sum(j.valorMercado)")
@@ -36,21 +45,21 @@ public interface AgenteRepository extends Neo4jRepository<AgenteEntity, String>
            "RETURN a, count(j) as numJugadores " +
            "ORDER BY numJugadores DESC " +
            "LIMIT $limit")
-    List<AgenteEntity> findTopAgentesByNumeroJugadores(@Param("limit") Integer limit);
+    <T> List<T> findTopAgentesByNumeroJugadores(@Param("limit") Integer limit, Class<T> tipo);
     
     @Query("MATCH (a:Agente)<-[:REPRESENTADO_POR]-(j:Jugador)-[:JUEGA_EN]->(c:Club {nombre: $nombreClub}) " +
            "RETURN DISTINCT a")
-    List<AgenteEntity> findAgentesConJugadoresEnClub(@Param("nombreClub") String nombreClub);
+    <T> List<T> findAgentesConJugadoresEnClub(@Param("nombreClub") String nombreClub, Class<T> tipo);
     
     @Query("MATCH (a:Agente)<-[:REPRESENTADO_POR]-(j:Jugador) " +
            "WITH a, sum(j.valorMercado) as valorTotal " +
            "RETURN a ORDER BY valorTotal DESC LIMIT $limit")
-    List<AgenteEntity> findTopAgentesByValorCartera(@Param("limit") Integer limit);
+    <T> List<T> findTopAgentesByValorCartera(@Param("limit") Integer limit, Class<T> tipo);
     
     @Query("MATCH (a:Agente {agencia: $agencia})<-[:REPRESENTADO_POR]-(j:Jugador) " +
            "RETURN count(j)")
     Integer countJugadoresByAgencia(@Param("agencia") String agencia);
     
     @Query("MATCH (a:Agente) WHERE a.comision >= $comisionMin RETURN a ORDER BY a.comision DESC")
-    List<AgenteEntity> findAllOrderByComisionDesc(@Param("comisionMin") Double comisionMin);
+    <T> List<T> findAllOrderByComisionDesc(@Param("comisionMin") Double comisionMin, Class<T> tipo);
 }
\ No newline at end of file
@@ -7,76 +7,88 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ClubRepository extends Neo4jRepository<ClubEntity, String> {
     
     // ==================== BÚSQUEDAS BÁSICAS ====================
     
-    List<ClubEntity> findByPais(String pais);
+    <T> Optional<T> findByNombre(String nombre, Class<T> tipo);
     
-    List<ClubEntity> findByLiga(String liga);
+    <T> List<T> findAllBy(Class<T> tipo);
     
-    List<ClubEntity> findByPresupuestoGreaterThan(Double presupuestoMinimo);
+    // Página por nombre sin SKIP: los que siguen a $despuesDe ("" en la primera)
+    @Query("MATCH (c:Club) WHERE c.nombre > $despuesDe RETURN c ORDER BY c.nombre ASC LIMIT $limite")
+    <T> List<T> findPaginaPorNombre(@Param("despuesDe") String despuesDe, @Param("limite") Integer limite, Class<T> tipo);
     
-    List<ClubEntity> findByFundacionGreaterThan(Integer anio);
+    <T> List<T> findByPais(String pais, Class<T> tipo);
+    
+    <T> List<T> findByLiga(String liga, Class<T> tipo);
+    
+    <T> List<T> findByPresupuestoGreaterThan(Double presupuestoMinimo, Class<T> tipo);
+    
+    <T> List<T> findByFundacionGreaterThan(Integer anio, Class<T> tipo);
     
     // ==================== CONSULTAS PERSONALIZADAS CON CYPHER ====================
     
     @Query("MATCH (c:Club)-[:COMPITE_EN]->(l:Liga {nombre: $nombreLiga}) RETURN c")
-    List<ClubEntity> findClubesByLiga(@Param("nombreLiga") String nombreLiga);
+    <T> List<T> findClubesByLiga(@Param("nombreLiga") String nombreLiga, Class<T> tipo);
     
     @Query("MATCH (c:Club) WHERE c.presupuesto >= $valorJugador RETURN c")
-    List<ClubEntity> findClubesQuePuedenPagar(@Param("valorJugador") Double valorJugador);
+    <T> List<T> findClubesQuePuedenPagar(@Param("valorJugador") Double valorJugador, Class<T> tipo);
     
     @Query("MATCH (c:Club)<-[:JUEGA_EN]-(j:Jugador {nacionalidad: $nacionalidad}) RETURN DISTINCT c")
-    List<ClubEntity> findClubesConJugadoresDeNacionalidad(@Param("nacionalidad") String nacionalidad);
+    <T> List<T> findClubesConJugadoresDeNacionalidad(@Param("nacionalidad") String nacionalidad, Class<T> tipo);
     
     @Query("MATCH (c:Club) RETURN c ORDER BY c.presupuesto DESC LIMIT $limit")
-    List<ClubEntity> findTopClubesByPresupuesto(@Param("limit") Integer limit);
+    <T> List<T> findTopClubesByPresupuesto(@Param("limit") Integer limit, Class<T> tipo);
     
     @Query("MATCH (c:Club)<-[:JUEGA_EN]-(j:Jugador) WITH c, count(j) as jugadoresCount RETURN c ORDER BY jugadoresCount DESC LIMIT $limit")
-    List<ClubEntity> findTopClubesByNumeroJugadores(@Param("limit") Integer limit);
+    <T> List<T> findTopClubesByNumeroJugadores(@Param("limit") Integer limit, Class<T> tipo);
     
     @Query("MATCH (c:Club {nombre: $nombreClub})<-[:JUEGA_EN]-(j:Jugador) RETURN sum(j.valorMercado)")
     Double getValorTotalPlantilla(@Param("nombreClub") String nombreClub);
     
     @Query("MATCH (c:Club) WHERE c.presupuesto >= $presupuestoMin AND c.presupuesto <= $presupuestoMax RETURN c")
-    List<ClubEntity> findByPresupuestoBetween(
+    <T> List<T> findByPresupuestoBetween(
         @Param("presupuestoMin") Double presupuestoMin, 
-        @Param("presupuestoMax") Double presupuestoMax
+        @Param("presupuestoMax") Double presupuestoMax,
+        Class<T> tipo
     );
     
     @Query("MATCH (c:Club)-[:COMPITE_EN]->(l:Liga) WHERE l.nivel >= $nivelMinimo RETURN c")
-    List<ClubEntity> findClubesEnLigasTopNivel(@Param("nivelMinimo") Integer nivelMinimo);
+    <T> List<T> findClubesEnLigasTopNivel(@Param("nivelMinimo") Integer nivelMinimo, Class<T> tipo);
     
     @Query("MATCH (c:Club) RETURN c ORDER BY c.fundacion ASC")
-    List<ClubEntity> findAllOrderByFundacionAsc();
+    <T> List<T> findAllOrderByFundacionAsc(Class<T> tipo);
     
     // ==================== CONSULTAS ADICIONALES ====================
     
     @Query("MATCH (c:Club)<-[:JUEGA_EN]-(j:Jugador) WITH c, avg(j.edad) as edadPromedio RETURN c ORDER BY edadPromedio ASC")
-    List<ClubEntity> findClubesOrdenadosPorEdadPromedioAsc();
+    <T> List<T> findClubesOrdenadosPorEdadPromedioAsc(Class<T> tipo);
     
     @Query("MATCH (c:Club)<-[:JUEGA_EN]-(j:Jugador) WITH c, avg(j.edad) as edadPromedio RETURN c ORDER BY edadPromedio DESC")
-    List<ClubEntity> findClubesOrdenadosPorEdadPromedioDesc();
+    <T> List<T> findClubesOrdenadosPorEdadPromedioDesc(Class<T> tipo);
     
     @Query("MATCH (c:Club)<-[:JUEGA_EN]-(j:Jugador) WHERE j.valorMercado IS NOT NULL WITH c, max(j.valorMercado) as maxValor RETURN c ORDER BY maxValor DESC LIMIT $limit")
-    List<ClubEntity> findTopClubesPorJugadorMasValioso(@Param("limit") Integer limit);
+    <T> List<T> findTopClubesPorJugadorMasValioso(@Param("limit") Integer limit, Class<T> tipo);
     
     @Query("MATCH (c:Club) WHERE c.pais = $pais AND c.presupuesto >= $presupuestoMin RETURN c")
-    List<ClubEntity> findClubesPorPaisYPresupuestoMin(
+    <T> List<T> findClubesPorPaisYPresupuestoMin(
         @Param("pais") String pais, 
-        @Param("presupuestoMin") Double presupuestoMin
+        @Param("presupuestoMin") Double presupuestoMin,
+        Class<T> tipo
     );
     
     @Query("MATCH (c:Club) WHERE toLower(c.nombre) CONTAINS toLower($nombre) RETURN c")
-    List<ClubEntity> findByNombreContainingIgnoreCase(@Param("nombre") String nombre);
+    <T> List<T> findByNombreContainingIgnoreCase(@Param("nombre") String nombre, Class<T> tipo);
     
     @Query("MATCH (c:Club) WHERE c.fundacion BETWEEN $anioInicio AND $anioFin RETURN c ORDER BY c.fundacion")
-    List<ClubEntity> findByFundacionBetween(
+    <T> List<T> findByFundacionBetween(
         @Param("anioInicio") Integer anioInicio, 
-        @Param("anioFin") Integer anioFin
+        @Param("anioFin") Integer anioFin,
+        Class<T> tipo
     );
     
     @Query("MATCH (c:Club)<-[:JUEGA_EN]-(j:Jugador) WITH c, count(j) as totalJugadores, sum(j.valorMercado) as valorTotal RETURN c, totalJugadores, valorTotal ORDER BY valorTotal DESC LIMIT $limit")
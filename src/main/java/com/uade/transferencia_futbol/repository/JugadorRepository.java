@@ -12,44 +12,51 @@ import java.util.List;
 public interface JugadorRepository extends Neo4jRepository<JugadorEntity, String> {
     
     // Búsquedas básicas
-    List<JugadorEntity> findByPosicion(String posicion);
+    <T> List<T> findAllBy(Class<T> tipo);
     
-    List<JugadorEntity> findByNacionalidad(String nacionalidad);
+    // Página por nombre sin SKIP: los que siguen a $despuesDe ("" en la primera)
+    @Query("MATCH (j:Jugador) WHERE j.nombre > $despuesDe RETURN j ORDER BY j.nombre ASC LIMIT $limite")
+    <T> List<T> findPaginaPorNombre(@Param("despuesDe") String despuesDe, @Param("limite") Integer limite, Class<T> tipo);
     
-    List<JugadorEntity> findByEdadBetween(Integer edadMin, Integer edadMax);
+    <T> List<T> findByPosicion(String posicion, Class<T> tipo);
     
-    List<JugadorEntity> findByValorMercadoGreaterThan(Double valorMinimo);
+    <T> List<T> findByNacionalidad(String nacionalidad, Class<T> tipo);
+    
+    <T> List<T> findByEdadBetween(Integer edadMin, Integer edadMax, Class<T> tipo);
+    
+    <T> List<T> findByValorMercadoGreaterThan(Double valorMinimo, Class<T> tipo);
     
     // Consultas personalizadas con Cypher
     
     @Query("MATCH (j:Jugador)-[:JUEGA_EN]->(c:Club {nombre: $nombreClub}) RETURN j")
-    List<JugadorEntity> findJugadoresByClub(@Param("nombreClub") String nombreClub);
+    <T> List<T> findJugadoresByClub(@Param("nombreClub") String nombreClub, Class<T> tipo);
     
     @Query("MATCH (j:Jugador)-[:REPRESENTADO_POR]->(a:Agente {nombre: $nombreAgente}) RETURN j")
-    List<JugadorEntity> findJugadoresByAgente(@Param("nombreAgente") String nombreAgente);
+    <T> List<T> findJugadoresByAgente(@Param("nombreAgente") String nombreAgente, Class<T> tipo);
     
     @Query("MATCH (j:Jugador) WHERE NOT (j)-[:JUEGA_EN]->() RETURN j")
-    List<JugadorEntity> findJugadoresLibres();
+    <T> List<T> findJugadoresLibres(Class<T> tipo);
     
     @Query("MATCH (j:Jugador) WHERE j.valorMercado IS NOT NULL RETURN j ORDER BY j.valorMercado DESC LIMIT $limit")
-    List<JugadorEntity> findTopJugadoresByValor(@Param("limit") Integer limit);
+    <T> List<T> findTopJugadoresByValor(@Param("limit") Integer limit, Class<T> tipo);
     
     @Query("MATCH (j:Jugador)-[:JUEGA_EN]->(c:Club) WHERE c.nombre = $nombreClub RETURN count(j)")
     Integer countJugadoresByClub(@Param("nombreClub") String nombreClub);
     
     @Query("MATCH (j:Jugador) WHERE j.edad >= $edadMin AND j.edad <= $edadMax AND j.posicion = $posicion RETURN j")
-    List<JugadorEntity> findByEdadRangoAndPosicion(
+    <T> List<T> findByEdadRangoAndPosicion(
         @Param("edadMin") Integer edadMin, 
         @Param("edadMax") Integer edadMax, 
-        @Param("posicion") String posicion
+        @Param("posicion") String posicion,
+        Class<T> tipo
     );
     
     @Query("MATCH (j:Jugador)-[:JUEGA_EN]->(c:Club)-[:COMPITE_EN]->(l:Liga {nombre: $nombreLiga}) RETURN j")
-    List<JugadorEntity> findJugadoresByLiga(@Param("nombreLiga") String nombreLiga);
+    <T> List<T> findJugadoresByLiga(@Param("nombreLiga") String nombreLiga, Class<T> tipo);
     
     @Query("MATCH (j:Jugador) RETURN j ORDER BY j.valorMercado DESC")
-    List<JugadorEntity> findAllOrderByValorMercadoDesc();
+    <T> List<T> findAllOrderByValorMercadoDesc(Class<T> tipo);
     
     @Query("MATCH (j:Jugador)-[:JUEGA_EN]->(c:Club {pais: $pais}) RETURN j")
-    List<JugadorEntity> findJugadoresByPaisClub(@Param("pais") String pais);
+    <T> List<T> findJugadoresByPaisClub(@Param("pais") String pais, Class<T> tipo);
 }
\ No newline at end of file
@@ -7,27 +7,36 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface LigaRepository extends Neo4jRepository<LigaEntity, String> {
     
     // Búsquedas básicas
-    List<LigaEntity> findByPais(String pais);
+    <T> Optional<T> findByNombre(String nombre, Class<T> tipo);
     
-    List<LigaEntity> findByNivel(Integer nivel);
+    <T> List<T> findAllBy(Class<T> tipo);
     
-    List<LigaEntity> findByCantidadEquiposGreaterThan(Integer cantidad);
+    // Página por nombre sin SKIP: los que siguen a $despuesDe ("" en la primera)
+    @Query("MATCH (l:Liga) WHERE l.nombre > $despuesDe RETURN l ORDER BY l.nombre ASC LIMIT $limite")
+    <T> List<T> findPaginaPorNombre(@Param("despuesDe") String despuesDe, @Param("limite") Integer limite, Class<T> tipo);
+    
+    <T> List<T> findByPais(String pais, Class<T> tipo);
+    
+    <T> List<T> findByNivel(Integer nivel, Class<T> tipo);
+    
+    <T> List<T> findByCantidadEquiposGreaterThan(Integer cantidad, Class<T> tipo);
     
     // Consultas personalizadas con Cypher
     
     @Query("MATCH (l:Liga) RETURN l ORDER BY l.nivel ASC LIMIT $limit")
-    List<LigaEntity> findTopLigasByNivel(@Param("limit") Integer limit);
+    <T> List<T> findTopLigasByNivel(@Param("limit") Integer limit, Class<T> tipo);
     
     @Query("MATCH (l:Liga)<-[:COMPITE_EN]-(c:Club) " +
            "WITH l, sum(c.presupuesto) as presupuestoTotal " +
            "WHERE presupuestoTotal >= $presupuestoMinimo " +
            "RETURN l")
-    List<LigaEntity> findLigasConPresupuestoMinimo(@Param("presupuestoMinimo") Double presupuestoMinimo);
+    <T> List<T> findLigasConPresupuestoMinimo(@Param("presupuestoMinimo") Double presupuestoMinimo, Class<T> tipo);
     
     @Query("MATCH (l:Liga {nombre: $nombreLiga})<-[:COMPITE_EN]-(c:Club)<-[:JUEGA_EN]-(j:Jugador) " +
            "RETURN count(j)")
@@ -38,18 +47,18 @@ public interface LigaRepository extends Neo4jRepository<LigaEntity, String> {
     Double getValorMercadoTotalLiga(@Param("nombreLiga") String nombreLiga);
     
     @Query("MATCH (l:Liga) RETURN l ORDER BY l.cantidadEquipos DESC")
-    List<LigaEntity> findAllOrderByCantidadEquipos();
+    <T> List<T> findAllOrderByCantidadEquipos(Class<T> tipo);
     
     @Query("MATCH (l:Liga)<-[:COMPITE_EN]-(c:Club) " +
            "RETURN l, count(c) as numClubes " +
            "ORDER BY numClubes DESC")
-    List<LigaEntity> findLigasOrderByClubesActivos();
+    <T> List<T> findLigasOrderByClubesActivos(Class<T> tipo);
     
     @Query("MATCH (l:Liga {pais: $pais}) RETURN l ORDER BY l.nivel ASC")
-    List<LigaEntity> findLigasByPaisOrderByNivel(@Param("pais") String pais);
+    <T> List<T> findLigasByPaisOrderByNivel(@Param("pais") String pais, Class<T> tipo);
     
     @Query("MATCH (l:Liga)<-[:COMPITE_EN]-(c:Club)<-[:JUEGA_EN]-(j:Jugador) " +
            "WITH l, avg(j.edad) as edadPromedio " +
            "RETURN l ORDER BY edadPromedio ASC LIMIT $limit")
-    List<LigaEntity> findLigasConJugadoresMasJovenes(@Param("limit") Integer limit);
+    <T> List<T> findLigasConJugadoresMasJovenes(@Param("limit") Integer limit, Class<T> tipo);
 }
\ No newline at end of file
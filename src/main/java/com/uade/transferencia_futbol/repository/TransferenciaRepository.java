@@ -10,7 +10,7 @@ import java.time.LocalDate;
 import java.util.List;
 
 @Repository
-public interface TransferenciaRepository extends Neo4jRepository<TransferenciaEntity, Long> {
+public interface TransferenciaRepository extends Neo4jRepository<TransferenciaEntity, String> {
     
     // Búsquedas básicas
     List<TransferenciaEntity> findByTemporada(String temporada);
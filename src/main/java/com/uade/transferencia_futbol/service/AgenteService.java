@@ -1,25 +1,85 @@
 package com.uade.transferencia_futbol.service;
 
+import com.uade.transferencia_futbol.algoritmo.AsignacionAgentesSolver;
+import com.uade.transferencia_futbol.algoritmo.RankingJugadores;
+import com.uade.transferencia_futbol.dto.Agregado;
+import com.uade.transferencia_futbol.dto.AsignacionAgente;
+import com.uade.transferencia_futbol.dto.AgenteSummary;
+import com.uade.transferencia_futbol.dto.Pagina;
 import com.uade.transferencia_futbol.entity.AgenteEntity;
 import com.uade.transferencia_futbol.entity.JugadorEntity;
+import com.uade.transferencia_futbol.event.AgenteEliminadoEvent;
+import com.uade.transferencia_futbol.event.AgenteModificadoEvent;
+import com.uade.transferencia_futbol.event.AgentesAsignadosEvent;
 import com.uade.transferencia_futbol.repository.AgenteRepository;
 import com.uade.transferencia_futbol.repository.JugadorRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.neo4j.core.Neo4jClient;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
 public class AgenteService {
     
+    private static final String QUERY_CARGA_AGENTES =
+        "MATCH (a:Agente) " +
+        "OPTIONAL MATCH (a)<-[:REPRESENTADO_POR]-(j:Jugador) " +
+        "RETURN a.nombre AS nombre, count(j) AS carga, " +
+        "coalesce(a.comision, 0.0) AS comision, coalesce(sum(j.valorMercado), 0.0) AS valor " +
+        "ORDER BY nombre";
+    
+    // Los jugadores libres que ya tienen agente cuentan en la carga de ese agente y no se reasignan
+    private static final String QUERY_LIBRES_CON_AGENTE =
+        "MATCH (j:Jugador)-[:REPRESENTADO_POR]->(:Agente) " +
+        "WHERE NOT (j)-[:JUEGA_EN]->(:Club) " +
+        "RETURN j.nombre";
+    
+    // Solo escribe si el jugador sigue sin agente: repetir la asignación no mueve a nadie
+    private static final String QUERY_ASIGNAR_LOTE =
+        "UNWIND $asignaciones AS fila " +
+        "MATCH (j:Jugador {nombre: fila.jugador}) " +
+        "WHERE NOT (j)-[:REPRESENTADO_POR]->(:Agente) " +
+        "MATCH (a:Agente {nombre: fila.agente}) " +
+        "CREATE (j)-[:REPRESENTADO_POR]->(a) " +
+        "RETURN j.nombre AS jugador, a.nombre AS agente";
+    
     @Autowired
     private AgenteRepository agenteRepository;
     
+    @Autowired
+    private Paginacion paginacion;
+    
+    @Autowired
+    private ResumenesCache resumenesCache;
+    
+    @Autowired
+    private AgregadosIndex agregadosIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     @Autowired
     private JugadorRepository jugadorRepository;
     
+    @Autowired
+    private PosicionJugadoresIndex posicionJugadoresIndex;
+    
+    @Autowired
+    private Neo4jClient neo4jClient;
+    
+    @Value("${agentes.asignacion.tamano-lote:1000}")
+    private int tamanoLoteAsignacion;
+    
+    @Value("${agentes.asignacion.holgura:0.2}")
+    private double holguraAsignacion;
+    
     // Crear agente
     public AgenteEntity crearAgente(AgenteEntity agente) {
         if (agenteRepository.existsById(agente.getNombre())) {
@@ -28,9 +88,15 @@ public class AgenteService {
         return agenteRepository.save(agente);
     }
     
-    // Obtener todos los agentes
-    public List<AgenteEntity> obtenerTodosAgentes() {
-        return agenteRepository.findAll();
+    // Paginado por nombre (ver Paginacion); con expand, las entidades completas
+    public Pagina<?> obtenerPaginaAgentes(Integer limite, String cursor, boolean expand) {
+        int tamano = paginacion.tamano(limite);
+        Pagina<AgenteSummary> pagina = Paginacion.porNombre(
+            agenteRepository.findPaginaPorNombre(Paginacion.despuesDe(cursor), tamano, AgenteSummary.class),
+            tamano, AgenteSummary::nombre);
+        return expand
+            ? Paginacion.expandir(pagina, AgenteSummary::nombre, agenteRepository::findAllById, AgenteEntity::getNombre)
+            : pagina;
     }
     
     // Obtener agente por nombre
@@ -38,6 +104,11 @@ public class AgenteService {
         return agenteRepository.findById(nombre);
     }
     
+    // Obtener resumen de agente desde la cache (ver ResumenesCache)
+    public Optional<AgenteSummary> obtenerResumenAgente(String nombre) {
+        return resumenesCache.agente(nombre);
+    }
+    
     // Actualizar agente
     public AgenteEntity actualizarAgente(String nombre, AgenteEntity agenteActualizado) {
         return agenteRepository.findById(nombre)
@@ -45,7 +116,7 @@ public class AgenteService {
                 agente.setAgencia(agenteActualizado.getAgencia());
                 agente.setComision(agenteActualizado.getComision());
                 agente.setNacionalidad(agenteActualizado.getNacionalidad());
-                return agenteRepository.save(agente);
+                return publicarModificacion(agenteRepository.save(agente));
             })
             .orElseThrow(() -> new RuntimeException("Agente no encontrado: " + nombre));
     }
@@ -56,47 +127,55 @@ public class AgenteService {
             throw new RuntimeException("Agente no encontrado: " + nombre);
         }
         agenteRepository.deleteById(nombre);
+        eventPublisher.publishEvent(new AgenteEliminadoEvent(nombre));
     }
     
     // Buscar agentes por agencia
-    public List<AgenteEntity> buscarPorAgencia(String agencia) {
-        return agenteRepository.findByAgencia(agencia);
+    public <T> List<T> buscarPorAgencia(String agencia, Class<T> tipo) {
+        return agenteRepository.findByAgencia(agencia, tipo);
     }
     
     // Buscar agentes por nacionalidad
-    public List<AgenteEntity> buscarPorNacionalidad(String nacionalidad) {
-        return agenteRepository.findByNacionalidad(nacionalidad);
+    public <T> List<T> buscarPorNacionalidad(String nacionalidad, Class<T> tipo) {
+        return agenteRepository.findByNacionalidad(nacionalidad, tipo);
     }
     
     // Buscar agentes con comisión mayor a un porcentaje
-    public List<AgenteEntity> buscarPorComisionMinima(Double comisionMinima) {
-        return agenteRepository.findByComisionGreaterThan(comisionMinima);
+    public <T> List<T> buscarPorComisionMinima(Double comisionMinima, Class<T> tipo) {
+        return agenteRepository.findByComisionGreaterThan(comisionMinima, tipo);
     }
     
     // Buscar agentes con comisión en un rango
-    public List<AgenteEntity> buscarPorRangoComision(Double comisionMin, Double comisionMax) {
-        return agenteRepository.findByComisionBetween(comisionMin, comisionMax);
+    public <T> List<T> buscarPorRangoComision(Double comisionMin, Double comisionMax, Class<T> tipo) {
+        return agenteRepository.findByComisionBetween(comisionMin, comisionMax, tipo);
     }
     
     // Agentes con mínimo número de jugadores
-    public List<AgenteEntity> agentesConMinimoJugadores(Integer minJugadores) {
-        return agenteRepository.findAgentesConMinimoJugadores(minJugadores);
+    public <T> List<T> agentesConMinimoJugadores(Integer minJugadores, Class<T> tipo) {
+        return agenteRepository.findAgentesConMinimoJugadores(minJugadores, tipo);
     }
     
-    // Obtener valor total de la cartera de un agente
+    // Obtener valor total de la cartera de un agente (desde los agregados en memoria)
     public Double obtenerValorTotalCartera(String nombreAgente) {
-        Double valor = agenteRepository.getValorTotalCartera(nombreAgente);
-        return valor != null ? valor : 0.0;
+        return agregadosIndex.agente(nombreAgente).valorMercadoTotal();
+    }
+    
+    // Jugadores, valor total y edad promedio de la cartera de un agente
+    public Agregado obtenerAgregadosAgente(String nombreAgente) {
+        if (!agenteRepository.existsById(nombreAgente)) {
+            throw new RuntimeException("Agente no encontrado: " + nombreAgente);
+        }
+        return agregadosIndex.agente(nombreAgente);
     }
     
     // Top agentes por número de jugadores
-    public List<AgenteEntity> obtenerTopAgentesPorJugadores(Integer limit) {
-        return agenteRepository.findTopAgentesByNumeroJugadores(limit);
+    public <T> List<T> obtenerTopAgentesPorJugadores(Integer limit, Class<T> tipo) {
+        return agenteRepository.findTopAgentesByNumeroJugadores(limit, tipo);
     }
     
     // Agentes con jugadores en un club específico
-    public List<AgenteEntity> agentesConJugadoresEnClub(String nombreClub) {
-        return agenteRepository.findAgentesConJugadoresEnClub(nombreClub);
+    public <T> List<T> agentesConJugadoresEnClub(String nombreClub, Class<T> tipo) {
+        return agenteRepository.findAgentesConJugadoresEnClub(nombreClub, tipo);
     }
     
     // Actualizar comisión
@@ -107,7 +186,7 @@ public class AgenteService {
                     throw new RuntimeException("La comisión debe estar entre 0 y 100");
                 }
                 agente.setComision(nuevaComision);
-                return agenteRepository.save(agente);
+                return publicarModificacion(agenteRepository.save(agente));
             })
             .orElseThrow(() -> new RuntimeException("Agente no encontrado: " + nombre));
     }
@@ -125,51 +204,282 @@ public class AgenteService {
 
     // /api/agents/assignment - Greedy
     /**
-     * Implementación de un algoritmo Greedy para asignar jugadores a agentes
-     * según alguna métrica (ej. maximizar comisión o balancear carga).
+     * Asigna cada jugador libre sin agente (de mayor a menor valor) al agente
+     * con menos jugadores en ese momento. Devuelve los jugadores asignados por agente.
+     */
+    public Map<String, List<JugadorEntity>> asignarJugadoresAgentesGreedy() {
+        List<JugadorEntity> jugadoresLibres = libresSinAgente();
+        Map<String, JugadorEntity> jugadoresPorNombre = new HashMap<>();
+        for (JugadorEntity jugador : jugadoresLibres) {
+            jugadoresPorNombre.put(jugador.getNombre(), jugador);
+        }
+        
+        CargasAgentes cargas = cargarCargasAgentes();
+        Map<String, List<JugadorEntity>> asignacion = new LinkedHashMap<>();
+        for (String agente : cargas.nombres()) {
+            asignacion.put(agente, new ArrayList<>());
+        }
+        asignarGreedy(cargas, jugadoresLibres, false, asignada -> asignacion.get(asignada.agente())
+            .add(jugadoresPorNombre.get(asignada.jugador())));
+        return asignacion;
+    }
+
+    /**
+     * Greedy de balanceo con un heap de mínimos por carga: O((n + m) log m)
+     * para n jugadores libres sin agente y m agentes. La carga inicial de
+     * todos los agentes sale de una sola consulta de conteo, sin hidratar sus
+     * jugadores. Cada asignación se entrega a alAsignar apenas se decide. Si
+     * persistir es true se escriben las relaciones REPRESENTADO_POR en lotes
+     * con UNWIND (cada lote en su propia transacción), salteando a los
+     * jugadores que consiguieron agente mientras tanto.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> asignarJugadoresAgentesGreedy(boolean persistir, Consumer<AsignacionAgente> alAsignar) {
+        long inicio = System.nanoTime();
+        CargasAgentes cargas = cargarCargasAgentes();
+        Map<String, Object> resumen = asignarGreedy(cargas, libresSinAgente(), persistir, alAsignar);
+        resumen.put("tiempoMs", (System.nanoTime() - inicio) / 1_000_000);
+        return resumen;
+    }
+    
+    private Map<String, Object> asignarGreedy(CargasAgentes cargasAgentes, List<JugadorEntity> jugadoresLibres,
+                                              boolean persistir, Consumer<AsignacionAgente> alAsignar) {
+        List<String> agentes = cargasAgentes.nombres();
+        int[] cargas = cargasAgentes.cargas();
+        
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("totalAgentes", agentes.size());
+        if (agentes.isEmpty()) {
+            resumen.put("jugadoresAsignados", 0);
+            resumen.put("persistidos", 0);
+            resumen.put("lotes", 0);
+            return resumen;
+        }
+        
+        // Jugadores libres ordenados por valor de mercado (mayor valor primero)
+        List<JugadorEntity> porValor = RankingJugadores.ordenar(jugadoresLibres, AgenteService::valorDe);
+        
+        // Menor carga arriba; a igual carga, el primero en orden de nombre
+        PriorityQueue<Integer> heap = new PriorityQueue<>(agentes.size(), (a, b) -> cargas[a] != cargas[b]
+            ? Integer.compare(cargas[a], cargas[b])
+            : Integer.compare(a, b));
+        for (int a = 0; a < agentes.size(); a++) {
+            heap.add(a);
+        }
+        
+        EscrituraPorLotes escritura = new EscrituraPorLotes(persistir);
+        for (JugadorEntity jugador : porValor) {
+            int agente = heap.poll();
+            cargas[agente]++;
+            heap.add(agente);
+            
+            alAsignar.accept(new AsignacionAgente(
+                jugador.getNombre(), jugador.getValorMercado(), agentes.get(agente), cargas[agente]));
+            escritura.agregar(jugador.getNombre(), agentes.get(agente));
+        }
+        escritura.terminar();
+        
+        resumen.put("jugadoresAsignados", jugadoresLibres.size());
+        resumen.put("persistidos", escritura.persistidos);
+        resumen.put("lotes", escritura.lotes);
+        return resumen;
+    }
+    
+    // /api/agentes/asignacion-flujo - Flujo de costo mínimo
+    /**
+     * Asigna los jugadores libres sin agente balanceando el valor representado
+     * por cada agente, sin pasar su capacidad máxima y minimizando la comisión
+     * esperada (valor * comisión). Ver {@link AsignacionAgentesSolver}. Sin
+     * capacidad se usa la carga promedio después de asignar más la holgura,
+     * redondeada hacia arriba. Entrega y persiste las asignaciones igual que
+     * el greedy.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> asignarJugadoresAgentesFlujo(Integer capacidadMaxima, Double holgura,
+                                                            boolean persistir, Consumer<AsignacionAgente> alAsignar) {
+        long inicio = System.nanoTime();
+        double desvio = holgura != null ? holgura : holguraAsignacion;
+        if (desvio < 0 || desvio > 1) {
+            throw new RuntimeException("La holgura debe estar entre 0 y 1");
+        }
+        if (capacidadMaxima != null && capacidadMaxima < 0) {
+            throw new RuntimeException("La capacidad máxima no puede ser negativa");
+        }
+        
+        CargasAgentes agentes = cargarCargasAgentes();
+        List<JugadorEntity> jugadoresLibres = libresSinAgente();
+        int m = agentes.nombres().size();
+        int n = jugadoresLibres.size();
+        
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("totalAgentes", m);
+        resumen.put("holgura", desvio);
+        
+        int[] cargas = agentes.cargas();
+        long cargaTotal = 0;
+        for (int carga : cargas) {
+            cargaTotal += carga;
+        }
+        int capacidad = capacidadMaxima != null ? capacidadMaxima
+            : m == 0 ? 0 : (int) Math.ceil((double) (cargaTotal + n) / m * (1 + desvio));
+        resumen.put("capacidadMaxima", capacidad);
+        
+        int[] lugaresLibres = new int[m];
+        for (int a = 0; a < m; a++) {
+            lugaresLibres[a] = Math.max(0, capacidad - cargas[a]);
+        }
+        double[] valores = new double[n];
+        for (int j = 0; j < n; j++) {
+            valores[j] = valorDe(jugadoresLibres.get(j));
+        }
+        
+        AsignacionAgentesSolver.Resultado resultado = AsignacionAgentesSolver.resolver(
+            valores, agentes.comisiones(), agentes.valores(), lugaresLibres, desvio);
+        
+        // Se entregan de mayor a menor valor, como el greedy
+        EscrituraPorLotes escritura = new EscrituraPorLotes(persistir);
+        for (int j : RankingJugadores.ordenDescendente(valores)) {
+            int agente = resultado.agentePorJugador()[j];
+            if (agente < 0) {
+                continue;
+            }
+            JugadorEntity jugador = jugadoresLibres.get(j);
+            cargas[agente]++;
+            alAsignar.accept(new AsignacionAgente(
+                jugador.getNombre(), jugador.getValorMercado(), agentes.nombres().get(agente), cargas[agente]));
+            escritura.agregar(jugador.getNombre(), agentes.nombres().get(agente));
+        }
+        escritura.terminar();
+        
+        resumen.put("jugadoresAsignados", resultado.asignados());
+        resumen.put("sinAsignar", n - resultado.asignados());
+        resumen.put("comisionTotal", resultado.comisionTotal());
+        resumen.putAll(estadisticasValor(resultado.valorRepresentado()));
+        resumen.put("tramosValor", resultado.tramosValor());
+        resumen.put("clasesComision", resultado.clasesComision());
+        resumen.put("aumentos", resultado.aumentos());
+        resumen.put("persistidos", escritura.persistidos);
+        resumen.put("lotes", escritura.lotes);
+        resumen.put("tiempoMs", (System.nanoTime() - inicio) / 1_000_000);
+        return resumen;
+    }
+    
+    private Map<String, Object> estadisticasValor(double[] valorRepresentado) {
+        Map<String, Object> estadisticas = new LinkedHashMap<>();
+        if (valorRepresentado.length == 0) {
+            return estadisticas;
+        }
+        double maximo = Double.NEGATIVE_INFINITY;
+        double minimo = Double.POSITIVE_INFINITY;
+        double suma = 0.0;
+        for (double valor : valorRepresentado) {
+            maximo = Math.max(maximo, valor);
+            minimo = Math.min(minimo, valor);
+            suma += valor;
+        }
+        double media = suma / valorRepresentado.length;
+        double varianza = 0.0;
+        for (double valor : valorRepresentado) {
+            varianza += (valor - media) * (valor - media);
+        }
+        estadisticas.put("valorRepresentadoMaximo", maximo);
+        estadisticas.put("valorRepresentadoMinimo", minimo);
+        estadisticas.put("valorRepresentadoDesvio", Math.sqrt(varianza / valorRepresentado.length));
+        return estadisticas;
+    }
+    
+    private static double valorDe(JugadorEntity jugador) {
+        return jugador.getValorMercado() != null ? Math.max(0.0, jugador.getValorMercado()) : 0.0;
+    }
+    
+    /**
+     * Jugadores libres que todavía no tienen agente. Los que ya tienen uno
+     * están contados en la carga de su agente y no se vuelven a asignar.
      */
-    public Map<AgenteEntity, List<JugadorEntity>> asignarJugadoresAgentesGreedy() {
-    List<JugadorEntity> jugadoresLibres = jugadorRepository.findJugadoresLibres();
-    List<AgenteEntity> agentes = agenteRepository.findAll();
+    private List<JugadorEntity> libresSinAgente() {
+        Set<String> conAgente = new HashSet<>(
+            neo4jClient.query(QUERY_LIBRES_CON_AGENTE).fetchAs(String.class).all());
+        List<JugadorEntity> libres = new ArrayList<>();
+        for (JugadorEntity jugador : posicionJugadoresIndex.libres().todos()) {
+            if (!conAgente.contains(jugador.getNombre())) {
+                libres.add(jugador);
+            }
+        }
+        return libres;
+    }
     
-    if (agentes.isEmpty()) {
-        return new HashMap<>();
+    private CargasAgentes cargarCargasAgentes() {
+        List<Map<String, Object>> filas = new ArrayList<>(neo4jClient.query(QUERY_CARGA_AGENTES).fetch().all());
+        List<String> nombres = new ArrayList<>(filas.size());
+        int[] cargas = new int[filas.size()];
+        double[] comisiones = new double[filas.size()];
+        double[] valores = new double[filas.size()];
+        for (int a = 0; a < filas.size(); a++) {
+            Map<String, Object> fila = filas.get(a);
+            nombres.add((String) fila.get("nombre"));
+            cargas[a] = ((Number) fila.get("carga")).intValue();
+            comisiones[a] = ((Number) fila.get("comision")).doubleValue();
+            valores[a] = ((Number) fila.get("valor")).doubleValue();
+        }
+        return new CargasAgentes(nombres, cargas, comisiones, valores);
     }
     
-    // Ordenar jugadores por valor de mercado (mayor valor primero)
-    jugadoresLibres.sort(Comparator.comparing(
-        j -> j.getValorMercado() != null ? j.getValorMercado() : 0.0, 
-        Comparator.reverseOrder()
-    ));
+    private int escribirLote(List<Map<String, Object>> lote) {
+        // Solo se informan las filas escritas, no las de jugadores que ya tenían agente
+        Map<String, String> agentePorJugador = new HashMap<>();
+        for (Map<String, Object> fila : neo4jClient.query(QUERY_ASIGNAR_LOTE)
+                .bind(lote).to("asignaciones")
+                .fetch()
+                .all()) {
+            agentePorJugador.put((String) fila.get("jugador"), (String) fila.get("agente"));
+        }
+        eventPublisher.publishEvent(new AgentesAsignadosEvent(agentePorJugador));
+        return agentePorJugador.size();
+    }
     
-    // Inicializar el mapa de asignación
-    Map<AgenteEntity, List<JugadorEntity>> asignacion = new HashMap<>();
-    for (AgenteEntity agente : agentes) {
-        asignacion.put(agente, new ArrayList<>());
+    /**
+     * Agentes en orden de nombre con su cantidad actual de jugadores
+     * representados, su comisión y el valor de mercado que ya representan.
+     */
+    private record CargasAgentes(List<String> nombres, int[] cargas, double[] comisiones, double[] valores) {
     }
     
-    // Algoritmo Greedy: asignar cada jugador al agente con menos carga actual
-    for (JugadorEntity jugador : jugadoresLibres) {
-        // Encontrar el agente con menor carga (incluyendo asignaciones nuevas)
-        AgenteEntity agenteMenosCargado = null;
-        int minCarga = Integer.MAX_VALUE;
+    /**
+     * Acumula asignaciones y las escribe con {@link #escribirLote} cada
+     * tamanoLoteAsignacion filas; si no hay que persistir no hace nada.
+     */
+    private final class EscrituraPorLotes {
+        private final boolean persistir;
+        private final List<Map<String, Object>> lote = new ArrayList<>();
+        private int persistidos;
+        private int lotes;
         
-        for (AgenteEntity agente : agentes) {
-            // Carga actual = jugadores existentes + jugadores ya asignados en esta ejecución
-            int cargaActual = agente.getJugadores().size() + asignacion.get(agente).size();
-            
-            if (cargaActual < minCarga) {
-                minCarga = cargaActual;
-                agenteMenosCargado = agente;
+        EscrituraPorLotes(boolean persistir) {
+            this.persistir = persistir;
+        }
+        
+        void agregar(String jugador, String agente) {
+            if (!persistir) {
+                return;
+            }
+            lote.add(Map.of("jugador", jugador, "agente", agente));
+            if (lote.size() >= tamanoLoteAsignacion) {
+                terminar();
             }
         }
         
-        // Asignar el jugador al agente menos cargado
-        if (agenteMenosCargado != null) {
-            asignacion.get(agenteMenosCargado).add(jugador);
+        void terminar() {
+            if (!lote.isEmpty()) {
+                persistidos += escribirLote(lote);
+                lotes++;
+                lote.clear();
+            }
         }
     }
     
-    return asignacion;
+    // La cache de resúmenes se invalida recién cuando la transacción confirma
+    private AgenteEntity publicarModificacion(AgenteEntity agente) {
+        eventPublisher.publishEvent(new AgenteModificadoEvent(agente.getNombre()));
+        return agente;
     }
-}
\ No newline at end of file
+}
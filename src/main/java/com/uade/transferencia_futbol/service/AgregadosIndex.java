@@ -0,0 +1,380 @@
+package com.uade.transferencia_futbol.service;
+
+import com.uade.transferencia_futbol.dto.Agregado;
+import com.uade.transferencia_futbol.event.AgenteEliminadoEvent;
+import com.uade.transferencia_futbol.event.AgentesAsignadosEvent;
+import com.uade.transferencia_futbol.event.ClubEliminadoEvent;
+import com.uade.transferencia_futbol.event.ClubModificadoEvent;
+import com.uade.transferencia_futbol.event.JugadorEliminadoEvent;
+import com.uade.transferencia_futbol.event.JugadorModificadoEvent;
+import com.uade.transferencia_futbol.event.LigaEliminadaEvent;
+import com.uade.transferencia_futbol.event.TransferenciaRealizadaEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Cantidad de jugadores, valor de mercado total y edad promedio por liga,
+ * por club y por agente, mantenidos en memoria.
+ *
+ * Se cargan una vez con dos consultas (jugadores con su club y agente, y la
+ * liga de cada club) y después se actualizan con los eventos: cada cambio de
+ * un jugador resta su aporte anterior y suma el nuevo en su club, en la liga
+ * de ese club y en su agente, y un club que cambia de liga mueve sus totales
+ * de una liga a la otra. Las lecturas son O(1).
+ *
+ * Las consultas de una recarga corren sin el lock, así que un evento puede
+ * confirmarse después de que la consulta leyó sus filas. Mientras hay una
+ * recarga en curso cada cambio se anota además de aplicarse, y al reemplazar
+ * el estado se vuelven a aplicar sobre la foto nueva. Todos los eventos dejan
+ * un valor final (no suman una diferencia), así que aplicar de nuevo uno que
+ * la foto ya incluía no cambia nada.
+ */
+@Component
+public class AgregadosIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(AgregadosIndex.class);
+
+    private static final String QUERY_JUGADORES =
+        "MATCH (j:Jugador) " +
+        "RETURN j.nombre AS nombre, j.edad AS edad, j.valorMercado AS valorMercado, " +
+        "[(j)-[:JUEGA_EN]->(c:Club) | c.nombre][0] AS club, " +
+        "[(j)-[:REPRESENTADO_POR]->(a:Agente) | a.nombre][0] AS agente";
+
+    private static final String QUERY_LIGAS_CLUBES =
+        "MATCH (c:Club)-[:COMPITE_EN]->(l:Liga) " +
+        "RETURN c.nombre AS club, l.nombre AS liga";
+
+    @Autowired
+    private Neo4jClient neo4jClient;
+
+    // Todo el estado se lee y se modifica bajo 'escritura'
+    private final Object escritura = new Object();
+    private boolean cargado;
+    // Cambios recibidos mientras corre alguna recarga; null si no hay ninguna
+    private List<Runnable> pendientes;
+    private int recargasEnCurso;
+    private final Map<String, Ficha> fichas = new HashMap<>();
+    private final Map<String, String> ligaPorClub = new HashMap<>();
+    private final Map<String, Acumulador> porClub = new HashMap<>();
+    private final Map<String, Acumulador> porLiga = new HashMap<>();
+    private final Map<String, Acumulador> porAgente = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        try {
+            recargar();
+        } catch (RuntimeException e) {
+            // Sin base disponible al arrancar: se reintenta en la primera consulta
+            log.warn("No se pudieron cargar los agregados: {}", e.getMessage());
+        }
+    }
+
+    public Agregado liga(String nombre) {
+        return leer(porLiga, nombre);
+    }
+
+    public Agregado club(String nombre) {
+        return leer(porClub, nombre);
+    }
+
+    public Agregado agente(String nombre) {
+        return leer(porAgente, nombre);
+    }
+
+    private Agregado leer(Map<String, Acumulador> grupos, String nombre) {
+        synchronized (escritura) {
+            if (!cargado) {
+                recargar();
+            }
+            Acumulador acumulador = grupos.get(nombre);
+            return acumulador != null ? acumulador.agregado() : Agregado.VACIO;
+        }
+    }
+
+    /**
+     * Recalcula todos los totales desde Neo4j.
+     */
+    public void recargar() {
+        synchronized (escritura) {
+            if (recargasEnCurso++ == 0) {
+                pendientes = new ArrayList<>();
+            }
+        }
+        try {
+            Map<String, Ficha> nuevas = new HashMap<>();
+            for (Map<String, Object> fila : neo4jClient.query(QUERY_JUGADORES).fetch().all()) {
+                String nombre = (String) fila.get("nombre");
+                if (nombre != null) {
+                    nuevas.put(nombre, new Ficha(
+                        fila.get("edad") != null ? ((Number) fila.get("edad")).intValue() : null,
+                        fila.get("valorMercado") != null ? ((Number) fila.get("valorMercado")).doubleValue() : null,
+                        (String) fila.get("club"),
+                        (String) fila.get("agente")));
+                }
+            }
+            Map<String, String> nuevasLigas = new HashMap<>();
+            for (Map<String, Object> fila : neo4jClient.query(QUERY_LIGAS_CLUBES).fetch().all()) {
+                nuevasLigas.put((String) fila.get("club"), (String) fila.get("liga"));
+            }
+
+            synchronized (escritura) {
+                fichas.clear();
+                ligaPorClub.clear();
+                porClub.clear();
+                porLiga.clear();
+                porAgente.clear();
+                ligaPorClub.putAll(nuevasLigas);
+                for (Map.Entry<String, Ficha> entry : nuevas.entrySet()) {
+                    poner(entry.getKey(), entry.getValue());
+                }
+                cargado = true;
+                // Lo que se confirmó mientras corrían las consultas puede no estar en la foto
+                for (Runnable cambio : pendientes) {
+                    cambio.run();
+                }
+                log.info("Agregados cargados: {} jugadores, {} clubes, {} ligas, {} agentes",
+                    fichas.size(), porClub.size(), porLiga.size(), porAgente.size());
+            }
+        } finally {
+            synchronized (escritura) {
+                if (--recargasEnCurso == 0) {
+                    pendientes = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Aplica el cambio si ya hay estado cargado y, si hay una recarga en
+     * curso, lo anota para aplicarlo también sobre la foto nueva.
+     */
+    private void aplicar(Runnable cambio) {
+        synchronized (escritura) {
+            if (pendientes != null) {
+                pendientes.add(cambio);
+            }
+            if (cargado) {
+                cambio.run();
+            }
+        }
+    }
+
+    // ==================== ACTUALIZACIONES ====================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJugadorModificado(JugadorModificadoEvent evento) {
+        aplicar(() -> {
+            Ficha anterior = quitar(evento.nombre());
+            poner(evento.nombre(), new Ficha(evento.edad(), evento.valorMercado(), evento.club(),
+                anterior != null ? anterior.agente() : null));
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJugadorEliminado(JugadorEliminadoEvent evento) {
+        aplicar(() -> quitar(evento.nombre()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransferenciaRealizada(TransferenciaRealizadaEvent evento) {
+        aplicar(() -> {
+            if (fichas.containsKey(evento.nombreJugador())) {
+                Ficha anterior = quitar(evento.nombreJugador());
+                poner(evento.nombreJugador(), anterior.conClub(evento.clubDestino()));
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAgentesAsignados(AgentesAsignadosEvent evento) {
+        aplicar(() -> {
+            for (Map.Entry<String, String> entry : evento.agentePorJugador().entrySet()) {
+                if (fichas.containsKey(entry.getKey())) {
+                    Ficha anterior = quitar(entry.getKey());
+                    poner(entry.getKey(), anterior.conAgente(entry.getValue()));
+                }
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClubModificado(ClubModificadoEvent evento) {
+        aplicar(() -> {
+            String anterior = ligaPorClub.get(evento.nombre());
+            if (Objects.equals(anterior, evento.liga())) {
+                return;
+            }
+            // Los totales del club pasan enteros de una liga a la otra
+            Acumulador delClub = porClub.get(evento.nombre());
+            if (delClub != null && anterior != null) {
+                restar(porLiga, anterior, delClub);
+            }
+            if (evento.liga() != null) {
+                ligaPorClub.put(evento.nombre(), evento.liga());
+                if (delClub != null) {
+                    acumulador(porLiga, evento.liga()).sumar(delClub);
+                }
+            } else {
+                ligaPorClub.remove(evento.nombre());
+            }
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClubEliminado(ClubEliminadoEvent evento) {
+        aplicar(() -> {
+            // Sus jugadores quedan libres: dejan de contar en el club y en su liga
+            for (Map.Entry<String, Ficha> entry : Map.copyOf(fichas).entrySet()) {
+                if (evento.nombre().equals(entry.getValue().club())) {
+                    quitar(entry.getKey());
+                    poner(entry.getKey(), entry.getValue().conClub(null));
+                }
+            }
+            ligaPorClub.remove(evento.nombre());
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLigaEliminada(LigaEliminadaEvent evento) {
+        aplicar(() -> {
+            ligaPorClub.values().removeIf(evento.nombre()::equals);
+            porLiga.remove(evento.nombre());
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAgenteEliminado(AgenteEliminadoEvent evento) {
+        aplicar(() -> {
+            for (Map.Entry<String, Ficha> entry : Map.copyOf(fichas).entrySet()) {
+                if (evento.nombre().equals(entry.getValue().agente())) {
+                    quitar(entry.getKey());
+                    poner(entry.getKey(), entry.getValue().conAgente(null));
+                }
+            }
+        });
+    }
+
+    // ==================== AUXILIARES (bajo 'escritura') ====================
+
+    private void poner(String nombre, Ficha ficha) {
+        fichas.put(nombre, ficha);
+        if (ficha.club() != null) {
+            acumulador(porClub, ficha.club()).sumar(ficha, 1);
+            String liga = ligaPorClub.get(ficha.club());
+            if (liga != null) {
+                acumulador(porLiga, liga).sumar(ficha, 1);
+            }
+        }
+        if (ficha.agente() != null) {
+            acumulador(porAgente, ficha.agente()).sumar(ficha, 1);
+        }
+    }
+
+    private Ficha quitar(String nombre) {
+        Ficha ficha = fichas.remove(nombre);
+        if (ficha == null) {
+            return null;
+        }
+        if (ficha.club() != null) {
+            restar(porClub, ficha.club(), ficha);
+            String liga = ligaPorClub.get(ficha.club());
+            if (liga != null) {
+                restar(porLiga, liga, ficha);
+            }
+        }
+        if (ficha.agente() != null) {
+            restar(porAgente, ficha.agente(), ficha);
+        }
+        return ficha;
+    }
+
+    private static Acumulador acumulador(Map<String, Acumulador> grupos, String nombre) {
+        return grupos.computeIfAbsent(nombre, n -> new Acumulador());
+    }
+
+    private static void restar(Map<String, Acumulador> grupos, String nombre, Ficha ficha) {
+        Acumulador acumulador = grupos.get(nombre);
+        if (acumulador != null) {
+            acumulador.sumar(ficha, -1);
+            if (acumulador.jugadores == 0) {
+                grupos.remove(nombre);
+            }
+        }
+    }
+
+    private static void restar(Map<String, Acumulador> grupos, String nombre, Acumulador otro) {
+        Acumulador acumulador = grupos.get(nombre);
+        if (acumulador != null) {
+            acumulador.restar(otro);
+            if (acumulador.jugadores == 0) {
+                grupos.remove(nombre);
+            }
+        }
+    }
+
+    /**
+     * Lo que aporta un jugador a los totales de su club, liga y agente.
+     */
+    private record Ficha(Integer edad, Double valorMercado, String club, String agente) {
+
+        Ficha conClub(String nuevoClub) {
+            return new Ficha(edad, valorMercado, nuevoClub, agente);
+        }
+
+        Ficha conAgente(String nuevoAgente) {
+            return new Ficha(edad, valorMercado, club, nuevoAgente);
+        }
+    }
+
+    private static final class Acumulador {
+        private long jugadores;
+        private double valorTotal;
+        private long conEdad;
+        private long sumaEdades;
+
+        void sumar(Ficha ficha, int signo) {
+            jugadores += signo;
+            if (ficha.valorMercado() != null) {
+                valorTotal += signo * ficha.valorMercado();
+            }
+            if (ficha.edad() != null) {
+                conEdad += signo;
+                sumaEdades += (long) signo * ficha.edad();
+            }
+            if (jugadores == 0) {
+                // Sin restos de redondeo cuando el grupo queda vacío
+                valorTotal = 0.0;
+            }
+        }
+
+        void sumar(Acumulador otro) {
+            jugadores += otro.jugadores;
+            valorTotal += otro.valorTotal;
+            conEdad += otro.conEdad;
+            sumaEdades += otro.sumaEdades;
+        }
+
+        void restar(Acumulador otro) {
+            jugadores -= otro.jugadores;
+            valorTotal = jugadores == 0 ? 0.0 : valorTotal - otro.valorTotal;
+            conEdad -= otro.conEdad;
+            sumaEdades -= otro.sumaEdades;
+        }
+
+        Agregado agregado() {
+            return new Agregado(jugadores, valorTotal, conEdad > 0 ? (double) sumaEdades / conEdad : null);
+        }
+    }
+}
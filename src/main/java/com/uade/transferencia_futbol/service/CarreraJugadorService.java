@@ -0,0 +1,319 @@
+package com.uade.transferencia_futbol.service;
+
+import com.uade.transferencia_futbol.dto.CarreraJugador;
+import com.uade.transferencia_futbol.dto.EtapaCarrera;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Carreras de jugadores a partir de las relaciones TRANSFERIDO.
+ *
+ * Cada pedido es una sola consulta, sea para uno o para muchos jugadores
+ * (UNWIND de los nombres) o para todos los de una liga, club o nacionalidad:
+ * por jugador, sus transferencias ordenadas por fecha junto con el club
+ * actual. Con el clubOrigen de cada transferencia se arman las etapas; un
+ * fichaje marcado sinClubOrigen llegó libre, y en transferencias viejas sin
+ * ninguno de los dos campos se toma el destino de la transferencia anterior
+ * (la misma regla que usa {@link GrafoTransferenciasIndex}).
+ */
+@Service
+@Transactional
+public class CarreraJugadorService {
+
+    // Club actual y transferencias ordenadas de cada jugador j. La subconsulta corre por
+    // jugador, así que las filas salen a medida que se resuelven (sin agregación global)
+    private static final String PROYECCION_CARRERA =
+        "OPTIONAL MATCH (j)-[:JUEGA_EN]->(actual:Club) " +
+        "CALL { " +
+        "  WITH j " +
+        "  OPTIONAL MATCH (j)-[t:TRANSFERIDO]->(c:Club) " +
+        "  WITH t, c ORDER BY t.fecha ASC " +
+        "  RETURN collect(CASE WHEN t IS NOT NULL THEN {" +
+        "origen: t.clubOrigen, libre: t.sinClubOrigen, destino: c.nombre, fecha: t.fecha, " +
+        "temporada: t.temporada, tipo: t.tipoTransferencia, monto: t.monto} END) AS movimientos " +
+        "} " +
+        "RETURN j.nombre AS jugador, actual.nombre AS clubActual, movimientos";
+
+    private static final String QUERY_CARRERAS =
+        "UNWIND $nombres AS nombre " +
+        "MATCH (j:Jugador {nombre: nombre}) " +
+        PROYECCION_CARRERA;
+
+    @Autowired
+    private Neo4jClient neo4jClient;
+
+    @Autowired
+    private LecturaStreaming lecturaStreaming;
+
+    @Value("${jugadores.carreras.fetch-size:500}")
+    private int fetchSize;
+
+    @Value("${jugadores.carreras.maximo-lote:500}")
+    private int maximoLote;
+
+    /**
+     * Carrera de un jugador.
+     */
+    public CarreraJugador obtenerCarrera(String nombreJugador) {
+        List<CarreraJugador> carreras = consultarCarreras(List.of(nombreJugador));
+        if (carreras.isEmpty()) {
+            throw new RuntimeException("Jugador no encontrado: " + nombreJugador);
+        }
+        return carreras.get(0);
+    }
+
+    /**
+     * Carreras de varios jugadores con una sola consulta, en el orden pedido.
+     * Los nombres que no existen se informan aparte.
+     */
+    public Map<String, Object> obtenerCarreras(List<String> nombres) {
+        if (nombres == null || nombres.isEmpty()) {
+            throw new RuntimeException("Debe indicar al menos un jugador");
+        }
+        List<String> distintos = new ArrayList<>(new LinkedHashSet<>(nombres));
+        if (distintos.size() > maximoLote) {
+            throw new RuntimeException("Se pueden pedir como máximo " + maximoLote + " jugadores por lote");
+        }
+
+        Map<String, CarreraJugador> porNombre = new HashMap<>();
+        for (CarreraJugador carrera : consultarCarreras(distintos)) {
+            porNombre.put(carrera.jugador(), carrera);
+        }
+        List<CarreraJugador> carreras = new ArrayList<>(porNombre.size());
+        List<String> noEncontrados = new ArrayList<>();
+        for (String nombre : distintos) {
+            CarreraJugador carrera = porNombre.get(nombre);
+            if (carrera != null) {
+                carreras.add(carrera);
+            } else {
+                noEncontrados.add(nombre);
+            }
+        }
+
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("totalJugadores", carreras.size());
+        resultado.put("carreras", carreras);
+        resultado.put("noEncontrados", noEncontrados);
+        return resultado;
+    }
+
+    /**
+     * Carreras de todos los jugadores que cumplen los filtros (liga y club se
+     * refieren al club actual), entregadas a alLeer de a una. Los registros se
+     * leen con {@link LecturaStreaming} a medida que llegan, en tandas de
+     * fetchSize, así que la memoria no depende de cuántos jugadores coincidan.
+     * Corre fuera de la transacción de Spring.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> recorrerCarreras(String liga, String club, String nacionalidad,
+                                                Consumer<CarreraJugador> alLeer) {
+        long inicio = System.nanoTime();
+        Map<String, Object> parametros = new HashMap<>();
+        String consulta = consultaFiltrada(liga, club, nacionalidad, parametros);
+
+        long[] transferencias = {0};
+        long jugadores = lecturaStreaming.recorrer(consulta, parametros, fetchSize, fila -> {
+            List<Map<String, Object>> movimientos = fila.get("movimientos").asList(valor -> valor.asMap());
+            alLeer.accept(armarCarrera(
+                fila.get("jugador").asString(null),
+                fila.get("clubActual").asString(null),
+                movimientos));
+            transferencias[0] += movimientos.size();
+        });
+
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("jugadores", jugadores);
+        resumen.put("transferencias", transferencias[0]);
+        resumen.put("tiempoMs", (System.nanoTime() - inicio) / 1_000_000);
+        return resumen;
+    }
+
+    /**
+     * El export necesita al menos un filtro; se valida antes de empezar a responder.
+     */
+    public void validarFiltros(String liga, String club, String nacionalidad) {
+        if (vacio(liga) && vacio(club) && vacio(nacionalidad)) {
+            throw new RuntimeException("Debe indicar liga, club o nacionalidad");
+        }
+    }
+
+    private String consultaFiltrada(String liga, String club, String nacionalidad, Map<String, Object> parametros) {
+        validarFiltros(liga, club, nacionalidad);
+        boolean porLiga = !vacio(liga);
+        boolean porClub = !vacio(club);
+        boolean porNacionalidad = !vacio(nacionalidad);
+
+        StringBuilder consulta = new StringBuilder();
+        if (porNacionalidad) {
+            consulta.append("MATCH (j:Jugador {nacionalidad: $nacionalidad}) ");
+            parametros.put("nacionalidad", nacionalidad);
+        } else {
+            consulta.append("MATCH (j:Jugador) ");
+        }
+        if (porClub) {
+            consulta.append("MATCH (j)-[:JUEGA_EN]->(:Club {nombre: $club}) ");
+            parametros.put("club", club);
+        }
+        if (porLiga) {
+            consulta.append("MATCH (j)-[:JUEGA_EN]->(:Club)-[:COMPITE_EN]->(:Liga {nombre: $liga}) ");
+            parametros.put("liga", liga);
+        }
+        return consulta.append(PROYECCION_CARRERA).toString();
+    }
+
+    private static boolean vacio(String filtro) {
+        return filtro == null || filtro.isBlank();
+    }
+
+    private List<CarreraJugador> consultarCarreras(List<String> nombres) {
+        List<CarreraJugador> carreras = new ArrayList<>(nombres.size());
+        for (Map<String, Object> fila : neo4jClient.query(QUERY_CARRERAS)
+                .bind(nombres).to("nombres")
+                .fetch().all()) {
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> movimientos = (List<Map<String, Object>>) fila.get("movimientos");
+            carreras.add(armarCarrera((String) fila.get("jugador"), (String) fila.get("clubActual"), movimientos));
+        }
+        return carreras;
+    }
+
+    // ==================== ARMADO DE LA CARRERA ====================
+
+    static CarreraJugador armarCarrera(String jugador, String clubActual, List<Map<String, Object>> movimientos) {
+        List<EtapaCarrera> etapas = new ArrayList<>();
+        // Etapa abierta: club, temporada y fecha de llegada, tipo y monto
+        String club = null;
+        String temporadaDesde = null;
+        LocalDate desde = null;
+        String tipoLlegada = null;
+        Double montoLlegada = null;
+
+        for (Map<String, Object> movimiento : movimientos) {
+            String origen = (String) movimiento.get("origen");
+            String destino = (String) movimiento.get("destino");
+            String temporada = (String) movimiento.get("temporada");
+            LocalDate fecha = fecha(movimiento.get("fecha"));
+
+            if (origen == null && !Boolean.TRUE.equals(movimiento.get("libre"))) {
+                // Transferencia vieja sin clubOrigen: venía del destino anterior
+                origen = club;
+            }
+            if (origen == null) {
+                // Llegó libre: la etapa anterior terminó sin transferencia registrada
+                if (club != null) {
+                    etapas.add(new EtapaCarrera(club, temporadaDesde, null, desde, null, tipoLlegada, montoLlegada));
+                }
+            } else if (origen.equals(club)) {
+                etapas.add(new EtapaCarrera(club, temporadaDesde, temporada, desde, fecha, tipoLlegada, montoLlegada));
+            } else {
+                // Pasó por un club sin transferencia registrada hacia él (o es el primero)
+                if (club != null) {
+                    etapas.add(new EtapaCarrera(club, temporadaDesde, null, desde, null, tipoLlegada, montoLlegada));
+                }
+                etapas.add(new EtapaCarrera(origen, null, temporada, null, fecha, null, null));
+            }
+
+            club = destino;
+            temporadaDesde = temporada;
+            desde = fecha;
+            tipoLlegada = (String) movimiento.get("tipo");
+            montoLlegada = movimiento.get("monto") != null ? ((Number) movimiento.get("monto")).doubleValue() : null;
+        }
+        if (club != null) {
+            etapas.add(new EtapaCarrera(club, temporadaDesde, null, desde, null, tipoLlegada, montoLlegada));
+        }
+        if (clubActual != null && !clubActual.equals(club)) {
+            // Asignado al club sin transferencia (por ejemplo al darlo de alta)
+            etapas.add(new EtapaCarrera(clubActual, null, null, null, null, null, null));
+        }
+
+        // Grafo club -> clubes siguientes, con las aristas en orden cronológico
+        Map<String, List<String>> grafo = new LinkedHashMap<>();
+        Map<String, List<String>> temporadasPorClub = new LinkedHashMap<>();
+        for (int i = 0; i < etapas.size(); i++) {
+            EtapaCarrera etapa = etapas.get(i);
+            grafo.computeIfAbsent(etapa.club(), k -> new ArrayList<>());
+            if (i + 1 < etapas.size()) {
+                String siguiente = etapas.get(i + 1).club();
+                List<String> vecinos = grafo.get(etapa.club());
+                if (!vecinos.contains(siguiente)) {
+                    vecinos.add(siguiente);
+                }
+            }
+            List<String> temporadas = temporadasPorClub.computeIfAbsent(etapa.club(), k -> new ArrayList<>());
+            agregarTemporada(temporadas, etapa.temporadaDesde());
+            agregarTemporada(temporadas, etapa.temporadaHasta());
+        }
+
+        String inicio = etapas.isEmpty() ? null : etapas.get(0).club();
+        return new CarreraJugador(jugador, clubActual, etapas,
+            bfs(inicio, grafo), dfs(inicio, grafo), temporadasPorClub);
+    }
+
+    private static LocalDate fecha(Object valor) {
+        if (valor instanceof LocalDate fecha) {
+            return fecha;
+        }
+        return valor != null ? LocalDate.parse(valor.toString()) : null;
+    }
+
+    private static void agregarTemporada(List<String> temporadas, String temporada) {
+        if (temporada != null && !temporadas.contains(temporada)) {
+            temporadas.add(temporada);
+        }
+    }
+
+    private static List<String> bfs(String inicio, Map<String, List<String>> grafo) {
+        List<String> recorrido = new ArrayList<>();
+        if (inicio == null) {
+            return recorrido;
+        }
+        Set<String> visitados = new HashSet<>();
+        Deque<String> cola = new ArrayDeque<>();
+        cola.add(inicio);
+        visitados.add(inicio);
+        while (!cola.isEmpty()) {
+            String club = cola.poll();
+            recorrido.add(club);
+            for (String siguiente : grafo.getOrDefault(club, List.of())) {
+                if (visitados.add(siguiente)) {
+                    cola.add(siguiente);
+                }
+            }
+        }
+        return recorrido;
+    }
+
+    // Iterativo, con los vecinos apilados al revés para visitarlos en orden cronológico
+    private static List<String> dfs(String inicio, Map<String, List<String>> grafo) {
+        List<String> recorrido = new ArrayList<>();
+        if (inicio == null) {
+            return recorrido;
+        }
+        Set<String> visitados = new HashSet<>();
+        Deque<String> pila = new ArrayDeque<>();
+        pila.push(inicio);
+        while (!pila.isEmpty()) {
+            String club = pila.pop();
+            if (!visitados.add(club)) {
+                continue;
+            }
+            recorrido.add(club);
+            List<String> vecinos = grafo.getOrDefault(club, List.of());
+            for (int i = vecinos.size() - 1; i >= 0; i--) {
+                if (!visitados.contains(vecinos.get(i))) {
+                    pila.push(vecinos.get(i));
+                }
+            }
+        }
+        return recorrido;
+    }
+}
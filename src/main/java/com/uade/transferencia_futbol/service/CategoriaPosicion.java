@@ -0,0 +1,68 @@
+package com.uade.transferencia_futbol.service;
+
+/**
+ * Categoría de campo de un jugador, normalizada a partir del texto libre de
+ * {@code posicion} ("Lateral izquierdo", "CB", "Extremo derecho", ...).
+ * El orden de declaración es el orden de las líneas en una formación.
+ */
+public enum CategoriaPosicion {
+
+    ARQUERO("Arquero"),
+    DEFENSA("Defensa"),
+    MEDIOCAMPO("Mediocampo"),
+    DELANTERO("Delantero");
+
+    private final String nombre;
+
+    CategoriaPosicion(String nombre) {
+        this.nombre = nombre;
+    }
+
+    /**
+     * Nombre usado en las respuestas y en las formaciones ("Arquero", "Defensa", ...).
+     */
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Categoría con ese nombre de respuesta ("Arquero", ...), o null si no existe.
+     */
+    public static CategoriaPosicion deNombre(String nombre) {
+        for (CategoriaPosicion categoria : values()) {
+            if (categoria.nombre.equals(nombre)) {
+                return categoria;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Clasifica una posición; lo que no se reconoce (o null) cuenta como mediocampo.
+     */
+    public static CategoriaPosicion desde(String posicion) {
+        if (posicion == null) return MEDIOCAMPO;
+        String pos = posicion.toLowerCase().trim();
+
+        // Arqueros
+        if (pos.contains("arquero") || pos.contains("portero") || pos.equals("gk")) {
+            return ARQUERO;
+        }
+
+        // Defensas
+        if (pos.contains("defens") || pos.contains("lateral") || pos.contains("central") ||
+            pos.equals("df") || pos.equals("lb") || pos.equals("rb") ||
+            pos.equals("cb") || pos.equals("rwb") || pos.equals("lwb")) {
+            return DEFENSA;
+        }
+
+        // Delanteros
+        if (pos.contains("delantero") || pos.contains("atacante") || pos.contains("ariete") ||
+            pos.equals("dc") || pos.equals("st") || pos.equals("cf") ||
+            pos.equals("lw") || pos.equals("rw") || pos.contains("extremo")) {
+            return DELANTERO;
+        }
+
+        return MEDIOCAMPO;
+    }
+}
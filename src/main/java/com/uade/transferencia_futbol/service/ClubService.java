@@ -1,29 +1,64 @@
 package com.uade.transferencia_futbol.service;
 
+import com.uade.transferencia_futbol.algoritmo.AlineacionSolver;
+import com.uade.transferencia_futbol.dto.Agregado;
+import com.uade.transferencia_futbol.dto.ClubSummary;
+import com.uade.transferencia_futbol.dto.Pagina;
 import com.uade.transferencia_futbol.entity.ClubEntity;
 import com.uade.transferencia_futbol.entity.LigaEntity;
 import com.uade.transferencia_futbol.entity.JugadorEntity;
+import com.uade.transferencia_futbol.event.ClubEliminadoEvent;
+import com.uade.transferencia_futbol.event.ClubModificadoEvent;
 import com.uade.transferencia_futbol.repository.ClubRepository;
 import com.uade.transferencia_futbol.repository.LigaRepository;
 import com.uade.transferencia_futbol.repository.JugadorRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @Transactional
 public class ClubService {
     
+    private static final CategoriaPosicion[] ORDEN_CATEGORIAS = CategoriaPosicion.values();
+    
     @Autowired
     private ClubRepository clubRepository;
     
+    @Autowired
+    private Paginacion paginacion;
+    
+    @Autowired
+    private ResumenesCache resumenesCache;
+    
     @Autowired
     private LigaRepository ligaRepository;
     
     @Autowired
     private JugadorRepository jugadorRepository;
+    
+    @Autowired
+    private PosicionJugadoresIndex posicionJugadoresIndex;
+    
+    @Autowired
+    private AgregadosIndex agregadosIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${transferencias.mochila.memoria-maxima-mb:64}")
+    private long memoriaMaximaMb;
 
     // ==================== CRUD ====================
 
@@ -31,17 +66,29 @@ public class ClubService {
         if (clubRepository.existsById(club.getNombre())) {
             throw new RuntimeException("El club ya existe: " + club.getNombre());
         }
-        return clubRepository.save(club);
+        return publicarModificacion(clubRepository.save(club));
     }
 
-    public List<ClubEntity> obtenerTodosClubes() {
-        return clubRepository.findAll();
+    // Paginado por nombre (ver Paginacion); con expand, las entidades completas
+    public Pagina<?> obtenerPaginaClubes(Integer limite, String cursor, boolean expand) {
+        int tamano = paginacion.tamano(limite);
+        Pagina<ClubSummary> pagina = Paginacion.porNombre(
+            clubRepository.findPaginaPorNombre(Paginacion.despuesDe(cursor), tamano, ClubSummary.class),
+            tamano, ClubSummary::nombre);
+        return expand
+            ? Paginacion.expandir(pagina, ClubSummary::nombre, clubRepository::findAllById, ClubEntity::getNombre)
+            : pagina;
     }
 
     public Optional<ClubEntity> obtenerClubPorNombre(String nombre) {
         return clubRepository.findById(nombre);
     }
 
+    // Resumen desde la cache (ver ResumenesCache)
+    public Optional<ClubSummary> obtenerResumenClub(String nombre) {
+        return resumenesCache.club(nombre);
+    }
+
     public ClubEntity actualizarClub(String nombre, ClubEntity clubActualizado) {
         return clubRepository.findById(nombre)
             .map(club -> {
@@ -49,7 +96,7 @@ public class ClubService {
                 club.setPresupuesto(clubActualizado.getPresupuesto());
                 club.setLiga(clubActualizado.getLiga());
                 club.setFundacion(clubActualizado.getFundacion());
-                return clubRepository.save(club);
+                return publicarModificacion(clubRepository.save(club));
             })
             .orElseThrow(() -> new RuntimeException("Club no encontrado: " + nombre));
     }
@@ -59,6 +106,7 @@ public class ClubService {
             throw new RuntimeException("Club no encontrado: " + nombre);
         }
         clubRepository.deleteById(nombre);
+        eventPublisher.publishEvent(new ClubEliminadoEvent(nombre));
     }
 
     public ClubEntity asignarLiga(String nombreClub, String nombreLiga) {
@@ -70,69 +118,75 @@ public class ClubService {
         
         club.setLigaEntity(liga);
         club.setLiga(nombreLiga);
-        return clubRepository.save(club);
+        return publicarModificacion(clubRepository.save(club));
     }
 
     // ==================== MÉTODOS ADICIONALES ====================
 
-    public List<ClubEntity> buscarPorPais(String pais) {
-        return clubRepository.findByPais(pais);
+    public <T> List<T> buscarPorPais(String pais, Class<T> tipo) {
+        return clubRepository.findByPais(pais, tipo);
     }
     
-    public List<ClubEntity> buscarPorLiga(String liga) {
-        return clubRepository.findByLiga(liga);
+    public <T> List<T> buscarPorLiga(String liga, Class<T> tipo) {
+        return clubRepository.findByLiga(liga, tipo);
     }
     
-    public List<ClubEntity> buscarPorPresupuestoMinimo(Double presupuestoMinimo) {
-        return clubRepository.findByPresupuestoGreaterThan(presupuestoMinimo);
+    public <T> List<T> buscarPorPresupuestoMinimo(Double presupuestoMinimo, Class<T> tipo) {
+        return clubRepository.findByPresupuestoGreaterThan(presupuestoMinimo, tipo);
     }
     
-    public List<ClubEntity> buscarFundadosDespuesDe(Integer anio) {
-        return clubRepository.findByFundacionGreaterThan(anio);
+    public <T> List<T> buscarFundadosDespuesDe(Integer anio, Class<T> tipo) {
+        return clubRepository.findByFundacionGreaterThan(anio, tipo);
     }
     
-    public List<ClubEntity> obtenerClubesDeUnaLiga(String nombreLiga) {
-        return clubRepository.findClubesByLiga(nombreLiga);
+    public <T> List<T> obtenerClubesDeUnaLiga(String nombreLiga, Class<T> tipo) {
+        return clubRepository.findClubesByLiga(nombreLiga, tipo);
     }
     
-    public List<ClubEntity> clubesQuePuedenPagar(Double valorJugador) {
-        return clubRepository.findClubesQuePuedenPagar(valorJugador);
+    public <T> List<T> clubesQuePuedenPagar(Double valorJugador, Class<T> tipo) {
+        return clubRepository.findClubesQuePuedenPagar(valorJugador, tipo);
     }
     
-    public List<ClubEntity> clubesConJugadoresDeNacionalidad(String nacionalidad) {
-        return clubRepository.findClubesConJugadoresDeNacionalidad(nacionalidad);
+    public <T> List<T> clubesConJugadoresDeNacionalidad(String nacionalidad, Class<T> tipo) {
+        return clubRepository.findClubesConJugadoresDeNacionalidad(nacionalidad, tipo);
     }
     
-    public List<ClubEntity> obtenerTopClubesPorPresupuesto(Integer limit) {
-        return clubRepository.findTopClubesByPresupuesto(limit);
+    public <T> List<T> obtenerTopClubesPorPresupuesto(Integer limit, Class<T> tipo) {
+        return clubRepository.findTopClubesByPresupuesto(limit, tipo);
     }
     
-    public List<ClubEntity> obtenerTopClubesPorNumeroJugadores(Integer limit) {
-        return clubRepository.findTopClubesByNumeroJugadores(limit);
+    public <T> List<T> obtenerTopClubesPorNumeroJugadores(Integer limit, Class<T> tipo) {
+        return clubRepository.findTopClubesByNumeroJugadores(limit, tipo);
     }
     
-    public List<ClubEntity> buscarPorRangoPresupuesto(Double presupuestoMin, Double presupuestoMax) {
-        return clubRepository.findByPresupuestoBetween(presupuestoMin, presupuestoMax);
+    public <T> List<T> buscarPorRangoPresupuesto(Double presupuestoMin, Double presupuestoMax, Class<T> tipo) {
+        return clubRepository.findByPresupuestoBetween(presupuestoMin, presupuestoMax, tipo);
     }
     
-    public List<ClubEntity> buscarClubesEnLigasTopNivel(Integer nivelMinimo) {
-        return clubRepository.findClubesEnLigasTopNivel(nivelMinimo);
+    public <T> List<T> buscarClubesEnLigasTopNivel(Integer nivelMinimo, Class<T> tipo) {
+        return clubRepository.findClubesEnLigasTopNivel(nivelMinimo, tipo);
     }
     
-    public List<ClubEntity> obtenerClubesOrdenadosPorFundacion() {
-        return clubRepository.findAllOrderByFundacionAsc();
+    public <T> List<T> obtenerClubesOrdenadosPorFundacion(Class<T> tipo) {
+        return clubRepository.findAllOrderByFundacionAsc(tipo);
     }
     
     public Double obtenerValorTotalPlantilla(String nombreClub) {
-        Double valor = clubRepository.getValorTotalPlantilla(nombreClub);
-        return valor != null ? valor : 0.0;
+        return agregadosIndex.club(nombreClub).valorMercadoTotal();
+    }
+    
+    public Agregado obtenerAgregadosClub(String nombreClub) {
+        if (!clubRepository.existsById(nombreClub)) {
+            throw new RuntimeException("Club no encontrado: " + nombreClub);
+        }
+        return agregadosIndex.club(nombreClub);
     }
     
     public ClubEntity actualizarPresupuesto(String nombre, Double nuevoPresupuesto) {
         return clubRepository.findById(nombre)
             .map(club -> {
                 club.setPresupuesto(nuevoPresupuesto);
-                return clubRepository.save(club);
+                return publicarModificacion(clubRepository.save(club));
             })
             .orElseThrow(() -> new RuntimeException("Club no encontrado: " + nombre));
     }
@@ -144,7 +198,7 @@ public class ClubService {
                     throw new RuntimeException("Presupuesto insuficiente para el club: " + nombre);
                 }
                 club.setPresupuesto(club.getPresupuesto() - monto);
-                return clubRepository.save(club);
+                return publicarModificacion(clubRepository.save(club));
             })
             .orElseThrow(() -> new RuntimeException("Club no encontrado: " + nombre));
     }
@@ -153,233 +207,280 @@ public class ClubService {
         return clubRepository.findById(nombre)
             .map(club -> {
                 club.setPresupuesto(club.getPresupuesto() + monto);
-                return clubRepository.save(club);
+                return publicarModificacion(clubRepository.save(club));
             })
             .orElseThrow(() -> new RuntimeException("Club no encontrado: " + nombre));
     }
 
+    // La cache de resúmenes y los agregados se actualizan recién cuando la transacción confirma
+    private ClubEntity publicarModificacion(ClubEntity club) {
+        eventPublisher.publishEvent(new ClubModificadoEvent(club.getNombre(),
+            club.getLigaEntity() != null ? club.getLigaEntity().getNombre() : null));
+        return club;
+    }
+
     // =================================================================
-    // ALGORITMO BACKTRACKING: ESCUADRA ÓPTIMA
+    // ESCUADRA ÓPTIMA
     // =================================================================
 
     /**
-     * Backtracking para encontrar la mejor alineación según formación
+     * Mejor alineación según formación: sin presupuesto las categorías son
+     * independientes y alcanza con los mejores k de cada una
      */
     public Map<String, Object> obtenerEscuadraOptima(String nombreClub, String formacion) {
         ClubEntity club = clubRepository.findById(nombreClub)
             .orElseThrow(() -> new RuntimeException("Club no encontrado: " + nombreClub));
         
-        List<JugadorEntity> jugadoresClub = jugadorRepository.findJugadoresByClub(nombreClub);
+        PosicionJugadoresIndex.Plantel plantel = posicionJugadoresIndex.plantel(nombreClub);
         
-        if (jugadoresClub.isEmpty()) {
+        if (plantel.cantidad() == 0) {
             throw new RuntimeException("El club no tiene jugadores disponibles");
         }
         
-        Map<String, Integer> formacionRequerida = parseFormacion(formacion);
-        Map<String, List<JugadorEntity>> jugadoresPorCategoria = agruparPorCategoria(jugadoresClub);
-        
-        List<JugadorEntity> mejorEscuadra = new ArrayList<>();
-        List<JugadorEntity> escuadraActual = new ArrayList<>();
-        double[] mejorValor = {0.0};
+        Map<CategoriaPosicion, Integer> formacionRequerida = parseFormacion(formacion);
         
-        if (!esPosibleFormarEquipo(jugadoresPorCategoria, formacionRequerida)) {
+        if (!esPosibleFormarEquipo(plantel, formacionRequerida)) {
             throw new RuntimeException("No hay suficientes jugadores para la formación " + formacion);
         }
         
-        backtrackEscuadra(
-            jugadoresPorCategoria, 
-            formacionRequerida, 
-            escuadraActual, 
-            mejorEscuadra, 
-            mejorValor,
-            new HashMap<>()
-        );
+        // Los grupos del índice ya están ordenados por valor: los mejores k son los primeros k
+        List<JugadorEntity> mejorEscuadra = new ArrayList<>();
+        double valorTotal = 0.0;
+        for (CategoriaPosicion categoria : ORDEN_CATEGORIAS) {
+            List<JugadorEntity> candidatos = plantel.grupo(categoria).jugadores();
+            int requeridos = Math.max(0, formacionRequerida.getOrDefault(categoria, 0));
+            for (JugadorEntity jugador : candidatos.subList(0, requeridos)) {
+                mejorEscuadra.add(jugador);
+                valorTotal += jugador.getValorMercado() != null ? jugador.getValorMercado() : 0.0;
+            }
+        }
+        if (valorTotal <= 0) {
+            mejorEscuadra.clear();
+        }
         
         // Preparar respuesta completa
         Map<String, Object> resultado = new HashMap<>();
         resultado.put("club", club.getNombre());
         resultado.put("formacion", formacion);
         resultado.put("escuadra", mejorEscuadra);
-        resultado.put("valorTotal", mejorValor[0]);
+        resultado.put("valorTotal", valorTotal);
         resultado.put("cantidadJugadores", mejorEscuadra.size());
         resultado.put("desglose", obtenerDesglosePorPosicion(mejorEscuadra));
-        resultado.put("algoritmo", "Backtracking");
+        resultado.put("algoritmo", "Top-k por categoría (índice de posiciones)");
         
         return resultado;
     }
 
     /**
-     * Backtracking con restricción de presupuesto
+     * Mejor alineación con restricción de presupuesto (mochila de elección múltiple)
      */
     public Map<String, Object> obtenerEscuadraOptimaConPresupuesto(String nombreClub, String formacion, Double presupuestoMaximo) {
         ClubEntity club = clubRepository.findById(nombreClub)
             .orElseThrow(() -> new RuntimeException("Club no encontrado: " + nombreClub));
         
-        // Combinar jugadores del club + jugadores libres que se pueden comprar
-        List<JugadorEntity> jugadoresClub = jugadorRepository.findJugadoresByClub(nombreClub);
-        List<JugadorEntity> jugadoresLibres = jugadorRepository.findJugadoresLibres();
-        
-        // Filtrar jugadores libres por presupuesto
-        List<JugadorEntity> jugadoresDisponibles = new ArrayList<>(jugadoresClub);
-        for (JugadorEntity libre : jugadoresLibres) {
-            if (libre.getValorMercado() != null && libre.getValorMercado() <= presupuestoMaximo) {
-                jugadoresDisponibles.add(libre);
-            }
-        }
-        
-        Map<String, Integer> formacionRequerida = parseFormacion(formacion);
-        Map<String, List<JugadorEntity>> jugadoresPorCategoria = agruparPorCategoria(jugadoresDisponibles);
-        
-        List<JugadorEntity> mejorEscuadra = new ArrayList<>();
-        List<JugadorEntity> escuadraActual = new ArrayList<>();
-        double[] mejorValor = {0.0};
-        double[] mejorRating = {0.0};
-        
-        backtrackEscuadraConPresupuesto(
-            jugadoresPorCategoria, 
-            formacionRequerida, 
-            escuadraActual, 
-            mejorEscuadra, 
-            mejorValor,
-            mejorRating,
-            new HashMap<>(),
-            0.0,
-            presupuestoMaximo,
-            jugadoresClub
-        );
-        
-        Map<String, Object> resultado = new HashMap<>();
+        IndiceCandidatos candidatos = cargarCandidatos(nombreClub, presupuestoMaximo);
+        Map<String, Object> resultado = evaluarFormacion(
+            candidatos, formacion, presupuestoMaximo, AlineacionSolver.SIN_PLAZO);
         resultado.put("club", club.getNombre());
-        resultado.put("formacion", formacion);
-        resultado.put("presupuestoMaximo", presupuestoMaximo);
-        resultado.put("escuadra", mejorEscuadra);
-        resultado.put("valorTotal", mejorValor[0]);
-        resultado.put("costoTotal", calcularCostoTotal(mejorEscuadra, jugadoresClub));
-        resultado.put("ratingTotal", mejorRating[0]);
-        resultado.put("jugadoresNuevos", contarJugadoresNuevos(mejorEscuadra, jugadoresClub));
-        resultado.put("algoritmo", "Backtracking con Presupuesto");
-        
         return resultado;
     }
 
-    private void backtrackEscuadra(
-            Map<String, List<JugadorEntity>> jugadoresPorCategoria,
-            Map<String, Integer> formacionRequerida,
-            List<JugadorEntity> escuadraActual,
-            List<JugadorEntity> mejorEscuadra,
-            double[] mejorValor,
-            Map<String, Integer> contadorActual) {
-        
-        if (esFormacionCompleta(contadorActual, formacionRequerida)) {
-            double valorTotal = calcularRatingTotal(escuadraActual);
-            if (valorTotal > mejorValor[0]) {
-                mejorValor[0] = valorTotal;
-                mejorEscuadra.clear();
-                mejorEscuadra.addAll(new ArrayList<>(escuadraActual));
-            }
-            return;
+    /**
+     * Compara varias formaciones con presupuesto. Los candidatos se cargan una
+     * sola vez y cada formación se evalúa en su propio hilo virtual sobre el
+     * mismo índice inmutable, con un plazo de timeoutMs contado desde que se
+     * lanzó; la que no termina a tiempo abandona la programación dinámica y se
+     * informa como error sin frenar a las demás.
+     */
+    public Map<String, Object> compararFormaciones(String nombreClub, List<String> formaciones,
+                                                   Double presupuestoMaximo, long timeoutMs) {
+        ClubEntity club = clubRepository.findById(nombreClub)
+            .orElseThrow(() -> new RuntimeException("Club no encontrado: " + nombreClub));
+        if (formaciones == null || formaciones.isEmpty()) {
+            throw new RuntimeException("Debe indicar al menos una formación");
         }
         
-        String categoriaActual = obtenerSiguienteCategoria(contadorActual, formacionRequerida);
-        if (categoriaActual == null) return;
-        
-        List<JugadorEntity> candidatos = jugadoresPorCategoria.get(categoriaActual);
-        if (candidatos == null || candidatos.isEmpty()) return;
+        IndiceCandidatos candidatos = cargarCandidatos(nombreClub, presupuestoMaximo);
         
-        int actuales = contadorActual.getOrDefault(categoriaActual, 0);
-        
-        for (JugadorEntity jugador : candidatos) {
-            if (!escuadraActual.contains(jugador)) {
-                escuadraActual.add(jugador);
-                contadorActual.put(categoriaActual, actuales + 1);
-                
-                backtrackEscuadra(
-                    jugadoresPorCategoria,
-                    formacionRequerida,
-                    escuadraActual,
-                    mejorEscuadra,
-                    mejorValor,
-                    contadorActual
-                );
-                
-                escuadraActual.remove(escuadraActual.size() - 1);
-                contadorActual.put(categoriaActual, actuales);
+        ExecutorService ejecutor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            long[] plazos = new long[formaciones.size()];
+            List<Future<Map<String, Object>>> tareas = new ArrayList<>();
+            for (int i = 0; i < formaciones.size(); i++) {
+                String formacion = formaciones.get(i);
+                long plazo = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+                plazos[i] = plazo;
+                tareas.add(ejecutor.submit(() -> evaluarFormacion(candidatos, formacion, presupuestoMaximo, plazo)));
             }
+            
+            List<Map<String, Object>> resultados = new ArrayList<>();
+            for (int i = 0; i < formaciones.size(); i++) {
+                String formacion = formaciones.get(i);
+                Future<Map<String, Object>> tarea = tareas.get(i);
+                try {
+                    Map<String, Object> resultado = tarea.get(
+                        Math.max(0, plazos[i] - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    Map<String, Object> resumen = new LinkedHashMap<>();
+                    resumen.put("formacion", formacion);
+                    resumen.put("valorTotal", resultado.get("valorTotal"));
+                    resumen.put("costoTotal", resultado.get("costoTotal"));
+                    resumen.put("ratingTotal", resultado.get("ratingTotal"));
+                    resumen.put("jugadoresNuevos", resultado.get("jugadoresNuevos"));
+                    resumen.put("totalJugadores", ((List<?>) resultado.get("escuadra")).size());
+                    resultados.add(resumen);
+                } catch (TimeoutException e) {
+                    tarea.cancel(true);
+                    resultados.add(Map.of("formacion", formacion,
+                        "error", "Tiempo agotado (" + timeoutMs + " ms)"));
+                } catch (ExecutionException e) {
+                    resultados.add(Map.of("formacion", formacion,
+                        "error", e.getCause() instanceof CancellationException
+                            ? "Tiempo agotado (" + timeoutMs + " ms)"
+                            : String.valueOf(e.getCause().getMessage())));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Comparación de formaciones interrumpida");
+                }
+            }
+            
+            Map<String, Object> comparativa = new HashMap<>();
+            comparativa.put("club", club.getNombre());
+            comparativa.put("presupuesto", presupuestoMaximo);
+            comparativa.put("algoritmo", "Mochila de elección múltiple (comparativa en paralelo)");
+            comparativa.put("jugadoresCandidatos", candidatos.cantidad());
+            comparativa.put("resultados", resultados);
+            return comparativa;
+        } finally {
+            // No esperar a las tareas vencidas: cada una trabaja sobre datos propios de solo lectura
+            ejecutor.shutdownNow();
         }
     }
 
-    private void backtrackEscuadraConPresupuesto(
-            Map<String, List<JugadorEntity>> jugadoresPorCategoria,
-            Map<String, Integer> formacionRequerida,
-            List<JugadorEntity> escuadraActual,
-            List<JugadorEntity> mejorEscuadra,
-            double[] mejorValor,
-            double[] mejorRating,
-            Map<String, Integer> contadorActual,
-            double costoActual,
-            double presupuestoMaximo,
-            List<JugadorEntity> jugadoresClub) {
-        
-        if (esFormacionCompleta(contadorActual, formacionRequerida)) {
-            double ratingTotal = calcularRatingTotal(escuadraActual);
-            if (ratingTotal > mejorRating[0] && costoActual <= presupuestoMaximo) {
-                mejorRating[0] = ratingTotal;
-                mejorValor[0] = costoActual;
-                mejorEscuadra.clear();
-                mejorEscuadra.addAll(new ArrayList<>(escuadraActual));
+    /**
+     * Jugadores del club y libres que entran en el presupuesto, por categoría y
+     * ordenados por valor. Se mezclan los grupos ya ordenados del índice de
+     * posiciones; el resultado no se modifica después, así que varias
+     * formaciones pueden leerlo a la vez.
+     */
+    private IndiceCandidatos cargarCandidatos(String nombreClub, double presupuestoMaximo) {
+        PosicionJugadoresIndex.Plantel plantel = posicionJugadoresIndex.plantel(nombreClub);
+        PosicionJugadoresIndex.Plantel libres = posicionJugadoresIndex.libres();
+        
+        List<List<JugadorEntity>> porCategoria = new ArrayList<>();
+        double[][] ratings = new double[ORDEN_CATEGORIAS.length][];
+        double[][] costos = new double[ORDEN_CATEGORIAS.length][];
+        boolean[][] esDelClub = new boolean[ORDEN_CATEGORIAS.length][];
+        int cantidad = 0;
+        for (int c = 0; c < ORDEN_CATEGORIAS.length; c++) {
+            PosicionJugadoresIndex.Grupo delClub = plantel.grupo(ORDEN_CATEGORIAS[c]);
+            PosicionJugadoresIndex.Grupo sinClub = libres.grupo(ORDEN_CATEGORIAS[c]);
+            List<JugadorEntity> jugadoresClub = delClub.jugadores();
+            // Solo los libres con valor que se pueden comprar: un sufijo del grupo ordenado
+            List<JugadorEntity> jugadoresLibres = new ArrayList<>();
+            for (JugadorEntity libre : sinClub.hasta(presupuestoMaximo)) {
+                if (libre.getValorMercado() != null) {
+                    jugadoresLibres.add(libre);
+                }
             }
-            return;
+            
+            int n = jugadoresClub.size() + jugadoresLibres.size();
+            List<JugadorEntity> candidatos = new ArrayList<>(n);
+            ratings[c] = new double[n];
+            costos[c] = new double[n];
+            esDelClub[c] = new boolean[n];
+            // Mezcla de dos listas ya ordenadas; a igual valor primero el del club
+            int a = 0;
+            int b = 0;
+            for (int i = 0; i < n; i++) {
+                double valorClub = a < jugadoresClub.size() ? valorDe(jugadoresClub.get(a)) : Double.NEGATIVE_INFINITY;
+                if (b == jugadoresLibres.size() || valorClub >= jugadoresLibres.get(b).getValorMercado()) {
+                    candidatos.add(jugadoresClub.get(a++));
+                    ratings[c][i] = valorClub;
+                    esDelClub[c][i] = true;
+                } else {
+                    JugadorEntity libre = jugadoresLibres.get(b++);
+                    candidatos.add(libre);
+                    ratings[c][i] = libre.getValorMercado();
+                    // Los jugadores que no son del club cuestan su valor de mercado
+                    costos[c][i] = ratings[c][i];
+                }
+            }
+            porCategoria.add(List.copyOf(candidatos));
+            cantidad += n;
         }
-        
-        if (costoActual > presupuestoMaximo) {
-            return; // Podar rama si excede presupuesto
+        return new IndiceCandidatos(List.copyOf(porCategoria), ratings, costos, esDelClub, cantidad);
+    }
+
+    /**
+     * Mejor alineación de una formación sobre el índice de candidatos
+     * (mochila de elección múltiple, ver {@link AlineacionSolver}).
+     */
+    private Map<String, Object> evaluarFormacion(IndiceCandidatos candidatos, String formacion,
+                                                 double presupuestoMaximo, long plazoNanos) {
+        Map<CategoriaPosicion, Integer> formacionRequerida = parseFormacion(formacion);
+        int[] requeridos = new int[ORDEN_CATEGORIAS.length];
+        for (int c = 0; c < ORDEN_CATEGORIAS.length; c++) {
+            requeridos[c] = formacionRequerida.getOrDefault(ORDEN_CATEGORIAS[c], 0);
         }
         
-        String categoriaActual = obtenerSiguienteCategoria(contadorActual, formacionRequerida);
-        if (categoriaActual == null) return;
-        
-        List<JugadorEntity> candidatos = jugadoresPorCategoria.get(categoriaActual);
-        if (candidatos == null || candidatos.isEmpty()) return;
+        AlineacionSolver.Resultado solucion = AlineacionSolver.conPresupuesto(
+            candidatos.ratings(), candidatos.costos(), requeridos, presupuestoMaximo,
+            memoriaMaximaMb * 1024 * 1024, plazoNanos);
         
-        int actuales = contadorActual.getOrDefault(categoriaActual, 0);
-        
-        for (JugadorEntity jugador : candidatos) {
-            if (!escuadraActual.contains(jugador)) {
-                double costoJugador = !jugadoresClub.contains(jugador) ? 
-                    (jugador.getValorMercado() != null ? jugador.getValorMercado() : 0.0) : 0.0;
-                
-                escuadraActual.add(jugador);
-                contadorActual.put(categoriaActual, actuales + 1);
-                
-                backtrackEscuadraConPresupuesto(
-                    jugadoresPorCategoria,
-                    formacionRequerida,
-                    escuadraActual,
-                    mejorEscuadra,
-                    mejorValor,
-                    mejorRating,
-                    contadorActual,
-                    costoActual + costoJugador,
-                    presupuestoMaximo,
-                    jugadoresClub
-                );
-                
-                escuadraActual.remove(escuadraActual.size() - 1);
-                contadorActual.put(categoriaActual, actuales);
+        List<JugadorEntity> mejorEscuadra = new ArrayList<>();
+        double valorTotal = 0.0;
+        int jugadoresNuevos = 0;
+        for (int c = 0; c < ORDEN_CATEGORIAS.length; c++) {
+            for (int indice : solucion.seleccion()[c]) {
+                JugadorEntity jugador = candidatos.porCategoria().get(c).get(indice);
+                mejorEscuadra.add(jugador);
+                valorTotal += valorDe(jugador);
+                // Nuevo es el que no pertenece al club, aunque su valor de mercado sea 0
+                if (!candidatos.delClub()[c][indice]) {
+                    jugadoresNuevos++;
+                }
             }
         }
+        
+        Map<String, Object> resultado = new HashMap<>();
+        resultado.put("formacion", formacion);
+        resultado.put("presupuestoMaximo", presupuestoMaximo);
+        resultado.put("escuadra", mejorEscuadra);
+        resultado.put("valorTotal", valorTotal);
+        resultado.put("costoTotal", solucion.costoTotal());
+        resultado.put("ratingTotal", solucion.ratingTotal());
+        resultado.put("jugadoresNuevos", jugadoresNuevos);
+        resultado.put("algoritmo", "Mochila de elección múltiple (programación dinámica)");
+        resultado.put("unidadCosto", solucion.unidad());
+        resultado.put("exacto", solucion.exacto());
+        return resultado;
+    }
+
+    private double valorDe(JugadorEntity jugador) {
+        return jugador.getValorMercado() != null ? jugador.getValorMercado() : 0.0;
+    }
+
+    /**
+     * Candidatos por categoría (en el orden de ORDEN_CATEGORIAS) con sus ratings
+     * y costos ya calculados, y si cada uno pertenece al club. Solo lectura.
+     */
+    private record IndiceCandidatos(
+            List<List<JugadorEntity>> porCategoria,
+            double[][] ratings,
+            double[][] costos,
+            boolean[][] delClub,
+            int cantidad) {
     }
 
     // ==================== MÉTODOS AUXILIARES ====================
 
     private boolean esPosibleFormarEquipo(
-            Map<String, List<JugadorEntity>> jugadoresPorCategoria,
-            Map<String, Integer> formacionRequerida) {
+            PosicionJugadoresIndex.Plantel plantel,
+            Map<CategoriaPosicion, Integer> formacionRequerida) {
         
-        for (Map.Entry<String, Integer> entry : formacionRequerida.entrySet()) {
-            String categoria = entry.getKey();
+        for (Map.Entry<CategoriaPosicion, Integer> entry : formacionRequerida.entrySet()) {
             int necesarios = entry.getValue();
-            int disponibles = jugadoresPorCategoria.getOrDefault(categoria, new ArrayList<>()).size();
+            int disponibles = plantel.grupo(entry.getKey()).cantidad();
             
             if (disponibles < necesarios) {
                 return false;
@@ -388,138 +489,35 @@ public class ClubService {
         return true;
     }
 
-    private Map<String, List<JugadorEntity>> agruparPorCategoria(List<JugadorEntity> jugadores) {
-        Map<String, List<JugadorEntity>> grupos = new HashMap<>();
-        grupos.put("Arquero", new ArrayList<>());
-        grupos.put("Defensa", new ArrayList<>());
-        grupos.put("Mediocampo", new ArrayList<>());
-        grupos.put("Delantero", new ArrayList<>());
-        
-        for (JugadorEntity jugador : jugadores) {
-            String categoria = determinarCategoria(jugador.getPosicion());
-            if (!grupos.containsKey(categoria)) {
-                grupos.put(categoria, new ArrayList<>());
-            }
-            grupos.get(categoria).add(jugador);
-        }
-        
-        // Ordenar por valor de mercado (mejores primero)
-        for (List<JugadorEntity> grupo : grupos.values()) {
-            grupo.sort((j1, j2) -> {
-                double v1 = j1.getValorMercado() != null ? j1.getValorMercado() : 0.0;
-                double v2 = j2.getValorMercado() != null ? j2.getValorMercado() : 0.0;
-                return Double.compare(v2, v1); // Descendente
-            });
-        }
-        return grupos;
-    }
-
-    private Map<String, Integer> parseFormacion(String formacion) {
-        Map<String, Integer> formacionMap = new HashMap<>();
+    /**
+     * Formación #-#-# o #-#-#-# (ej: 4-2-3-1): la primera línea es la defensa,
+     * la última la delantera y las del medio suman mediocampistas.
+     */
+    private Map<CategoriaPosicion, Integer> parseFormacion(String formacion) {
+        Map<CategoriaPosicion, Integer> formacionMap = new EnumMap<>(CategoriaPosicion.class);
         try {
             String[] partes = formacion.split("-");
-            if (partes.length != 3) {
-                throw new RuntimeException("Formato inválido. Use #-#-# (ej: 4-3-3)");
+            if (partes.length != 3 && partes.length != 4) {
+                throw new RuntimeException("Formato inválido. Use #-#-# o #-#-#-# (ej: 4-3-3)");
             }
-            formacionMap.put("Arquero", 1); // Siempre un arquero
-            formacionMap.put("Defensa", Integer.parseInt(partes[0]));
-            formacionMap.put("Mediocampo", Integer.parseInt(partes[1]));
-            formacionMap.put("Delantero", Integer.parseInt(partes[2]));
+            int mediocampistas = 0;
+            for (int i = 1; i < partes.length - 1; i++) {
+                mediocampistas += Integer.parseInt(partes[i]);
+            }
+            formacionMap.put(CategoriaPosicion.ARQUERO, 1); // Siempre un arquero
+            formacionMap.put(CategoriaPosicion.DEFENSA, Integer.parseInt(partes[0]));
+            formacionMap.put(CategoriaPosicion.MEDIOCAMPO, mediocampistas);
+            formacionMap.put(CategoriaPosicion.DELANTERO, Integer.parseInt(partes[partes.length - 1]));
         } catch (Exception e) {
             throw new RuntimeException("Error al parsear formación: " + formacion);
         }
         return formacionMap;
     }
 
-    private boolean esFormacionCompleta(
-            Map<String, Integer> contadorActual, 
-            Map<String, Integer> formacionRequerida) {
-        
-        for (Map.Entry<String, Integer> entry : formacionRequerida.entrySet()) {
-            int necesarios = entry.getValue();
-            int actuales = contadorActual.getOrDefault(entry.getKey(), 0);
-            if (actuales != necesarios) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-    private String obtenerSiguienteCategoria(
-            Map<String, Integer> contadorActual,
-            Map<String, Integer> formacionRequerida) {
-        
-        String[] orden = {"Arquero", "Defensa", "Mediocampo", "Delantero"};
-        for (String categoria : orden) {
-            int necesarios = formacionRequerida.getOrDefault(categoria, 0);
-            int actuales = contadorActual.getOrDefault(categoria, 0);
-            if (actuales < necesarios) {
-                return categoria;
-            }
-        }
-        return null;
-    }
-
-    private String determinarCategoria(String posicion) {
-        if (posicion == null) return "Mediocampo";
-        String pos = posicion.toLowerCase().trim();
-
-        // Arqueros
-        if (pos.contains("arquero") || pos.contains("portero") || pos.equals("gk")) {
-            return "Arquero";
-        }
-
-        // Defensas
-        if (pos.contains("defens") || pos.equals("defensa") ||
-            pos.contains("lateral") || pos.contains("central") ||
-            pos.equals("df") || pos.equals("lb") || pos.equals("rb") ||
-            pos.equals("cb") || pos.equals("rwb") || pos.equals("lwb")) {
-            return "Defensa";
-        }
-
-        // Delanteros
-        if (pos.contains("delantero") || pos.equals("delantero") ||
-            pos.contains("atacante") || pos.contains("ariete") ||
-            pos.equals("dc") || pos.equals("st") || pos.equals("cf") ||
-            pos.equals("lw") || pos.equals("rw") || pos.contains("extremo")) {
-            return "Delantero";
-        }
-
-        // Por defecto: mediocampista
-        return "Mediocampo";
-    }
-
-    private double calcularRatingTotal(List<JugadorEntity> escuadra) {
-        return escuadra.stream()
-            .mapToDouble(j -> j.getValorMercado() != null ? j.getValorMercado() : 0.0)
-            .sum();
-    }
-
-    private double calcularCostoTotal(List<JugadorEntity> escuadra, List<JugadorEntity> jugadoresClub) {
-        double costo = 0.0;
-        for (JugadorEntity jugador : escuadra) {
-            // Solo contar costo de jugadores que no están en el club
-            if (!jugadoresClub.contains(jugador)) {
-                costo += jugador.getValorMercado() != null ? jugador.getValorMercado() : 0.0;
-            }
-        }
-        return costo;
-    }
-
-    private int contarJugadoresNuevos(List<JugadorEntity> escuadra, List<JugadorEntity> jugadoresClub) {
-        int count = 0;
-        for (JugadorEntity jugador : escuadra) {
-            if (!jugadoresClub.contains(jugador)) {
-                count++;
-            }
-        }
-        return count;
-    }
-
     private Map<String, Integer> obtenerDesglosePorPosicion(List<JugadorEntity> escuadra) {
         Map<String, Integer> desglose = new HashMap<>();
         for (JugadorEntity jugador : escuadra) {
-            String categoria = determinarCategoria(jugador.getPosicion());
+            String categoria = CategoriaPosicion.desde(jugador.getPosicion()).getNombre();
             desglose.put(categoria, desglose.getOrDefault(categoria, 0) + 1);
         }
         return desglose;
@@ -0,0 +1,214 @@
+package com.uade.transferencia_futbol.service;
+
+import com.uade.transferencia_futbol.dto.ComparacionTemporadas;
+import com.uade.transferencia_futbol.dto.ComparacionTemporadas.Variacion;
+import com.uade.transferencia_futbol.dto.EstadisticasTemporada;
+import com.uade.transferencia_futbol.dto.EstadisticasTemporada.Balance;
+import com.uade.transferencia_futbol.dto.EstadisticasTemporada.Percentiles;
+import com.uade.transferencia_futbol.dto.EstadisticasTemporada.PorTipo;
+import com.uade.transferencia_futbol.dto.TransferenciaSummary;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.types.MapAccessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Estadísticas de una temporada calculadas por Neo4j en una sola consulta.
+ *
+ * Cada bloque (totales y percentiles, cantidades por tipo, las más caras,
+ * balance por club y por liga) es una subconsulta CALL que agrega sobre las
+ * TRANSFERIDO de la temporada, buscadas con el índice sobre t.temporada; la
+ * aplicación solo recibe una fila con los resultados ya agregados.
+ *
+ * El club de origen sigue la misma regla que {@link CarreraJugadorService} y
+ * {@link GrafoTransferenciasIndex}: un fichaje marcado sinClubOrigen no tiene,
+ * y en transferencias viejas sin ninguno de los dos campos es el destino de la
+ * transferencia anterior del jugador.
+ */
+@Service
+@Transactional
+public class EstadisticasTemporadaService {
+
+    private static final String MATCH_TEMPORADA =
+        "MATCH (j:Jugador)-[t:TRANSFERIDO]->(c:Club) WHERE t.temporada = $temporada ";
+
+    // Origen de t; la búsqueda de la transferencia anterior solo corre si faltan los dos campos
+    private static final String ORIGEN =
+        "CASE WHEN t.sinClubOrigen THEN null WHEN t.clubOrigen IS NOT NULL THEN t.clubOrigen " +
+        "ELSE reduce(previa = null, p IN [(j)-[tp:TRANSFERIDO]->(cp:Club) WHERE tp.fecha < t.fecha | " +
+        "{fecha: tp.fecha, club: cp.nombre}] | " +
+        "CASE WHEN previa IS NULL OR p.fecha > previa.fecha THEN p ELSE previa END).club END";
+
+    private static final String QUERY_ESTADISTICAS =
+        "CALL { " +
+        MATCH_TEMPORADA +
+        "  RETURN count(t) AS total, sum(coalesce(t.monto, 0.0)) AS montoTotal, " +
+        "  avg(t.monto) AS montoPromedio, max(t.monto) AS montoMaximo, " +
+        "  percentileCont(t.monto, 0.25) AS p25, percentileCont(t.monto, 0.5) AS mediana, " +
+        "  percentileCont(t.monto, 0.75) AS p75, percentileCont(t.monto, 0.9) AS p90 " +
+        "} " +
+        "CALL { " +
+        MATCH_TEMPORADA +
+        "  WITH t.tipoTransferencia AS tipo, count(t) AS cantidad, sum(coalesce(t.monto, 0.0)) AS monto " +
+        "  ORDER BY cantidad DESC " +
+        "  RETURN collect({tipo: tipo, cantidad: cantidad, monto: monto}) AS porTipo " +
+        "} " +
+        "CALL { " +
+        MATCH_TEMPORADA + "AND t.monto IS NOT NULL " +
+        "  WITH j, t, c ORDER BY t.monto DESC LIMIT $top " +
+        "  RETURN collect({id: elementId(t), jugador: j.nombre, origen: " + ORIGEN + ", destino: c.nombre, " +
+        "  monto: t.monto, fecha: t.fecha, tipo: t.tipoTransferencia}) AS masCaras " +
+        "} " +
+        // Cada transferencia es una llegada (y gasto) del destino y una salida (e ingreso) del origen
+        "CALL { " +
+        MATCH_TEMPORADA +
+        "  WITH coalesce(t.monto, 0.0) AS monto, c.nombre AS destino, " + ORIGEN + " AS origen " +
+        "  UNWIND [{nombre: destino, llegadas: 1, gasto: monto, salidas: 0, ingresos: 0.0}, " +
+        "          {nombre: origen, llegadas: 0, gasto: 0.0, salidas: 1, ingresos: monto}] AS m " +
+        "  WITH m WHERE m.nombre IS NOT NULL " +
+        "  WITH m.nombre AS nombre, sum(m.llegadas) AS llegadas, sum(m.gasto) AS gasto, " +
+        "  sum(m.salidas) AS salidas, sum(m.ingresos) AS ingresos " +
+        "  WITH nombre, llegadas, gasto, salidas, ingresos, gasto - ingresos AS saldo ORDER BY saldo DESC " +
+        "  WITH collect({nombre: nombre, llegadas: llegadas, gasto: gasto, salidas: salidas, " +
+        "  ingresos: ingresos, saldo: saldo}) AS clubes " +
+        "  RETURN [b IN clubes WHERE b.saldo > 0][..$top] AS compradores, " +
+        "  reverse([b IN clubes WHERE b.saldo < 0])[..$top] AS vendedores " +
+        "} " +
+        "CALL { " +
+        MATCH_TEMPORADA +
+        "  WITH t, c, " + ORIGEN + " AS clubOrigen " +
+        "  OPTIONAL MATCH (c)-[:COMPITE_EN]->(ld:Liga) " +
+        "  OPTIONAL MATCH (:Club {nombre: clubOrigen})-[:COMPITE_EN]->(lo:Liga) " +
+        "  WITH coalesce(t.monto, 0.0) AS monto, ld.nombre AS destino, lo.nombre AS origen " +
+        "  UNWIND [{nombre: destino, llegadas: 1, gasto: monto, salidas: 0, ingresos: 0.0}, " +
+        "          {nombre: origen, llegadas: 0, gasto: 0.0, salidas: 1, ingresos: monto}] AS m " +
+        "  WITH m WHERE m.nombre IS NOT NULL " +
+        "  WITH m.nombre AS nombre, sum(m.llegadas) AS llegadas, sum(m.gasto) AS gasto, " +
+        "  sum(m.salidas) AS salidas, sum(m.ingresos) AS ingresos " +
+        "  ORDER BY gasto DESC " +
+        "  RETURN collect({nombre: nombre, llegadas: llegadas, gasto: gasto, salidas: salidas, " +
+        "  ingresos: ingresos, saldo: gasto - ingresos}) AS porLiga " +
+        "} " +
+        "RETURN total, montoTotal, montoPromedio, montoMaximo, p25, mediana, p75, p90, " +
+        "porTipo, masCaras, compradores, vendedores, porLiga";
+
+    @Autowired
+    private Neo4jClient neo4jClient;
+
+    @Value("${transferencias.estadisticas.top:10}")
+    private int topPorDefecto;
+
+    /**
+     * Estadísticas de la temporada; top es cuántas transferencias y clubes listar.
+     */
+    public EstadisticasTemporada obtenerEstadisticas(String temporada, Integer top) {
+        int cantidad = top != null ? top : topPorDefecto;
+        if (cantidad <= 0) {
+            throw new RuntimeException("top debe ser mayor a 0");
+        }
+        return neo4jClient.query(QUERY_ESTADISTICAS)
+            .bind(temporada).to("temporada")
+            .bind(cantidad).to("top")
+            .fetchAs(EstadisticasTemporada.class)
+            .mappedBy((tipos, fila) -> armar(temporada, fila))
+            .one()
+            .orElseThrow();
+    }
+
+    /**
+     * Estadísticas de temporada y anterior, con la variación de cada métrica.
+     */
+    public ComparacionTemporadas compararTemporadas(String temporada, String anterior, Integer top) {
+        EstadisticasTemporada actual = obtenerEstadisticas(temporada, top);
+        EstadisticasTemporada previa = obtenerEstadisticas(anterior, top);
+
+        Map<String, Variacion> generales = new LinkedHashMap<>();
+        generales.put("totalTransferencias",
+            Variacion.entre((double) previa.totalTransferencias(), (double) actual.totalTransferencias()));
+        generales.put("montoTotal", Variacion.entre(previa.montoTotal(), actual.montoTotal()));
+        generales.put("montoPromedio", Variacion.entre(previa.montoPromedio(), actual.montoPromedio()));
+        generales.put("montoMaximo", Variacion.entre(previa.montoMaximo(), actual.montoMaximo()));
+        generales.put("montoMediana",
+            Variacion.entre(previa.percentilesMonto().mediana(), actual.percentilesMonto().mediana()));
+        generales.put("montoP90", Variacion.entre(previa.percentilesMonto().p90(), actual.percentilesMonto().p90()));
+
+        // Un tipo o una liga que falta en una de las temporadas cuenta como 0 en ella
+        Map<String, Variacion> porTipo = variaciones(
+            previa.porTipo(), actual.porTipo(), PorTipo::tipo, t -> (double) t.cantidad());
+        Map<String, Variacion> porLiga = variaciones(
+            previa.porLiga(), actual.porLiga(), Balance::nombre, Balance::gasto);
+
+        return new ComparacionTemporadas(actual, previa, generales, porTipo, porLiga);
+    }
+
+    private static <T> Map<String, Variacion> variaciones(List<T> anteriores, List<T> actuales,
+                                                         Function<T, String> clave,
+                                                         ToDoubleFunction<T> valor) {
+        Map<String, Double> antes = new HashMap<>();
+        for (T elemento : anteriores) {
+            antes.put(String.valueOf(clave.apply(elemento)), valor.applyAsDouble(elemento));
+        }
+        Map<String, Variacion> resultado = new LinkedHashMap<>();
+        for (T elemento : actuales) {
+            String nombre = String.valueOf(clave.apply(elemento));
+            resultado.put(nombre, Variacion.entre(antes.getOrDefault(nombre, 0.0), valor.applyAsDouble(elemento)));
+        }
+        for (Map.Entry<String, Double> entry : antes.entrySet()) {
+            resultado.putIfAbsent(entry.getKey(), Variacion.entre(entry.getValue(), 0.0));
+        }
+        return resultado;
+    }
+
+    // ==================== MAPEO ====================
+
+    private static EstadisticasTemporada armar(String temporada, Record fila) {
+        return new EstadisticasTemporada(
+            temporada,
+            fila.get("total").asLong(),
+            fila.get("montoTotal").asDouble(),
+            decimal(fila, "montoPromedio"),
+            decimal(fila, "montoMaximo"),
+            new Percentiles(
+                decimal(fila, "p25"),
+                decimal(fila, "mediana"),
+                decimal(fila, "p75"),
+                decimal(fila, "p90")),
+            fila.get("porTipo").asList(t -> new PorTipo(
+                t.get("tipo").asString(null),
+                t.get("cantidad").asLong(),
+                t.get("monto").asDouble())),
+            fila.get("masCaras").asList(t -> new TransferenciaSummary(
+                t.get("id").asString(),
+                t.get("jugador").asString(null),
+                t.get("origen").asString(null),
+                t.get("destino").asString(null),
+                decimal(t, "monto"),
+                t.get("fecha").isNull() ? null : t.get("fecha").asLocalDate(),
+                temporada,
+                t.get("tipo").asString(null))),
+            fila.get("compradores").asList(EstadisticasTemporadaService::balance),
+            fila.get("vendedores").asList(EstadisticasTemporadaService::balance),
+            fila.get("porLiga").asList(EstadisticasTemporadaService::balance));
+    }
+
+    private static Balance balance(MapAccessor b) {
+        return new Balance(
+            b.get("nombre").asString(),
+            b.get("llegadas").asLong(),
+            b.get("gasto").asDouble(),
+            b.get("salidas").asLong(),
+            b.get("ingresos").asDouble(),
+            b.get("saldo").asDouble());
+    }
+
+    private static Double decimal(MapAccessor fila, String campo) {
+        return fila.get(campo).isNull() ? null : fila.get(campo).asDouble();
+    }
+}
@@ -0,0 +1,102 @@
+package com.uade.transferencia_futbol.service;
+
+import com.uade.transferencia_futbol.dto.JugadorExportado;
+import com.uade.transferencia_futbol.dto.TransferenciaSummary;
+import org.neo4j.driver.Record;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Export del catálogo completo de jugadores y transferencias.
+ *
+ * Se recorre el resultado fila por fila con {@link LecturaStreaming}: el driver
+ * trae de a exportacion.fetch-size registros y pide la tanda siguiente recién
+ * cuando se consumió la anterior, así que la memoria usada no depende del
+ * tamaño del catálogo. Las consultas no ordenan ni agregan para que Neo4j
+ * también pueda producir las filas a medida que se piden.
+ */
+@Service
+public class ExportacionService {
+
+    // Club y agente con comprensiones de patrón: una fila por jugador, sin collect global
+    private static final String QUERY_JUGADORES =
+        "MATCH (j:Jugador) " +
+        "RETURN j.nombre AS nombre, j.edad AS edad, j.posicion AS posicion, " +
+        "j.valorMercado AS valorMercado, j.nacionalidad AS nacionalidad, " +
+        "[(j)-[:JUEGA_EN]->(c:Club) | c.nombre][0] AS club, " +
+        "[(j)-[:REPRESENTADO_POR]->(a:Agente) | a.nombre][0] AS agente";
+
+    private static final String QUERY_TRANSFERENCIAS =
+        "MATCH (j:Jugador)-[t:TRANSFERIDO]->(c:Club) " +
+        "RETURN elementId(t) AS id, j.nombre AS jugador, t.clubOrigen AS clubOrigen, c.nombre AS clubDestino, " +
+        "t.monto AS monto, t.fecha AS fecha, t.temporada AS temporada, t.tipoTransferencia AS tipoTransferencia";
+
+    @Autowired
+    private LecturaStreaming lecturaStreaming;
+
+    @Value("${exportacion.fetch-size:1000}")
+    private int fetchSize;
+
+    /**
+     * Entrega cada jugador a alLeer apenas se lee. Devuelve cantidad y tiempo.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> exportarJugadores(Consumer<JugadorExportado> alLeer) {
+        return recorrer(QUERY_JUGADORES, "jugadores", fila -> new JugadorExportado(
+            texto(fila, "nombre"),
+            entero(fila, "edad"),
+            texto(fila, "posicion"),
+            decimal(fila, "valorMercado"),
+            texto(fila, "nacionalidad"),
+            texto(fila, "club"),
+            texto(fila, "agente")), alLeer);
+    }
+
+    /**
+     * Entrega cada transferencia a alLeer apenas se lee, sin orden. Devuelve cantidad y tiempo.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> exportarTransferencias(Consumer<TransferenciaSummary> alLeer) {
+        return recorrer(QUERY_TRANSFERENCIAS, "transferencias", fila -> new TransferenciaSummary(
+            fila.get("id").asString(),
+            texto(fila, "jugador"),
+            texto(fila, "clubOrigen"),
+            texto(fila, "clubDestino"),
+            decimal(fila, "monto"),
+            fila.get("fecha").isNull() ? null : fila.get("fecha").asLocalDate(),
+            texto(fila, "temporada"),
+            texto(fila, "tipoTransferencia")), alLeer);
+    }
+
+    private <T> Map<String, Object> recorrer(String consulta, String nombreCantidad,
+                                             Function<Record, T> mapear, Consumer<T> alLeer) {
+        long inicio = System.nanoTime();
+        long cantidad = lecturaStreaming.recorrer(consulta, Map.of(), fetchSize,
+            fila -> alLeer.accept(mapear.apply(fila)));
+
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put(nombreCantidad, cantidad);
+        resumen.put("tiempoMs", (System.nanoTime() - inicio) / 1_000_000);
+        return resumen;
+    }
+
+    private static String texto(Record fila, String campo) {
+        return fila.get(campo).asString(null);
+    }
+
+    private static Integer entero(Record fila, String campo) {
+        return fila.get(campo).isNull() ? null : fila.get(campo).asInt();
+    }
+
+    private static Double decimal(Record fila, String campo) {
+        return fila.get(campo).isNull() ? null : fila.get(campo).asDouble();
+    }
+}
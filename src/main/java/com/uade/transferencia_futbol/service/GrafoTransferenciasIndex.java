@@ -0,0 +1,223 @@
+package com.uade.transferencia_futbol.service;
+
+import com.uade.transferencia_futbol.algoritmo.GrafoCsr;
+import com.uade.transferencia_futbol.event.TransferenciaRealizadaEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice en memoria del grafo de transferencias entre clubes.
+ *
+ * Se carga una vez desde las relaciones (:Jugador)-[:TRANSFERIDO]->(:Club):
+ * cada transferencia forma la arista clubOrigen -> clubDestino con peso igual
+ * al monto pagado. Un fichaje de jugador libre (sinClubOrigen) no forma
+ * arista, igual que al mantener el índice con el evento; solo en las
+ * transferencias anteriores a esos campos, sin ninguno de los dos, el origen
+ * es el destino de la transferencia anterior del jugador. Después se mantiene
+ * con cada transferencia confirmada, sin volver a consultar Neo4j.
+ *
+ * Una recarga consulta sin el lock: las transferencias que confirman mientras
+ * tanto se guardan y se aplican al grafo nuevo antes de publicarlo. Agregar
+ * una arista que la consulta ya había leído no cambia nada (queda el menor
+ * monto).
+ */
+@Component
+public class GrafoTransferenciasIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(GrafoTransferenciasIndex.class);
+
+    private static final String QUERY_CLUBES = "MATCH (c:Club) RETURN c.nombre AS nombre";
+
+    private static final String QUERY_ARISTAS =
+        "MATCH (j:Jugador)-[t:TRANSFERIDO]->(c:Club) " +
+        "WITH j, t, c ORDER BY t.fecha ASC " +
+        "WITH j, collect({club: c.nombre, origen: t.clubOrigen, libre: t.sinClubOrigen, " +
+        "monto: coalesce(t.monto, 0.0)}) AS movimientos " +
+        "UNWIND range(0, size(movimientos) - 1) AS i " +
+        "WITH CASE WHEN movimientos[i].libre THEN null " +
+        "ELSE coalesce(movimientos[i].origen, CASE WHEN i > 0 THEN movimientos[i - 1].club END) END AS origen, " +
+        "movimientos[i].club AS destino, movimientos[i].monto AS monto " +
+        "WHERE origen IS NOT NULL AND origen <> destino " +
+        "RETURN origen, destino, min(monto) AS monto";
+
+    @Autowired
+    private Neo4jClient neo4jClient;
+
+    private volatile GrafoCsr grafo;
+
+    private final Object escritura = new Object();
+
+    // Transferencias confirmadas mientras corre alguna recarga; null si no hay ninguna
+    private List<Movimiento> duranteRecarga;
+    private int recargasEnCurso;
+
+    // Clave de las transferencias pendientes de la transacción actual
+    private final Object pendientesClave = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        try {
+            recargar();
+        } catch (RuntimeException e) {
+            // Sin base disponible al arrancar: se reintenta en la primera consulta
+            log.warn("No se pudo cargar el grafo de transferencias: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Devuelve el grafo actual. Los lectores trabajan sobre una instantánea
+     * consistente; las transferencias nuevas publican una instantánea nueva.
+     */
+    public GrafoCsr obtenerGrafo() {
+        GrafoCsr actual = grafo;
+        if (actual == null) {
+            synchronized (escritura) {
+                if (grafo == null) {
+                    recargar();
+                }
+                actual = grafo;
+            }
+        }
+        return actual;
+    }
+
+    /**
+     * Reconstruye el índice completo desde Neo4j.
+     */
+    public void recargar() {
+        synchronized (escritura) {
+            if (recargasEnCurso++ == 0) {
+                duranteRecarga = new ArrayList<>();
+            }
+        }
+        try {
+            GrafoCsr.Builder builder = GrafoCsr.builder();
+
+            for (Map<String, Object> fila : neo4jClient.query(QUERY_CLUBES).fetch().all()) {
+                Object nombre = fila.get("nombre");
+                if (nombre != null) {
+                    builder.agregarNodo(nombre.toString());
+                }
+            }
+
+            for (Map<String, Object> fila : neo4jClient.query(QUERY_ARISTAS).fetch().all()) {
+                builder.agregarArista(
+                    fila.get("origen").toString(),
+                    fila.get("destino").toString(),
+                    ((Number) fila.get("monto")).doubleValue()
+                );
+            }
+
+            GrafoCsr nuevo;
+            synchronized (escritura) {
+                // Las confirmadas después de que la consulta leyó sus filas
+                agregar(builder, duranteRecarga);
+                nuevo = builder.build();
+                grafo = nuevo;
+            }
+            log.info("Grafo de transferencias cargado: {} clubes, {} aristas",
+                nuevo.cantidadNodos(), nuevo.cantidadAristas());
+        } finally {
+            synchronized (escritura) {
+                if (--recargasEnCurso == 0) {
+                    duranteRecarga = null;
+                }
+            }
+        }
+    }
+
+    /**
+     * Junta las transferencias de la transacción en curso y las aplica todas
+     * juntas cuando confirma, publicando un solo grafo nuevo por commit (un
+     * lote de miles de transferencias no copia los arreglos miles de veces).
+     * Si no hay transacción se aplica enseguida; si se deshace, se descarta.
+     */
+    @EventListener
+    public void onTransferenciaRealizada(TransferenciaRealizadaEvent evento) {
+        Movimiento movimiento = new Movimiento(evento.clubOrigen(), evento.clubDestino(),
+            evento.monto() != null ? evento.monto() : 0.0);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            registrarTransferencias(List.of(movimiento));
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Movimiento> pendientes = (List<Movimiento>) TransactionSynchronizationManager.getResource(pendientesClave);
+        if (pendientes == null) {
+            List<Movimiento> nuevos = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(pendientesClave, nuevos);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int estado) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(pendientesClave);
+                    if (estado == STATUS_COMMITTED) {
+                        registrarTransferencias(nuevos);
+                    }
+                }
+            });
+            pendientes = nuevos;
+        }
+        pendientes.add(movimiento);
+    }
+
+    void registrarTransferencias(List<Movimiento> movimientos) {
+        synchronized (escritura) {
+            if (duranteRecarga != null) {
+                duranteRecarga.addAll(movimientos);
+            }
+            GrafoCsr actual = grafo;
+            if (actual == null || movimientos.isEmpty()) {
+                // Todavía no cargado: la carga en curso las aplica al terminar y una
+                // carga posterior ya las lee de la base
+                return;
+            }
+
+            if (movimientos.size() == 1) {
+                grafo = aplicar(actual, movimientos.get(0));
+                return;
+            }
+
+            // Varias: un solo recorrido de los arreglos para todas
+            GrafoCsr.Builder builder = actual.aBuilder();
+            agregar(builder, movimientos);
+            grafo = builder.build();
+        }
+    }
+
+    private static void agregar(GrafoCsr.Builder builder, List<Movimiento> movimientos) {
+        for (Movimiento movimiento : movimientos) {
+            if (movimiento.sinArista()) {
+                builder.agregarNodo(movimiento.destino());
+            } else {
+                builder.agregarArista(movimiento.origen(), movimiento.destino(), movimiento.monto());
+            }
+        }
+    }
+
+    private static GrafoCsr aplicar(GrafoCsr actual, Movimiento movimiento) {
+        if (movimiento.sinArista()) {
+            return actual.conNodo(movimiento.destino());
+        }
+        return actual.conArista(movimiento.origen(), movimiento.destino(), movimiento.monto());
+    }
+
+    /**
+     * Una transferencia confirmada; sin club de origen (o al mismo club) solo agrega el destino.
+     */
+    record Movimiento(String origen, String destino, double monto) {
+
+        boolean sinArista() {
+            return origen == null || origen.equals(destino);
+        }
+    }
+}
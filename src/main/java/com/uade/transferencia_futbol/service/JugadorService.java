@@ -1,14 +1,22 @@
 package com.uade.transferencia_futbol.service;
 
+import com.uade.transferencia_futbol.algoritmo.RankingJugadores;
+import com.uade.transferencia_futbol.dto.CarreraJugador;
+import com.uade.transferencia_futbol.dto.JugadorSummary;
+import com.uade.transferencia_futbol.dto.Pagina;
 import com.uade.transferencia_futbol.entity.JugadorEntity;
 import com.uade.transferencia_futbol.entity.ClubEntity;
 import com.uade.transferencia_futbol.entity.AgenteEntity;
-import com.uade.transferencia_futbol.entity.TransferenciaEntity;
+import com.uade.transferencia_futbol.event.AgentesAsignadosEvent;
+import com.uade.transferencia_futbol.event.JugadorEliminadoEvent;
+import com.uade.transferencia_futbol.event.JugadorModificadoEvent;
 import com.uade.transferencia_futbol.repository.JugadorRepository;
 import com.uade.transferencia_futbol.repository.ClubRepository;
 import com.uade.transferencia_futbol.repository.AgenteRepository;
-import com.uade.transferencia_futbol.repository.TransferenciaRepository;
+import com.uade.transferencia_futbol.util.CursorCodec;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.neo4j.core.Neo4jClient;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,6 +26,27 @@ import java.util.*;
 @Transactional
 public class JugadorService {
     
+    // Ambas se resuelven con el índice jugador_valor_mercado_nombre (ver IndicesNeo4j):
+    // la primera página recorre el índice desde el final, las siguientes buscan desde el cursor
+    private static final String QUERY_PRIMERA_PAGINA_POR_VALOR =
+        "MATCH (j:Jugador) " +
+        "WHERE j.valorMercado IS NOT NULL AND j.nombre IS NOT NULL " +
+        "RETURN j.nombre AS nombre, j.edad AS edad, j.posicion AS posicion, " +
+        "j.valorMercado AS valorMercado, j.nacionalidad AS nacionalidad " +
+        "ORDER BY j.valorMercado DESC, j.nombre DESC " +
+        "LIMIT $limite";
+    
+    // Lo que sigue a (valor, nombre) en orden descendente por las dos claves; con los
+    // IS NOT NULL el planner puede resolverlo con el índice compuesto (valorMercado, nombre)
+    private static final String QUERY_PAGINA_POR_VALOR =
+        "MATCH (j:Jugador) " +
+        "WHERE j.valorMercado IS NOT NULL AND j.nombre IS NOT NULL " +
+        "AND ((j.valorMercado < $valor) OR (j.valorMercado = $valor AND j.nombre < $nombre)) " +
+        "RETURN j.nombre AS nombre, j.edad AS edad, j.posicion AS posicion, " +
+        "j.valorMercado AS valorMercado, j.nacionalidad AS nacionalidad " +
+        "ORDER BY j.valorMercado DESC, j.nombre DESC " +
+        "LIMIT $limite";
+    
     @Autowired
     private JugadorRepository jugadorRepository;
     
@@ -28,19 +57,37 @@ public class JugadorService {
     private AgenteRepository agenteRepository;
     
     @Autowired
-    private TransferenciaRepository transferenciaRepository;
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private Neo4jClient neo4jClient;
+    
+    @Autowired
+    private PosicionJugadoresIndex posicionJugadoresIndex;
+    
+    @Autowired
+    private CarreraJugadorService carreraJugadorService;
+    
+    @Autowired
+    private Paginacion paginacion;
     
     // Crear jugador
     public JugadorEntity crearJugador(JugadorEntity jugador) {
         if (jugadorRepository.existsById(jugador.getNombre())) {
             throw new RuntimeException("El jugador ya existe: " + jugador.getNombre());
         }
-        return jugadorRepository.save(jugador);
+        return publicarModificacion(jugadorRepository.save(jugador));
     }
     
-    // Obtener todos los jugadores
-    public List<JugadorEntity> obtenerTodosJugadores() {
-        return jugadorRepository.findAll();
+    // Obtener jugadores paginados por nombre (ver Paginacion)
+    public Pagina<?> obtenerPaginaJugadores(Integer limite, String cursor, boolean expand) {
+        int tamano = paginacion.tamano(limite);
+        Pagina<JugadorSummary> pagina = Paginacion.porNombre(
+            jugadorRepository.findPaginaPorNombre(Paginacion.despuesDe(cursor), tamano, JugadorSummary.class),
+            tamano, JugadorSummary::nombre);
+        return expand
+            ? Paginacion.expandir(pagina, JugadorSummary::nombre, jugadorRepository::findAllById, JugadorEntity::getNombre)
+            : pagina;
     }
     
     // Obtener jugador por nombre
@@ -56,7 +103,7 @@ public class JugadorService {
                 jugador.setPosicion(jugadorActualizado.getPosicion());
                 jugador.setValorMercado(jugadorActualizado.getValorMercado());
                 jugador.setNacionalidad(jugadorActualizado.getNacionalidad());
-                return jugadorRepository.save(jugador);
+                return publicarModificacion(jugadorRepository.save(jugador));
             })
             .orElseThrow(() -> new RuntimeException("Jugador no encontrado: " + nombre));
     }
@@ -67,6 +114,7 @@ public class JugadorService {
             throw new RuntimeException("Jugador no encontrado: " + nombre);
         }
         jugadorRepository.deleteById(nombre);
+        eventPublisher.publishEvent(new JugadorEliminadoEvent(nombre));
     }
     
     // Asignar jugador a un club
@@ -78,7 +126,7 @@ public class JugadorService {
             .orElseThrow(() -> new RuntimeException("Club no encontrado: " + nombreClub));
         
         jugador.setClubActual(club);
-        return jugadorRepository.save(jugador);
+        return publicarModificacion(jugadorRepository.save(jugador));
     }
     
     // Asignar agente a jugador
@@ -90,47 +138,55 @@ public class JugadorService {
             .orElseThrow(() -> new RuntimeException("Agente no encontrado: " + nombreAgente));
         
         jugador.setAgente(agente);
-        return jugadorRepository.save(jugador);
+        JugadorEntity guardado = jugadorRepository.save(jugador);
+        eventPublisher.publishEvent(new AgentesAsignadosEvent(Map.of(nombreJugador, nombreAgente)));
+        return guardado;
     }
     
     // Buscar jugadores por posición
-    public List<JugadorEntity> buscarPorPosicion(String posicion) {
-        return jugadorRepository.findByPosicion(posicion);
+    public <T> List<T> buscarPorPosicion(String posicion, Class<T> tipo) {
+        return jugadorRepository.findByPosicion(posicion, tipo);
     }
     
     // Buscar jugadores por nacionalidad
-    public List<JugadorEntity> buscarPorNacionalidad(String nacionalidad) {
-        return jugadorRepository.findByNacionalidad(nacionalidad);
+    public <T> List<T> buscarPorNacionalidad(String nacionalidad, Class<T> tipo) {
+        return jugadorRepository.findByNacionalidad(nacionalidad, tipo);
     }
     
     // Buscar jugadores por rango de edad
-    public List<JugadorEntity> buscarPorRangoEdad(Integer edadMin, Integer edadMax) {
-        return jugadorRepository.findByEdadBetween(edadMin, edadMax);
+    public <T> List<T> buscarPorRangoEdad(Integer edadMin, Integer edadMax, Class<T> tipo) {
+        return jugadorRepository.findByEdadBetween(edadMin, edadMax, tipo);
     }
     
     // Buscar jugadores por valor de mercado mínimo
-    public List<JugadorEntity> buscarPorValorMinimo(Double valorMinimo) {
-        return jugadorRepository.findByValorMercadoGreaterThan(valorMinimo);
+    public <T> List<T> buscarPorValorMinimo(Double valorMinimo, Class<T> tipo) {
+        return jugadorRepository.findByValorMercadoGreaterThan(valorMinimo, tipo);
     }
     
     // Obtener jugadores de un club
-    public List<JugadorEntity> obtenerJugadoresDeClub(String nombreClub) {
-        return jugadorRepository.findJugadoresByClub(nombreClub);
+    public <T> List<T> obtenerJugadoresDeClub(String nombreClub, Class<T> tipo) {
+        return jugadorRepository.findJugadoresByClub(nombreClub, tipo);
     }
     
     // Obtener jugadores de un agente
-    public List<JugadorEntity> obtenerJugadoresDeAgente(String nombreAgente) {
-        return jugadorRepository.findJugadoresByAgente(nombreAgente);
+    public <T> List<T> obtenerJugadoresDeAgente(String nombreAgente, Class<T> tipo) {
+        return jugadorRepository.findJugadoresByAgente(nombreAgente, tipo);
     }
     
     // Obtener jugadores libres (sin club)
-    public List<JugadorEntity> obtenerJugadoresLibres() {
-        return jugadorRepository.findJugadoresLibres();
+    public <T> List<T> obtenerJugadoresLibres(Class<T> tipo) {
+        return jugadorRepository.findJugadoresLibres(tipo);
     }
     
-    // Obtener top jugadores por valor
+    // Obtener top jugadores por valor (desde el índice en memoria, sin consultar Neo4j)
     public List<JugadorEntity> obtenerTopJugadores(Integer limit) {
-        return jugadorRepository.findTopJugadoresByValor(limit);
+        List<JugadorEntity> conValor = new ArrayList<>();
+        for (JugadorEntity jugador : posicionJugadoresIndex.todos()) {
+            if (jugador.getValorMercado() != null) {
+                conValor.add(jugador);
+            }
+        }
+        return RankingJugadores.mejores(conValor, JugadorEntity::getValorMercado, limit);
     }
     
     // Actualizar valor de mercado
@@ -138,10 +194,22 @@ public class JugadorService {
         return jugadorRepository.findById(nombre)
             .map(jugador -> {
                 jugador.setValorMercado(nuevoValor);
-                return jugadorRepository.save(jugador);
+                return publicarModificacion(jugadorRepository.save(jugador));
             })
             .orElseThrow(() -> new RuntimeException("Jugador no encontrado: " + nombre));
     }
+    
+    // Los índices en memoria se actualizan recién cuando la transacción confirma
+    private JugadorEntity publicarModificacion(JugadorEntity jugador) {
+        eventPublisher.publishEvent(new JugadorModificadoEvent(
+            jugador.getNombre(),
+            jugador.getEdad(),
+            jugador.getPosicion(),
+            jugador.getValorMercado(),
+            jugador.getNacionalidad(),
+            jugador.getClubActual() != null ? jugador.getClubActual().getNombre() : null));
+        return jugador;
+    }
 
     // =================================================================
     // ALGORITMOS COMPLEJOS
@@ -149,71 +217,61 @@ public class JugadorService {
 
     // /api/players/career-path - BFS/DFS del historial
     /**
-     * Implementación de BFS o DFS para recorrer el historial de clubes y temporadas
-     * (deberá interactuar con TransferenciaService o TransferenciaRepository para obtener el historial).
+     * Clubes por los que pasó el jugador, en orden cronológico (ver {@link CarreraJugadorService}).
      */
-public List<String> obtenerRutaCarreraJugador(String nombreJugador) {
-        List<String> rutaCarrera = new ArrayList<>();
-        
-        // Obtener transferencias del jugador - CORREGIDO: usa TransferenciaEntity
-        List<TransferenciaEntity> transferencias = transferenciaRepository.findTransferenciasByJugador(nombreJugador);
-        
-        // Construir grafo de clubes basado en transferencias reales
-        Map<String, List<String>> grafoClubes = construirGrafoCarrera(transferencias);
-        
-        // BFS desde el club actual hacia atrás en el tiempo
-        JugadorEntity jugador = jugadorRepository.findById(nombreJugador)
-            .orElseThrow(() -> new RuntimeException("Jugador no encontrado: " + nombreJugador));
-        
-        if (jugador.getClubActual() != null) {
-            String clubActual = jugador.getClubActual().getNombre();
-            bfsCarrera(clubActual, grafoClubes, rutaCarrera);
-        }
-        
-        return rutaCarrera;
+    public List<String> obtenerRutaCarreraJugador(String nombreJugador) {
+        return carreraJugadorService.obtenerCarrera(nombreJugador).historialCompleto();
     }
-    
-    private Map<String, List<String>> construirGrafoCarrera(List<TransferenciaEntity> transferencias) {
-        Map<String, List<String>> grafo = new HashMap<>();
-        
-        // Ordenar transferencias por fecha (más reciente primero)
-        transferencias.sort((t1, t2) -> t2.getFecha().compareTo(t1.getFecha()));
+
+    // /api/players/sort-by-value - Paginación por cursor sobre el índice de valor
+    /**
+     * Una página de jugadores de mayor a menor valor de mercado (a igual valor,
+     * por nombre descendente). El orden y el corte los hace Neo4j con el
+     * índice de rango sobre (valorMercado, nombre): cada página cuesta
+     * O(limite) sin importar en qué parte del catálogo esté, y se recorre
+     * todo el catálogo con memoria acotada pasando siguienteCursor.
+     * Los jugadores sin valor de mercado no se listan, como en el QuickSort.
+     */
+    public Pagina<JugadorSummary> obtenerPaginaJugadoresPorValor(Integer limite, String cursor) {
+        int tamano = paginacion.tamano(limite);
         
-        // Construir grafo de movimientos entre clubes
-        for (int i = 0; i < transferencias.size() - 1; i++) {
-            TransferenciaEntity actual = transferencias.get(i);
-            // Aquí necesitaríamos información del club origen (no disponible en TransferenciaEntity actual)
-            // Por ahora, usamos una implementación simplificada
+        Collection<Map<String, Object>> filas;
+        if (cursor == null || cursor.isBlank()) {
+            filas = neo4jClient.query(QUERY_PRIMERA_PAGINA_POR_VALOR)
+                .bind(tamano).to("limite")
+                .fetch().all();
+        } else {
+            String[] claves = CursorCodec.decodificar(cursor, 2);
+            filas = neo4jClient.query(QUERY_PAGINA_POR_VALOR)
+                .bind(CursorCodec.decodificarDouble(claves[0])).to("valor")
+                .bind(claves[1]).to("nombre")
+                .bind(tamano).to("limite")
+                .fetch().all();
         }
         
-        return grafo;
-    }
-    
-    private void bfsCarrera(String clubActual, Map<String, List<String>> grafoClubes, List<String> rutaCarrera) {
-        Queue<String> cola = new LinkedList<>();
-        Set<String> visitados = new HashSet<>();
-        
-        cola.offer(clubActual);
-        visitados.add(clubActual);
+        List<JugadorSummary> jugadores = new ArrayList<>(filas.size());
+        for (Map<String, Object> fila : filas) {
+            jugadores.add(new JugadorSummary(
+                (String) fila.get("nombre"),
+                fila.get("edad") != null ? ((Number) fila.get("edad")).intValue() : null,
+                (String) fila.get("posicion"),
+                ((Number) fila.get("valorMercado")).doubleValue(),
+                (String) fila.get("nacionalidad")));
+        }
         
-        while (!cola.isEmpty()) {
-            String club = cola.poll();
-            rutaCarrera.add(club);
-            
-            // Agregar clubes conectados (anteriores en la carrera)
-            List<String> clubesConectados = grafoClubes.getOrDefault(club, new ArrayList<>());
-            for (String clubConectado : clubesConectados) {
-                if (!visitados.contains(clubConectado)) {
-                    visitados.add(clubConectado);
-                    cola.offer(clubConectado);
-                }
-            }
+        String siguiente = null;
+        if (jugadores.size() == tamano) {
+            JugadorSummary ultimo = jugadores.get(jugadores.size() - 1);
+            siguiente = CursorCodec.codificar(Double.toString(ultimo.valorMercado()), ultimo.nombre());
         }
+        return Pagina.de(jugadores, siguiente);
     }
 
     // /api/players/sort-by-value - QuickSort personalizado
     /**
-     * Implementación de QuickSort para ordenar jugadores por valor de mercado
+     * Implementación de QuickSort para ordenar jugadores por valor de mercado.
+     * Trae todos los jugadores con sus relaciones y ordena en memoria; queda
+     * solo para comparar contra la paginación (jugadores.ordenados-por-valor.quicksort).
      */
     public List<JugadorEntity> obtenerJugadoresOrdenadosPorValor() {
         List<JugadorEntity> jugadores = jugadorRepository.findAll();
@@ -252,134 +310,39 @@ public List<String> obtenerRutaCarreraJugador(String nombreJugador) {
         return i + 1;
     }
 
-    // REEMPLAZAR EL MÉTODO obtenerRutaCarreraJugador EN JugadorService
-
 // =================================================================
-// BFS - Recorrido de carrera del jugador MEJORADO
+// BFS / DFS - Recorrido de carrera del jugador
 // =================================================================
 
 /**
- * Implementación de BFS para recorrer el historial de clubes del jugador
- * usando el historial de transferencias real
+ * Recorrido BFS del grafo de clubes del jugador, armado con una sola consulta
+ * de su historial de transferencias, con las temporadas de cada etapa.
  */
 public Map<String, Object> obtenerRutaCarreraJugadorBFS(String nombreJugador) {
-    JugadorEntity jugador = jugadorRepository.findById(nombreJugador)
-        .orElseThrow(() -> new RuntimeException("Jugador no encontrado: " + nombreJugador));
-    
-    // Obtener historial de clubes desde el repository
-    List<String> historialClubes = transferenciaRepository.findHistorialClubesJugador(nombreJugador);
-    
-    // Si tiene club actual, agregarlo al final
-    if (jugador.getClubActual() != null && !historialClubes.isEmpty()) {
-        historialClubes.add(jugador.getClubActual().getNombre());
-    }
-    
-    // Construir grafo de conexiones entre clubes
-    Map<String, List<String>> grafo = construirGrafoCarreraMejorado(historialClubes);
-    
-    // BFS desde el primer club
-    List<String> rutaBFS = new ArrayList<>();
-    Set<String> visitados = new HashSet<>();
-    
-    if (!historialClubes.isEmpty()) {
-        String clubInicial = historialClubes.get(0);
-        bfsRecorrido(clubInicial, grafo, rutaBFS, visitados);
-    }
-    
-    return Map.of(
-        "jugador", nombreJugador,
-        "algoritmo", "BFS",
-        "historialCompleto", historialClubes,
-        "recorridoBFS", rutaBFS,
-        "totalClubes", historialClubes.size(),
-        "clubActual", jugador.getClubActual() != null ? jugador.getClubActual().getNombre() : "Sin club"
-    );
+    CarreraJugador carrera = carreraJugadorService.obtenerCarrera(nombreJugador);
+    return respuestaCarrera(carrera, "BFS", "recorridoBFS", carrera.recorridoBFS());
 }
 
 /**
- * Implementación de DFS para recorrer el historial de clubes del jugador
+ * Recorrido DFS del grafo de clubes del jugador.
  */
 public Map<String, Object> obtenerRutaCarreraJugadorDFS(String nombreJugador) {
-    JugadorEntity jugador = jugadorRepository.findById(nombreJugador)
-        .orElseThrow(() -> new RuntimeException("Jugador no encontrado: " + nombreJugador));
-    
-    // Obtener historial de clubes
-    List<String> historialClubes = transferenciaRepository.findHistorialClubesJugador(nombreJugador);
-    
-    if (jugador.getClubActual() != null && !historialClubes.isEmpty()) {
-        historialClubes.add(jugador.getClubActual().getNombre());
-    }
-    
-    // Construir grafo de conexiones
-    Map<String, List<String>> grafo = construirGrafoCarreraMejorado(historialClubes);
-    
-    // DFS desde el primer club
-    List<String> rutaDFS = new ArrayList<>();
-    Set<String> visitados = new HashSet<>();
-    
-    if (!historialClubes.isEmpty()) {
-        String clubInicial = historialClubes.get(0);
-        dfsRecorrido(clubInicial, grafo, rutaDFS, visitados);
-    }
-    
-    return Map.of(
-        "jugador", nombreJugador,
-        "algoritmo", "DFS",
-        "historialCompleto", historialClubes,
-        "recorridoDFS", rutaDFS,
-        "totalClubes", historialClubes.size(),
-        "clubActual", jugador.getClubActual() != null ? jugador.getClubActual().getNombre() : "Sin club"
-    );
-}
-
-private Map<String, List<String>> construirGrafoCarreraMejorado(List<String> historialClubes) {
-    Map<String, List<String>> grafo = new HashMap<>();
-    
-    // Crear conexiones secuenciales entre clubes
-    for (int i = 0; i < historialClubes.size() - 1; i++) {
-        String clubActual = historialClubes.get(i);
-        String clubSiguiente = historialClubes.get(i + 1);
-        
-        grafo.putIfAbsent(clubActual, new ArrayList<>());
-        grafo.get(clubActual).add(clubSiguiente);
-        
-        // Conexión bidireccional (opcional, para explorar en ambas direcciones)
-        grafo.putIfAbsent(clubSiguiente, new ArrayList<>());
-    }
-    
-    return grafo;
-}
-
-private void bfsRecorrido(String clubInicial, Map<String, List<String>> grafo, 
-                         List<String> rutaBFS, Set<String> visitados) {
-    Queue<String> cola = new LinkedList<>();
-    cola.offer(clubInicial);
-    visitados.add(clubInicial);
-    
-    while (!cola.isEmpty()) {
-        String club = cola.poll();
-        rutaBFS.add(club);
-        
-        List<String> clubesConectados = grafo.getOrDefault(club, new ArrayList<>());
-        for (String clubConectado : clubesConectados) {
-            if (!visitados.contains(clubConectado)) {
-                visitados.add(clubConectado);
-                cola.offer(clubConectado);
-            }
-        }
-    }
+    CarreraJugador carrera = carreraJugadorService.obtenerCarrera(nombreJugador);
+    return respuestaCarrera(carrera, "DFS", "recorridoDFS", carrera.recorridoDFS());
 }
 
-private void dfsRecorrido(String club, Map<String, List<String>> grafo, 
-                         List<String> rutaDFS, Set<String> visitados) {
-    visitados.add(club);
-    rutaDFS.add(club);
-    
-    List<String> clubesConectados = grafo.getOrDefault(club, new ArrayList<>());
-    for (String clubConectado : clubesConectados) {
-        if (!visitados.contains(clubConectado)) {
-            dfsRecorrido(clubConectado, grafo, rutaDFS, visitados);
-        }
-    }
+private Map<String, Object> respuestaCarrera(CarreraJugador carrera, String algoritmo,
+                                             String claveRecorrido, List<String> recorrido) {
+    List<String> historialClubes = carrera.historialCompleto();
+    Map<String, Object> respuesta = new LinkedHashMap<>();
+    respuesta.put("jugador", carrera.jugador());
+    respuesta.put("algoritmo", algoritmo);
+    respuesta.put("historialCompleto", historialClubes);
+    respuesta.put(claveRecorrido, recorrido);
+    respuesta.put("totalClubes", historialClubes.size());
+    respuesta.put("clubActual", carrera.clubActual() != null ? carrera.clubActual() : "Sin club");
+    respuesta.put("etapas", carrera.etapas());
+    respuesta.put("temporadasPorClub", carrera.temporadasPorClub());
+    return respuesta;
 }
 }
@@ -0,0 +1,67 @@
+package com.uade.transferencia_futbol.service;
+
+import org.neo4j.driver.AccessMode;
+import org.neo4j.driver.Bookmark;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.neo4j.core.DatabaseSelectionProvider;
+import org.springframework.data.neo4j.core.transaction.Neo4jBookmarkManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Lectura de resultados grandes fila por fila, para los exports en streaming.
+ *
+ * Abre una sesión de solo lectura con el fetch size pedido, así que el driver
+ * trae los registros por tandas y la memoria no depende de cuántos haya. La
+ * sesión usa la misma base que elige SDN y parte de los bookmarks del
+ * {@link Neo4jBookmarkManager} compartido, de modo que ve lo que ya confirmaron
+ * las transacciones de Spring; al terminar le devuelve los bookmarks nuevos.
+ */
+@Component
+public class LecturaStreaming {
+
+    @Autowired
+    private Driver driver;
+
+    @Autowired
+    private DatabaseSelectionProvider databaseSelectionProvider;
+
+    @Autowired
+    private Neo4jBookmarkManager bookmarkManager;
+
+    /**
+     * Corre la consulta y entrega cada fila a alLeer apenas llega. Devuelve
+     * cuántas filas se leyeron. No debe llamarse dentro de una transacción.
+     */
+    public long recorrer(String consulta, Map<String, Object> parametros, int fetchSize,
+                         Consumer<Record> alLeer) {
+        Collection<Bookmark> usados = bookmarkManager.getBookmarks();
+        SessionConfig.Builder configuracion = SessionConfig.builder()
+            .withDefaultAccessMode(AccessMode.READ)
+            .withFetchSize(fetchSize)
+            .withBookmarks(usados);
+        String base = databaseSelectionProvider.getDatabaseSelection().getValue();
+        if (base != null) {
+            configuracion.withDatabase(base);
+        }
+
+        long cantidad = 0;
+        try (Session session = driver.session(configuracion.build())) {
+            Result resultado = session.run(consulta, parametros);
+            while (resultado.hasNext()) {
+                alLeer.accept(resultado.next());
+                cantidad++;
+            }
+            bookmarkManager.updateBookmarks(usados, session.lastBookmarks());
+        }
+        return cantidad;
+    }
+}
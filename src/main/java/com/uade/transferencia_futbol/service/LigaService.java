@@ -1,8 +1,14 @@
 package com.uade.transferencia_futbol.service;
 
+import com.uade.transferencia_futbol.dto.Agregado;
+import com.uade.transferencia_futbol.dto.LigaSummary;
+import com.uade.transferencia_futbol.dto.Pagina;
 import com.uade.transferencia_futbol.entity.LigaEntity;
+import com.uade.transferencia_futbol.event.LigaEliminadaEvent;
+import com.uade.transferencia_futbol.event.LigaModificadaEvent;
 import com.uade.transferencia_futbol.repository.LigaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -16,6 +22,18 @@ public class LigaService {
     @Autowired
     private LigaRepository ligaRepository;
     
+    @Autowired
+    private Paginacion paginacion;
+    
+    @Autowired
+    private ResumenesCache resumenesCache;
+    
+    @Autowired
+    private AgregadosIndex agregadosIndex;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     // Crear liga
     public LigaEntity crearLiga(LigaEntity liga) {
         if (ligaRepository.existsById(liga.getNombre())) {
@@ -24,9 +42,15 @@ public class LigaService {
         return ligaRepository.save(liga);
     }
     
-    // Obtener todas las ligas
-    public List<LigaEntity> obtenerTodasLigas() {
-        return ligaRepository.findAll();
+    // Paginado por nombre (ver Paginacion); con expand, las entidades completas
+    public Pagina<?> obtenerPaginaLigas(Integer limite, String cursor, boolean expand) {
+        int tamano = paginacion.tamano(limite);
+        Pagina<LigaSummary> pagina = Paginacion.porNombre(
+            ligaRepository.findPaginaPorNombre(Paginacion.despuesDe(cursor), tamano, LigaSummary.class),
+            tamano, LigaSummary::nombre);
+        return expand
+            ? Paginacion.expandir(pagina, LigaSummary::nombre, ligaRepository::findAllById, LigaEntity::getNombre)
+            : pagina;
     }
     
     // Obtener liga por nombre
@@ -34,6 +58,11 @@ public class LigaService {
         return ligaRepository.findById(nombre);
     }
     
+    // Obtener resumen de liga desde la cache (ver ResumenesCache)
+    public Optional<LigaSummary> obtenerResumenLiga(String nombre) {
+        return resumenesCache.liga(nombre);
+    }
+    
     // Actualizar liga
     public LigaEntity actualizarLiga(String nombre, LigaEntity ligaActualizada) {
         return ligaRepository.findById(nombre)
@@ -41,7 +70,7 @@ public class LigaService {
                 liga.setPais(ligaActualizada.getPais());
                 liga.setNivel(ligaActualizada.getNivel());
                 liga.setCantidadEquipos(ligaActualizada.getCantidadEquipos());
-                return ligaRepository.save(liga);
+                return publicarModificacion(ligaRepository.save(liga));
             })
             .orElseThrow(() -> new RuntimeException("Liga no encontrada: " + nombre));
     }
@@ -52,48 +81,55 @@ public class LigaService {
             throw new RuntimeException("Liga no encontrada: " + nombre);
         }
         ligaRepository.deleteById(nombre);
+        eventPublisher.publishEvent(new LigaEliminadaEvent(nombre));
     }
     
     // Buscar ligas por país
-    public List<LigaEntity> buscarPorPais(String pais) {
-        return ligaRepository.findByPais(pais);
+    public <T> List<T> buscarPorPais(String pais, Class<T> tipo) {
+        return ligaRepository.findByPais(pais, tipo);
     }
     
     // Buscar ligas por nivel
-    public List<LigaEntity> buscarPorNivel(Integer nivel) {
-        return ligaRepository.findByNivel(nivel);
+    public <T> List<T> buscarPorNivel(Integer nivel, Class<T> tipo) {
+        return ligaRepository.findByNivel(nivel, tipo);
     }
     
     // Buscar ligas con más de N equipos
-    public List<LigaEntity> buscarConMinimoEquipos(Integer cantidad) {
-        return ligaRepository.findByCantidadEquiposGreaterThan(cantidad);
+    public <T> List<T> buscarConMinimoEquipos(Integer cantidad, Class<T> tipo) {
+        return ligaRepository.findByCantidadEquiposGreaterThan(cantidad, tipo);
     }
     
     // Top ligas por nivel (mejores ligas)
-    public List<LigaEntity> obtenerTopLigasPorNivel(Integer limit) {
-        return ligaRepository.findTopLigasByNivel(limit);
+    public <T> List<T> obtenerTopLigasPorNivel(Integer limit, Class<T> tipo) {
+        return ligaRepository.findTopLigasByNivel(limit, tipo);
     }
     
     // Ligas con presupuesto total mínimo
-    public List<LigaEntity> ligasConPresupuestoMinimo(Double presupuestoMinimo) {
-        return ligaRepository.findLigasConPresupuestoMinimo(presupuestoMinimo);
+    public <T> List<T> ligasConPresupuestoMinimo(Double presupuestoMinimo, Class<T> tipo) {
+        return ligaRepository.findLigasConPresupuestoMinimo(presupuestoMinimo, tipo);
     }
     
-    // Contar jugadores en una liga
+    // Contar jugadores en una liga (desde los agregados en memoria)
     public Integer contarJugadoresEnLiga(String nombreLiga) {
-        Integer total = ligaRepository.countJugadoresEnLiga(nombreLiga);
-        return total != null ? total : 0;
+        return (int) agregadosIndex.liga(nombreLiga).jugadores();
     }
     
-    // Obtener valor de mercado total de una liga
+    // Obtener valor de mercado total de una liga (desde los agregados en memoria)
     public Double obtenerValorMercadoTotalLiga(String nombreLiga) {
-        Double valor = ligaRepository.getValorMercadoTotalLiga(nombreLiga);
-        return valor != null ? valor : 0.0;
+        return agregadosIndex.liga(nombreLiga).valorMercadoTotal();
+    }
+    
+    // Jugadores, valor total y edad promedio de una liga
+    public Agregado obtenerAgregadosLiga(String nombreLiga) {
+        if (!ligaRepository.existsById(nombreLiga)) {
+            throw new RuntimeException("Liga no encontrada: " + nombreLiga);
+        }
+        return agregadosIndex.liga(nombreLiga);
     }
     
     // Ligas ordenadas por cantidad de equipos
-    public List<LigaEntity> ligasOrdenadasPorEquipos() {
-        return ligaRepository.findAllOrderByCantidadEquipos();
+    public <T> List<T> ligasOrdenadasPorEquipos(Class<T> tipo) {
+        return ligaRepository.findAllOrderByCantidadEquipos(tipo);
     }
     
     // Actualizar nivel de liga
@@ -104,7 +140,7 @@ public class LigaService {
                     throw new RuntimeException("El nivel debe estar entre 1 y 10");
                 }
                 liga.setNivel(nuevoNivel);
-                return ligaRepository.save(liga);
+                return publicarModificacion(ligaRepository.save(liga));
             })
             .orElseThrow(() -> new RuntimeException("Liga no encontrada: " + nombre));
     }
@@ -114,7 +150,7 @@ public class LigaService {
         return ligaRepository.findById(nombre)
             .map(liga -> {
                 liga.setCantidadEquipos(nuevaCantidad);
-                return ligaRepository.save(liga);
+                return publicarModificacion(ligaRepository.save(liga));
             })
             .orElseThrow(() -> new RuntimeException("Liga no encontrada: " + nombre));
     }
@@ -124,12 +160,19 @@ public class LigaService {
         LigaEntity liga = ligaRepository.findById(nombreLiga)
             .orElseThrow(() -> new RuntimeException("Liga no encontrada: " + nombreLiga));
         
-        Integer totalJugadores = contarJugadoresEnLiga(nombreLiga);
-        Double valorTotal = obtenerValorMercadoTotalLiga(nombreLiga);
+        Agregado agregado = agregadosIndex.liga(nombreLiga);
         
         return String.format(
-            "Liga: %s\nPaís: %s\nNivel: %d\nEquipos: %d\nJugadores totales: %d\nValor total de mercado: %.2f M€",
-            liga.getNombre(), liga.getPais(), liga.getNivel(), liga.getCantidadEquipos(), totalJugadores, valorTotal
+            "Liga: %s\nPaís: %s\nNivel: %d\nEquipos: %d\nJugadores totales: %d\nValor total de mercado: %.2f M€\nEdad promedio: %s",
+            liga.getNombre(), liga.getPais(), liga.getNivel(), liga.getCantidadEquipos(),
+            agregado.jugadores(), agregado.valorMercadoTotal(),
+            agregado.edadPromedio() != null ? String.format("%.1f", agregado.edadPromedio()) : "-"
         );
     }
+    
+    // La cache de resúmenes se invalida recién cuando la transacción confirma
+    private LigaEntity publicarModificacion(LigaEntity liga) {
+        eventPublisher.publishEvent(new LigaModificadaEvent(liga.getNombre()));
+        return liga;
+    }
 }
@@ -0,0 +1,87 @@
+package com.uade.transferencia_futbol.service;
+
+import com.uade.transferencia_futbol.dto.Pagina;
+import com.uade.transferencia_futbol.util.CursorCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Reglas comunes de la paginación por cursor (keyset): tamaño de página y
+ * cursores sobre el nombre, que es el id de clubes, ligas, agentes y jugadores.
+ *
+ * Las consultas piden los que vienen después del último nombre de la página
+ * anterior (WHERE nombre > $despuesDe ORDER BY nombre LIMIT $limite), así que
+ * con el índice de rango sobre el nombre cada página cuesta O(limite), sin SKIP.
+ */
+@Component
+public class Paginacion {
+
+    @Value("${paginacion.limite-por-defecto:50}")
+    private int limitePorDefecto;
+
+    @Value("${paginacion.limite-maximo:500}")
+    private int limiteMaximo;
+
+    /**
+     * Tamaño de página a usar: el pedido, o el por defecto, sin pasar el máximo.
+     */
+    public int tamano(Integer limite) {
+        int tamano = limite != null ? limite : limitePorDefecto;
+        if (tamano <= 0) {
+            throw new RuntimeException("El límite debe ser mayor a 0");
+        }
+        return Math.min(tamano, limiteMaximo);
+    }
+
+    /**
+     * Nombre a partir del cual sigue la página. En la primera es "": todo nombre es mayor.
+     */
+    public static String despuesDe(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return "";
+        }
+        return CursorCodec.decodificar(cursor, 1)[0];
+    }
+
+    /**
+     * Página ordenada por nombre; si vino completa, el cursor apunta a su último elemento.
+     */
+    public static <T> Pagina<T> porNombre(List<T> elementos, int tamano, Function<? super T, String> nombre) {
+        String siguiente = null;
+        if (elementos.size() == tamano) {
+            siguiente = CursorCodec.codificar(nombre.apply(elementos.get(elementos.size() - 1)));
+        }
+        return Pagina.de(elementos, siguiente);
+    }
+
+    /**
+     * Las entidades completas en el orden de la página (findAllById no respeta el orden pedido).
+     */
+    public static <T, E> Pagina<E> expandir(Pagina<T> pagina, Function<? super T, String> nombre,
+                                           Function<List<String>, Iterable<E>> buscar,
+                                           Function<? super E, String> nombreEntidad) {
+        List<String> nombres = new ArrayList<>(pagina.cantidad());
+        for (T elemento : pagina.elementos()) {
+            nombres.add(nombre.apply(elemento));
+        }
+        Map<String, E> porNombre = new HashMap<>();
+        for (E entidad : buscar.apply(nombres)) {
+            porNombre.put(nombreEntidad.apply(entidad), entidad);
+        }
+        List<E> entidades = new ArrayList<>(nombres.size());
+        for (String n : nombres) {
+            E entidad = porNombre.get(n);
+            // Borrada entre las dos lecturas: se omite, el cursor sigue siendo válido
+            if (entidad != null) {
+                entidades.add(entidad);
+            }
+        }
+        return new Pagina<>(entidades, entidades.size(), pagina.siguienteCursor());
+    }
+}
@@ -0,0 +1,464 @@
+package com.uade.transferencia_futbol.service;
+
+import com.uade.transferencia_futbol.entity.JugadorEntity;
+import com.uade.transferencia_futbol.event.ClubEliminadoEvent;
+import com.uade.transferencia_futbol.event.JugadorEliminadoEvent;
+import com.uade.transferencia_futbol.event.JugadorModificadoEvent;
+import com.uade.transferencia_futbol.event.TransferenciaRealizadaEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Índice en memoria de los jugadores por club y por categoría de posición.
+ *
+ * Cada plantel (y el grupo de jugadores libres) queda separado por
+ * {@link CategoriaPosicion} y ordenado por valor de mercado de mayor a menor,
+ * que es también el rating que usan los optimizadores de escuadra. Se carga
+ * una vez con una sola consulta y después se mantiene con los eventos de
+ * jugadores, clubes y transferencias: cada cambio rehace solo los grupos
+ * afectados y publica un estado nuevo, así que los lectores nunca ven un
+ * grupo a medio ordenar.
+ *
+ * Los jugadores del índice son copias sin relaciones (como las que devuelve
+ * findJugadoresByClub). Los métodos públicos entregan copias nuevas de esas
+ * instancias, así que quien modifica un jugador devuelto no altera el índice.
+ */
+@Component
+public class PosicionJugadoresIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(PosicionJugadoresIndex.class);
+
+    private static final String QUERY_JUGADORES =
+        "MATCH (j:Jugador) " +
+        "OPTIONAL MATCH (j)-[:JUEGA_EN]->(c:Club) " +
+        "RETURN j.nombre AS nombre, j.edad AS edad, j.posicion AS posicion, " +
+        "j.valorMercado AS valorMercado, j.nacionalidad AS nacionalidad, c.nombre AS club";
+
+    @Autowired
+    private Neo4jClient neo4jClient;
+
+    private volatile Estado estado;
+
+    // Club actual (null si está libre) y copia indexada de cada jugador; solo bajo 'escritura'
+    private final Map<String, Ubicacion> ubicaciones = new HashMap<>();
+
+    private final Object escritura = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void cargarAlIniciar() {
+        try {
+            recargar();
+        } catch (RuntimeException e) {
+            // Sin base disponible al arrancar: se reintenta en la primera consulta
+            log.warn("No se pudo cargar el índice de posiciones: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Plantel del club por categoría; vacío si el club no tiene jugadores.
+     */
+    public Plantel plantel(String nombreClub) {
+        return obtenerEstado().planteles().getOrDefault(nombreClub, Plantel.VACIO);
+    }
+
+    /**
+     * Jugadores sin club, por categoría.
+     */
+    public Plantel libres() {
+        return obtenerEstado().libres();
+    }
+
+    /**
+     * Todos los jugadores del índice (copias), de clubes y libres, sin orden global.
+     */
+    public List<JugadorEntity> todos() {
+        Estado actual = obtenerEstado();
+        List<JugadorEntity> todos = new ArrayList<>(actual.libres().todos());
+        for (Plantel plantel : actual.planteles().values()) {
+            todos.addAll(plantel.todos());
+        }
+        return todos;
+    }
+
+    private Estado obtenerEstado() {
+        Estado actual = estado;
+        if (actual == null) {
+            synchronized (escritura) {
+                if (estado == null) {
+                    recargar();
+                }
+                actual = estado;
+            }
+        }
+        return actual;
+    }
+
+    /**
+     * Reconstruye el índice completo desde Neo4j.
+     */
+    public void recargar() {
+        Map<String, Ubicacion> nuevas = new HashMap<>();
+        for (Map<String, Object> fila : neo4jClient.query(QUERY_JUGADORES).fetch().all()) {
+            JugadorEntity jugador = new JugadorEntity(
+                (String) fila.get("nombre"),
+                fila.get("edad") != null ? ((Number) fila.get("edad")).intValue() : null,
+                (String) fila.get("posicion"),
+                fila.get("valorMercado") != null ? ((Number) fila.get("valorMercado")).doubleValue() : null,
+                (String) fila.get("nacionalidad"));
+            if (jugador.getNombre() != null) {
+                nuevas.put(jugador.getNombre(), new Ubicacion((String) fila.get("club"), jugador));
+            }
+        }
+
+        // Agrupar primero y ordenar cada grupo una sola vez
+        Map<String, Map<CategoriaPosicion, List<JugadorEntity>>> porClub = new HashMap<>();
+        Map<CategoriaPosicion, List<JugadorEntity>> sinClub = new EnumMap<>(CategoriaPosicion.class);
+        for (Ubicacion ubicacion : nuevas.values()) {
+            Map<CategoriaPosicion, List<JugadorEntity>> destino = ubicacion.club() == null
+                ? sinClub
+                : porClub.computeIfAbsent(ubicacion.club(), c -> new EnumMap<>(CategoriaPosicion.class));
+            destino.computeIfAbsent(CategoriaPosicion.desde(ubicacion.jugador().getPosicion()),
+                c -> new ArrayList<>()).add(ubicacion.jugador());
+        }
+        Map<String, Plantel> planteles = new HashMap<>();
+        for (Map.Entry<String, Map<CategoriaPosicion, List<JugadorEntity>>> entry : porClub.entrySet()) {
+            planteles.put(entry.getKey(), Plantel.de(entry.getValue()));
+        }
+        Estado nuevo = new Estado(Map.copyOf(planteles), Plantel.de(sinClub));
+
+        synchronized (escritura) {
+            ubicaciones.clear();
+            ubicaciones.putAll(nuevas);
+            estado = nuevo;
+        }
+        log.info("Índice de posiciones cargado: {} jugadores, {} clubes, {} libres",
+            nuevas.size(), planteles.size(), nuevo.libres().cantidad());
+    }
+
+    // ==================== ACTUALIZACIONES ====================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJugadorModificado(JugadorModificadoEvent evento) {
+        JugadorEntity jugador = new JugadorEntity(evento.nombre(), evento.edad(), evento.posicion(),
+            evento.valorMercado(), evento.nacionalidad());
+        ubicar(jugador, evento.club());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onJugadorEliminado(JugadorEliminadoEvent evento) {
+        synchronized (escritura) {
+            if (estado == null) {
+                return;
+            }
+            Ubicacion anterior = ubicaciones.remove(evento.nombre());
+            if (anterior != null) {
+                estado = estado.sin(anterior);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransferenciaRealizada(TransferenciaRealizadaEvent evento) {
+        synchronized (escritura) {
+            Ubicacion anterior = ubicaciones.get(evento.nombreJugador());
+            if (estado == null || anterior == null) {
+                return;
+            }
+            ubicar(anterior.jugador(), evento.clubDestino());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClubEliminado(ClubEliminadoEvent evento) {
+        synchronized (escritura) {
+            if (estado == null) {
+                return;
+            }
+            Plantel plantel = estado.planteles().get(evento.nombre());
+            if (plantel == null) {
+                return;
+            }
+            for (Grupo grupo : plantel.grupos.values()) {
+                for (JugadorEntity jugador : grupo.jugadores) {
+                    ubicar(jugador, null);
+                }
+            }
+        }
+    }
+
+    /**
+     * Mueve (o agrega) un jugador al club indicado, o a los libres si club es null.
+     */
+    void ubicar(JugadorEntity jugador, String club) {
+        synchronized (escritura) {
+            Estado actual = estado;
+            if (actual == null) {
+                // Todavía no cargado: la carga inicial ya incluirá este cambio
+                return;
+            }
+            Ubicacion anterior = ubicaciones.get(jugador.getNombre());
+            if (anterior != null) {
+                actual = actual.sin(anterior);
+            }
+            Ubicacion nueva = new Ubicacion(club, jugador);
+            ubicaciones.put(jugador.getNombre(), nueva);
+            estado = actual.con(nueva);
+        }
+    }
+
+    // ==================== ESTRUCTURAS ====================
+
+    private record Ubicacion(String club, JugadorEntity jugador) {
+
+        CategoriaPosicion categoria() {
+            return CategoriaPosicion.desde(jugador.getPosicion());
+        }
+    }
+
+    /**
+     * Estado publicado a los lectores. Se reemplaza entero en cada cambio; el
+     * mapa de planteles se copia (es chico) y solo se rehacen los grupos tocados.
+     */
+    private record Estado(Map<String, Plantel> planteles, Plantel libres) {
+
+        Estado sin(Ubicacion ubicacion) {
+            return reemplazar(ubicacion.club(),
+                plantelDe(ubicacion.club()).sin(ubicacion.categoria(), ubicacion.jugador().getNombre()));
+        }
+
+        Estado con(Ubicacion ubicacion) {
+            return reemplazar(ubicacion.club(),
+                plantelDe(ubicacion.club()).con(ubicacion.categoria(), ubicacion.jugador()));
+        }
+
+        private Plantel plantelDe(String club) {
+            return club == null ? libres : planteles.getOrDefault(club, Plantel.VACIO);
+        }
+
+        private Estado reemplazar(String club, Plantel plantel) {
+            if (club == null) {
+                return new Estado(planteles, plantel);
+            }
+            Map<String, Plantel> copia = new HashMap<>(planteles);
+            if (plantel.cantidad() == 0) {
+                copia.remove(club);
+            } else {
+                copia.put(club, plantel);
+            }
+            return new Estado(Map.copyOf(copia), libres);
+        }
+    }
+
+    /**
+     * Jugadores de un club (o libres) separados por categoría. Inmutable.
+     */
+    public static final class Plantel {
+
+        static final Plantel VACIO = new Plantel(new EnumMap<>(CategoriaPosicion.class));
+
+        private final Map<CategoriaPosicion, Grupo> grupos;
+
+        private Plantel(Map<CategoriaPosicion, Grupo> grupos) {
+            this.grupos = grupos;
+        }
+
+        static Plantel de(Map<CategoriaPosicion, List<JugadorEntity>> jugadores) {
+            Map<CategoriaPosicion, Grupo> grupos = new EnumMap<>(CategoriaPosicion.class);
+            for (Map.Entry<CategoriaPosicion, List<JugadorEntity>> entry : jugadores.entrySet()) {
+                grupos.put(entry.getKey(), Grupo.de(entry.getValue()));
+            }
+            return new Plantel(grupos);
+        }
+
+        public Grupo grupo(CategoriaPosicion categoria) {
+            return grupos.getOrDefault(categoria, Grupo.VACIO);
+        }
+
+        public int cantidad() {
+            int total = 0;
+            for (Grupo grupo : grupos.values()) {
+                total += grupo.cantidad();
+            }
+            return total;
+        }
+
+        /**
+         * Todos los jugadores (copias), por categoría y dentro de cada una de mayor a menor valor.
+         */
+        public List<JugadorEntity> todos() {
+            List<JugadorEntity> todos = new ArrayList<>(cantidad());
+            for (Grupo grupo : grupos.values()) {
+                todos.addAll(grupo.jugadores());
+            }
+            return todos;
+        }
+
+        Plantel con(CategoriaPosicion categoria, JugadorEntity jugador) {
+            Map<CategoriaPosicion, Grupo> copia = new EnumMap<>(CategoriaPosicion.class);
+            copia.putAll(grupos);
+            copia.put(categoria, grupo(categoria).con(jugador));
+            return new Plantel(copia);
+        }
+
+        Plantel sin(CategoriaPosicion categoria, String nombre) {
+            Map<CategoriaPosicion, Grupo> copia = new EnumMap<>(CategoriaPosicion.class);
+            copia.putAll(grupos);
+            copia.put(categoria, grupo(categoria).sin(nombre));
+            return new Plantel(copia);
+        }
+    }
+
+    /**
+     * Jugadores de una categoría ordenados por valor de mercado de mayor a menor
+     * (a igual valor, por nombre). Un valor nulo cuenta como 0. Inmutable.
+     */
+    public static final class Grupo {
+
+        static final Grupo VACIO = new Grupo(List.of(), new double[0]);
+
+        private final List<JugadorEntity> jugadores;
+        private final double[] valores;
+
+        private Grupo(List<JugadorEntity> jugadores, double[] valores) {
+            this.jugadores = jugadores;
+            this.valores = valores;
+        }
+
+        static Grupo de(List<JugadorEntity> jugadores) {
+            JugadorEntity[] ordenados = jugadores.toArray(new JugadorEntity[0]);
+            Arrays.sort(ordenados, (a, b) -> comparar(valorDe(a), a.getNombre(), b));
+            double[] valores = new double[ordenados.length];
+            for (int i = 0; i < valores.length; i++) {
+                valores[i] = valorDe(ordenados[i]);
+            }
+            return new Grupo(Collections.unmodifiableList(Arrays.asList(ordenados)), valores);
+        }
+
+        /**
+         * Copias de los jugadores, de mayor a menor valor.
+         */
+        public List<JugadorEntity> jugadores() {
+            return copias(0, jugadores.size());
+        }
+
+        public int cantidad() {
+            return jugadores.size();
+        }
+
+        /**
+         * Valores de mercado desde la posición indicada, en el mismo orden que jugadores().
+         */
+        public double[] valores(int desde) {
+            return Arrays.copyOfRange(valores, desde, valores.length);
+        }
+
+        /**
+         * Primera posición cuyo valor es menor o igual al máximo (búsqueda binaria):
+         * los jugadores desde ahí hasta el final son los que entran en ese presupuesto.
+         */
+        public int primeroHasta(double maximo) {
+            int desde = 0;
+            int hasta = valores.length;
+            while (desde < hasta) {
+                int medio = (desde + hasta) >>> 1;
+                if (valores[medio] > maximo) {
+                    desde = medio + 1;
+                } else {
+                    hasta = medio;
+                }
+            }
+            return desde;
+        }
+
+        /**
+         * Copias de los jugadores con valor menor o igual al máximo, de mayor a menor valor.
+         */
+        public List<JugadorEntity> hasta(double maximo) {
+            return copias(primeroHasta(maximo), jugadores.size());
+        }
+
+        private List<JugadorEntity> copias(int desde, int hasta) {
+            List<JugadorEntity> copias = new ArrayList<>(hasta - desde);
+            for (int i = desde; i < hasta; i++) {
+                JugadorEntity jugador = jugadores.get(i);
+                copias.add(new JugadorEntity(jugador.getNombre(), jugador.getEdad(), jugador.getPosicion(),
+                    jugador.getValorMercado(), jugador.getNacionalidad()));
+            }
+            return copias;
+        }
+
+        Grupo con(JugadorEntity jugador) {
+            double valor = valorDe(jugador);
+            // Posición de inserción que mantiene el orden
+            int desde = 0;
+            int hasta = jugadores.size();
+            while (desde < hasta) {
+                int medio = (desde + hasta) >>> 1;
+                if (comparar(valor, jugador.getNombre(), jugadores.get(medio)) > 0) {
+                    desde = medio + 1;
+                } else {
+                    hasta = medio;
+                }
+            }
+            JugadorEntity[] nuevos = new JugadorEntity[jugadores.size() + 1];
+            double[] nuevosValores = new double[valores.length + 1];
+            for (int i = 0; i < desde; i++) {
+                nuevos[i] = jugadores.get(i);
+            }
+            for (int i = desde; i < jugadores.size(); i++) {
+                nuevos[i + 1] = jugadores.get(i);
+            }
+            nuevos[desde] = jugador;
+            System.arraycopy(valores, 0, nuevosValores, 0, desde);
+            System.arraycopy(valores, desde, nuevosValores, desde + 1, valores.length - desde);
+            nuevosValores[desde] = valor;
+            return new Grupo(Collections.unmodifiableList(Arrays.asList(nuevos)), nuevosValores);
+        }
+
+        Grupo sin(String nombre) {
+            int indice = -1;
+            for (int i = 0; i < jugadores.size(); i++) {
+                if (jugadores.get(i).getNombre().equals(nombre)) {
+                    indice = i;
+                    break;
+                }
+            }
+            if (indice < 0) {
+                return this;
+            }
+            JugadorEntity[] nuevos = new JugadorEntity[jugadores.size() - 1];
+            double[] nuevosValores = new double[valores.length - 1];
+            for (int i = 0, k = 0; i < jugadores.size(); i++) {
+                if (i != indice) {
+                    nuevos[k] = jugadores.get(i);
+                    nuevosValores[k] = valores[i];
+                    k++;
+                }
+            }
+            return new Grupo(Collections.unmodifiableList(Arrays.asList(nuevos)), nuevosValores);
+        }
+
+        private static int comparar(double valor, String nombre, JugadorEntity otro) {
+            int porValor = Double.compare(valorDe(otro), valor);
+            return porValor != 0 ? porValor : nombre.compareTo(otro.getNombre());
+        }
+
+        private static double valorDe(JugadorEntity jugador) {
+            return jugador.getValorMercado() != null ? jugador.getValorMercado() : 0.0;
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.uade.transferencia_futbol.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.uade.transferencia_futbol.dto.AgenteSummary;
+import com.uade.transferencia_futbol.dto.ClubSummary;
+import com.uade.transferencia_futbol.dto.LigaSummary;
+import com.uade.transferencia_futbol.event.AgenteEliminadoEvent;
+import com.uade.transferencia_futbol.event.AgenteModificadoEvent;
+import com.uade.transferencia_futbol.event.ClubEliminadoEvent;
+import com.uade.transferencia_futbol.event.ClubModificadoEvent;
+import com.uade.transferencia_futbol.event.LigaEliminadaEvent;
+import com.uade.transferencia_futbol.event.LigaModificadaEvent;
+import com.uade.transferencia_futbol.event.TransferenciaRealizadaEvent;
+import com.uade.transferencia_futbol.repository.AgenteRepository;
+import com.uade.transferencia_futbol.repository.ClubRepository;
+import com.uade.transferencia_futbol.repository.LigaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cache de lectura de los resúmenes de clubes, ligas y agentes por nombre.
+ *
+ * Si el nombre no está, se lee de Neo4j y se guarda; las entradas vencen a
+ * los cache.resumenes.ttl-segundos de cargadas y, pasado el tamaño máximo, se
+ * desalojan las menos usadas. Los nombres inexistentes no se guardan.
+ *
+ * Cada escritura publica un evento y la entrada se invalida cuando la
+ * transacción confirma: un club al cambiar sus datos o su liga, y los dos
+ * clubes de una compra (cambian sus presupuestos). Una carga en curso de la
+ * misma clave termina antes de que la invalidación la borre, así que no
+ * queda guardado un valor anterior al commit.
+ */
+@Component
+public class ResumenesCache {
+
+    @Autowired
+    private ClubRepository clubRepository;
+
+    @Autowired
+    private LigaRepository ligaRepository;
+
+    @Autowired
+    private AgenteRepository agenteRepository;
+
+    private final Cache<String, ClubSummary> clubes;
+    private final Cache<String, LigaSummary> ligas;
+    private final Cache<String, AgenteSummary> agentes;
+
+    public ResumenesCache(
+            @Value("${cache.resumenes.tamano-maximo:10000}") long tamanoMaximo,
+            @Value("${cache.resumenes.ttl-segundos:600}") long ttlSegundos) {
+        this.clubes = nueva(tamanoMaximo, ttlSegundos);
+        this.ligas = nueva(tamanoMaximo, ttlSegundos);
+        this.agentes = nueva(tamanoMaximo, ttlSegundos);
+    }
+
+    private static <T> Cache<String, T> nueva(long tamanoMaximo, long ttlSegundos) {
+        return Caffeine.newBuilder()
+            .maximumSize(tamanoMaximo)
+            .expireAfterWrite(Duration.ofSeconds(ttlSegundos))
+            .recordStats()
+            .build();
+    }
+
+    // ==================== LECTURAS ====================
+
+    public Optional<ClubSummary> club(String nombre) {
+        return Optional.ofNullable(clubes.get(nombre,
+            n -> clubRepository.findByNombre(n, ClubSummary.class).orElse(null)));
+    }
+
+    public Optional<LigaSummary> liga(String nombre) {
+        return Optional.ofNullable(ligas.get(nombre,
+            n -> ligaRepository.findByNombre(n, LigaSummary.class).orElse(null)));
+    }
+
+    public Optional<AgenteSummary> agente(String nombre) {
+        return Optional.ofNullable(agentes.get(nombre,
+            n -> agenteRepository.findByNombre(n, AgenteSummary.class).orElse(null)));
+    }
+
+    /**
+     * Aciertos, fallos, desalojos y tamaño de cada cache.
+     */
+    public Map<String, Object> estadisticas() {
+        Map<String, Object> estadisticas = new LinkedHashMap<>();
+        estadisticas.put("clubes", estadisticas(clubes));
+        estadisticas.put("ligas", estadisticas(ligas));
+        estadisticas.put("agentes", estadisticas(agentes));
+        return estadisticas;
+    }
+
+    private static Map<String, Object> estadisticas(Cache<String, ?> cache) {
+        CacheStats stats = cache.stats();
+        Map<String, Object> resultado = new LinkedHashMap<>();
+        resultado.put("tamano", cache.estimatedSize());
+        resultado.put("aciertos", stats.hitCount());
+        resultado.put("fallos", stats.missCount());
+        resultado.put("tasaAciertos", stats.hitRate());
+        resultado.put("desalojos", stats.evictionCount());
+        resultado.put("tiempoPromedioCargaMs", stats.averageLoadPenalty() / 1_000_000.0);
+        return resultado;
+    }
+
+    public void vaciar() {
+        clubes.invalidateAll();
+        ligas.invalidateAll();
+        agentes.invalidateAll();
+    }
+
+    // ==================== INVALIDACIÓN ====================
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClubModificado(ClubModificadoEvent evento) {
+        clubes.invalidate(evento.nombre());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onClubEliminado(ClubEliminadoEvent evento) {
+        clubes.invalidate(evento.nombre());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLigaModificada(LigaModificadaEvent evento) {
+        ligas.invalidate(evento.nombre());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onLigaEliminada(LigaEliminadaEvent evento) {
+        ligas.invalidate(evento.nombre());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAgenteModificado(AgenteModificadoEvent evento) {
+        agentes.invalidate(evento.nombre());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAgenteEliminado(AgenteEliminadoEvent evento) {
+        agentes.invalidate(evento.nombre());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTransferenciaRealizada(TransferenciaRealizadaEvent evento) {
+        // Una compra descuenta del destino y suma al origen
+        clubes.invalidate(evento.clubDestino());
+        if (evento.clubOrigen() != null) {
+            clubes.invalidate(evento.clubOrigen());
+        }
+    }
+}
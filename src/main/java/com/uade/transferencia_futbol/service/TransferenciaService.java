@@ -1,18 +1,49 @@
 package com.uade.transferencia_futbol.service;
 
+import com.uade.transferencia_futbol.algoritmo.GrafoCsr;
+import com.uade.transferencia_futbol.algoritmo.MochilaFptas;
+import com.uade.transferencia_futbol.algoritmo.MochilaSolver;
+import com.uade.transferencia_futbol.algoritmo.OfertasBranchAndBound;
+import com.uade.transferencia_futbol.algoritmo.RankingJugadores;
+import com.uade.transferencia_futbol.algoritmo.ShortestPathEngine;
+import com.uade.transferencia_futbol.dto.RutaTransferencia;
+import com.uade.transferencia_futbol.dto.RutasDesdeOrigen;
+import com.uade.transferencia_futbol.dto.Pagina;
+import com.uade.transferencia_futbol.dto.ResultadoTransferencia;
+import com.uade.transferencia_futbol.dto.SolicitudRutas;
+import com.uade.transferencia_futbol.dto.SolicitudTransferencia;
+import com.uade.transferencia_futbol.dto.TransferenciaSummary;
 import com.uade.transferencia_futbol.entity.TransferenciaEntity;
 import com.uade.transferencia_futbol.entity.JugadorEntity;
 import com.uade.transferencia_futbol.entity.ClubEntity;
+import com.uade.transferencia_futbol.event.ClubModificadoEvent;
+import com.uade.transferencia_futbol.event.TransferenciaRealizadaEvent;
 import com.uade.transferencia_futbol.repository.TransferenciaRepository;
 import com.uade.transferencia_futbol.repository.JugadorRepository;
 import com.uade.transferencia_futbol.repository.ClubRepository;
+import com.uade.transferencia_futbol.util.CursorCodec;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.neo4j.driver.exceptions.RetryableException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.neo4j.core.Neo4jClient;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Service
 @Transactional
@@ -24,73 +55,561 @@ public class TransferenciaService {
     @Autowired
     private JugadorRepository jugadorRepository;
     
+    @Autowired
+    private PosicionJugadoresIndex posicionJugadoresIndex;
+    
     @Autowired
     private ClubRepository clubRepository;
     
     @Autowired
-    private ClubService clubService;
+    private GrafoTransferenciasIndex grafoTransferenciasIndex;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private Neo4jClient neo4jClient;
+    
+    @Autowired
+    private Paginacion paginacion;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    // Bloqueos con SET/REMOVE de una propiedad auxiliar: primero el jugador (así se lee su club
+    // actual ya bloqueado) y después los clubes por nombre. La parte que escribe solo corre si
+    // existen jugador y club y, en una compra, el presupuesto bloqueado alcanza.
+    private static final String QUERY_REALIZAR_TRANSFERENCIA =
+        "OPTIONAL MATCH (j:Jugador {nombre: $jugador}) " +
+        "SET j._bloqueo = true REMOVE j._bloqueo " +
+        "WITH j " +
+        "OPTIONAL MATCH (destino:Club {nombre: $clubDestino}) " +
+        "OPTIONAL MATCH (j)-[actual:JUEGA_EN]->(origen:Club) " +
+        "CALL { " +
+        "  WITH destino, origen " +
+        "  UNWIND [c IN [destino, origen] WHERE c IS NOT NULL] AS c " +
+        "  WITH DISTINCT c ORDER BY c.nombre " +
+        "  SET c._bloqueo = true REMOVE c._bloqueo " +
+        "  RETURN count(c) AS bloqueados " +
+        "} " +
+        "WITH j, destino, origen, actual, j IS NOT NULL AND destino IS NOT NULL AS existen, " +
+        "$compra AND (destino.presupuesto IS NULL OR destino.presupuesto < $monto) AS sinPresupuesto " +
+        "CALL { " +
+        "  WITH j, destino, origen, actual, existen, sinPresupuesto " +
+        "  WITH j, destino, origen, actual WHERE existen AND NOT sinPresupuesto " +
+        "  FOREACH (d IN CASE WHEN $compra THEN [destino] ELSE [] END | " +
+        "    SET d.presupuesto = d.presupuesto - $monto) " +
+        "  FOREACH (o IN CASE WHEN $compra AND origen IS NOT NULL THEN [origen] ELSE [] END | " +
+        "    SET o.presupuesto = coalesce(o.presupuesto, 0.0) + $monto) " +
+        "  DELETE actual " +
+        "  CREATE (j)-[:JUEGA_EN]->(destino) " +
+        "  CREATE (j)-[t:TRANSFERIDO {monto: $monto, fecha: $fecha, temporada: $temporada, " +
+        "  tipoTransferencia: $tipoTransferencia, clubOrigen: origen.nombre, " +
+        "  sinClubOrigen: CASE WHEN origen IS NULL THEN true END}]->(destino) " +
+        "  RETURN collect(elementId(t))[0] AS id " +
+        "} " +
+        "RETURN j IS NOT NULL AS jugadorExiste, destino IS NOT NULL AS clubExiste, sinPresupuesto, id, " +
+        "origen.nombre AS clubOrigen, " +
+        "[(destino)-[:COMPITE_EN]->(l:Liga) | l.nombre][0] AS ligaDestino, " +
+        "[(origen)-[:COMPITE_EN]->(l:Liga) | l.nombre][0] AS ligaOrigen";
+    
+    // Lote: primero se bloquean todos los jugadores y después todos los clubes involucrados,
+    // cada grupo por nombre (el mismo orden que una transferencia suelta). Cada fila corre en
+    // su propia subconsulta, que ve los presupuestos ya modificados por las filas anteriores;
+    // una fila con error no escribe nada y no afecta a las demás.
+    private static final String QUERY_REALIZAR_LOTE =
+        "CALL { " +
+        "  UNWIND $jugadores AS nombre " +
+        "  MATCH (j:Jugador {nombre: nombre}) " +
+        "  WITH j ORDER BY j.nombre " +
+        "  SET j._bloqueo = true REMOVE j._bloqueo " +
+        "  RETURN count(j) AS jugadoresBloqueados " +
+        "} " +
+        "CALL { " +
+        "  UNWIND $jugadores AS nombre " +
+        "  MATCH (:Jugador {nombre: nombre})-[:JUEGA_EN]->(c:Club) " +
+        "  RETURN collect(c.nombre) AS origenes " +
+        "} " +
+        "CALL { " +
+        "  WITH origenes " +
+        "  UNWIND origenes + $destinos AS nombre " +
+        "  MATCH (c:Club {nombre: nombre}) " +
+        "  WITH DISTINCT c ORDER BY c.nombre " +
+        "  SET c._bloqueo = true REMOVE c._bloqueo " +
+        "  RETURN count(c) AS clubesBloqueados " +
+        "} " +
+        "UNWIND $filas AS fila " +
+        "CALL { " +
+        "  WITH fila " +
+        "  OPTIONAL MATCH (j:Jugador {nombre: fila.jugador}) " +
+        "  OPTIONAL MATCH (destino:Club {nombre: fila.clubDestino}) " +
+        "  OPTIONAL MATCH (j)-[actual:JUEGA_EN]->(origen:Club) " +
+        "  WITH fila, j, destino, origen, actual, " +
+        "  CASE WHEN j IS NULL THEN 'Jugador no encontrado: ' + fila.jugador " +
+        "       WHEN destino IS NULL THEN 'Club no encontrado: ' + fila.clubDestino " +
+        "       WHEN fila.compra AND (destino.presupuesto IS NULL OR destino.presupuesto < fila.monto) " +
+        "       THEN 'El club ' + fila.clubDestino + ' no tiene presupuesto suficiente' END AS error " +
+        "  CALL { " +
+        "    WITH fila, j, destino, origen, actual, error " +
+        "    WITH fila, j, destino, origen, actual WHERE error IS NULL " +
+        "    FOREACH (d IN CASE WHEN fila.compra THEN [destino] ELSE [] END | " +
+        "      SET d.presupuesto = d.presupuesto - fila.monto) " +
+        "    FOREACH (o IN CASE WHEN fila.compra AND origen IS NOT NULL THEN [origen] ELSE [] END | " +
+        "      SET o.presupuesto = coalesce(o.presupuesto, 0.0) + fila.monto) " +
+        "    DELETE actual " +
+        "    CREATE (j)-[:JUEGA_EN]->(destino) " +
+        "    CREATE (j)-[t:TRANSFERIDO {monto: fila.monto, fecha: $fecha, temporada: fila.temporada, " +
+        "    tipoTransferencia: fila.tipoTransferencia, clubOrigen: origen.nombre, " +
+        "    sinClubOrigen: CASE WHEN origen IS NULL THEN true END}]->(destino) " +
+        "    RETURN collect(elementId(t))[0] AS id " +
+        "  } " +
+        "  RETURN fila.indice AS indice, error, id, origen.nombre AS clubOrigen, " +
+        "  [(destino)-[:COMPITE_EN]->(l:Liga) | l.nombre][0] AS ligaDestino, " +
+        "  [(origen)-[:COMPITE_EN]->(l:Liga) | l.nombre][0] AS ligaOrigen " +
+        "} " +
+        "RETURN indice, error, id, clubOrigen, ligaDestino, ligaOrigen";
+    
+    private static final long ESPERA_MAXIMA_REINTENTO_MS = 1000;
+    
+    // Páginas de transferencias de la más nueva a la más vieja; a igual fecha, por elementId descendente.
+    // Las que no tienen fecha van al final, solo por elementId descendente
+    private static final String RETORNO_PAGINA_TRANSFERENCIAS =
+        "RETURN elementId(t) AS id, j.nombre AS jugador, t.clubOrigen AS clubOrigen, c.nombre AS clubDestino, " +
+        "t.monto AS monto, t.fecha AS fecha, t.temporada AS temporada, t.tipoTransferencia AS tipoTransferencia " +
+        "ORDER BY t.fecha DESC, elementId(t) DESC LIMIT $limite";
+    
+    private static final String QUERY_PRIMERA_PAGINA_TRANSFERENCIAS =
+        "MATCH (j:Jugador)-[t:TRANSFERIDO]->(c:Club) " +
+        "WHERE t.fecha IS NOT NULL " +
+        RETORNO_PAGINA_TRANSFERENCIAS;
+    
+    private static final String QUERY_PAGINA_TRANSFERENCIAS =
+        "MATCH (j:Jugador)-[t:TRANSFERIDO]->(c:Club) " +
+        "WHERE t.fecha <= $fecha AND (t.fecha < $fecha OR elementId(t) < $id) " +
+        RETORNO_PAGINA_TRANSFERENCIAS;
+    
+    private static final String QUERY_PRIMERA_PAGINA_TRANSFERENCIAS_SIN_FECHA =
+        "MATCH (j:Jugador)-[t:TRANSFERIDO]->(c:Club) " +
+        "WHERE t.fecha IS NULL " +
+        RETORNO_PAGINA_TRANSFERENCIAS;
+    
+    private static final String QUERY_PAGINA_TRANSFERENCIAS_SIN_FECHA =
+        "MATCH (j:Jugador)-[t:TRANSFERIDO]->(c:Club) " +
+        "WHERE t.fecha IS NULL AND elementId(t) < $id " +
+        RETORNO_PAGINA_TRANSFERENCIAS;
+    
+    private final ShortestPathEngine motorCaminos = new ShortestPathEngine();
+    
+    private ForkJoinPool poolRutas;
+    
+    private MochilaSolver mochilaSolver;
+    
+    private MochilaFptas mochilaFptas;
+    
+    private ForkJoinPool poolOfertas;
+    
+    @Value("${transferencias.rutas.paralelismo:0}")
+    private int paralelismoRutas;
+    
+    @Value("${transferencias.mochila.unidad:100000}")
+    private double unidadMochila;
+    
+    @Value("${transferencias.mochila.memoria-maxima-mb:64}")
+    private long memoriaMaximaMochilaMb;
+    
+    @Value("${transferencias.ofertas.limite-nodos:500000}")
+    private long limiteNodosOfertas;
+    
+    @Value("${transferencias.ofertas.timeout-ms:2000}")
+    private long timeoutOfertasMs;
+    
+    @Value("${transferencias.ofertas.paralelismo:0}")
+    private int paralelismoOfertas;
+    
+    @Value("${transferencias.realizar.max-intentos:5}")
+    private int maximoIntentosTransferencia;
+    
+    @Value("${transferencias.realizar.espera-inicial-ms:10}")
+    private long esperaInicialReintentoMs;
+    
+    @Value("${transferencias.lote.tamano:500}")
+    private int tamanoLoteTransferencias;
+    
+    @Value("${transferencias.lote.maximo:10000}")
+    private int maximoLoteTransferencias;
+    
+    @PostConstruct
+    public void inicializar() {
+        int procesadores = Runtime.getRuntime().availableProcessors();
+        poolRutas = new ForkJoinPool(paralelismoRutas > 0 ? paralelismoRutas : procesadores);
+        poolOfertas = new ForkJoinPool(paralelismoOfertas > 0 ? paralelismoOfertas : procesadores);
+        mochilaSolver = new MochilaSolver(memoriaMaximaMochilaMb * 1024 * 1024);
+        mochilaFptas = new MochilaFptas(memoriaMaximaMochilaMb * 1024 * 1024);
+        maximoIntentosTransferencia = Math.max(1, maximoIntentosTransferencia);
+        esperaInicialReintentoMs = Math.max(1, esperaInicialReintentoMs);
+        tamanoLoteTransferencias = Math.max(1, tamanoLoteTransferencias);
+    }
+    
+    @PreDestroy
+    public void cerrarPools() {
+        poolRutas.shutdownNow();
+        poolOfertas.shutdownNow();
+    }
     
     // ==================== MÉTODOS CRUD Y BÁSICOS ====================
     
-    public TransferenciaEntity realizarTransferencia(
+    /**
+     * Registra la transferencia con una sola escritura en Cypher: bloquea al
+     * jugador y a los dos clubes (ordenados por nombre, así dos transferencias
+     * que tocan los mismos clubes no se bloquean en cruz), valida el
+     * presupuesto con el valor ya bloqueado y, solo si alcanza, descuenta del
+     * destino, suma al origen, mueve al jugador y crea la TRANSFERIDO.
+     *
+     * Si Neo4j aborta por deadlock u otro error transitorio, la transacción se
+     * repite entera con espera exponencial, hasta transferencias.realizar.max-intentos.
+     * La existencia del jugador y del club y el saldo se validan solo ahí, con
+     * los nodos bloqueados: una cache podría tener un presupuesto viejo.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public TransferenciaSummary realizarTransferencia(
             String nombreJugador, 
             String nombreClubDestino, 
             Double monto, 
             String temporada,
             String tipoTransferencia) {
         
-        // Validar jugador
-        JugadorEntity jugador = jugadorRepository.findById(nombreJugador)
-            .orElseThrow(() -> new RuntimeException("Jugador no encontrado: " + nombreJugador));
+        Map<String, Object> parametros = new HashMap<>();
+        parametros.put("jugador", nombreJugador);
+        parametros.put("clubDestino", nombreClubDestino);
+        parametros.put("monto", monto);
+        parametros.put("fecha", LocalDate.now());
+        parametros.put("temporada", temporada);
+        parametros.put("tipoTransferencia", tipoTransferencia);
+        parametros.put("compra", "Compra".equalsIgnoreCase(tipoTransferencia));
         
-        // Validar club destino
-        ClubEntity clubDestino = clubRepository.findById(nombreClubDestino)
-            .orElseThrow(() -> new RuntimeException("Club no encontrado: " + nombreClubDestino));
+        return conReintentos(() -> transactionTemplate.execute(estado -> escribirTransferencia(parametros)));
+    }
+    
+    private TransferenciaSummary escribirTransferencia(Map<String, Object> parametros) {
+        Map<String, Object> fila = neo4jClient.query(QUERY_REALIZAR_TRANSFERENCIA)
+            .bindAll(parametros)
+            .fetch()
+            .one()
+            .orElseThrow();
         
-        // Validar que el club tenga presupuesto suficiente (si es compra)
-        if ("Compra".equalsIgnoreCase(tipoTransferencia)) {
-            if (clubDestino.getPresupuesto() < monto) {
-                throw new RuntimeException("El club " + nombreClubDestino + " no tiene presupuesto suficiente");
-            }
-            
-            // Descontar del presupuesto del club destino
-            clubService.reducirPresupuesto(nombreClubDestino, monto);
-            
-            // Si el jugador tiene club actual, sumar al presupuesto del club origen
-            if (jugador.getClubActual() != null) {
-                clubService.aumentarPresupuesto(jugador.getClubActual().getNombre(), monto);
+        String nombreJugador = (String) parametros.get("jugador");
+        String nombreClubDestino = (String) parametros.get("clubDestino");
+        if (!(Boolean) fila.get("jugadorExiste")) {
+            throw new RuntimeException("Jugador no encontrado: " + nombreJugador);
+        }
+        if (!(Boolean) fila.get("clubExiste")) {
+            throw new RuntimeException("Club no encontrado: " + nombreClubDestino);
+        }
+        if ((Boolean) fila.get("sinPresupuesto")) {
+            throw new RuntimeException("El club " + nombreClubDestino + " no tiene presupuesto suficiente");
+        }
+        
+        Double monto = (Double) parametros.get("monto");
+        String temporada = (String) parametros.get("temporada");
+        String tipoTransferencia = (String) parametros.get("tipoTransferencia");
+        String clubOrigen = (String) fila.get("clubOrigen");
+        
+        // Los índices y la cache se actualizan recién cuando la transacción confirma
+        if ((Boolean) parametros.get("compra")) {
+            eventPublisher.publishEvent(new ClubModificadoEvent(nombreClubDestino, (String) fila.get("ligaDestino")));
+            if (clubOrigen != null) {
+                eventPublisher.publishEvent(new ClubModificadoEvent(clubOrigen, (String) fila.get("ligaOrigen")));
             }
         }
+        eventPublisher.publishEvent(new TransferenciaRealizadaEvent(
+            nombreJugador, clubOrigen, nombreClubDestino, monto, temporada, tipoTransferencia));
         
-        // Crear la transferencia
-        TransferenciaEntity transferencia = new TransferenciaEntity(
+        return new TransferenciaSummary(
+            (String) fila.get("id"),
+            nombreJugador,
+            clubOrigen,
+            nombreClubDestino,
             monto,
-            LocalDate.now(),
+            (LocalDate) parametros.get("fecha"),
             temporada,
-            tipoTransferencia,
-            clubDestino
-        );
+            tipoTransferencia);
+    }
+    
+    /**
+     * Ejecuta la operación y la repite si falló por un error transitorio de
+     * Neo4j (deadlock, timeout de lock, líder no disponible), esperando el
+     * doble cada vez más un desvío aleatorio para que los reintentos no choquen.
+     */
+    private <T> T conReintentos(Supplier<T> operacion) {
+        long espera = esperaInicialReintentoMs;
+        for (int intento = 1; ; intento++) {
+            try {
+                return operacion.get();
+            } catch (RuntimeException e) {
+                if (intento >= maximoIntentosTransferencia || !esTransitorio(e)) {
+                    throw e;
+                }
+            }
+            try {
+                Thread.sleep(espera + ThreadLocalRandom.current().nextLong(espera + 1));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Transferencia interrumpida", e);
+            }
+            espera = Math.min(espera * 2, ESPERA_MAXIMA_REINTENTO_MS);
+        }
+    }
+    
+    // Spring traduce los errores del driver, pero al confirmar pueden llegar sin traducir
+    private static boolean esTransitorio(Throwable error) {
+        for (Throwable causa = error; causa != null; causa = causa.getCause()) {
+            if (causa instanceof TransientDataAccessException || causa instanceof RetryableException) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Realiza un lote de transferencias. Primero se validan en memoria (datos
+     * completos, monto no negativo, cada jugador una sola vez); las válidas se
+     * escriben de a transferencias.lote.tamano con un UNWIND por tanda, cada
+     * tanda en su propia transacción y con los mismos reintentos que una
+     * transferencia suelta. Devuelve el resultado de cada transferencia en el
+     * orden pedido: las que fallan no deshacen a las demás.
+     *
+     * @throws IllegalArgumentException si el lote está vacío o supera el máximo
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Map<String, Object> realizarTransferenciasEnLote(List<SolicitudTransferencia> solicitudes) {
+        if (solicitudes == null || solicitudes.isEmpty()) {
+            throw new IllegalArgumentException("Debe indicar al menos una transferencia");
+        }
+        if (solicitudes.size() > maximoLoteTransferencias) {
+            throw new IllegalArgumentException("Se pueden enviar como máximo " + maximoLoteTransferencias + " transferencias por lote");
+        }
+        long inicio = System.nanoTime();
         
-        // Asignar nuevo club al jugador
-        jugador.setClubActual(clubDestino);
-        jugadorRepository.save(jugador);
+        ResultadoTransferencia[] resultados = new ResultadoTransferencia[solicitudes.size()];
+        List<Map<String, Object>> validas = new ArrayList<>(solicitudes.size());
+        Set<String> jugadores = new HashSet<>();
+        for (int i = 0; i < solicitudes.size(); i++) {
+            SolicitudTransferencia solicitud = solicitudes.get(i);
+            String error = validarSolicitud(solicitud, jugadores);
+            if (error != null) {
+                resultados[i] = ResultadoTransferencia.rechazada(i,
+                    solicitud != null ? solicitud.nombreJugador() : null,
+                    solicitud != null ? solicitud.nombreClubDestino() : null, error);
+                continue;
+            }
+            Map<String, Object> fila = new HashMap<>();
+            fila.put("indice", i);
+            fila.put("jugador", solicitud.nombreJugador());
+            fila.put("clubDestino", solicitud.nombreClubDestino());
+            fila.put("monto", solicitud.monto());
+            fila.put("temporada", solicitud.temporada());
+            fila.put("tipoTransferencia", solicitud.tipoTransferencia());
+            fila.put("compra", "Compra".equalsIgnoreCase(solicitud.tipoTransferencia()));
+            validas.add(fila);
+        }
+        long validacionMs = (System.nanoTime() - inicio) / 1_000_000;
         
-        return transferenciaRepository.save(transferencia);
+        LocalDate fecha = LocalDate.now();
+        int lotes = 0;
+        for (int desde = 0; desde < validas.size(); desde += tamanoLoteTransferencias) {
+            List<Map<String, Object>> lote = validas.subList(desde, Math.min(desde + tamanoLoteTransferencias, validas.size()));
+            try {
+                for (ResultadoTransferencia resultado : conReintentos(
+                        () -> transactionTemplate.execute(estado -> escribirLoteTransferencias(lote, fecha)))) {
+                    resultados[resultado.indice()] = resultado;
+                }
+            } catch (RuntimeException e) {
+                // Un error que no se resuelve reintentando rechaza solo las transferencias de esta tanda
+                for (Map<String, Object> fila : lote) {
+                    resultados[(Integer) fila.get("indice")] = ResultadoTransferencia.rechazada(
+                        (Integer) fila.get("indice"), (String) fila.get("jugador"),
+                        (String) fila.get("clubDestino"), e.getMessage());
+                }
+            }
+            lotes++;
+        }
+        // Una fila que la consulta no devolvió se informa como rechazada, no queda vacía
+        for (Map<String, Object> fila : validas) {
+            int indice = (Integer) fila.get("indice");
+            if (resultados[indice] == null) {
+                resultados[indice] = ResultadoTransferencia.rechazada(indice, (String) fila.get("jugador"),
+                    (String) fila.get("clubDestino"), "La transferencia no devolvió resultado");
+            }
+        }
+        
+        int realizadas = 0;
+        for (ResultadoTransferencia resultado : resultados) {
+            if (resultado.realizada()) {
+                realizadas++;
+            }
+        }
+        long tiempoNs = System.nanoTime() - inicio;
+        Map<String, Object> resumen = new LinkedHashMap<>();
+        resumen.put("total", solicitudes.size());
+        resumen.put("realizadas", realizadas);
+        resumen.put("rechazadas", solicitudes.size() - realizadas);
+        resumen.put("lotes", lotes);
+        resumen.put("validacionMs", validacionMs);
+        resumen.put("tiempoMs", tiempoNs / 1_000_000);
+        resumen.put("transferenciasPorSegundo", tiempoNs > 0 ? realizadas * 1e9 / tiempoNs : 0.0);
+        resumen.put("resultados", Arrays.asList(resultados));
+        return resumen;
+    }
+    
+    private static String validarSolicitud(SolicitudTransferencia solicitud, Set<String> jugadores) {
+        if (solicitud == null) {
+            return "Transferencia vacía";
+        }
+        if (solicitud.nombreJugador() == null || solicitud.nombreJugador().isBlank()) {
+            return "Falta el jugador";
+        }
+        if (solicitud.nombreClubDestino() == null || solicitud.nombreClubDestino().isBlank()) {
+            return "Falta el club destino";
+        }
+        if (solicitud.monto() == null || solicitud.monto() < 0) {
+            return "El monto debe ser mayor o igual a 0";
+        }
+        if (solicitud.temporada() == null || solicitud.temporada().isBlank()) {
+            return "Falta la temporada";
+        }
+        if (solicitud.tipoTransferencia() == null || solicitud.tipoTransferencia().isBlank()) {
+            return "Falta el tipo de transferencia";
+        }
+        // Dos movimientos del mismo jugador en un lote dependerían del orden de escritura
+        if (!jugadores.add(solicitud.nombreJugador())) {
+            return "Jugador repetido en el lote: " + solicitud.nombreJugador();
+        }
+        return null;
+    }
+    
+    private List<ResultadoTransferencia> escribirLoteTransferencias(List<Map<String, Object>> lote, LocalDate fecha) {
+        List<String> jugadores = new ArrayList<>(lote.size());
+        Set<String> destinos = new HashSet<>();
+        Map<Integer, Map<String, Object>> porIndice = new HashMap<>();
+        for (Map<String, Object> fila : lote) {
+            jugadores.add((String) fila.get("jugador"));
+            destinos.add((String) fila.get("clubDestino"));
+            porIndice.put((Integer) fila.get("indice"), fila);
+        }
+        
+        Collection<Map<String, Object>> filas = neo4jClient.query(QUERY_REALIZAR_LOTE)
+            .bind(lote).to("filas")
+            .bind(jugadores).to("jugadores")
+            .bind(new ArrayList<>(destinos)).to("destinos")
+            .bind(fecha).to("fecha")
+            .fetch()
+            .all();
+        
+        List<ResultadoTransferencia> resultados = new ArrayList<>(filas.size());
+        Map<String, String> clubesModificados = new LinkedHashMap<>();
+        for (Map<String, Object> fila : filas) {
+            int indice = ((Number) fila.get("indice")).intValue();
+            Map<String, Object> pedida = porIndice.get(indice);
+            String jugador = (String) pedida.get("jugador");
+            String clubDestino = (String) pedida.get("clubDestino");
+            String error = (String) fila.get("error");
+            if (error != null) {
+                resultados.add(ResultadoTransferencia.rechazada(indice, jugador, clubDestino, error));
+                continue;
+            }
+            
+            String clubOrigen = (String) fila.get("clubOrigen");
+            if ((Boolean) pedida.get("compra")) {
+                clubesModificados.put(clubDestino, (String) fila.get("ligaDestino"));
+                if (clubOrigen != null) {
+                    clubesModificados.put(clubOrigen, (String) fila.get("ligaOrigen"));
+                }
+            }
+            eventPublisher.publishEvent(new TransferenciaRealizadaEvent(
+                jugador, clubOrigen, clubDestino, (Double) pedida.get("monto"),
+                (String) pedida.get("temporada"), (String) pedida.get("tipoTransferencia")));
+            resultados.add(ResultadoTransferencia.realizada(
+                indice, jugador, clubDestino, (String) fila.get("id"), clubOrigen));
+        }
+        for (Map.Entry<String, String> club : clubesModificados.entrySet()) {
+            eventPublisher.publishEvent(new ClubModificadoEvent(club.getKey(), club.getValue()));
+        }
+        return resultados;
     }
     
     public TransferenciaEntity crearTransferencia(TransferenciaEntity transferencia) {
         return transferenciaRepository.save(transferencia);
     }
     
-    public List<TransferenciaEntity> obtenerTodasTransferencias() {
-        return transferenciaRepository.findAll();
+    /**
+     * Una página de transferencias, de la más reciente a la más antigua. El
+     * cursor guarda (fecha, elementId) de la última fila y el orden lo resuelve el
+     * índice de rango sobre TRANSFERIDO.fecha, sin SKIP. Las transferencias
+     * sin fecha vienen después de todas las fechadas, por elementId; en el
+     * cursor su fecha queda vacía.
+     */
+    public Pagina<TransferenciaSummary> obtenerPaginaTransferencias(Integer limite, String cursor) {
+        int tamano = paginacion.tamano(limite);
+        String[] claves = cursor == null || cursor.isBlank() ? null : CursorCodec.decodificar(cursor, 2);
+        boolean entreSinFecha = claves != null && claves[0].isEmpty();
+        
+        List<TransferenciaSummary> transferencias = new ArrayList<>(tamano);
+        if (!entreSinFecha) {
+            Collection<Map<String, Object>> filas;
+            if (claves == null) {
+                filas = neo4jClient.query(QUERY_PRIMERA_PAGINA_TRANSFERENCIAS)
+                    .bind(tamano).to("limite")
+                    .fetch().all();
+            } else {
+                filas = neo4jClient.query(QUERY_PAGINA_TRANSFERENCIAS)
+                    .bind(CursorCodec.decodificarFecha(claves[0])).to("fecha")
+                    .bind(claves[1]).to("id")
+                    .bind(tamano).to("limite")
+                    .fetch().all();
+            }
+            agregarResumenes(transferencias, filas);
+        }
+        // Se terminaron las fechadas: completar la página con las que no tienen fecha
+        if (transferencias.size() < tamano) {
+            int restantes = tamano - transferencias.size();
+            Collection<Map<String, Object>> filas = entreSinFecha
+                ? neo4jClient.query(QUERY_PAGINA_TRANSFERENCIAS_SIN_FECHA)
+                    .bind(claves[1]).to("id")
+                    .bind(restantes).to("limite")
+                    .fetch().all()
+                : neo4jClient.query(QUERY_PRIMERA_PAGINA_TRANSFERENCIAS_SIN_FECHA)
+                    .bind(restantes).to("limite")
+                    .fetch().all();
+            agregarResumenes(transferencias, filas);
+        }
+        
+        String siguiente = null;
+        if (transferencias.size() == tamano) {
+            TransferenciaSummary ultima = transferencias.get(transferencias.size() - 1);
+            siguiente = CursorCodec.codificar(ultima.fecha() != null ? ultima.fecha().toString() : "", ultima.id());
+        }
+        return Pagina.de(transferencias, siguiente);
     }
     
-    public Optional<TransferenciaEntity> obtenerTransferenciaPorId(Long id) {
+    private void agregarResumenes(List<TransferenciaSummary> transferencias, Collection<Map<String, Object>> filas) {
+        for (Map<String, Object> fila : filas) {
+            transferencias.add(new TransferenciaSummary(
+                (String) fila.get("id"),
+                (String) fila.get("jugador"),
+                (String) fila.get("clubOrigen"),
+                (String) fila.get("clubDestino"),
+                fila.get("monto") != null ? ((Number) fila.get("monto")).doubleValue() : null,
+                (LocalDate) fila.get("fecha"),
+                (String) fila.get("temporada"),
+                (String) fila.get("tipoTransferencia")));
+        }
+    }
+    
+    public Optional<TransferenciaEntity> obtenerTransferenciaPorId(String id) {
         return transferenciaRepository.findById(id);
     }
     
-    public void eliminarTransferencia(Long id) {
+    public void eliminarTransferencia(String id) {
         if (!transferenciaRepository.existsById(id)) {
             throw new RuntimeException("Transferencia no encontrada: " + id);
         }
@@ -147,108 +666,116 @@ public class TransferenciaService {
             .orElseThrow(() -> new RuntimeException("Club no encontrado: " + nombreClub));
         return club.getPresupuesto() >= monto;
     }
-    
-    public String obtenerEstadisticasTemporada(String temporada) {
-        List<TransferenciaEntity> transferencias = buscarPorTemporada(temporada);
-        
-        long totalTransferencias = transferencias.size();
-        double montoTotal = transferencias.stream()
-            .mapToDouble(t -> t.getMonto() != null ? t.getMonto() : 0.0)
-            .sum();
-        double montoPromedio = totalTransferencias > 0 ? montoTotal / totalTransferencias : 0.0;
-        
-        long compras = transferencias.stream()
-            .filter(t -> "Compra".equalsIgnoreCase(t.getTipoTransferencia()))
-            .count();
-        long prestamos = transferencias.stream()
-            .filter(t -> "Préstamo".equalsIgnoreCase(t.getTipoTransferencia()))
-            .count();
-        long libres = transferencias.stream()
-            .filter(t -> "Libre".equalsIgnoreCase(t.getTipoTransferencia()))
-            .count();
-        
-        return String.format(
-            "Estadísticas Temporada %s:\n" +
-            "Total de transferencias: %d\n" +
-            "Monto total: %.2f M€\n" +
-            "Monto promedio: %.2f M€\n" +
-            "Compras: %d\n" +
-            "Préstamos: %d\n" +
-            "Transferencias libres: %d",
-            temporada, totalTransferencias, montoTotal, montoPromedio, compras, prestamos, libres
-        );
-    }
 
     // =================================================================
     // ALGORITMOS COMPLEJOS - DIJKSTRA
     // =================================================================
 
     public List<String> obtenerRutaTransferenciaMasBarata(String clubOrigen, String clubDestino) {
-        Map<String, Map<String, Double>> grafo = construirGrafoTransferencias();
+        GrafoCsr grafo = grafoTransferenciasIndex.obtenerGrafo();
         
-        if (!grafo.containsKey(clubOrigen) || !grafo.containsKey(clubDestino)) {
+        if (grafo.id(clubOrigen) < 0 || grafo.id(clubDestino) < 0) {
             throw new RuntimeException("Uno o ambos clubes no existen en el grafo");
         }
         
         return dijkstra(grafo, clubOrigen, clubDestino);
     }
     
-    private Map<String, Map<String, Double>> construirGrafoTransferencias() {
-        Map<String, Map<String, Double>> grafo = new HashMap<>();
+    private List<String> dijkstra(GrafoCsr grafo, String origen, String destino) {
+        ShortestPathEngine.Camino camino = motorCaminos.caminoMasBarato(grafo, grafo.id(origen), grafo.id(destino));
         
-        // Grafo de ejemplo basado en transferencias reales
-        grafo.put("Barcelona", Map.of("PSG", 222.0, "Bayern", 80.0));
-        grafo.put("PSG", Map.of("Real Madrid", 180.0));
-        grafo.put("Bayern", Map.of("Real Madrid", 100.0));
-        grafo.put("Real Madrid", Map.of());
-        grafo.put("Manchester United", Map.of("Juventus", 85.0, "Chelsea", 75.0));
-        grafo.put("Juventus", Map.of("Barcelona", 120.0));
-        grafo.put("Chelsea", Map.of("PSG", 65.0));
+        if (camino == null) {
+            throw new RuntimeException("No existe una ruta de transferencias de " + origen + " a " + destino);
+        }
         
-        return grafo;
+        List<String> ruta = new ArrayList<>(camino.nodos().length);
+        for (int nodo : camino.nodos()) {
+            ruta.add(grafo.nombre(nodo));
+        }
+        return ruta;
+    }
+
+    public void validarSolicitudRutas(SolicitudRutas solicitud) {
+        if (solicitud == null || solicitud.origenes() == null || solicitud.origenes().isEmpty()) {
+            throw new RuntimeException("Debe indicar al menos un club origen");
+        }
+        if (solicitud.destinos() == null || solicitud.destinos().isEmpty()) {
+            throw new RuntimeException("Debe indicar al menos un club destino");
+        }
     }
     
-    private List<String> dijkstra(Map<String, Map<String, Double>> grafo, String origen, String destino) {
-        Map<String, Double> distancias = new HashMap<>();
-        Map<String, String> predecesores = new HashMap<>();
-        PriorityQueue<String> cola = new PriorityQueue<>(Comparator.comparing(distancias::get));
+    /**
+     * Rutas más baratas en lote: una sola búsqueda por cada origen distinto,
+     * repartidas en el pool de rutas. Cada origen se entrega a alCompletar
+     * apenas termina, en el orden en que van terminando.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void calcularRutasEnLote(SolicitudRutas solicitud, Consumer<RutasDesdeOrigen> alCompletar) {
+        validarSolicitudRutas(solicitud);
+        GrafoCsr grafo = grafoTransferenciasIndex.obtenerGrafo();
         
-        for (String nodo : grafo.keySet()) {
-            distancias.put(nodo, Double.MAX_VALUE);
+        List<String> origenes = new ArrayList<>(new LinkedHashSet<>(solicitud.origenes()));
+        List<String> destinos = new ArrayList<>(new LinkedHashSet<>(solicitud.destinos()));
+        
+        ExecutorCompletionService<RutasDesdeOrigen> completados = new ExecutorCompletionService<>(poolRutas);
+        List<Future<RutasDesdeOrigen>> tareas = new ArrayList<>();
+        for (String origen : origenes) {
+            tareas.add(completados.submit(() -> calcularRutasDesde(grafo, origen, destinos)));
         }
-        distancias.put(origen, 0.0);
-        cola.offer(origen);
         
-        while (!cola.isEmpty()) {
-            String actual = cola.poll();
-            
-            if (actual.equals(destino)) {
-                break;
+        try {
+            for (int i = 0; i < tareas.size(); i++) {
+                alCompletar.accept(completados.take().get());
             }
-            
-            for (Map.Entry<String, Double> vecino : grafo.getOrDefault(actual, new HashMap<>()).entrySet()) {
-                String nodoVecino = vecino.getKey();
-                double peso = vecino.getValue();
-                double nuevaDistancia = distancias.get(actual) + peso;
-                
-                if (nuevaDistancia < distancias.get(nodoVecino)) {
-                    distancias.put(nodoVecino, nuevaDistancia);
-                    predecesores.put(nodoVecino, actual);
-                    cola.offer(nodoVecino);
-                }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Cálculo de rutas interrumpido");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Error calculando rutas: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            // Si el cliente se desconecta no tiene sentido seguir calculando
+            for (Future<RutasDesdeOrigen> tarea : tareas) {
+                tarea.cancel(true);
             }
         }
+    }
+    
+    private RutasDesdeOrigen calcularRutasDesde(GrafoCsr grafo, String origen, List<String> destinos) {
+        int idOrigen = grafo.id(origen);
+        if (idOrigen < 0) {
+            return new RutasDesdeOrigen(origen, null, "El club no existe en el grafo: " + origen);
+        }
         
-        // Reconstruir camino
-        List<String> camino = new ArrayList<>();
-        String actual = destino;
-        while (actual != null) {
-            camino.add(actual);
-            actual = predecesores.get(actual);
+        int[] idsDestinos = new int[destinos.size()];
+        int conocidos = 0;
+        for (String destino : destinos) {
+            int id = grafo.id(destino);
+            if (id >= 0) {
+                idsDestinos[conocidos++] = id;
+            }
         }
-        Collections.reverse(camino);
+        ShortestPathEngine.Camino[] caminos = motorCaminos.caminosDesde(
+            grafo, idOrigen, Arrays.copyOf(idsDestinos, conocidos));
         
-        return camino;
+        List<RutaTransferencia> rutas = new ArrayList<>(destinos.size());
+        int siguiente = 0;
+        for (String destino : destinos) {
+            if (grafo.id(destino) < 0) {
+                rutas.add(RutaTransferencia.fallida(destino, "El club no existe en el grafo: " + destino));
+                continue;
+            }
+            ShortestPathEngine.Camino camino = caminos[siguiente++];
+            if (camino == null) {
+                rutas.add(RutaTransferencia.fallida(destino, "No existe una ruta de transferencias de " + origen + " a " + destino));
+            } else {
+                List<String> ruta = new ArrayList<>(camino.nodos().length);
+                for (int nodo : camino.nodos()) {
+                    ruta.add(grafo.nombre(nodo));
+                }
+                rutas.add(RutaTransferencia.encontrada(destino, ruta, camino.costo()));
+            }
+        }
+        return new RutasDesdeOrigen(origen, rutas, null);
     }
 
     // =================================================================
@@ -256,24 +783,69 @@ public class TransferenciaService {
     // =================================================================
 
     public Map<String, Object> optimizarPresupuestoTransferencias(String nombreClub, Double presupuestoMaximo) {
+        return optimizarPresupuestoTransferencias(nombreClub, presupuestoMaximo, null, null);
+    }
+
+    /**
+     * @param unidad  escalón de cuantización de los costos; null usa la unidad configurada
+     *                (transferencias.mochila.unidad). Si la tabla no entra en el techo de
+     *                memoria el solver duplica la unidad hasta que entre
+     * @param epsilon si no es null se usa el FPTAS indexado por beneficio, con garantía (1 - epsilon);
+     *                el FPTAS no cuantiza costos, así que no se puede combinar con unidad
+     */
+    public Map<String, Object> optimizarPresupuestoTransferencias(String nombreClub, Double presupuestoMaximo,
+                                                                  Double unidad, Double epsilon) {
+        if (unidad != null && unidad <= 0) {
+            throw new RuntimeException("La unidad debe ser mayor a cero");
+        }
+        if (epsilon != null && (epsilon <= 0 || epsilon >= 1)) {
+            throw new RuntimeException("Epsilon debe estar entre 0 y 1");
+        }
+        if (unidad != null && epsilon != null) {
+            throw new RuntimeException("unidad y epsilon no se pueden combinar: unidad es para la "
+                + "programación dinámica por costo y epsilon para el FPTAS");
+        }
         ClubEntity club = clubRepository.findById(nombreClub)
             .orElseThrow(() -> new RuntimeException("Club no encontrado: " + nombreClub));
         
-        // Obtener jugadores libres disponibles
-        List<JugadorEntity> jugadoresLibres = jugadorRepository.findJugadoresLibres();
-        
-        // Filtrar jugadores que están dentro del presupuesto y tienen valor de mercado
-        List<JugadorEntity> jugadoresDisponibles = jugadoresLibres.stream()
-            .filter(j -> j.getValorMercado() != null && j.getValorMercado() > 0 && j.getValorMercado() <= presupuestoMaximo)
-            .sorted((j1, j2) -> Double.compare(j2.getValorMercado(), j1.getValorMercado()))
-            .collect(Collectors.toList());
+        // Jugadores libres con valor de mercado dentro del presupuesto
+        List<JugadorEntity> jugadoresDisponibles = libresDentroDelPresupuesto(presupuestoMaximo);
         
         if (jugadoresDisponibles.isEmpty()) {
             throw new RuntimeException("No hay jugadores disponibles dentro del presupuesto de " + presupuestoMaximo);
         }
         
         // Aplicar programación dinámica
-        List<JugadorEntity> jugadoresSeleccionados = programacionDinamicaMochila(jugadoresDisponibles, presupuestoMaximo);
+        int[] seleccion;
+        Map<String, Object> aproximacion = new LinkedHashMap<>();
+        if (epsilon != null) {
+            MochilaFptas.Resultado solucion = mochilaFptas.resolver(
+                costosDe(jugadoresDisponibles), beneficiosDe(jugadoresDisponibles), presupuestoMaximo, epsilon);
+            seleccion = solucion.seleccionados();
+            aproximacion.put("epsilon", solucion.epsilon());
+            aproximacion.put("epsilonEfectivo", solucion.epsilonEfectivo());
+            aproximacion.put("escalaBeneficio", solucion.escala());
+            aproximacion.put("jugadoresConsiderados", solucion.itemsConsiderados());
+            aproximacion.put("jugadoresDominados", solucion.itemsDominados());
+            aproximacion.put("beneficioObtenido", solucion.beneficioTotal());
+            aproximacion.put("cotaSuperiorBeneficio", solucion.cotaSuperior());
+            aproximacion.put("errorRelativoMaximo", Math.min(solucion.epsilonEfectivo(), solucion.brechaMaxima()));
+        } else {
+            double unidadEfectiva = unidad != null ? unidad : unidadMochila;
+            MochilaSolver.Resultado solucion = programacionDinamicaMochila(jugadoresDisponibles, presupuestoMaximo, unidadEfectiva);
+            seleccion = solucion.seleccionados();
+            aproximacion.put("unidad", solucion.unidad());
+            aproximacion.put("capacidadEscalada", solucion.capacidadEscalada());
+            aproximacion.put("reconstruccion", solucion.modoReconstruccion());
+            aproximacion.put("memoriaBytes", solucion.memoriaBytes());
+            aproximacion.put("beneficioObtenido", solucion.beneficioTotal());
+            aproximacion.put("cotaSuperiorBeneficio", solucion.cotaSuperior());
+            aproximacion.put("errorRelativoMaximo", solucion.brechaMaxima());
+        }
+        List<JugadorEntity> jugadoresSeleccionados = new ArrayList<>();
+        for (int indice : seleccion) {
+            jugadoresSeleccionados.add(jugadoresDisponibles.get(indice));
+        }
         
         // Calcular métricas
         double valorTotal = calcularValorTotal(jugadoresSeleccionados);
@@ -284,7 +856,9 @@ public class TransferenciaService {
         Map<String, Object> resultado = new HashMap<>();
         resultado.put("club", nombreClub);
         resultado.put("presupuestoMaximo", presupuestoMaximo);
-        resultado.put("algoritmo", "Programación Dinámica (Problema de la Mochila)");
+        resultado.put("algoritmo", epsilon != null
+            ? "FPTAS indexado por beneficio (Problema de la Mochila)"
+            : "Programación Dinámica (Problema de la Mochila)");
         resultado.put("jugadoresSeleccionados", jugadoresSeleccionados);
         resultado.put("totalJugadores", jugadoresSeleccionados.size());
         resultado.put("valorTotal", valorTotal);
@@ -294,6 +868,8 @@ public class TransferenciaService {
         resultado.put("jugadoresDisponibles", jugadoresDisponibles.size());
         resultado.put("desglosePosiciones", obtenerDesglosePorPosicion(jugadoresSeleccionados));
         
+        resultado.put("aproximacion", aproximacion);
+        
         return resultado;
     }
 
@@ -301,43 +877,27 @@ public class TransferenciaService {
  * Implementación del algoritmo de Programación Dinámica (Problema de la Mochila 0/1)
  * Maximiza el valor total sin exceder la capacidad (presupuesto)
  */
-private List<JugadorEntity> programacionDinamicaMochila(List<JugadorEntity> jugadores, Double presupuestoMaximo) {
-    int n = jugadores.size();
-    int capacidad = presupuestoMaximo.intValue(); // CORREGIDO: usa intValue()
-    
-    // Crear tabla de programación dinámica
-    double[][] dp = new double[n + 1][capacidad + 1];
-    
-    // Llenar la tabla dp
-    for (int i = 1; i <= n; i++) {
-        JugadorEntity jugador = jugadores.get(i - 1);
-        double valorJugador = jugador.getValorMercado();
-        int peso = (int) Math.round(valorJugador); // CORREGIDO: usa Math.round para mejor precisión
-        double beneficio = calcularBeneficioJugador(jugador);
-        
-        for (int w = 1; w <= capacidad; w++) {
-            if (peso <= w) {
-                dp[i][w] = Math.max(beneficio + dp[i - 1][w - peso], dp[i - 1][w]);
-            } else {
-                dp[i][w] = dp[i - 1][w];
-            }
-        }
+private MochilaSolver.Resultado programacionDinamicaMochila(List<JugadorEntity> jugadores, Double presupuestoMaximo,
+                                                           double unidad) {
+    // Los costos se escalan a la unidad y la tabla es de una sola fila, con un
+    // techo de memoria: la selección nunca supera el presupuesto real
+    return mochilaSolver.resolver(costosDe(jugadores), beneficiosDe(jugadores), presupuestoMaximo, unidad);
+}
+
+private double[] costosDe(List<JugadorEntity> jugadores) {
+    double[] costos = new double[jugadores.size()];
+    for (int i = 0; i < costos.length; i++) {
+        costos[i] = jugadores.get(i).getValorMercado();
     }
-    
-    // Reconstruir la solución
-    List<JugadorEntity> seleccionados = new ArrayList<>();
-    int w = capacidad;
-    
-    for (int i = n; i > 0 && w > 0; i--) {
-        if (dp[i][w] != dp[i - 1][w]) {
-            JugadorEntity jugador = jugadores.get(i - 1);
-            seleccionados.add(jugador);
-            int peso = (int) Math.round(jugador.getValorMercado()); // CORREGIDO: usa Math.round
-            w -= peso;
-        }
+    return costos;
+}
+
+private double[] beneficiosDe(List<JugadorEntity> jugadores) {
+    double[] beneficios = new double[jugadores.size()];
+    for (int i = 0; i < beneficios.length; i++) {
+        beneficios[i] = calcularBeneficioJugador(jugadores.get(i));
     }
-    
-    return seleccionados;
+    return beneficios;
 }
 
     /**
@@ -348,9 +908,8 @@ public Map<String, Object> optimizarPresupuestoBalanceado(String nombreClub, Dou
     ClubEntity club = clubRepository.findById(nombreClub)
         .orElseThrow(() -> new RuntimeException("Club no encontrado: " + nombreClub));
     
-    // Obtener jugadores libres agrupados por posición
-    List<JugadorEntity> jugadoresLibres = jugadorRepository.findJugadoresLibres();
-    Map<String, List<JugadorEntity>> jugadoresPorPosicion = agruparJugadoresPorPosicion(jugadoresLibres);
+    // Jugadores libres ya agrupados por posición en el índice
+    PosicionJugadoresIndex.Plantel libres = posicionJugadoresIndex.libres();
     
     // Aplicar programación dinámica por posición
     List<JugadorEntity> equipoOptimo = new ArrayList<>();
@@ -360,13 +919,14 @@ public Map<String, Object> optimizarPresupuestoBalanceado(String nombreClub, Dou
         String posicion = entry.getKey();
         int cantidad = entry.getValue();
         
-        // CORREGIDO: Filtrar manualmente sin lambda
+        // El grupo está ordenado por valor: los que entran en el presupuesto son un sufijo
         List<JugadorEntity> jugadoresFiltrados = new ArrayList<>();
-        List<JugadorEntity> jugadoresPosicion = jugadoresPorPosicion.getOrDefault(posicion, new ArrayList<>());
-        
-        for (JugadorEntity jugador : jugadoresPosicion) {
-            if (jugador.getValorMercado() != null && jugador.getValorMercado() <= presupuestoRestante) {
-                jugadoresFiltrados.add(jugador);
+        CategoriaPosicion categoria = CategoriaPosicion.deNombre(posicion);
+        if (categoria != null) {
+            for (JugadorEntity jugador : libres.grupo(categoria).hasta(presupuestoRestante)) {
+                if (jugador.getValorMercado() != null) {
+                    jugadoresFiltrados.add(jugador);
+                }
             }
         }
         
@@ -407,17 +967,14 @@ private List<JugadorEntity> programacionDinamicaPorPosicion(List<JugadorEntity>
     }
     
     // Ordenar por eficiencia (valor/costo)
-    jugadores.sort((j1, j2) -> {
-        double eficiencia1 = calcularBeneficioJugador(j1) / j1.getValorMercado();
-        double eficiencia2 = calcularBeneficioJugador(j2) / j2.getValorMercado();
-        return Double.compare(eficiencia2, eficiencia1);
-    });
+    List<JugadorEntity> porEficiencia = RankingJugadores.ordenar(jugadores,
+        j -> calcularBeneficioJugador(j) / j.getValorMercado());
     
     // Tomar los mejores hasta la cantidad requerida o agotar presupuesto
     List<JugadorEntity> seleccionados = new ArrayList<>();
     double presupuestoActual = presupuesto; // Variable local para el bucle
     
-    for (JugadorEntity jugador : jugadores) {
+    for (JugadorEntity jugador : porEficiencia) {
         if (seleccionados.size() < cantidadRequerida && jugador.getValorMercado() <= presupuestoActual) {
             seleccionados.add(jugador);
             presupuestoActual -= jugador.getValorMercado();
@@ -444,40 +1001,32 @@ private List<JugadorEntity> programacionDinamicaPorPosicion(List<JugadorEntity>
         
         // Bonus por posición (las posiciones más escasas tienen más valor)
         double bonusPosicion = 1.0;
-        String posicion = jugador.getPosicion();
-        if (posicion != null) {
-            if (posicion.toLowerCase().contains("arquero") || posicion.toLowerCase().contains("portero")) {
-                bonusPosicion = 1.3; // Arqueros buenos son escasos
-            } else if (posicion.toLowerCase().contains("delantero")) {
-                bonusPosicion = 1.2; // Delanteros anotadores son valiosos
-            }
+        CategoriaPosicion categoria = CategoriaPosicion.desde(jugador.getPosicion());
+        if (categoria == CategoriaPosicion.ARQUERO) {
+            bonusPosicion = 1.3; // Arqueros buenos son escasos
+        } else if (categoria == CategoriaPosicion.DELANTERO) {
+            bonusPosicion = 1.2; // Delanteros anotadores son valiosos
         }
         
         return base * bonusEdad * bonusPosicion;
     }
 
-    private Map<String, List<JugadorEntity>> agruparJugadoresPorPosicion(List<JugadorEntity> jugadores) {
-        Map<String, List<JugadorEntity>> grupos = new HashMap<>();
-        
-        for (JugadorEntity jugador : jugadores) {
-            String categoria = determinarCategoriaPosicion(jugador.getPosicion());
-            if (!grupos.containsKey(categoria)) {
-                grupos.put(categoria, new ArrayList<>());
+    /**
+     * Jugadores libres con valor de mercado positivo que entran en el presupuesto,
+     * de mayor a menor valor. Cada grupo del índice ya está ordenado, así que
+     * alcanza con una búsqueda binaria por grupo y una mezcla.
+     */
+    private List<JugadorEntity> libresDentroDelPresupuesto(double presupuestoMaximo) {
+        PosicionJugadoresIndex.Plantel libres = posicionJugadoresIndex.libres();
+        List<JugadorEntity> disponibles = new ArrayList<>();
+        for (CategoriaPosicion categoria : CategoriaPosicion.values()) {
+            for (JugadorEntity jugador : libres.grupo(categoria).hasta(presupuestoMaximo)) {
+                if (jugador.getValorMercado() != null && jugador.getValorMercado() > 0) {
+                    disponibles.add(jugador);
+                }
             }
-            grupos.get(categoria).add(jugador);
         }
-        
-        return grupos;
-    }
-
-    private String determinarCategoriaPosicion(String posicion) {
-        if (posicion == null) return "Mediocampo";
-        String pos = posicion.toLowerCase().trim();
-        
-        if (pos.contains("arquero") || pos.contains("portero")) return "Arquero";
-        if (pos.contains("defensa") || pos.contains("lateral") || pos.contains("central")) return "Defensa";
-        if (pos.contains("delantero") || pos.contains("atacante") || pos.contains("extremo")) return "Delantero";
-        return "Mediocampo";
+        return RankingJugadores.ordenar(disponibles, JugadorEntity::getValorMercado);
     }
 
     private double calcularValorTotal(List<JugadorEntity> jugadores) {
@@ -495,7 +1044,7 @@ private List<JugadorEntity> programacionDinamicaPorPosicion(List<JugadorEntity>
     private Map<String, Integer> obtenerDesglosePorPosicion(List<JugadorEntity> jugadores) {
         Map<String, Integer> desglose = new HashMap<>();
         for (JugadorEntity jugador : jugadores) {
-            String categoria = determinarCategoriaPosicion(jugador.getPosicion());
+            String categoria = CategoriaPosicion.desde(jugador.getPosicion()).getNombre();
             desglose.put(categoria, desglose.getOrDefault(categoria, 0) + 1);
         }
         return desglose;
@@ -506,36 +1055,38 @@ private List<JugadorEntity> programacionDinamicaPorPosicion(List<JugadorEntity>
     // =================================================================
 
     public Double calcularCostoRedTransferenciaMinima() {
-        Map<String, Map<String, Double>> grafo = construirGrafoTransferencias();
+        GrafoCsr grafo = grafoTransferenciasIndex.obtenerGrafo();
         return primMST(grafo);
     }
     
-    private Double primMST(Map<String, Map<String, Double>> grafo) {
-        if (grafo.isEmpty()) return 0.0;
+    private Double primMST(GrafoCsr grafo) {
+        if (grafo.cantidadNodos() == 0) return 0.0;
         
         Set<String> visitados = new HashSet<>();
         PriorityQueue<Edge> cola = new PriorityQueue<>(Comparator.comparingDouble(e -> e.peso));
         
         // Comenzar con el primer nodo
-        String inicio = grafo.keySet().iterator().next();
+        String inicio = grafo.nombre(0);
         visitados.add(inicio);
         
-        for (Map.Entry<String, Double> vecino : grafo.get(inicio).entrySet()) {
-            cola.offer(new Edge(inicio, vecino.getKey(), vecino.getValue()));
+        for (int arista = grafo.inicio(0); arista < grafo.fin(0); arista++) {
+            cola.offer(new Edge(inicio, grafo.nombre(grafo.destino(arista)), grafo.peso(arista)));
         }
         
         double costoTotal = 0.0;
         
-        while (!cola.isEmpty() && visitados.size() < grafo.size()) {
+        while (!cola.isEmpty() && visitados.size() < grafo.cantidadNodos()) {
             Edge edge = cola.poll();
             
             if (!visitados.contains(edge.destino)) {
                 visitados.add(edge.destino);
                 costoTotal += edge.peso;
                 
-                for (Map.Entry<String, Double> vecino : grafo.get(edge.destino).entrySet()) {
-                    if (!visitados.contains(vecino.getKey())) {
-                        cola.offer(new Edge(edge.destino, vecino.getKey(), vecino.getValue()));
+                int idDestino = grafo.id(edge.destino);
+                for (int arista = grafo.inicio(idDestino); arista < grafo.fin(idDestino); arista++) {
+                    String vecino = grafo.nombre(grafo.destino(arista));
+                    if (!visitados.contains(vecino)) {
+                        cola.offer(new Edge(edge.destino, vecino, grafo.peso(arista)));
                     }
                 }
             }
@@ -560,46 +1111,58 @@ private List<JugadorEntity> programacionDinamicaPorPosicion(List<JugadorEntity>
     // ALGORITMOS COMPLEJOS - BRANCH & BOUND
     // =================================================================
 
-    public List<TransferenciaEntity> buscarMejoresOfertas(String clubOrigen, Double presupuestoMaximo) {
-        List<JugadorEntity> jugadoresDisponibles = jugadorRepository.findJugadoresLibres();
-        List<TransferenciaEntity> mejoresOfertas = new ArrayList<>();
-        
-        branchAndBound(jugadoresDisponibles, presupuestoMaximo, new ArrayList<>(), mejoresOfertas, 0, 0.0);
-        
-        return mejoresOfertas;
+    public Map<String, Object> buscarMejoresOfertas(String clubOrigen, Double presupuestoMaximo) {
+        return buscarMejoresOfertas(clubOrigen, presupuestoMaximo, null, null, false);
     }
-    
-    private void branchAndBound(List<JugadorEntity> jugadores,
-                               Double presupuestoMaximo,
-                               List<TransferenciaEntity> ofertaActual,
-                               List<TransferenciaEntity> mejorOferta,
-                               int index,
-                               Double costoActual) {
-        
-        if (index >= jugadores.size()) {
-            if (costoActual <= presupuestoMaximo && ofertaActual.size() > mejorOferta.size()) {
-                mejorOferta.clear();
-                mejorOferta.addAll(new ArrayList<>(ofertaActual));
-            }
-            return;
+
+    /**
+     * Branch and bound de mejor primero: maximiza la cantidad de jugadores libres
+     * que entran en el presupuesto y, a igual cantidad, el beneficio. Si se agota
+     * el límite de nodos o el tiempo se devuelve la mejor oferta encontrada.
+     * Los límites en null usan los valores configurados. En modo paralelo el
+     * árbol se reparte entre los hilos de poolOfertas y timeoutMs es el plazo
+     * total de la búsqueda.
+     */
+    public Map<String, Object> buscarMejoresOfertas(String clubOrigen, Double presupuestoMaximo,
+                                                    Long limiteNodos, Long timeoutMs, boolean paralelo) {
+        if (presupuestoMaximo == null || presupuestoMaximo < 0) {
+            throw new RuntimeException("El presupuesto máximo debe ser positivo");
         }
+        List<JugadorEntity> jugadoresDisponibles = libresDentroDelPresupuesto(presupuestoMaximo);
         
-        JugadorEntity jugador = jugadores.get(index);
-        Double valorJugador = jugador.getValorMercado();
+        OfertasBranchAndBound busqueda = new OfertasBranchAndBound(
+            costosDe(jugadoresDisponibles), beneficiosDe(jugadoresDisponibles), presupuestoMaximo);
+        long nodos = limiteNodos != null ? limiteNodos : limiteNodosOfertas;
+        long plazo = timeoutMs != null ? timeoutMs : timeoutOfertasMs;
+        OfertasBranchAndBound.Resultado solucion = paralelo
+            ? busqueda.resolverParalelo(poolOfertas, nodos, plazo)
+            : busqueda.resolver(nodos, plazo);
         
-        // Ramas: incluir o no incluir el jugador
-        if (costoActual + valorJugador <= presupuestoMaximo) {
-            // Incluir jugador
+        // Las transferencias se arman solo para la oferta final
+        List<JugadorEntity> jugadoresSeleccionados = new ArrayList<>();
+        List<TransferenciaEntity> mejoresOfertas = new ArrayList<>();
+        for (int indice : solucion.seleccionados()) {
+            JugadorEntity jugador = jugadoresDisponibles.get(indice);
+            jugadoresSeleccionados.add(jugador);
             TransferenciaEntity transferencia = new TransferenciaEntity();
-            transferencia.setMonto(valorJugador);
-            ofertaActual.add(transferencia);
-            
-            branchAndBound(jugadores, presupuestoMaximo, ofertaActual, mejorOferta, index + 1, costoActual + valorJugador);
-            
-            ofertaActual.remove(ofertaActual.size() - 1);
+            transferencia.setMonto(jugador.getValorMercado());
+            mejoresOfertas.add(transferencia);
         }
         
-        // No incluir jugador
-        branchAndBound(jugadores, presupuestoMaximo, ofertaActual, mejorOferta, index + 1, costoActual);
+        Map<String, Object> estadisticas = new LinkedHashMap<>();
+        estadisticas.put("nodosExpandidos", solucion.nodosExpandidos());
+        estadisticas.put("nodosPodados", solucion.nodosPodados());
+        estadisticas.put("tiempoMs", solucion.tiempoMs());
+        estadisticas.put("busquedaCompleta", solucion.completo());
+        estadisticas.put("hilos", paralelo ? poolOfertas.getParallelism() : 1);
+        
+        Map<String, Object> resultado = new HashMap<>();
+        resultado.put("ofertas", mejoresOfertas);
+        resultado.put("jugadoresSeleccionados", jugadoresSeleccionados);
+        resultado.put("costoTotal", calcularCostoTotal(jugadoresSeleccionados));
+        resultado.put("beneficioTotal", solucion.beneficioTotal());
+        resultado.put("jugadoresDisponibles", jugadoresDisponibles.size());
+        resultado.put("estadisticas", estadisticas);
+        return resultado;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package com.uade.transferencia_futbol.util;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Codifica las claves de la última fila de una página como un cursor opaco
+ * (Base64 URL-safe). Las partes se separan con salto de línea; solo la
+ * última puede contener texto arbitrario, así que el nombre va al final.
+ */
+public final class CursorCodec {
+
+    private static final String SEPARADOR = "\n";
+
+    private CursorCodec() {
+    }
+
+    public static String codificar(String... partes) {
+        return Base64.getUrlEncoder().withoutPadding()
+            .encodeToString(String.join(SEPARADOR, partes).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException si el cursor no es válido o no tiene la cantidad de partes esperada
+     */
+    public static String[] decodificar(String cursor, int cantidadPartes) {
+        String texto;
+        try {
+            texto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        String[] partes = texto.split(SEPARADOR, cantidadPartes);
+        if (partes.length != cantidadPartes) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        return partes;
+    }
+
+    public static double decodificarDouble(String parte) {
+        try {
+            return Double.parseDouble(parte);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    public static LocalDate decodificarFecha(String parte) {
+        try {
+            return LocalDate.parse(parte);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+}
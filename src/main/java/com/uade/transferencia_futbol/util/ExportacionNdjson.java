@@ -0,0 +1,92 @@
+package com.uade.transferencia_futbol.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Respuesta NDJSON para exports del catálogo completo: una línea por registro
+ * y al final una línea con el resumen, comprimida con gzip si el cliente lo acepta.
+ *
+ * Nada se acumula: cada registro se escribe apenas se mapea. Si el cliente lee
+ * lento, la escritura se bloquea, el recorrido del resultado se frena y el
+ * driver no pide la siguiente tanda a Neo4j; si corta la conexión, la
+ * escritura falla y se cierra la sesión.
+ */
+public final class ExportacionNdjson {
+
+    private static final int TAMANO_BUFFER = 64 * 1024;
+    private static final int LINEAS_POR_FLUSH = 256;
+
+    private ExportacionNdjson() {
+    }
+
+    @FunctionalInterface
+    public interface Exportacion {
+        /**
+         * Escribe los registros y devuelve el resumen.
+         */
+        Map<String, Object> exportar(NdjsonWriter writer) throws IOException;
+    }
+
+    public static ResponseEntity<StreamingResponseBody> responder(String acceptEncoding, ObjectMapper objectMapper,
+                                                                 Exportacion exportacion) {
+        boolean gzip = aceptaGzip(acceptEncoding);
+        StreamingResponseBody cuerpo = salida -> {
+            // syncFlush: cada flush manda lo comprimido hasta ahí en vez de retenerlo en el deflater
+            OutputStream destino = gzip
+                ? new GZIPOutputStream(salida, TAMANO_BUFFER, true)
+                : new BufferedOutputStream(salida, TAMANO_BUFFER);
+            NdjsonWriter writer = new NdjsonWriter(destino, objectMapper, LINEAS_POR_FLUSH);
+            Map<String, Object> resumen = exportacion.exportar(writer);
+            writer.escribir(Map.of("resumen", resumen));
+            writer.flush();
+            if (destino instanceof GZIPOutputStream comprimido) {
+                // Cierra el stream gzip sin cerrar la respuesta
+                comprimido.finish();
+            }
+        };
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            respuesta.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return respuesta.body(cuerpo);
+    }
+
+    /**
+     * Si el Accept-Encoding incluye gzip (o *) sin q=0.
+     */
+    static boolean aceptaGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String codificacion : acceptEncoding.split(",")) {
+            String[] partes = codificacion.trim().split(";");
+            String nombre = partes[0].trim();
+            if (!nombre.equalsIgnoreCase("gzip") && !nombre.equals("*")) {
+                continue;
+            }
+            boolean rechazada = false;
+            for (int i = 1; i < partes.length; i++) {
+                String parametro = partes[i].trim().replace(" ", "");
+                if (parametro.matches("q=0(\\.0*)?")) {
+                    rechazada = true;
+                }
+            }
+            if (!rechazada) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,45 @@
+package com.uade.transferencia_futbol.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Escribe objetos como NDJSON (un documento JSON por línea) y hace flush
+ * después de cada uno para que el cliente los reciba a medida que se producen.
+ * En exports grandes se puede hacer flush cada tantas líneas: el envío sigue
+ * siendo incremental y no se paga un paquete (ni un bloque gzip) por línea.
+ */
+public class NdjsonWriter {
+
+    private static final byte SALTO_LINEA = '\n';
+
+    private final OutputStream salida;
+    private final ObjectMapper objectMapper;
+    private final int lineasPorFlush;
+    private int pendientes;
+
+    public NdjsonWriter(OutputStream salida, ObjectMapper objectMapper) {
+        this(salida, objectMapper, 1);
+    }
+
+    public NdjsonWriter(OutputStream salida, ObjectMapper objectMapper, int lineasPorFlush) {
+        this.salida = salida;
+        this.objectMapper = objectMapper;
+        this.lineasPorFlush = Math.max(1, lineasPorFlush);
+    }
+
+    public void escribir(Object valor) throws IOException {
+        salida.write(objectMapper.writeValueAsBytes(valor));
+        salida.write(SALTO_LINEA);
+        if (++pendientes >= lineasPorFlush) {
+            flush();
+        }
+    }
+
+    public void flush() throws IOException {
+        pendientes = 0;
+        salida.flush();
+    }
+}
@@ -0,0 +1,150 @@
+package com.uade.transferencia_futbol.algoritmo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Verifica el solver exacto contra la búsqueda exhaustiva de {@link EscuadraSolver}.
+ */
+class AlineacionSolverTest {
+
+    private static final int[] FORMACION = {1, 4, 3, 3};
+
+    @Test
+    void mejoresKCoincideConLaBusquedaSinPresupuesto() {
+        Random random = new Random(7);
+        for (int caso = 0; caso < 200; caso++) {
+            double[][] ratings = generarRatings(random, FORMACION);
+            double[][] costos = new double[ratings.length][];
+            for (int c = 0; c < ratings.length; c++) {
+                costos[c] = new double[ratings[c].length];
+            }
+
+            double[][] ordenados = ordenarDescendente(ratings);
+            EscuadraSolver.Resultado esperado = new EscuadraSolver(
+                ordenados, costos, FORMACION, Double.POSITIVE_INFINITY).resolver();
+
+            double total = 0.0;
+            for (int c = 0; c < ratings.length; c++) {
+                int[] mejores = AlineacionSolver.mejoresK(ratings[c], FORMACION[c]);
+                double[] elegidos = new double[mejores.length];
+                double[] esperados = new double[mejores.length];
+                for (int i = 0; i < mejores.length; i++) {
+                    elegidos[i] = ratings[c][mejores[i]];
+                    esperados[i] = ordenados[c][esperado.seleccion()[c][i]];
+                    total += elegidos[i];
+                }
+                assertArrayEquals(esperados, elegidos, 1e-9);
+            }
+            assertEquals(esperado.ratingTotal(), total, 1e-6);
+        }
+    }
+
+    @Test
+    void mochilaDeEleccionMultipleCoincideConLaBusquedaConPresupuesto() {
+        Random random = new Random(11);
+        for (int caso = 0; caso < 200; caso++) {
+            double[][] ratings = ordenarDescendente(generarRatings(random, FORMACION));
+            double[][] costos = new double[ratings.length][];
+            for (int c = 0; c < ratings.length; c++) {
+                costos[c] = new double[ratings[c].length];
+                for (int i = 0; i < ratings[c].length; i++) {
+                    // La mitad son del club (sin costo) y el resto cuesta su valor
+                    costos[c][i] = random.nextBoolean() ? 0.0 : ratings[c][i];
+                }
+            }
+            double presupuesto = (1 + random.nextInt(60)) * 1_000_000.0;
+
+            EscuadraSolver.Resultado esperado = new EscuadraSolver(ratings, costos, FORMACION, presupuesto).resolver();
+            AlineacionSolver.Resultado obtenido = AlineacionSolver.conPresupuesto(
+                ratings, costos, FORMACION, presupuesto, 64L * 1024 * 1024);
+
+            assertTrue(obtenido.exacto());
+            assertEquals(esperado.ratingTotal(), obtenido.ratingTotal(), 1e-6);
+            assertTrue(obtenido.costoTotal() <= presupuesto);
+        }
+    }
+
+    @Test
+    void abandonaConElPlazoVencidoOElHiloInterrumpido() {
+        double[][] ratings = ordenarDescendente(generarRatings(new Random(13), FORMACION));
+        double[][] costos = ratings.clone();
+        long vencido = System.nanoTime() - 1;
+
+        assertThrows(CancellationException.class, () -> AlineacionSolver.conPresupuesto(
+            ratings, costos, FORMACION, 50_000_000.0, 64L * 1024 * 1024, vencido));
+
+        Thread.currentThread().interrupt();
+        try {
+            assertThrows(CancellationException.class, () -> AlineacionSolver.conPresupuesto(
+                ratings, costos, FORMACION, 50_000_000.0, 64L * 1024 * 1024, AlineacionSolver.SIN_PLAZO));
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @Test
+    void casosPuntuales() {
+        long memoria = 64L * 1024 * 1024;
+
+        // Sin candidatos ni puestos
+        AlineacionSolver.Resultado vacio = AlineacionSolver.conPresupuesto(
+            new double[][] {{}, {}}, new double[][] {{}, {}}, new int[] {0, 0}, 1_000_000.0, memoria);
+        assertEquals(0.0, vacio.ratingTotal());
+        assertEquals(0, vacio.seleccion()[0].length + vacio.seleccion()[1].length);
+
+        // Presupuesto cero: solo entran los del club, que no cuestan
+        double[][] ratings = {{5, 4}, {9, 8, 7}};
+        double[][] costos = {{0, 0}, {1_000_000, 0, 0}};
+        AlineacionSolver.Resultado sinPresupuesto = AlineacionSolver.conPresupuesto(
+            ratings, costos, new int[] {1, 2}, 0.0, memoria);
+        assertEquals(20.0, sinPresupuesto.ratingTotal(), 1e-9);
+        assertEquals(0.0, sinPresupuesto.costoTotal());
+        assertArrayEquals(new int[] {0}, sinPresupuesto.seleccion()[0]);
+        assertArrayEquals(new int[] {1, 2}, ordenado(sinPresupuesto.seleccion()[1]));
+
+        // Tres con el mismo rating y presupuesto para uno solo de los que cuestan
+        AlineacionSolver.Resultado empate = AlineacionSolver.conPresupuesto(
+            new double[][] {{6, 6, 6}}, new double[][] {{1_000_000, 0, 1_000_000}}, new int[] {2},
+            1_000_000.0, memoria);
+        assertEquals(12.0, empate.ratingTotal(), 1e-9);
+        assertEquals(1_000_000.0, empate.costoTotal(), 1e-6);
+        assertEquals(2, empate.seleccion()[0].length);
+        assertTrue(Arrays.stream(empate.seleccion()[0]).anyMatch(i -> i == 1));
+    }
+
+    private static int[] ordenado(int[] indices) {
+        int[] copia = indices.clone();
+        Arrays.sort(copia);
+        return copia;
+    }
+
+    private static double[][] generarRatings(Random random, int[] formacion) {
+        double[][] ratings = new double[formacion.length][];
+        for (int c = 0; c < formacion.length; c++) {
+            ratings[c] = new double[formacion[c] + random.nextInt(4)];
+            for (int i = 0; i < ratings[c].length; i++) {
+                ratings[c][i] = (1 + random.nextInt(40)) * 500_000.0;
+            }
+        }
+        return ratings;
+    }
+
+    private static double[][] ordenarDescendente(double[][] ratings) {
+        double[][] ordenados = new double[ratings.length][];
+        for (int c = 0; c < ratings.length; c++) {
+            ordenados[c] = Arrays.stream(ratings[c]).boxed()
+                .sorted((a, b) -> Double.compare(b, a))
+                .mapToDouble(Double::doubleValue).toArray();
+        }
+        return ordenados;
+    }
+}
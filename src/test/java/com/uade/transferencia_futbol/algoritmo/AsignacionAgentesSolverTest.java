@@ -0,0 +1,126 @@
+package com.uade.transferencia_futbol.algoritmo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link AsignacionAgentesSolver} asigna tantos jugadores como la mejor
+ * asignación de fuerza bruta, sin pasar la capacidad de ningún agente, incluso
+ * cuando las capacidades no alcanzan para todos o cuando un solo agente tiene
+ * lugar y hay que pasarse de la cuota del tramo.
+ */
+class AsignacionAgentesSolverTest {
+
+    @Test
+    void asignaTantosComoLaFuerzaBruta() {
+        Random random = new Random(41);
+        for (int caso = 0; caso < 2_000; caso++) {
+            int n = 1 + random.nextInt(8);
+            int m = 1 + random.nextInt(4);
+            double[] valores = valoresAleatorios(random, n);
+            double[] comisiones = new double[m];
+            int[] lugares = new int[m];
+            for (int a = 0; a < m; a++) {
+                comisiones[a] = 1 + random.nextInt(10);
+                lugares[a] = random.nextInt(4);
+            }
+            double holgura = random.nextInt(5) / 4.0;
+
+            AsignacionAgentesSolver.Resultado resultado =
+                AsignacionAgentesSolver.resolver(valores, comisiones, new double[m], lugares, holgura);
+
+            assertEquals(FuerzaBruta.maximoAsignable(n, lugares), resultado.asignados());
+            verificar(valores, comisiones, lugares, resultado);
+        }
+    }
+
+    @Test
+    void conVariosTramosAsignaHastaLlenarLaCapacidad() {
+        Random random = new Random(43);
+        for (int caso = 0; caso < 200; caso++) {
+            int m = 1 + random.nextInt(5);
+            int n = m * (2 + random.nextInt(30));
+            double[] valores = valoresAleatorios(random, n);
+            double[] comisiones = new double[m];
+            int[] lugares = new int[m];
+            long capacidadTotal = 0;
+            for (int a = 0; a < m; a++) {
+                comisiones[a] = 1 + random.nextInt(10);
+                // A veces sobra capacidad y a veces no alcanza para todos
+                lugares[a] = random.nextInt(2 * n / m + 1);
+                capacidadTotal += lugares[a];
+            }
+
+            AsignacionAgentesSolver.Resultado resultado =
+                AsignacionAgentesSolver.resolver(valores, comisiones, new double[m], lugares, 0.2);
+
+            assertEquals(Math.min(n, capacidadTotal), resultado.asignados());
+            verificar(valores, comisiones, lugares, resultado);
+        }
+    }
+
+    @Test
+    void casosPuntuales() {
+        double[] comisiones = {5, 5};
+
+        // Sin jugadores
+        AsignacionAgentesSolver.Resultado vacio =
+            AsignacionAgentesSolver.resolver(new double[0], comisiones, new double[2], new int[] {3, 3}, 0.2);
+        assertEquals(0, vacio.asignados());
+        assertEquals(0, vacio.agentePorJugador().length);
+
+        // Ningún agente tiene lugar: nadie queda asignado
+        double[] valores = {10_000_000.0, 10_000_000.0};
+        AsignacionAgentesSolver.Resultado sinLugar =
+            AsignacionAgentesSolver.resolver(valores, comisiones, new double[2], new int[] {0, 0}, 0.2);
+        assertEquals(0, sinLugar.asignados());
+        assertArrayEquals(new int[] {-1, -1}, sinLugar.agentePorJugador());
+        assertEquals(0.0, sinLugar.comisionTotal());
+
+        // Empate en valores y comisiones con un lugar por agente: uno para cada uno
+        AsignacionAgentesSolver.Resultado empate =
+            AsignacionAgentesSolver.resolver(valores, comisiones, new double[2], new int[] {1, 1}, 0.2);
+        assertEquals(2, empate.asignados());
+        assertEquals(1_000_000.0, empate.comisionTotal(), 1e-6);
+        assertArrayEquals(new double[] {10_000_000.0, 10_000_000.0}, empate.valorRepresentado(), 1e-6);
+        verificar(valores, comisiones, new int[] {1, 1}, empate);
+    }
+
+    private static void verificar(double[] valores, double[] comisiones, int[] lugares,
+                                  AsignacionAgentesSolver.Resultado resultado) {
+        int[] usados = new int[lugares.length];
+        double[] representado = new double[lugares.length];
+        double comision = 0.0;
+        int asignados = 0;
+        for (int j = 0; j < valores.length; j++) {
+            int agente = resultado.agentePorJugador()[j];
+            if (agente < 0) {
+                continue;
+            }
+            usados[agente]++;
+            representado[agente] += valores[j];
+            comision += valores[j] * comisiones[agente] / 100.0;
+            asignados++;
+        }
+        assertEquals(asignados, resultado.asignados());
+        assertEquals(comision, resultado.comisionTotal(), 1e-6);
+        for (int a = 0; a < lugares.length; a++) {
+            assertTrue(usados[a] <= lugares[a]);
+            assertEquals(representado[a], resultado.valorRepresentado()[a], 1e-6);
+        }
+    }
+
+    private static double[] valoresAleatorios(Random random, int n) {
+        double[] valores = new double[n];
+        for (int j = 0; j < n; j++) {
+            // Valores con centavos: el orden no debe redondearlos a euros
+            valores[j] = random.nextInt(50) * 1_000_000.0 + random.nextInt(1_000) / 10.0;
+        }
+        return valores;
+    }
+}
@@ -0,0 +1,102 @@
+package com.uade.transferencia_futbol.algoritmo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara {@link FlujoCostoMinimo} con la enumeración de todos los flujos
+ * enteros de redes chicas: mismo flujo máximo y mismo costo mínimo para ese
+ * flujo, y los flujos por arista respetan capacidad y conservación.
+ */
+class FlujoCostoMinimoTest {
+
+    @Test
+    void coincideConFuerzaBruta() {
+        Random random = new Random(37);
+        for (int caso = 0; caso < 300; caso++) {
+            int nodos = 3 + random.nextInt(3);
+            int cantidad = 1 + random.nextInt(6);
+            int[] desde = new int[cantidad];
+            int[] hasta = new int[cantidad];
+            long[] capacidades = new long[cantidad];
+            long[] costos = new long[cantidad];
+            for (int e = 0; e < cantidad; e++) {
+                desde[e] = random.nextInt(nodos);
+                do {
+                    hasta[e] = random.nextInt(nodos);
+                } while (hasta[e] == desde[e]);
+                capacidades[e] = random.nextInt(4);
+                costos[e] = random.nextInt(10);
+            }
+            int fuente = 0;
+            int sumidero = nodos - 1;
+
+            FlujoCostoMinimo red = new FlujoCostoMinimo(nodos, cantidad);
+            int[] ids = new int[cantidad];
+            for (int e = 0; e < cantidad; e++) {
+                ids[e] = red.agregarArista(desde[e], hasta[e], capacidades[e], costos[e]);
+            }
+            FlujoCostoMinimo.Resultado resultado = red.resolver(fuente, sumidero);
+
+            long[] esperado = FuerzaBruta.flujoCostoMinimo(nodos, desde, hasta, capacidades, costos, fuente, sumidero);
+            assertEquals(esperado[0], resultado.flujo());
+            assertEquals(esperado[1], resultado.costo());
+
+            long[] balance = new long[nodos];
+            long costo = 0;
+            for (int e = 0; e < cantidad; e++) {
+                long flujo = red.flujo(ids[e]);
+                assertTrue(flujo >= 0 && flujo <= capacidades[e]);
+                balance[desde[e]] -= flujo;
+                balance[hasta[e]] += flujo;
+                costo += flujo * costos[e];
+            }
+            assertEquals(resultado.costo(), costo);
+            assertEquals(resultado.flujo(), balance[sumidero]);
+            for (int v = 1; v < nodos - 1; v++) {
+                assertEquals(0, balance[v]);
+            }
+        }
+    }
+
+    @Test
+    void casosPuntuales() {
+        // Sin aristas
+        FlujoCostoMinimo sinAristas = new FlujoCostoMinimo(2, 0);
+        FlujoCostoMinimo.Resultado nada = sinAristas.resolver(0, 1);
+        assertEquals(0, nada.flujo());
+        assertEquals(0, nada.costo());
+
+        // Capacidad cero: la arista existe pero no pasa nada
+        FlujoCostoMinimo cerrada = new FlujoCostoMinimo(2, 1);
+        int arista = cerrada.agregarArista(0, 1, 0, 3);
+        assertEquals(0, cerrada.resolver(0, 1).flujo());
+        assertEquals(0, cerrada.flujo(arista));
+
+        // Dos caminos empatados de costo 2 y uno directo de costo 5: se usan los tres
+        FlujoCostoMinimo red = new FlujoCostoMinimo(4, 5);
+        int[] ids = {
+            red.agregarArista(0, 1, 1, 1), red.agregarArista(1, 3, 1, 1),
+            red.agregarArista(0, 2, 1, 1), red.agregarArista(2, 3, 1, 1),
+            red.agregarArista(0, 3, 1, 5)};
+        FlujoCostoMinimo.Resultado resultado = red.resolver(0, 3);
+        assertEquals(3, resultado.flujo());
+        assertEquals(9, resultado.costo());
+        for (int id : ids) {
+            assertEquals(1, red.flujo(id));
+        }
+
+        // Con un solo lugar hacia el sumidero gana el camino barato
+        FlujoCostoMinimo angosta = new FlujoCostoMinimo(3, 3);
+        angosta.agregarArista(0, 1, 1, 1);
+        angosta.agregarArista(0, 1, 1, 4);
+        angosta.agregarArista(1, 2, 1, 0);
+        FlujoCostoMinimo.Resultado barato = angosta.resolver(0, 2);
+        assertEquals(1, barato.flujo());
+        assertEquals(1, barato.costo());
+    }
+}
@@ -0,0 +1,127 @@
+package com.uade.transferencia_futbol.algoritmo;
+
+/**
+ * Oráculos por enumeración completa para instancias chicas, compartidos por
+ * los tests de los solvers.
+ */
+final class FuerzaBruta {
+
+    private FuerzaBruta() {
+    }
+
+    /**
+     * Mayor beneficio de un subconjunto que entra en la capacidad (mochila 0/1).
+     */
+    static double mochila(double[] costos, double[] beneficios, double capacidad) {
+        double[] mejor = {0.0};
+        subconjuntos(costos, beneficios, capacidad, (cantidad, beneficio) -> {
+            if (beneficio > mejor[0]) {
+                mejor[0] = beneficio;
+            }
+        });
+        return mejor[0];
+    }
+
+    /**
+     * {mayor cantidad, mayor beneficio con esa cantidad} entre los subconjuntos
+     * que entran en la capacidad.
+     */
+    static double[] mochilaPorCantidad(double[] costos, double[] beneficios, double capacidad) {
+        double[] mejor = {0, 0.0};
+        subconjuntos(costos, beneficios, capacidad, (cantidad, beneficio) -> {
+            if (cantidad > mejor[0] || (cantidad == mejor[0] && beneficio > mejor[1])) {
+                mejor[0] = cantidad;
+                mejor[1] = beneficio;
+            }
+        });
+        return mejor;
+    }
+
+    /**
+     * {flujo máximo, costo mínimo con ese flujo}, probando todos los flujos
+     * enteros por arista que respetan capacidad y conservación.
+     */
+    static long[] flujoCostoMinimo(int nodos, int[] desde, int[] hasta, long[] capacidades, long[] costos,
+                                   int fuente, int sumidero) {
+        int cantidad = desde.length;
+        long[] flujos = new long[cantidad];
+        long mejorFlujo = 0;
+        long mejorCosto = 0;
+        while (true) {
+            long[] balance = new long[nodos];
+            long costo = 0;
+            for (int e = 0; e < cantidad; e++) {
+                balance[desde[e]] -= flujos[e];
+                balance[hasta[e]] += flujos[e];
+                costo += flujos[e] * costos[e];
+            }
+            boolean conserva = true;
+            for (int v = 0; v < nodos; v++) {
+                if (v != fuente && v != sumidero && balance[v] != 0) {
+                    conserva = false;
+                    break;
+                }
+            }
+            long flujo = balance[sumidero];
+            if (conserva && (flujo > mejorFlujo || (flujo == mejorFlujo && costo < mejorCosto))) {
+                mejorFlujo = flujo;
+                mejorCosto = costo;
+            }
+            // Siguiente combinación de flujos por arista (contador en base capacidad + 1)
+            int e = 0;
+            while (e < cantidad && flujos[e] == capacidades[e]) {
+                flujos[e] = 0;
+                e++;
+            }
+            if (e == cantidad) {
+                return new long[] {mejorFlujo, mejorCosto};
+            }
+            flujos[e]++;
+        }
+    }
+
+    /**
+     * Mayor cantidad de jugadores asignables probando todos los agentes (o
+     * ninguno) para cada uno, sin pasar los lugares de ningún agente.
+     */
+    static int maximoAsignable(int jugadores, int[] lugares) {
+        return maximoAsignable(jugadores, lugares, 0, new int[lugares.length]);
+    }
+
+    private static int maximoAsignable(int restantes, int[] lugares, int asignados, int[] usados) {
+        if (restantes == 0) {
+            return asignados;
+        }
+        int mejor = maximoAsignable(restantes - 1, lugares, asignados, usados);
+        for (int a = 0; a < lugares.length; a++) {
+            if (usados[a] < lugares[a]) {
+                usados[a]++;
+                mejor = Math.max(mejor, maximoAsignable(restantes - 1, lugares, asignados + 1, usados));
+                usados[a]--;
+            }
+        }
+        return mejor;
+    }
+
+    private interface Visitante {
+        void visitar(int cantidad, double beneficio);
+    }
+
+    /** Recorre los subconjuntos que entran en la capacidad, como máscaras de bits. */
+    private static void subconjuntos(double[] costos, double[] beneficios, double capacidad, Visitante visitante) {
+        int n = costos.length;
+        for (int mascara = 0; mascara < 1 << n; mascara++) {
+            double costo = 0.0;
+            double beneficio = 0.0;
+            for (int i = 0; i < n; i++) {
+                if ((mascara & (1 << i)) != 0) {
+                    costo += costos[i];
+                    beneficio += beneficios[i];
+                }
+            }
+            if (costo <= capacidad) {
+                visitante.visitar(Integer.bitCount(mascara), beneficio);
+            }
+        }
+    }
+}
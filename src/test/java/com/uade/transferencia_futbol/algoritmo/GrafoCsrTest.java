@@ -0,0 +1,74 @@
+package com.uade.transferencia_futbol.algoritmo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Las actualizaciones de {@link GrafoCsr} no tocan la instancia que se está
+ * leyendo, y agregar aristas de a una o con un builder da el mismo grafo.
+ */
+class GrafoCsrTest {
+
+    @Test
+    void reducirUnPesoNoModificaElGrafoAnterior() {
+        GrafoCsr grafo = GrafoCsr.builder()
+            .agregarArista("A", "B", 10.0)
+            .agregarArista("B", "C", 5.0)
+            .build();
+        int arista = grafo.buscarArista(grafo.id("A"), grafo.id("B"));
+
+        GrafoCsr reducido = grafo.conPesoReducido(arista, 3.0);
+
+        assertNotSame(grafo, reducido);
+        assertEquals(10.0, grafo.peso(arista));
+        assertEquals(3.0, reducido.peso(arista));
+        assertSame(reducido, reducido.conPesoReducido(arista, 4.0));
+
+        GrafoCsr conArista = grafo.conArista("A", "B", 1.0);
+        assertEquals(10.0, grafo.peso(arista));
+        assertEquals(1.0, conArista.peso(conArista.buscarArista(conArista.id("A"), conArista.id("B"))));
+    }
+
+    @Test
+    void agregarDeAUnaYConBuilderDaElMismoGrafo() {
+        Random random = new Random(11);
+        GrafoCsr base = GrafoCsr.builder()
+            .agregarArista("C0", "C1", 50.0)
+            .agregarArista("C1", "C2", 20.0)
+            .build();
+
+        GrafoCsr deAUna = base;
+        GrafoCsr.Builder builder = base.aBuilder();
+        for (int i = 0; i < 300; i++) {
+            String origen = "C" + random.nextInt(15);
+            String destino = "C" + random.nextInt(15);
+            if (origen.equals(destino)) {
+                continue;
+            }
+            double peso = random.nextInt(100);
+            deAUna = deAUna.conArista(origen, destino, peso);
+            builder.agregarArista(origen, destino, peso);
+        }
+        GrafoCsr enLote = builder.build();
+
+        assertEquals(2, base.cantidadAristas());
+        assertEquals(deAUna.cantidadNodos(), enLote.cantidadNodos());
+        assertEquals(deAUna.cantidadAristas(), enLote.cantidadAristas());
+        for (int u = 0; u < deAUna.cantidadNodos(); u++) {
+            int enLoteU = enLote.id(deAUna.nombre(u));
+            assertEquals(deAUna.fin(u) - deAUna.inicio(u), enLote.fin(enLoteU) - enLote.inicio(enLoteU));
+            for (int a = deAUna.inicio(u); a < deAUna.fin(u); a++) {
+                int v = enLote.id(deAUna.nombre(deAUna.destino(a)));
+                int b = enLote.buscarArista(enLoteU, v);
+                assertTrue(b >= 0);
+                assertEquals(deAUna.peso(a), enLote.peso(b));
+            }
+        }
+    }
+}
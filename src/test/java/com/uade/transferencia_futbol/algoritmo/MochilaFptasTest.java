@@ -0,0 +1,91 @@
+package com.uade.transferencia_futbol.algoritmo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * {@link MochilaFptas} logra al menos (1 - epsilon) del óptimo de fuerza bruta
+ * sin pasarse del presupuesto, y rechaza el pedido si la tabla no entra en
+ * memoria ni relajando epsilon.
+ */
+class MochilaFptasTest {
+
+    @Test
+    void respetaLaGarantiaDeAproximacion() {
+        Random random = new Random(19);
+        MochilaFptas fptas = new MochilaFptas(64L * 1024 * 1024);
+        double[] epsilons = {0.5, 0.2, 0.05, 0.01};
+        for (int caso = 0; caso < 200; caso++) {
+            int n = 1 + random.nextInt(14);
+            double[] costos = new double[n];
+            double[] beneficios = new double[n];
+            for (int i = 0; i < n; i++) {
+                costos[i] = 1 + random.nextInt(1_000_000);
+                beneficios[i] = random.nextDouble() * 100;
+            }
+            double capacidad = random.nextInt(3_000_000);
+            double optimo = FuerzaBruta.mochila(costos, beneficios, capacidad);
+            double epsilon = epsilons[caso % epsilons.length];
+
+            MochilaFptas.Resultado resultado = fptas.resolver(costos, beneficios, capacidad, epsilon);
+
+            assertEquals(epsilon, resultado.epsilonEfectivo());
+            assertTrue(resultado.beneficioTotal() >= (1 - epsilon) * optimo - 1e-9,
+                () -> resultado.beneficioTotal() + " < (1 - " + epsilon + ") * " + optimo);
+            assertTrue(resultado.beneficioTotal() <= optimo + 1e-9);
+
+            double costo = 0.0;
+            double beneficio = 0.0;
+            for (int i : resultado.seleccionados()) {
+                costo += costos[i];
+                beneficio += beneficios[i];
+            }
+            assertTrue(costo <= capacidad);
+            assertEquals(beneficio, resultado.beneficioTotal(), 1e-9);
+        }
+    }
+
+    @Test
+    void casosPuntuales() {
+        MochilaFptas fptas = new MochilaFptas(64L * 1024 * 1024);
+
+        // Sin jugadores
+        MochilaFptas.Resultado vacio = fptas.resolver(new double[0], new double[0], 1_000_000, 0.1);
+        assertEquals(0, vacio.seleccionados().length);
+        assertEquals(0.0, vacio.beneficioTotal());
+
+        // Presupuesto cero: no entra ninguno
+        double[] costos = {300_000, 300_000, 200_000};
+        double[] beneficios = {10, 10, 4};
+        MochilaFptas.Resultado sinPresupuesto = fptas.resolver(costos, beneficios, 0, 0.1);
+        assertEquals(0, sinPresupuesto.seleccionados().length);
+        assertEquals(0.0, sinPresupuesto.beneficioTotal());
+
+        // Empate entre los dos de 300.000: con epsilon 0.1 solo 14 alcanza 0.9 * 14
+        MochilaFptas.Resultado empate = fptas.resolver(costos, beneficios, 500_000, 0.1);
+        assertEquals(14.0, empate.beneficioTotal(), 1e-9);
+        assertEquals(2, empate.seleccionados().length);
+        assertEquals(500_000, empate.costoTotal(), 1e-6);
+    }
+
+    @Test
+    void rechazaSiNoEntraEnMemoriaNiConEpsilonMaximo() {
+        Random random = new Random(23);
+        int n = 2_000;
+        double[] costos = new double[n];
+        double[] beneficios = new double[n];
+        for (int i = 0; i < n; i++) {
+            costos[i] = 1 + random.nextInt(1_000);
+            beneficios[i] = costos[i];
+        }
+        MochilaFptas fptas = new MochilaFptas(1024);
+
+        assertThrows(IllegalArgumentException.class,
+            () -> fptas.resolver(costos, beneficios, 1_000_000, 0.1));
+    }
+}
@@ -0,0 +1,109 @@
+package com.uade.transferencia_futbol.algoritmo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Con costos múltiplos de la unidad la cuantización no pierde nada, así que
+ * {@link MochilaSolver} tiene que dar el óptimo exacto: se compara contra la
+ * fuerza bruta en casos chicos y, en casos grandes, la reconstrucción
+ * Hirschberg contra la del bitset.
+ */
+class MochilaSolverTest {
+
+    private static final double UNIDAD = 100_000.0;
+
+    @Test
+    void coincideConFuerzaBruta() {
+        Random random = new Random(13);
+        MochilaSolver solver = new MochilaSolver(64L * 1024 * 1024);
+        for (int caso = 0; caso < 200; caso++) {
+            int n = 1 + random.nextInt(14);
+            double[] costos = new double[n];
+            double[] beneficios = new double[n];
+            for (int i = 0; i < n; i++) {
+                costos[i] = (1 + random.nextInt(40)) * UNIDAD;
+                beneficios[i] = random.nextInt(100);
+            }
+            double capacidad = random.nextInt(200) * UNIDAD;
+
+            MochilaSolver.Resultado resultado = solver.resolver(costos, beneficios, capacidad, UNIDAD);
+
+            assertEquals(MochilaSolver.MODO_BITSET, resultado.modoReconstruccion());
+            assertEquals(FuerzaBruta.mochila(costos, beneficios, capacidad), resultado.beneficioTotal(), 1e-9);
+            verificarSeleccion(costos, beneficios, capacidad, resultado);
+        }
+    }
+
+    @Test
+    void hirschbergDaElMismoOptimoQueElBitset() {
+        Random random = new Random(17);
+        int n = 150;
+        int pasos = 2_000;
+        MochilaSolver conBitset = new MochilaSolver(64L * 1024 * 1024);
+        // Alcanza justo para las dos filas de Hirschberg pero no para la matriz de decisiones
+        MochilaSolver conHirschberg = new MochilaSolver(2L * (pasos + 1) * Double.BYTES);
+        for (int caso = 0; caso < 20; caso++) {
+            double[] costos = new double[n];
+            double[] beneficios = new double[n];
+            for (int i = 0; i < n; i++) {
+                costos[i] = (1 + random.nextInt(100)) * UNIDAD;
+                beneficios[i] = random.nextInt(1_000);
+            }
+            double capacidad = pasos * UNIDAD;
+
+            MochilaSolver.Resultado bitset = conBitset.resolver(costos, beneficios, capacidad, UNIDAD);
+            MochilaSolver.Resultado hirschberg = conHirschberg.resolver(costos, beneficios, capacidad, UNIDAD);
+
+            assertEquals(MochilaSolver.MODO_HIRSCHBERG, hirschberg.modoReconstruccion());
+            assertEquals(UNIDAD, hirschberg.unidad());
+            assertEquals(bitset.beneficioTotal(), hirschberg.beneficioTotal(), 1e-9);
+            verificarSeleccion(costos, beneficios, capacidad, hirschberg);
+        }
+    }
+
+    @Test
+    void casosPuntuales() {
+        MochilaSolver solver = new MochilaSolver(64L * 1024 * 1024);
+
+        // Sin jugadores
+        MochilaSolver.Resultado vacio = solver.resolver(new double[0], new double[0], 10 * UNIDAD, UNIDAD);
+        assertEquals(0, vacio.seleccionados().length);
+        assertEquals(0.0, vacio.beneficioTotal());
+
+        // Presupuesto cero: no entra ninguno
+        double[] costos = {3 * UNIDAD, 3 * UNIDAD, 2 * UNIDAD};
+        double[] beneficios = {10, 10, 4};
+        MochilaSolver.Resultado sinPresupuesto = solver.resolver(costos, beneficios, 0.0, UNIDAD);
+        assertEquals(0, sinPresupuesto.seleccionados().length);
+        verificarSeleccion(costos, beneficios, 0.0, sinPresupuesto);
+
+        // Empate entre los dos de 3: entra uno solo junto con el de 2
+        MochilaSolver.Resultado empate = solver.resolver(costos, beneficios, 5 * UNIDAD, UNIDAD);
+        assertEquals(14.0, empate.beneficioTotal(), 1e-9);
+        assertEquals(2, empate.seleccionados().length);
+        verificarSeleccion(costos, beneficios, 5 * UNIDAD, empate);
+
+        MochilaSolver.Resultado ambos = solver.resolver(costos, beneficios, 6 * UNIDAD, UNIDAD);
+        assertEquals(20.0, ambos.beneficioTotal(), 1e-9);
+        verificarSeleccion(costos, beneficios, 6 * UNIDAD, ambos);
+    }
+
+    private static void verificarSeleccion(double[] costos, double[] beneficios, double capacidad,
+                                           MochilaSolver.Resultado resultado) {
+        double costo = 0.0;
+        double beneficio = 0.0;
+        for (int i : resultado.seleccionados()) {
+            costo += costos[i];
+            beneficio += beneficios[i];
+        }
+        assertEquals(beneficio, resultado.beneficioTotal(), 1e-9);
+        assertEquals(costo, resultado.costoTotal(), 1e-6);
+        assertTrue(costo <= capacidad + 1e-6);
+        assertTrue(resultado.beneficioTotal() <= resultado.cotaSuperior() + 1e-9);
+    }
+}
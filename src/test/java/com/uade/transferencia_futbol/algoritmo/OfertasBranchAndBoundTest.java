@@ -0,0 +1,105 @@
+package com.uade.transferencia_futbol.algoritmo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sin límite de nodos ni de tiempo, {@link OfertasBranchAndBound} encuentra el
+ * óptimo lexicográfico (más jugadores y, a igual cantidad, más beneficio) que
+ * da la fuerza bruta, tanto en su versión secuencial como en la paralela.
+ */
+class OfertasBranchAndBoundTest {
+
+    private static final long SIN_LIMITE_NODOS = Long.MAX_VALUE;
+    private static final long SIN_LIMITE_MS = 60_000;
+
+    @Test
+    void coincideConFuerzaBruta() {
+        Random random = new Random(29);
+        for (int caso = 0; caso < 300; caso++) {
+            Instancia instancia = Instancia.aleatoria(random);
+            OfertasBranchAndBound.Resultado resultado =
+                new OfertasBranchAndBound(instancia.costos, instancia.beneficios, instancia.capacidad)
+                    .resolver(SIN_LIMITE_NODOS, SIN_LIMITE_MS);
+            verificar(instancia, resultado);
+        }
+    }
+
+    @Test
+    void elParaleloCoincideConFuerzaBruta() {
+        Random random = new Random(31);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            for (int caso = 0; caso < 300; caso++) {
+                Instancia instancia = Instancia.aleatoria(random);
+                OfertasBranchAndBound.Resultado resultado =
+                    new OfertasBranchAndBound(instancia.costos, instancia.beneficios, instancia.capacidad)
+                        .resolverParalelo(pool, SIN_LIMITE_NODOS, SIN_LIMITE_MS);
+                verificar(instancia, resultado);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void casosPuntuales() {
+        // Sin jugadores
+        OfertasBranchAndBound.Resultado vacio = new OfertasBranchAndBound(new double[0], new double[0], 100)
+            .resolver(SIN_LIMITE_NODOS, SIN_LIMITE_MS);
+        assertTrue(vacio.completo());
+        assertEquals(0, vacio.cantidad());
+        assertEquals(0, vacio.seleccionados().length);
+
+        // Presupuesto cero: no entra ninguno
+        double[] costos = {3, 3, 4};
+        double[] beneficios = {5, 5, 9};
+        OfertasBranchAndBound.Resultado sinPresupuesto = new OfertasBranchAndBound(costos, beneficios, 0)
+            .resolver(SIN_LIMITE_NODOS, SIN_LIMITE_MS);
+        assertEquals(0, sinPresupuesto.cantidad());
+        assertEquals(0.0, sinPresupuesto.beneficioTotal());
+
+        // Entran dos: {0, 1} y {0, 2} empatan en cantidad y desempata el beneficio (14 con el de 4)
+        OfertasBranchAndBound.Resultado empate = new OfertasBranchAndBound(costos, beneficios, 7)
+            .resolver(SIN_LIMITE_NODOS, SIN_LIMITE_MS);
+        assertEquals(2, empate.cantidad());
+        assertEquals(14.0, empate.beneficioTotal(), 1e-9);
+        verificar(new Instancia(costos, beneficios, 7), empate);
+    }
+
+    static void verificar(Instancia instancia, OfertasBranchAndBound.Resultado resultado) {
+        double[] optimo = FuerzaBruta.mochilaPorCantidad(instancia.costos, instancia.beneficios, instancia.capacidad);
+        assertTrue(resultado.completo());
+        assertEquals((int) optimo[0], resultado.cantidad());
+        assertEquals(optimo[1], resultado.beneficioTotal(), 1e-9);
+
+        double costo = 0.0;
+        double beneficio = 0.0;
+        for (int i : resultado.seleccionados()) {
+            costo += instancia.costos[i];
+            beneficio += instancia.beneficios[i];
+        }
+        assertEquals(resultado.cantidad(), resultado.seleccionados().length);
+        assertEquals(beneficio, resultado.beneficioTotal(), 1e-9);
+        assertTrue(costo <= instancia.capacidad);
+    }
+
+    record Instancia(double[] costos, double[] beneficios, double capacidad) {
+
+        static Instancia aleatoria(Random random) {
+            int n = 1 + random.nextInt(14);
+            double[] costos = new double[n];
+            double[] beneficios = new double[n];
+            for (int i = 0; i < n; i++) {
+                costos[i] = 1 + random.nextInt(50);
+                beneficios[i] = random.nextInt(100);
+            }
+            return new Instancia(costos, beneficios, random.nextInt(200));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.uade.transferencia_futbol.algoritmo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Las claves de {@link RankingJugadores} ordenan negativos, ceros con signo,
+ * infinitos y NaN como el orden descendente de los doubles, y el radix sort y
+ * el heap de top-k dan lo mismo que un ordenamiento estable con comparador.
+ */
+class RankingJugadoresTest {
+
+    // Mayor a menor; NaN al final
+    private static final double[] ESPECIALES = {
+        Double.POSITIVE_INFINITY, Double.MAX_VALUE, 1e9, 1.0, Double.MIN_VALUE,
+        0.0, -Double.MIN_VALUE, -1.0, -1e9, -Double.MAX_VALUE, Double.NEGATIVE_INFINITY, Double.NaN
+    };
+
+    @Test
+    void lasClavesRespetanElOrdenDescendente() {
+        for (int i = 0; i + 1 < ESPECIALES.length; i++) {
+            long mayor = RankingJugadores.claveDescendente(ESPECIALES[i]);
+            long menor = RankingJugadores.claveDescendente(ESPECIALES[i + 1]);
+            assertTrue(Long.compareUnsigned(mayor, menor) < 0,
+                ESPECIALES[i] + " debería ir antes que " + ESPECIALES[i + 1]);
+        }
+        assertEquals(RankingJugadores.claveDescendente(0.0), RankingJugadores.claveDescendente(-0.0));
+        assertEquals(RankingJugadores.claveDescendente(Double.NaN),
+            RankingJugadores.claveDescendente(Double.longBitsToDouble(0x7ff8_0000_0000_0001L)));
+    }
+
+    @Test
+    void ordenarYMejoresKCoincidenConUnOrdenEstable() {
+        Random random = new Random(47);
+        // Por debajo y por encima del umbral de inserción, y k chicos (heap) y grandes (orden completo)
+        int[] tamanos = {0, 1, 5, 63, 64, 65, 500, 5_000};
+        for (int n : tamanos) {
+            for (int repeticion = 0; repeticion < 5; repeticion++) {
+                double[] valores = new double[n];
+                for (int i = 0; i < n; i++) {
+                    valores[i] = switch (random.nextInt(6)) {
+                        case 0 -> ESPECIALES[random.nextInt(ESPECIALES.length)];
+                        case 1 -> -0.0;
+                        // Pocos valores distintos para que haya empates
+                        case 2 -> random.nextInt(5) - 2;
+                        default -> (random.nextDouble() - 0.5) * 1e8;
+                    };
+                }
+                int[] esperado = ordenEstable(valores);
+
+                assertArrayEquals(esperado, RankingJugadores.ordenDescendente(valores));
+                for (int k : new int[] {0, 1, 3, n / 8, n / 4 + 1, n, n + 10}) {
+                    assertArrayEquals(Arrays.copyOf(esperado, Math.min(Math.max(k, 0), n)),
+                        RankingJugadores.mejoresK(valores, k), "n=" + n + " k=" + k);
+                }
+            }
+        }
+    }
+
+    private static int[] ordenEstable(double[] valores) {
+        // Double.compare separa 0.0 de -0.0; el ranking los trata como iguales
+        Comparator<Integer> descendente = Comparator.comparingDouble(
+            (Integer i) -> valores[i] == 0.0 ? 0.0 : valores[i]).reversed();
+        Comparator<Integer> nanAlFinal = Comparator.comparing((Integer i) -> Double.isNaN(valores[i]));
+        return IntStream.range(0, valores.length).boxed()
+            .sorted(nanAlFinal.thenComparing(descendente))
+            .mapToInt(Integer::intValue)
+            .toArray();
+    }
+}
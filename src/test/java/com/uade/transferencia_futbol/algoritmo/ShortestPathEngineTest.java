@@ -0,0 +1,124 @@
+package com.uade.transferencia_futbol.algoritmo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara {@link ShortestPathEngine} con Bellman-Ford sobre grafos aleatorios,
+ * y {@link HeapIndexado} con un orden completo de las prioridades.
+ */
+class ShortestPathEngineTest {
+
+    private final ShortestPathEngine motor = new ShortestPathEngine();
+
+    @Test
+    void coincideConBellmanFord() {
+        Random random = new Random(3);
+        for (int caso = 0; caso < 100; caso++) {
+            int n = 2 + random.nextInt(20);
+            GrafoCsr grafo = grafoAleatorio(random, n, random.nextInt(n * 3));
+            double[][] esperado = bellmanFord(grafo);
+
+            for (int origen = 0; origen < n; origen++) {
+                int[] destinos = new int[n];
+                for (int d = 0; d < n; d++) {
+                    destinos[d] = d;
+                }
+                ShortestPathEngine.Camino[] caminos = motor.caminosDesde(grafo, origen, destinos);
+                for (int destino = 0; destino < n; destino++) {
+                    ShortestPathEngine.Camino individual = motor.caminoMasBarato(grafo, origen, destino);
+                    if (esperado[origen][destino] == Double.POSITIVE_INFINITY) {
+                        assertNull(caminos[destino]);
+                        assertNull(individual);
+                        continue;
+                    }
+                    assertNotNull(individual);
+                    assertEquals(esperado[origen][destino], individual.costo(), 1e-9);
+                    assertEquals(esperado[origen][destino], caminos[destino].costo(), 1e-9);
+                    assertEquals(individual.costo(), costoDelCamino(grafo, individual.nodos()), 1e-9);
+                    assertEquals(origen, individual.nodos()[0]);
+                    assertEquals(destino, individual.nodos()[individual.nodos().length - 1]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void elHeapExtraeEnOrdenConReducciones() {
+        Random random = new Random(5);
+        int n = 500;
+        HeapIndexado heap = new HeapIndexado(4);
+        heap.asegurarCapacidad(n);
+        double[] prioridades = new double[n];
+        Arrays.fill(prioridades, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < 3000; i++) {
+            int nodo = random.nextInt(n);
+            double prioridad = random.nextInt(10_000);
+            heap.insertarOReducir(nodo, prioridad);
+            prioridades[nodo] = Math.min(prioridades[nodo], prioridad);
+        }
+
+        double anterior = Double.NEGATIVE_INFINITY;
+        int extraidos = 0;
+        while (!heap.estaVacio()) {
+            int nodo = heap.extraerMinimo();
+            assertTrue(prioridades[nodo] >= anterior);
+            anterior = prioridades[nodo];
+            extraidos++;
+        }
+        assertEquals(Arrays.stream(prioridades).filter(p -> p != Double.POSITIVE_INFINITY).count(), extraidos);
+    }
+
+    private static GrafoCsr grafoAleatorio(Random random, int n, int aristas) {
+        GrafoCsr.Builder builder = GrafoCsr.builder();
+        for (int i = 0; i < n; i++) {
+            builder.agregarNodo("C" + i);
+        }
+        for (int i = 0; i < aristas; i++) {
+            int u = random.nextInt(n);
+            int v = random.nextInt(n);
+            if (u != v) {
+                builder.agregarArista("C" + u, "C" + v, random.nextInt(50));
+            }
+        }
+        return builder.build();
+    }
+
+    private static double[][] bellmanFord(GrafoCsr grafo) {
+        int n = grafo.cantidadNodos();
+        double[][] distancias = new double[n][n];
+        for (int origen = 0; origen < n; origen++) {
+            double[] d = distancias[origen];
+            Arrays.fill(d, Double.POSITIVE_INFINITY);
+            d[origen] = 0.0;
+            for (int ronda = 0; ronda < n - 1; ronda++) {
+                for (int u = 0; u < n; u++) {
+                    if (d[u] == Double.POSITIVE_INFINITY) {
+                        continue;
+                    }
+                    for (int a = grafo.inicio(u); a < grafo.fin(u); a++) {
+                        d[grafo.destino(a)] = Math.min(d[grafo.destino(a)], d[u] + grafo.peso(a));
+                    }
+                }
+            }
+        }
+        return distancias;
+    }
+
+    private static double costoDelCamino(GrafoCsr grafo, int[] nodos) {
+        double costo = 0.0;
+        for (int i = 0; i + 1 < nodos.length; i++) {
+            int arista = grafo.buscarArista(nodos[i], nodos[i + 1]);
+            assertTrue(arista >= 0);
+            costo += grafo.peso(arista);
+        }
+        return costo;
+    }
+}
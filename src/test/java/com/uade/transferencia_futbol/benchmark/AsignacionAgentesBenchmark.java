@@ -0,0 +1,114 @@
+package com.uade.transferencia_futbol.benchmark;
+
+import com.uade.transferencia_futbol.algoritmo.AsignacionAgentesSolver;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Asignación de jugadores libres a agentes: {@link AsignacionAgentesSolver}
+ * (flujo de costo mínimo sobre la red agregada) contra el greedy por carga de
+ * AgenteService, con valores de mercado log-normales y comisiones entre 5 % y 20 %.
+ *
+ * Ejecutar con: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.uade.transferencia_futbol.benchmark.AsignacionAgentesBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AsignacionAgentesBenchmark {
+
+    @Param({"50000"})
+    private int jugadores;
+
+    @Param({"2000"})
+    private int agentes;
+
+    @Param({"0.2"})
+    private double holgura;
+
+    private double[] valores;
+    private double[] comisiones;
+    private double[] valorActual;
+    private int[] lugaresLibres;
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+        valores = new double[jugadores];
+        for (int j = 0; j < jugadores; j++) {
+            valores[j] = Math.round(Math.exp(15 + 1.5 * random.nextGaussian()) / 1000) * 1000.0;
+        }
+        comisiones = new double[agentes];
+        for (int a = 0; a < agentes; a++) {
+            comisiones[a] = 5 + random.nextInt(31) * 0.5;
+        }
+        valorActual = new double[agentes];
+        lugaresLibres = new int[agentes];
+        Arrays.fill(lugaresLibres, (int) Math.ceil((double) jugadores / agentes * (1 + holgura)) + 10);
+
+        // Todos los jugadores asignados, sin pasar la capacidad de ningún agente
+        AsignacionAgentesSolver.Resultado resultado = AsignacionAgentesSolver.resolver(
+            valores, comisiones, valorActual, lugaresLibres, holgura);
+        if (resultado.asignados() != jugadores) {
+            throw new IllegalStateException("Quedaron jugadores sin asignar: " + (jugadores - resultado.asignados()));
+        }
+        int[] usados = new int[agentes];
+        for (int agente : resultado.agentePorJugador()) {
+            if (++usados[agente] > lugaresLibres[agente]) {
+                throw new IllegalStateException("El agente " + agente + " supera su capacidad");
+            }
+        }
+    }
+
+    @Benchmark
+    public void flujoCostoMinimo(Blackhole bh) {
+        bh.consume(AsignacionAgentesSolver.resolver(valores, comisiones, valorActual, lugaresLibres, holgura));
+    }
+
+    @Benchmark
+    public void greedyPorCarga(Blackhole bh) {
+        bh.consume(greedyAnterior(valores, agentes));
+    }
+
+    /**
+     * Misma estrategia que AgenteService.asignarGreedy: de mayor a menor valor,
+     * cada jugador al agente con menos jugadores.
+     */
+    private static int[] greedyAnterior(double[] valores, int agentes) {
+        Integer[] orden = new Integer[valores.length];
+        for (int j = 0; j < valores.length; j++) {
+            orden[j] = j;
+        }
+        Arrays.sort(orden, (a, b) -> Double.compare(valores[b], valores[a]));
+        int[] cargas = new int[agentes];
+        PriorityQueue<Integer> heap = new PriorityQueue<>(agentes, (a, b) -> cargas[a] != cargas[b]
+            ? Integer.compare(cargas[a], cargas[b])
+            : Integer.compare(a, b));
+        for (int a = 0; a < agentes; a++) {
+            heap.add(a);
+        }
+        int[] agentePorJugador = new int[valores.length];
+        for (int j : orden) {
+            int agente = heap.poll();
+            cargas[agente]++;
+            heap.add(agente);
+            agentePorJugador[j] = agente;
+        }
+        return agentePorJugador;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(AsignacionAgentesBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,150 @@
+package com.uade.transferencia_futbol.benchmark;
+
+import com.uade.transferencia_futbol.algoritmo.GrafoCsr;
+import com.uade.transferencia_futbol.algoritmo.ShortestPathEngine;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compara el Dijkstra anterior (HashMap + PriorityQueue<String>) con
+ * {@link ShortestPathEngine} sobre un grafo aleatorio de clubes.
+ *
+ * Ejecutar con: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.uade.transferencia_futbol.benchmark.DijkstraBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DijkstraBenchmark {
+
+    @Param({"1000", "10000"})
+    private int clubes;
+
+    @Param({"5"})
+    private int gradoPromedio;
+
+    private GrafoCsr grafo;
+    private Map<String, Map<String, Double>> grafoMapa;
+    private int[][] consultas;
+    private int siguiente;
+
+    private final ShortestPathEngine motor = new ShortestPathEngine();
+
+    @Setup
+    public void preparar() {
+        Random random = new Random(42);
+        GrafoCsr.Builder builder = GrafoCsr.builder();
+        grafoMapa = new HashMap<>();
+
+        for (int i = 0; i < clubes; i++) {
+            builder.agregarNodo("Club " + i);
+            grafoMapa.put("Club " + i, new HashMap<>());
+        }
+        for (int i = 0; i < clubes * gradoPromedio; i++) {
+            int u = random.nextInt(clubes);
+            int v = random.nextInt(clubes);
+            if (u == v) {
+                continue;
+            }
+            double monto = 1 + random.nextInt(200);
+            builder.agregarArista("Club " + u, "Club " + v, monto);
+            grafoMapa.get("Club " + u).merge("Club " + v, monto, Math::min);
+        }
+        grafo = builder.build();
+
+        consultas = new int[256][];
+        for (int i = 0; i < consultas.length; i++) {
+            consultas[i] = new int[] {random.nextInt(clubes), random.nextInt(clubes)};
+        }
+
+        // El motor nunca puede devolver una ruta más cara que la implementación anterior
+        // (la anterior puede devolver rutas subóptimas por las prioridades obsoletas)
+        for (int[] consulta : consultas) {
+            ShortestPathEngine.Camino camino = motor.caminoMasBarato(grafo, consulta[0], consulta[1]);
+            List<String> ruta = dijkstraAnterior(grafoMapa, "Club " + consulta[0], "Club " + consulta[1]);
+            if (camino != null && camino.costo() > costoRuta(ruta) + 1e-9) {
+                throw new IllegalStateException("Ruta más cara que la anterior para " + Arrays.toString(consulta));
+            }
+        }
+    }
+
+    @Benchmark
+    public void motorIndexado(Blackhole bh) {
+        int[] consulta = consultas[siguiente++ & (consultas.length - 1)];
+        bh.consume(motor.caminoMasBarato(grafo, consulta[0], consulta[1]));
+    }
+
+    @Benchmark
+    public void implementacionAnterior(Blackhole bh) {
+        int[] consulta = consultas[siguiente++ & (consultas.length - 1)];
+        bh.consume(dijkstraAnterior(grafoMapa, "Club " + consulta[0], "Club " + consulta[1]));
+    }
+
+    private double costoRuta(List<String> ruta) {
+        double costo = 0.0;
+        for (int i = 0; i + 1 < ruta.size(); i++) {
+            costo += grafoMapa.get(ruta.get(i)).get(ruta.get(i + 1));
+        }
+        return costo;
+    }
+
+    /**
+     * Copia de la implementación original de TransferenciaService, como línea base.
+     */
+    private static List<String> dijkstraAnterior(Map<String, Map<String, Double>> grafo, String origen, String destino) {
+        Map<String, Double> distancias = new HashMap<>();
+        Map<String, String> predecesores = new HashMap<>();
+        PriorityQueue<String> cola = new PriorityQueue<>(Comparator.comparing(distancias::get));
+
+        for (String nodo : grafo.keySet()) {
+            distancias.put(nodo, Double.MAX_VALUE);
+        }
+        distancias.put(origen, 0.0);
+        cola.offer(origen);
+
+        while (!cola.isEmpty()) {
+            String actual = cola.poll();
+
+            if (actual.equals(destino)) {
+                break;
+            }
+
+            for (Map.Entry<String, Double> vecino : grafo.getOrDefault(actual, new HashMap<>()).entrySet()) {
+                String nodoVecino = vecino.getKey();
+                double peso = vecino.getValue();
+                double nuevaDistancia = distancias.get(actual) + peso;
+
+                if (nuevaDistancia < distancias.get(nodoVecino)) {
+                    distancias.put(nodoVecino, nuevaDistancia);
+                    predecesores.put(nodoVecino, actual);
+                    cola.offer(nodoVecino);
+                }
+            }
+        }
+
+        List<String> camino = new ArrayList<>();
+        String actual = destino;
+        while (actual != null) {
+            camino.add(actual);
+            actual = predecesores.get(actual);
+        }
+        Collections.reverse(camino);
+
+        return camino;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(DijkstraBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,80 @@
+package com.uade.transferencia_futbol.controller;
+
+import com.uade.transferencia_futbol.dto.Agregado;
+import com.uade.transferencia_futbol.service.AgenteService;
+import com.uade.transferencia_futbol.service.ClubService;
+import com.uade.transferencia_futbol.service.LigaService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Los endpoints de agregados de club, liga y agente responden en
+ * /api/{recurso}/{nombre}/agregados, y un nombre inexistente es un 404.
+ */
+@WebMvcTest({ClubController.class, LigaController.class, AgenteController.class})
+class AgregadosControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ClubService clubService;
+
+    @MockitoBean
+    private LigaService ligaService;
+
+    @MockitoBean
+    private AgenteService agenteService;
+
+    @Test
+    void agregadosDeClub() throws Exception {
+        when(clubService.obtenerAgregadosClub("River Plate")).thenReturn(new Agregado(25, 180.5, 26.0));
+        when(clubService.obtenerAgregadosClub("Inexistente"))
+            .thenThrow(new RuntimeException("Club no encontrado: Inexistente"));
+
+        mockMvc.perform(get("/api/clubes/{nombre}/agregados", "River Plate"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.jugadores").value(25))
+            .andExpect(jsonPath("$.valorMercadoTotal").value(180.5))
+            .andExpect(jsonPath("$.edadPromedio").value(26.0));
+        mockMvc.perform(get("/api/clubes/{nombre}/agregados", "Inexistente"))
+            .andExpect(status().isNotFound())
+            .andExpect(jsonPath("$.error").value("Club no encontrado: Inexistente"));
+    }
+
+    @Test
+    void agregadosDeLiga() throws Exception {
+        when(ligaService.obtenerAgregadosLiga("Premier League")).thenReturn(new Agregado(500, 9000.0, 25.5));
+        when(ligaService.obtenerAgregadosLiga("Inexistente"))
+            .thenThrow(new RuntimeException("Liga no encontrada: Inexistente"));
+
+        mockMvc.perform(get("/api/ligas/{nombre}/agregados", "Premier League"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.jugadores").value(500))
+            .andExpect(jsonPath("$.valorMercadoTotal").value(9000.0));
+        mockMvc.perform(get("/api/ligas/{nombre}/agregados", "Inexistente"))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void agregadosDeAgente() throws Exception {
+        when(agenteService.obtenerAgregadosAgente("Jorge Mendes")).thenReturn(Agregado.VACIO);
+        when(agenteService.obtenerAgregadosAgente("Inexistente"))
+            .thenThrow(new RuntimeException("Agente no encontrado: Inexistente"));
+
+        mockMvc.perform(get("/api/agentes/{nombre}/agregados", "Jorge Mendes"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.jugadores").value(0))
+            .andExpect(jsonPath("$.edadPromedio").isEmpty());
+        mockMvc.perform(get("/api/agentes/{nombre}/agregados", "Inexistente"))
+            .andExpect(status().isNotFound());
+    }
+}
@@ -0,0 +1,264 @@
+package com.uade.transferencia_futbol.service;
+
+import com.uade.transferencia_futbol.dto.Agregado;
+import com.uade.transferencia_futbol.event.AgenteEliminadoEvent;
+import com.uade.transferencia_futbol.event.AgentesAsignadosEvent;
+import com.uade.transferencia_futbol.event.ClubEliminadoEvent;
+import com.uade.transferencia_futbol.event.ClubModificadoEvent;
+import com.uade.transferencia_futbol.event.JugadorEliminadoEvent;
+import com.uade.transferencia_futbol.event.JugadorModificadoEvent;
+import com.uade.transferencia_futbol.event.LigaEliminadaEvent;
+import com.uade.transferencia_futbol.event.TransferenciaRealizadaEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Los totales de {@link AgregadosIndex} mantenidos con los eventos coinciden
+ * con un recuento completo de la base después de cada cambio, incluidos los
+ * cambios que se confirman mientras una recarga está leyendo.
+ *
+ * La base es un modelo en memoria; el Neo4jClient simulado arma las filas de
+ * las dos consultas de la recarga a partir de él.
+ */
+class AgregadosIndexTest {
+
+    private static final List<String> CLUBES = List.of("Club A", "Club B", "Club C", "Club D", "Club E");
+    private static final List<String> LIGAS = List.of("Liga 1", "Liga 2", "Liga 3");
+    private static final List<String> AGENTES = List.of("Agente 1", "Agente 2", "Agente 3");
+
+    private record Jugador(Integer edad, Double valorMercado, String club, String agente) {
+    }
+
+    private final Map<String, Jugador> jugadores = new LinkedHashMap<>();
+    private final Map<String, String> ligaPorClub = new HashMap<>();
+
+    private Random random;
+    private AgregadosIndex indice;
+    // Cambio a confirmar mientras corre la consulta de jugadores de la próxima recarga
+    private Runnable duranteProximaConsulta;
+
+    @BeforeEach
+    void preparar() {
+        random = new Random(21);
+        for (int i = 0; i < CLUBES.size(); i++) {
+            ligaPorClub.put(CLUBES.get(i), LIGAS.get(i % LIGAS.size()));
+        }
+        for (int i = 0; i < 40; i++) {
+            jugadores.put("Jugador " + i, new Jugador(
+                18 + random.nextInt(20), 1.0 + random.nextInt(100),
+                CLUBES.get(random.nextInt(CLUBES.size())), AGENTES.get(random.nextInt(AGENTES.size()))));
+        }
+
+        Neo4jClient neo4jClient = mock(Neo4jClient.class, RETURNS_DEEP_STUBS);
+        when(neo4jClient.query(contains("MATCH (j:Jugador)")).fetch().all()).thenAnswer(invocacion -> {
+            List<Map<String, Object>> filas = filasJugadores();
+            if (duranteProximaConsulta != null) {
+                Runnable cambio = duranteProximaConsulta;
+                duranteProximaConsulta = null;
+                cambio.run();
+            }
+            return filas;
+        });
+        when(neo4jClient.query(contains("COMPITE_EN")).fetch().all()).thenAnswer(invocacion -> filasLigas());
+
+        indice = new AgregadosIndex();
+        ReflectionTestUtils.setField(indice, "neo4jClient", neo4jClient);
+        indice.recargar();
+    }
+
+    @Test
+    void losEventosDejanLosMismosTotalesQueUnRecuento() {
+        verificar();
+        for (int paso = 0; paso < 2000; paso++) {
+            cambioAlAzar();
+            verificar();
+        }
+    }
+
+    @Test
+    void losCambiosConfirmadosDuranteUnaRecargaNoSePierden() {
+        for (int recarga = 0; recarga < 300; recarga++) {
+            // La consulta ya leyó sus filas cuando se confirma el cambio
+            duranteProximaConsulta = this::cambioAlAzar;
+            indice.recargar();
+            verificar();
+            cambioAlAzar();
+            verificar();
+        }
+    }
+
+    @Test
+    void casosPuntuales() {
+        jugadores.clear();
+        jugadores.put("Uno", new Jugador(20, 10.0, "Club A", "Agente 1"));
+        jugadores.put("Dos", new Jugador(null, null, "Club A", null));
+        indice.recargar();
+
+        assertEquals(new Agregado(2, 10.0, 20.0), indice.club("Club A"));
+        assertEquals(Agregado.VACIO, indice.club("Club B"));
+        assertEquals(Agregado.VACIO, indice.agente("Agente 2"));
+
+        // El club cambia de liga y se lleva sus totales
+        ligaPorClub.put("Club A", "Liga 2");
+        indice.onClubModificado(new ClubModificadoEvent("Club A", "Liga 2"));
+        assertEquals(Agregado.VACIO, indice.liga("Liga 1"));
+        assertEquals(new Agregado(2, 10.0, 20.0), indice.liga("Liga 2"));
+
+        // Al borrar el club sus jugadores quedan libres, pero siguen con su agente
+        indice.onClubEliminado(new ClubEliminadoEvent("Club A"));
+        assertEquals(Agregado.VACIO, indice.club("Club A"));
+        assertEquals(Agregado.VACIO, indice.liga("Liga 2"));
+        assertEquals(new Agregado(1, 10.0, 20.0), indice.agente("Agente 1"));
+    }
+
+    // ==================== MODELO ====================
+
+    private void cambioAlAzar() {
+        String jugador = "Jugador " + random.nextInt(50);
+        String club = random.nextInt(8) == 0 ? null : CLUBES.get(random.nextInt(CLUBES.size()));
+        switch (random.nextInt(9)) {
+            case 0, 1 -> {
+                Integer edad = random.nextInt(6) == 0 ? null : 18 + random.nextInt(20);
+                Double valor = random.nextInt(6) == 0 ? null : 1.0 + random.nextInt(100);
+                Jugador anterior = jugadores.get(jugador);
+                jugadores.put(jugador, new Jugador(edad, valor, club, anterior != null ? anterior.agente() : null));
+                indice.onJugadorModificado(new JugadorModificadoEvent(jugador, edad, "Delantero", valor, "AR", club));
+            }
+            case 2, 3 -> {
+                Jugador anterior = jugadores.get(jugador);
+                if (anterior == null || club == null) {
+                    return;
+                }
+                jugadores.put(jugador, new Jugador(anterior.edad(), anterior.valorMercado(), club, anterior.agente()));
+                indice.onTransferenciaRealizada(new TransferenciaRealizadaEvent(
+                    jugador, anterior.club(), club, 1.0, "2025-2026", "Compra"));
+            }
+            case 4 -> {
+                Map<String, String> asignados = new HashMap<>();
+                for (String nombre : new ArrayList<>(jugadores.keySet())) {
+                    Jugador j = jugadores.get(nombre);
+                    if (j.agente() == null && random.nextBoolean()) {
+                        String agente = AGENTES.get(random.nextInt(AGENTES.size()));
+                        jugadores.put(nombre, new Jugador(j.edad(), j.valorMercado(), j.club(), agente));
+                        asignados.put(nombre, agente);
+                    }
+                }
+                indice.onAgentesAsignados(new AgentesAsignadosEvent(asignados));
+            }
+            case 5 -> {
+                String elegido = CLUBES.get(random.nextInt(CLUBES.size()));
+                String liga = random.nextInt(5) == 0 ? null : LIGAS.get(random.nextInt(LIGAS.size()));
+                if (liga != null) {
+                    ligaPorClub.put(elegido, liga);
+                } else {
+                    ligaPorClub.remove(elegido);
+                }
+                indice.onClubModificado(new ClubModificadoEvent(elegido, liga));
+            }
+            case 6 -> {
+                String elegido = CLUBES.get(random.nextInt(CLUBES.size()));
+                jugadores.replaceAll((nombre, j) -> elegido.equals(j.club())
+                    ? new Jugador(j.edad(), j.valorMercado(), null, j.agente()) : j);
+                ligaPorClub.remove(elegido);
+                indice.onClubEliminado(new ClubEliminadoEvent(elegido));
+            }
+            case 7 -> {
+                String agente = AGENTES.get(random.nextInt(AGENTES.size()));
+                jugadores.replaceAll((nombre, j) -> agente.equals(j.agente())
+                    ? new Jugador(j.edad(), j.valorMercado(), j.club(), null) : j);
+                indice.onAgenteEliminado(new AgenteEliminadoEvent(agente));
+            }
+            default -> {
+                if (random.nextInt(4) == 0) {
+                    String liga = LIGAS.get(random.nextInt(LIGAS.size()));
+                    ligaPorClub.values().removeIf(liga::equals);
+                    indice.onLigaEliminada(new LigaEliminadaEvent(liga));
+                } else {
+                    jugadores.remove(jugador);
+                    indice.onJugadorEliminado(new JugadorEliminadoEvent(jugador));
+                }
+            }
+        }
+    }
+
+    private List<Map<String, Object>> filasJugadores() {
+        List<Map<String, Object>> filas = new ArrayList<>();
+        for (Map.Entry<String, Jugador> entry : jugadores.entrySet()) {
+            Map<String, Object> fila = new HashMap<>();
+            fila.put("nombre", entry.getKey());
+            fila.put("edad", entry.getValue().edad());
+            fila.put("valorMercado", entry.getValue().valorMercado());
+            fila.put("club", entry.getValue().club());
+            fila.put("agente", entry.getValue().agente());
+            filas.add(fila);
+        }
+        return filas;
+    }
+
+    private List<Map<String, Object>> filasLigas() {
+        List<Map<String, Object>> filas = new ArrayList<>();
+        for (Map.Entry<String, String> entry : ligaPorClub.entrySet()) {
+            filas.add(Map.of("club", entry.getKey(), "liga", entry.getValue()));
+        }
+        return filas;
+    }
+
+    private void verificar() {
+        for (String club : CLUBES) {
+            comparar(recuento(j -> club.equals(j.club())), indice.club(club), club);
+        }
+        for (String liga : LIGAS) {
+            comparar(recuento(j -> j.club() != null && liga.equals(ligaPorClub.get(j.club()))), indice.liga(liga), liga);
+        }
+        for (String agente : AGENTES) {
+            comparar(recuento(j -> agente.equals(j.agente())), indice.agente(agente), agente);
+        }
+    }
+
+    private Agregado recuento(Predicate<Jugador> incluido) {
+        long cantidad = 0;
+        double valor = 0.0;
+        long conEdad = 0;
+        long sumaEdades = 0;
+        for (Jugador j : jugadores.values()) {
+            if (!incluido.test(j)) {
+                continue;
+            }
+            cantidad++;
+            valor += Objects.requireNonNullElse(j.valorMercado(), 0.0);
+            if (j.edad() != null) {
+                conEdad++;
+                sumaEdades += j.edad();
+            }
+        }
+        return new Agregado(cantidad, valor, conEdad > 0 ? (double) sumaEdades / conEdad : null);
+    }
+
+    private static void comparar(Agregado esperado, Agregado obtenido, String grupo) {
+        assertEquals(esperado.jugadores(), obtenido.jugadores(), grupo);
+        assertEquals(esperado.valorMercadoTotal(), obtenido.valorMercadoTotal(), 1e-6, grupo);
+        if (esperado.edadPromedio() == null) {
+            assertNull(obtenido.edadPromedio(), grupo);
+        } else {
+            assertEquals(esperado.edadPromedio(), obtenido.edadPromedio(), 1e-9, grupo);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.uade.transferencia_futbol.service;
+
+import com.uade.transferencia_futbol.dto.CarreraJugador;
+import com.uade.transferencia_futbol.dto.EtapaCarrera;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Armado de etapas de {@link CarreraJugadorService#armarCarrera} a partir de
+ * las transferencias: con clubOrigen, fichajes de jugador libre marcados con
+ * sinClubOrigen y transferencias viejas sin ninguno de los dos campos.
+ */
+class CarreraJugadorServiceTest {
+
+    private static final LocalDate F1 = LocalDate.of(2020, 7, 1);
+    private static final LocalDate F2 = LocalDate.of(2022, 7, 1);
+    private static final LocalDate F3 = LocalDate.of(2024, 7, 1);
+
+    @Test
+    void conClubOrigenArmaUnaEtapaPorClub() {
+        CarreraJugador carrera = CarreraJugadorService.armarCarrera("J", "C", List.of(
+            movimiento("A", false, "B", F1, "2020-2021"),
+            movimiento("B", false, "C", F2, "2022-2023")));
+
+        assertEquals(List.of("A", "B", "C"), carrera.historialCompleto());
+        EtapaCarrera enB = carrera.etapas().get(1);
+        assertEquals(F1, enB.desde());
+        assertEquals(F2, enB.hasta());
+        assertEquals("2020-2021", enB.temporadaDesde());
+        assertEquals("2022-2023", enB.temporadaHasta());
+        assertNull(carrera.etapas().get(2).hasta());
+        assertEquals(List.of("A", "B", "C"), carrera.recorridoBFS());
+        assertEquals(List.of("A", "B", "C"), carrera.recorridoDFS());
+    }
+
+    @Test
+    void sinClubOrigenNiMarcaVieneDelDestinoAnterior() {
+        CarreraJugador carrera = CarreraJugadorService.armarCarrera("J", "B", List.of(
+            movimiento(null, false, "A", F1, "2020-2021"),
+            movimiento(null, false, "B", F2, "2022-2023")));
+
+        assertEquals(List.of("A", "B"), carrera.historialCompleto());
+        assertEquals(F2, carrera.etapas().get(0).hasta());
+    }
+
+    @Test
+    void unFichajeLibreCierraLaEtapaAnteriorSinFecha() {
+        CarreraJugador carrera = CarreraJugadorService.armarCarrera("J", "B", List.of(
+            movimiento("X", false, "A", F1, "2020-2021"),
+            movimiento(null, true, "B", F2, "2022-2023")));
+
+        assertEquals(List.of("X", "A", "B"), carrera.historialCompleto());
+        EtapaCarrera enA = carrera.etapas().get(1);
+        assertEquals(F1, enA.desde());
+        // Quedó libre en algún momento: no se sabe cuándo terminó la etapa
+        assertNull(enA.hasta());
+        assertEquals(F2, carrera.etapas().get(2).desde());
+    }
+
+    @Test
+    void elClubActualSinTransferenciaYLasVueltasSeRespetan() {
+        CarreraJugador carrera = CarreraJugadorService.armarCarrera("J", "D", List.of(
+            movimiento("A", false, "B", F1, "2020-2021"),
+            movimiento("B", false, "A", F2, "2022-2023"),
+            movimiento("A", false, "C", F3, "2024-2025")));
+
+        assertEquals(List.of("A", "B", "A", "C", "D"), carrera.historialCompleto());
+        assertEquals(List.of("A", "B", "C", "D"), carrera.recorridoBFS());
+        assertEquals(List.of("2020-2021", "2022-2023", "2024-2025"), carrera.temporadasPorClub().get("A"));
+    }
+
+    private static Map<String, Object> movimiento(String origen, boolean libre, String destino,
+                                                  LocalDate fecha, String temporada) {
+        Map<String, Object> movimiento = new HashMap<>();
+        movimiento.put("origen", origen);
+        movimiento.put("libre", libre ? true : null);
+        movimiento.put("destino", destino);
+        movimiento.put("fecha", fecha);
+        movimiento.put("temporada", temporada);
+        movimiento.put("tipo", "Compra");
+        movimiento.put("monto", 1_000_000.0);
+        return movimiento;
+    }
+}
@@ -0,0 +1,127 @@
+package com.uade.transferencia_futbol.service;
+
+import com.uade.transferencia_futbol.entity.ClubEntity;
+import com.uade.transferencia_futbol.entity.JugadorEntity;
+import com.uade.transferencia_futbol.repository.ClubRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * La comparación de formaciones en paralelo: cada formación da lo mismo que
+ * evaluada sola, una formación inválida no afecta a las demás, el plazo vale
+ * por formación y un llamador interrumpido corta la comparación.
+ */
+class ClubServiceTest {
+
+    private static final String CLUB = "Club A";
+    private static final List<String> FORMACIONES = List.of("4-3-3", "4-4-2", "3-5-2", "4-2-3-1", "3-4-3");
+
+    private PosicionJugadoresIndex posicionJugadoresIndex;
+    private ClubService servicio;
+
+    @BeforeEach
+    void preparar() {
+        Random random = new Random(5);
+        Map<CategoriaPosicion, List<JugadorEntity>> delClub = new EnumMap<>(CategoriaPosicion.class);
+        Map<CategoriaPosicion, List<JugadorEntity>> libres = new EnumMap<>(CategoriaPosicion.class);
+        for (CategoriaPosicion categoria : CategoriaPosicion.values()) {
+            delClub.put(categoria, jugadores(random, categoria + " club ", 7));
+            libres.put(categoria, jugadores(random, categoria + " libre ", 12));
+        }
+
+        ClubRepository clubRepository = mock(ClubRepository.class);
+        when(clubRepository.findById(CLUB)).thenReturn(Optional.of(new ClubEntity(CLUB, "AR", 1e9, "Liga 1", 1900)));
+        posicionJugadoresIndex = mock(PosicionJugadoresIndex.class);
+        when(posicionJugadoresIndex.plantel(CLUB)).thenReturn(PosicionJugadoresIndex.Plantel.de(delClub));
+        when(posicionJugadoresIndex.libres()).thenReturn(PosicionJugadoresIndex.Plantel.de(libres));
+
+        servicio = new ClubService();
+        ReflectionTestUtils.setField(servicio, "clubRepository", clubRepository);
+        ReflectionTestUtils.setField(servicio, "posicionJugadoresIndex", posicionJugadoresIndex);
+        ReflectionTestUtils.setField(servicio, "memoriaMaximaMb", 64L);
+    }
+
+    @Test
+    void enParaleloCadaFormacionDaLoMismoQueSola() {
+        List<String> formaciones = new ArrayList<>(FORMACIONES);
+        formaciones.add("4-4");
+
+        Map<String, Object> comparativa = servicio.compararFormaciones(CLUB, formaciones, 40_000_000.0, 60_000);
+
+        List<Map<String, Object>> resultados = resultados(comparativa);
+        assertEquals(formaciones.size(), resultados.size());
+        for (int i = 0; i < FORMACIONES.size(); i++) {
+            Map<String, Object> resumen = resultados.get(i);
+            Map<String, Object> sola = servicio.obtenerEscuadraOptimaConPresupuesto(
+                CLUB, FORMACIONES.get(i), 40_000_000.0);
+            assertEquals(FORMACIONES.get(i), resumen.get("formacion"));
+            assertNull(resumen.get("error"), FORMACIONES.get(i));
+            assertEquals(sola.get("valorTotal"), resumen.get("valorTotal"));
+            assertEquals(sola.get("costoTotal"), resumen.get("costoTotal"));
+            assertEquals(11, resumen.get("totalJugadores"));
+            assertTrue((double) resumen.get("costoTotal") <= 40_000_000.0);
+        }
+        // La inválida se informa en su lugar sin frenar a las demás
+        assertEquals("4-4", resultados.get(5).get("formacion"));
+        assertEquals("Error al parsear formación: 4-4", resultados.get(5).get("error"));
+
+        // Los candidatos se cargan una sola vez para toda la comparación
+        verify(posicionJugadoresIndex, times(1 + FORMACIONES.size())).plantel(CLUB);
+    }
+
+    @Test
+    void cadaFormacionVencidaSeInformaComoTiempoAgotado() {
+        Map<String, Object> comparativa = servicio.compararFormaciones(CLUB, FORMACIONES, 40_000_000.0, 0);
+
+        List<Map<String, Object>> resultados = resultados(comparativa);
+        assertEquals(FORMACIONES.size(), resultados.size());
+        for (int i = 0; i < FORMACIONES.size(); i++) {
+            assertEquals(FORMACIONES.get(i), resultados.get(i).get("formacion"));
+            assertEquals("Tiempo agotado (0 ms)", resultados.get(i).get("error"));
+        }
+    }
+
+    @Test
+    void unLlamadorInterrumpidoCortaLaComparacion() {
+        Thread.currentThread().interrupt();
+        try {
+            RuntimeException error = assertThrows(RuntimeException.class,
+                () -> servicio.compararFormaciones(CLUB, FORMACIONES, 40_000_000.0, 60_000));
+            assertEquals("Comparación de formaciones interrumpida", error.getMessage());
+            assertTrue(Thread.currentThread().isInterrupted());
+        } finally {
+            Thread.interrupted();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> resultados(Map<String, Object> comparativa) {
+        return (List<Map<String, Object>>) comparativa.get("resultados");
+    }
+
+    private static List<JugadorEntity> jugadores(Random random, String prefijo, int cantidad) {
+        List<JugadorEntity> jugadores = new ArrayList<>();
+        for (int i = 0; i < cantidad; i++) {
+            jugadores.add(new JugadorEntity(prefijo + i, 20 + random.nextInt(15), "Delantero",
+                (1 + random.nextInt(30)) * 500_000.0, "AR"));
+        }
+        return jugadores;
+    }
+}
@@ -0,0 +1,81 @@
+package com.uade.transferencia_futbol.service;
+
+import com.uade.transferencia_futbol.dto.EstadisticasTemporada;
+import com.uade.transferencia_futbol.dto.EstadisticasTemporada.Balance;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.testcontainers.containers.Neo4jContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * La consulta de estadísticas contra un Neo4j local: totales, balances por
+ * club y por liga, con el origen de cada transferencia según la regla común
+ * (clubOrigen, fichaje libre marcado, o en las viejas sin ninguno de los dos
+ * campos el destino de la transferencia anterior del jugador).
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class EstadisticasTemporadaConsultaTest {
+
+    @Container
+    @ServiceConnection
+    static final Neo4jContainer<?> neo4j = new Neo4jContainer<>("neo4j:5");
+
+    @Autowired
+    private EstadisticasTemporadaService estadisticasTemporadaService;
+
+    @Autowired
+    private Neo4jClient neo4jClient;
+
+    @BeforeEach
+    void cargarDatos() {
+        neo4jClient.query("MATCH (n) DETACH DELETE n").run();
+        neo4jClient.query(
+            "CREATE (x:Liga {nombre: 'Liga X'}), (y:Liga {nombre: 'Liga Y'}), " +
+            "(a:Club {nombre: 'A'})-[:COMPITE_EN]->(x), (b:Club {nombre: 'B'})-[:COMPITE_EN]->(y), " +
+            "(c:Club {nombre: 'C'})-[:COMPITE_EN]->(y), " +
+            // Vieja, sin clubOrigen ni sinClubOrigen: su origen es el destino anterior (A)
+            "(j1:Jugador {nombre: 'J1'})-[:TRANSFERIDO {fecha: date('2023-07-01'), temporada: '2023-2024', " +
+            "monto: 5.0, tipoTransferencia: 'Compra'}]->(a), " +
+            "(j1)-[:TRANSFERIDO {fecha: date('2024-08-01'), temporada: '2024-2025', " +
+            "monto: 30.0, tipoTransferencia: 'Compra'}]->(b), " +
+            // Fichaje libre marcado: sin origen aunque tenga una transferencia anterior
+            "(j2:Jugador {nombre: 'J2'})-[:TRANSFERIDO {fecha: date('2023-07-02'), temporada: '2023-2024', " +
+            "monto: 1.0, tipoTransferencia: 'Compra', clubOrigen: 'B'}]->(a), " +
+            "(j2)-[:TRANSFERIDO {fecha: date('2024-08-02'), temporada: '2024-2025', " +
+            "monto: 0.0, tipoTransferencia: 'Libre', sinClubOrigen: true}]->(c), " +
+            "(j3:Jugador {nombre: 'J3'})-[:TRANSFERIDO {fecha: date('2024-08-03'), temporada: '2024-2025', " +
+            "monto: 10.0, tipoTransferencia: 'Compra', clubOrigen: 'C'}]->(a)")
+            .run();
+    }
+
+    @Test
+    void balancesConElOrigenDeLasTransferenciasViejas() {
+        EstadisticasTemporada estadisticas = estadisticasTemporadaService.obtenerEstadisticas("2024-2025", 10);
+
+        assertEquals(3, estadisticas.totalTransferencias());
+        assertEquals(40.0, estadisticas.montoTotal(), 1e-9);
+        assertEquals("A", estadisticas.masCaras().get(0).clubOrigen());
+        assertNull(estadisticas.masCaras().get(2).clubOrigen());
+
+        assertEquals(List.of(new Balance("B", 1, 30.0, 0, 0.0, 30.0)), estadisticas.mayoresCompradores());
+        assertEquals(List.of(
+                new Balance("A", 1, 10.0, 1, 30.0, -20.0),
+                new Balance("C", 1, 0.0, 1, 10.0, -10.0)),
+            estadisticas.mayoresVendedores());
+        assertEquals(List.of(
+                new Balance("Liga Y", 2, 30.0, 1, 10.0, 20.0),
+                new Balance("Liga X", 1, 10.0, 1, 30.0, -20.0)),
+            estadisticas.porLiga());
+    }
+}
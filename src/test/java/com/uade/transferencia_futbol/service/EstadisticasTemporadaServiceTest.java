@@ -0,0 +1,63 @@
+package com.uade.transferencia_futbol.service;
+
+import com.uade.transferencia_futbol.dto.ComparacionTemporadas;
+import com.uade.transferencia_futbol.dto.ComparacionTemporadas.Variacion;
+import com.uade.transferencia_futbol.dto.EstadisticasTemporada;
+import com.uade.transferencia_futbol.dto.EstadisticasTemporada.Balance;
+import com.uade.transferencia_futbol.dto.EstadisticasTemporada.Percentiles;
+import com.uade.transferencia_futbol.dto.EstadisticasTemporada.PorTipo;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.spy;
+
+/**
+ * La comparación de temporadas: variación de cada métrica general, y por tipo
+ * y por liga con 0 para lo que falta en una de las dos temporadas.
+ */
+class EstadisticasTemporadaServiceTest {
+
+    @Test
+    void comparaCadaMetricaYCompletaConCero() {
+        EstadisticasTemporada anterior = new EstadisticasTemporada("2023-2024", 4, 100.0, 25.0, 50.0,
+            new Percentiles(10.0, 20.0, 30.0, 45.0),
+            List.of(new PorTipo("Compra", 3, 100.0), new PorTipo("Libre", 1, 0.0)),
+            List.of(), List.of(), List.of(),
+            List.of(new Balance("Liga 1", 2, 80.0, 1, 10.0, 70.0),
+                new Balance("Liga 2", 2, 20.0, 0, 0.0, 20.0)));
+        EstadisticasTemporada actual = new EstadisticasTemporada("2024-2025", 5, 150.0, 30.0, 50.0,
+            new Percentiles(null, null, null, null),
+            List.of(new PorTipo("Compra", 4, 150.0), new PorTipo("Préstamo", 1, 0.0)),
+            List.of(), List.of(), List.of(),
+            List.of(new Balance("Liga 1", 5, 150.0, 0, 0.0, 150.0)));
+
+        EstadisticasTemporadaService servicio = spy(new EstadisticasTemporadaService());
+        doReturn(actual).when(servicio).obtenerEstadisticas("2024-2025", 3);
+        doReturn(anterior).when(servicio).obtenerEstadisticas("2023-2024", 3);
+
+        ComparacionTemporadas comparacion = servicio.compararTemporadas("2024-2025", "2023-2024", 3);
+
+        assertEquals(actual, comparacion.actual());
+        assertEquals(anterior, comparacion.anterior());
+        assertEquals(new Variacion(4.0, 5.0, 1.0, 25.0), comparacion.generales().get("totalTransferencias"));
+        assertEquals(new Variacion(100.0, 150.0, 50.0, 50.0), comparacion.generales().get("montoTotal"));
+        assertEquals(new Variacion(50.0, 50.0, 0.0, 0.0), comparacion.generales().get("montoMaximo"));
+        // Sin montos en la actual: sin diferencia ni porcentaje
+        assertEquals(new Variacion(20.0, null, null, null), comparacion.generales().get("montoMediana"));
+
+        assertEquals(new Variacion(3.0, 4.0, 1.0, 100.0 / 3), comparacion.cantidadPorTipo().get("Compra"));
+        assertEquals(new Variacion(1.0, 0.0, -1.0, -100.0), comparacion.cantidadPorTipo().get("Libre"));
+        // Nuevo en la actual: sin porcentaje porque antes era 0
+        Variacion prestamo = comparacion.cantidadPorTipo().get("Préstamo");
+        assertEquals(1.0, prestamo.diferencia());
+        assertNull(prestamo.porcentaje());
+
+        assertEquals(new Variacion(80.0, 150.0, 70.0, 87.5), comparacion.gastoPorLiga().get("Liga 1"));
+        assertEquals(new Variacion(20.0, 0.0, -20.0, -100.0), comparacion.gastoPorLiga().get("Liga 2"));
+        assertEquals(2, comparacion.gastoPorLiga().size());
+    }
+}
@@ -0,0 +1,88 @@
+package com.uade.transferencia_futbol.service;
+
+import com.uade.transferencia_futbol.algoritmo.GrafoCsr;
+import com.uade.transferencia_futbol.service.GrafoTransferenciasIndex.Movimiento;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Las transferencias que confirman mientras {@link GrafoTransferenciasIndex}
+ * se recarga quedan en el grafo publicado, tanto en la primera carga como en
+ * una recarga con un grafo ya publicado.
+ */
+class GrafoTransferenciasIndexTest {
+
+    private final List<Map<String, Object>> aristas = new ArrayList<>();
+    // Transferencia confirmada mientras corre la próxima consulta de aristas
+    private Movimiento duranteProximaConsulta;
+
+    private GrafoTransferenciasIndex indice;
+
+    @BeforeEach
+    void preparar() {
+        aristas.add(Map.of("origen", "Club A", "destino", "Club B", "monto", 10.0));
+
+        Neo4jClient neo4jClient = mock(Neo4jClient.class, RETURNS_DEEP_STUBS);
+        when(neo4jClient.query(contains("MATCH (c:Club) RETURN")).fetch().all()).thenAnswer(invocacion ->
+            List.of(Map.of("nombre", "Club A"), Map.of("nombre", "Club B"), Map.of("nombre", "Club C")));
+        when(neo4jClient.query(contains("TRANSFERIDO")).fetch().all()).thenAnswer(invocacion -> {
+            List<Map<String, Object>> filas = List.copyOf(aristas);
+            if (duranteProximaConsulta != null) {
+                Movimiento movimiento = duranteProximaConsulta;
+                duranteProximaConsulta = null;
+                aristas.add(Map.of("origen", movimiento.origen(), "destino", movimiento.destino(),
+                    "monto", movimiento.monto()));
+                indice.registrarTransferencias(List.of(movimiento));
+            }
+            return filas;
+        });
+
+        indice = new GrafoTransferenciasIndex();
+        ReflectionTestUtils.setField(indice, "neo4jClient", neo4jClient);
+    }
+
+    @Test
+    void laPrimeraCargaIncluyeLoConfirmadoDuranteLaConsulta() {
+        duranteProximaConsulta = new Movimiento("Club B", "Club C", 5.0);
+
+        GrafoCsr grafo = indice.obtenerGrafo();
+
+        assertEquals(5.0, peso(grafo, "Club B", "Club C"));
+        assertEquals(10.0, peso(grafo, "Club A", "Club B"));
+    }
+
+    @Test
+    void unaRecargaNoPisaLoConfirmadoDuranteLaConsulta() {
+        indice.recargar();
+        duranteProximaConsulta = new Movimiento("Club C", "Club A", 7.0);
+
+        indice.recargar();
+
+        GrafoCsr grafo = indice.obtenerGrafo();
+        assertEquals(7.0, peso(grafo, "Club C", "Club A"));
+        assertEquals(2, grafo.cantidadAristas());
+
+        // Después de la recarga las transferencias vuelven a aplicarse directo
+        indice.registrarTransferencias(List.of(new Movimiento("Club A", "Club B", 3.0)));
+        assertEquals(3.0, peso(indice.obtenerGrafo(), "Club A", "Club B"));
+    }
+
+    private static double peso(GrafoCsr grafo, String origen, String destino) {
+        int arista = grafo.buscarArista(grafo.id(origen), grafo.id(destino));
+        assertTrue(arista >= 0, origen + " -> " + destino);
+        return grafo.peso(arista);
+    }
+}
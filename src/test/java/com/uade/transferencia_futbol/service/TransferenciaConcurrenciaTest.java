@@ -0,0 +1,185 @@
+package com.uade.transferencia_futbol.service;
+
+import com.uade.transferencia_futbol.dto.ResultadoTransferencia;
+import com.uade.transferencia_futbol.dto.SolicitudTransferencia;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.testcontainers.containers.Neo4jContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Transferencias concurrentes contra un Neo4j local: con muchos hilos
+ * comprando entre pocos clubes, la suma de los presupuestos no cambia, ningún
+ * presupuesto queda negativo y cada compra aceptada deja exactamente una
+ * TRANSFERIDO, tanto de a una como en lote. Informa además las
+ * transferencias por segundo.
+ */
+@SpringBootTest
+@Testcontainers(disabledWithoutDocker = true)
+class TransferenciaConcurrenciaTest {
+
+    private static final int CLUBES = 4;
+    private static final int JUGADORES = 200;
+    private static final int HILOS = 16;
+    private static final double PRESUPUESTO_INICIAL = 100.0;
+    private static final double MONTO = 3.0;
+
+    private static final Logger log = LoggerFactory.getLogger(TransferenciaConcurrenciaTest.class);
+
+    @Container
+    @ServiceConnection
+    static final Neo4jContainer<?> neo4j = new Neo4jContainer<>("neo4j:5");
+
+    @Autowired
+    private TransferenciaService transferenciaService;
+
+    @Autowired
+    private Neo4jClient neo4jClient;
+
+    @Autowired
+    private ResumenesCache resumenesCache;
+
+    @Autowired
+    private AgregadosIndex agregadosIndex;
+
+    @Autowired
+    private GrafoTransferenciasIndex grafoTransferenciasIndex;
+
+    @Autowired
+    private PosicionJugadoresIndex posicionJugadoresIndex;
+
+    @BeforeEach
+    void cargarDatos() {
+        neo4jClient.query("MATCH (n) DETACH DELETE n").run();
+        neo4jClient.query(
+            "UNWIND range(0, $clubes - 1) AS i " +
+            "CREATE (:Club {nombre: 'Club ' + i, pais: 'AR', presupuesto: $presupuesto, fundacion: 1900})")
+            .bind(CLUBES).to("clubes")
+            .bind(PRESUPUESTO_INICIAL).to("presupuesto")
+            .run();
+        neo4jClient.query(
+            "UNWIND range(0, $jugadores - 1) AS i " +
+            "MATCH (c:Club {nombre: 'Club ' + (i % $clubes)}) " +
+            "CREATE (:Jugador {nombre: 'Jugador ' + i, edad: 25, posicion: 'Delantero', " +
+            "valorMercado: 1.0, nacionalidad: 'AR'})-[:JUEGA_EN]->(c)")
+            .bind(JUGADORES).to("jugadores")
+            .bind(CLUBES).to("clubes")
+            .run();
+
+        // Cada test parte de los datos recién cargados, no de lo que dejó el anterior
+        resumenesCache.vaciar();
+        agregadosIndex.recargar();
+        grafoTransferenciasIndex.recargar();
+        posicionJugadoresIndex.recargar();
+    }
+
+    @Test
+    void losPresupuestosSeConservanConComprasConcurrentes() throws Exception {
+        AtomicInteger aceptadas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+        List<String> errores = new ArrayList<>();
+
+        ExecutorService pool = Executors.newFixedThreadPool(HILOS);
+        long inicio = System.nanoTime();
+        try {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int i = 0; i < JUGADORES; i++) {
+                String jugador = "Jugador " + i;
+                // Cada jugador pasa al club siguiente: todos los hilos compiten por los mismos clubes
+                String destino = "Club " + ((i + 1) % CLUBES);
+                tareas.add(pool.submit(() -> {
+                    try {
+                        transferenciaService.realizarTransferencia(jugador, destino, MONTO, "2025-2026", "Compra");
+                        aceptadas.incrementAndGet();
+                    } catch (RuntimeException e) {
+                        // El saldo solo se valida con el club bloqueado
+                        if (e.getMessage() != null && e.getMessage().contains("presupuesto suficiente")) {
+                            rechazadas.incrementAndGet();
+                        } else {
+                            synchronized (errores) {
+                                errores.add(jugador + ": " + e);
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        log.info("{} transferencias ({} aceptadas, {} rechazadas) en {} s: {}/s",
+            JUGADORES, aceptadas.get(), rechazadas.get(),
+            String.format("%.2f", segundos), String.format("%.1f", JUGADORES / segundos));
+
+        assertTrue(errores.isEmpty(), () -> "Errores inesperados: " + errores);
+        assertEquals(JUGADORES, aceptadas.get() + rechazadas.get());
+
+        Map<String, Object> totales = neo4jClient.query(
+            "MATCH (c:Club) RETURN sum(c.presupuesto) AS total, min(c.presupuesto) AS minimo")
+            .fetch().one().orElseThrow();
+        assertEquals(CLUBES * PRESUPUESTO_INICIAL, ((Number) totales.get("total")).doubleValue(), 1e-6);
+        assertTrue(((Number) totales.get("minimo")).doubleValue() >= 0.0);
+
+        long transferidos = neo4jClient.query("MATCH ()-[t:TRANSFERIDO]->() RETURN count(t)")
+            .fetchAs(Long.class).one().orElseThrow();
+        assertEquals(aceptadas.get(), transferidos);
+
+        long sinUnicoClub = neo4jClient.query(
+            "MATCH (j:Jugador) WHERE COUNT { (j)-[:JUEGA_EN]->() } <> 1 RETURN count(j)")
+            .fetchAs(Long.class).one().orElseThrow();
+        assertEquals(0, sinUnicoClub);
+    }
+
+    @Test
+    void elLoteInformaCadaResultadoYConservaLosPresupuestos() {
+        List<SolicitudTransferencia> solicitudes = new ArrayList<>();
+        for (int i = 0; i < JUGADORES; i++) {
+            solicitudes.add(new SolicitudTransferencia(
+                "Jugador " + i, "Club " + ((i + 1) % CLUBES), MONTO, "2025-2026", "Compra"));
+        }
+        solicitudes.add(new SolicitudTransferencia("Jugador 0", "Club 2", MONTO, "2025-2026", "Compra"));
+        solicitudes.add(new SolicitudTransferencia("Jugador inexistente", "Club 0", MONTO, "2025-2026", "Compra"));
+
+        Map<String, Object> resumen = transferenciaService.realizarTransferenciasEnLote(solicitudes);
+        @SuppressWarnings("unchecked")
+        List<ResultadoTransferencia> resultados = (List<ResultadoTransferencia>) resumen.get("resultados");
+        log.info("Lote de {}: {}/s", solicitudes.size(), resumen.get("transferenciasPorSegundo"));
+
+        assertEquals(solicitudes.size(), resultados.size());
+        assertTrue(resultados.get(JUGADORES).error().startsWith("Jugador repetido"));
+        assertTrue(resultados.get(JUGADORES + 1).error().startsWith("Jugador no encontrado"));
+
+        long realizadas = resultados.stream().filter(ResultadoTransferencia::realizada).count();
+        assertEquals(realizadas, ((Number) resumen.get("realizadas")).longValue());
+        long transferidos = neo4jClient.query("MATCH ()-[t:TRANSFERIDO]->() RETURN count(t)")
+            .fetchAs(Long.class).one().orElseThrow();
+        assertEquals(realizadas, transferidos);
+
+        Map<String, Object> totales = neo4jClient.query(
+            "MATCH (c:Club) RETURN sum(c.presupuesto) AS total, min(c.presupuesto) AS minimo")
+            .fetch().one().orElseThrow();
+        assertEquals(CLUBES * PRESUPUESTO_INICIAL, ((Number) totales.get("total")).doubleValue(), 1e-6);
+        assertTrue(((Number) totales.get("minimo")).doubleValue() >= 0.0);
+    }
+}
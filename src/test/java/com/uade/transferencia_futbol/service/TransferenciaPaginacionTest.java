@@ -0,0 +1,158 @@
+package com.uade.transferencia_futbol.service;
+
+import com.uade.transferencia_futbol.dto.Pagina;
+import com.uade.transferencia_futbol.dto.TransferenciaSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.data.neo4j.core.Neo4jClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Recorrer las páginas de transferencias con el cursor devuelve todas una sola
+ * vez: primero las fechadas de la más nueva a la más vieja y después las que
+ * no tienen fecha, para cualquier tamaño de página.
+ *
+ * El Neo4jClient simulado resuelve cada consulta de la paginación (filtro,
+ * orden y límite) sobre una lista en memoria.
+ */
+class TransferenciaPaginacionTest {
+
+    private record Fila(String id, LocalDate fecha) {
+    }
+
+    private final List<Fila> filas = new ArrayList<>();
+
+    private TransferenciaService servicio;
+
+    @BeforeEach
+    void preparar() {
+        filas.add(new Fila("5:x:01", LocalDate.of(2024, 7, 1)));
+        filas.add(new Fila("5:x:02", null));
+        filas.add(new Fila("5:x:03", LocalDate.of(2025, 1, 15)));
+        filas.add(new Fila("5:x:04", LocalDate.of(2024, 7, 1)));
+        filas.add(new Fila("5:x:05", null));
+        filas.add(new Fila("5:x:06", LocalDate.of(2023, 8, 20)));
+        filas.add(new Fila("5:x:07", null));
+
+        Paginacion paginacion = new Paginacion();
+        ReflectionTestUtils.setField(paginacion, "limitePorDefecto", 50);
+        ReflectionTestUtils.setField(paginacion, "limiteMaximo", 500);
+
+        servicio = new TransferenciaService();
+        ReflectionTestUtils.setField(servicio, "paginacion", paginacion);
+        ReflectionTestUtils.setField(servicio, "neo4jClient", clienteSimulado());
+    }
+
+    @Test
+    void recorreLasFechadasYDespuesLasSinFecha() {
+        List<String> esperado = List.of("5:x:03", "5:x:04", "5:x:01", "5:x:06", "5:x:07", "5:x:05", "5:x:02");
+        for (int tamano = 1; tamano <= filas.size() + 1; tamano++) {
+            List<String> recorridas = new ArrayList<>();
+            String cursor = null;
+            int paginas = 0;
+            do {
+                Pagina<TransferenciaSummary> pagina = servicio.obtenerPaginaTransferencias(tamano, cursor);
+                pagina.elementos().forEach(t -> recorridas.add(t.id()));
+                cursor = pagina.siguienteCursor();
+                paginas++;
+            } while (cursor != null && paginas <= filas.size() + 1);
+
+            assertEquals(esperado, recorridas, "tamaño " + tamano);
+        }
+    }
+
+    @Test
+    void unaPaginaPuedeMezclarFechadasYSinFecha() {
+        Pagina<TransferenciaSummary> primera = servicio.obtenerPaginaTransferencias(3, null);
+        Pagina<TransferenciaSummary> segunda = servicio.obtenerPaginaTransferencias(3, primera.siguienteCursor());
+
+        assertEquals(List.of("5:x:06", "5:x:07", "5:x:05"), segunda.elementos().stream().map(TransferenciaSummary::id).toList());
+        assertNull(segunda.elementos().get(1).fecha());
+
+        Pagina<TransferenciaSummary> ultima = servicio.obtenerPaginaTransferencias(3, segunda.siguienteCursor());
+        assertEquals(1, ultima.cantidad());
+        assertNull(ultima.siguienteCursor());
+    }
+
+    // ==================== CLIENTE SIMULADO ====================
+
+    /**
+     * Un solo mock hace de cliente y de cada paso de la consulta: guarda el
+     * texto y los parámetros, y al pedir las filas aplica el filtro que
+     * corresponde a la consulta.
+     */
+    private Neo4jClient clienteSimulado() {
+        Map<String, Object> parametros = new HashMap<>();
+        Object[] valorPendiente = new Object[1];
+        String[] consulta = new String[1];
+        Object[] simulado = new Object[1];
+        Answer<Object> respuesta = invocacion -> switch (invocacion.getMethod().getName()) {
+            case "query" -> {
+                consulta[0] = invocacion.getArgument(0);
+                parametros.clear();
+                yield simulado[0];
+            }
+            case "bind" -> {
+                valorPendiente[0] = invocacion.getArgument(0);
+                yield simulado[0];
+            }
+            case "to" -> {
+                parametros.put(invocacion.getArgument(0), valorPendiente[0]);
+                yield simulado[0];
+            }
+            case "fetch" -> simulado[0];
+            case "all" -> ejecutar(consulta[0], parametros);
+            default -> RETURNS_DEFAULTS.answer(invocacion);
+        };
+        simulado[0] = mock(Neo4jClient.class, withSettings()
+            .extraInterfaces(Neo4jClient.UnboundRunnableSpec.class, Neo4jClient.OngoingBindSpec.class,
+                Neo4jClient.RecordFetchSpec.class)
+            .defaultAnswer(respuesta));
+        return (Neo4jClient) simulado[0];
+    }
+
+    private List<Map<String, Object>> ejecutar(String consulta, Map<String, Object> parametros) {
+        Predicate<Fila> filtro;
+        if (consulta.contains("t.fecha IS NOT NULL")) {
+            filtro = f -> f.fecha() != null;
+        } else if (consulta.contains("t.fecha <= $fecha")) {
+            LocalDate fecha = (LocalDate) parametros.get("fecha");
+            String id = (String) parametros.get("id");
+            filtro = f -> f.fecha() != null
+                && (f.fecha().isBefore(fecha) || f.fecha().equals(fecha) && f.id().compareTo(id) < 0);
+        } else if (consulta.contains("t.fecha IS NULL AND elementId(t) < $id")) {
+            String id = (String) parametros.get("id");
+            filtro = f -> f.fecha() == null && f.id().compareTo(id) < 0;
+        } else if (consulta.contains("t.fecha IS NULL")) {
+            filtro = f -> f.fecha() == null;
+        } else {
+            throw new IllegalStateException("Consulta inesperada: " + consulta);
+        }
+        // ORDER BY t.fecha DESC, elementId(t) DESC: en Cypher los null van al final en orden descendente
+        Comparator<Fila> orden = Comparator.comparing(Fila::fecha, Comparator.nullsFirst(Comparator.<LocalDate>naturalOrder()))
+            .thenComparing(Fila::id)
+            .reversed();
+        int limite = (Integer) parametros.get("limite");
+        return filas.stream().filter(filtro).sorted(orden).limit(limite).map(f -> {
+            Map<String, Object> fila = new HashMap<>();
+            fila.put("id", f.id());
+            fila.put("fecha", f.fecha());
+            return fila;
+        }).toList();
+    }
+}
@@ -0,0 +1,51 @@
+package com.uade.transferencia_futbol.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Un cursor de {@link CursorCodec} devuelve exactamente las claves con las que
+ * se armó, y uno mal formado se rechaza con IllegalArgumentException.
+ */
+class CursorCodecTest {
+
+    @Test
+    void idaYVueltaConservaLasClaves() {
+        double[] valores = {0.0, -0.0, 1.5, -2_500_000.75, Double.MAX_VALUE, Double.MIN_VALUE, 123_456_789.0};
+        String[] nombres = {"Messi", "Ñandú Pérez", "", "con\nsalto de línea", "José/+=?&"};
+        for (double valor : valores) {
+            for (String nombre : nombres) {
+                String cursor = CursorCodec.codificar(Double.toString(valor), nombre);
+                // Base64 URL-safe sin relleno: se puede pasar tal cual en la query string
+                assertFalse(cursor.contains("+") || cursor.contains("/") || cursor.contains("="));
+
+                String[] partes = CursorCodec.decodificar(cursor, 2);
+                assertEquals(Double.doubleToLongBits(valor),
+                    Double.doubleToLongBits(CursorCodec.decodificarDouble(partes[0])));
+                assertEquals(nombre, partes[1]);
+            }
+        }
+
+        LocalDate fecha = LocalDate.of(2025, 7, 1);
+        String elementId = "5:0f3e1c2a-7b9d-4e6f-8a1b-2c3d4e5f6a7b:1024";
+        String cursor = CursorCodec.codificar(fecha.toString(), elementId, "x");
+        String[] partes = CursorCodec.decodificar(cursor, 3);
+        assertEquals(fecha, CursorCodec.decodificarFecha(partes[0]));
+        assertArrayEquals(new String[] {"2025-07-01", elementId, "x"}, partes);
+    }
+
+    @Test
+    void rechazaCursoresInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decodificar("no es base64!", 2));
+        assertThrows(IllegalArgumentException.class,
+            () -> CursorCodec.decodificar(CursorCodec.codificar("solo una parte"), 2));
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decodificarDouble("abc"));
+        assertThrows(IllegalArgumentException.class, () -> CursorCodec.decodificarFecha("2025-13-01"));
+    }
+}